@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.crypto;
+
+import com.exonum.binding.common.crypto.CryptoFunction;
+import com.exonum.binding.common.crypto.CryptoFunctions;
+import com.exonum.binding.common.crypto.KeyPair;
+import com.exonum.binding.common.crypto.PrivateKey;
+import com.exonum.binding.common.crypto.PublicKey;
+import com.exonum.binding.util.LibraryLoader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the per-operation latency of the Ed25519 crypto functions, implemented
+ * with JNA (lazysodium) and JNI (the native library of Exonum Java Binding).
+ *
+ * <p>The native library must be available in {@code java.library.path}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class CryptoFunctionBenchmark {
+
+  @Param({"jna", "jni"})
+  private String implementation;
+
+  @Param({"64", "1024", "16384"})
+  private int messageSize;
+
+  private CryptoFunction cryptoFunction;
+  private byte[] message;
+  private PrivateKey privateKey;
+  private PublicKey publicKey;
+  private byte[] signature;
+
+  @Setup
+  public void setUp() {
+    cryptoFunction = createCryptoFunction(implementation);
+    message = new byte[messageSize];
+    new Random(messageSize).nextBytes(message);
+    KeyPair keyPair = cryptoFunction.generateKeyPair();
+    privateKey = keyPair.getPrivateKey();
+    publicKey = keyPair.getPublicKey();
+    signature = cryptoFunction.signMessage(message, privateKey);
+  }
+
+  private static CryptoFunction createCryptoFunction(String implementation) {
+    switch (implementation) {
+      case "jna":
+        return CryptoFunctions.ed25519();
+      case "jni":
+        LibraryLoader.load();
+        return CryptoFunctions.nativeEd25519();
+      default:
+        throw new IllegalArgumentException("Unknown implementation: " + implementation);
+    }
+  }
+
+  @Benchmark
+  public byte[] sign() {
+    return cryptoFunction.signMessage(message, privateKey);
+  }
+
+  @Benchmark
+  public boolean verify() {
+    return cryptoFunction.verify(message, signature, publicKey);
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.benchmarks.crypto;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.HashFunction;
+import com.exonum.binding.common.hash.Hashing;
+import com.exonum.binding.util.LibraryLoader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the per-operation latency of the SHA-256 hash functions, implemented
+ * with {@link java.security.MessageDigest} and JNI (the native library
+ * of Exonum Java Binding).
+ *
+ * <p>The native library must be available in {@code java.library.path}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class HashFunctionBenchmark {
+
+  @Param({"java", "jni"})
+  private String implementation;
+
+  @Param({"32", "64", "1024", "16384"})
+  private int inputSize;
+
+  private HashFunction hashFunction;
+  private byte[] input;
+
+  @Setup
+  public void setUp() {
+    hashFunction = createHashFunction(implementation);
+    input = new byte[inputSize];
+    new Random(inputSize).nextBytes(input);
+  }
+
+  private static HashFunction createHashFunction(String implementation) {
+    switch (implementation) {
+      case "java":
+        return Hashing.sha256();
+      case "jni":
+        LibraryLoader.load();
+        return Hashing.nativeSha256();
+      default:
+        throw new IllegalArgumentException("Unknown implementation: " + implementation);
+    }
+  }
+
+  @Benchmark
+  public HashCode hashBytes() {
+    return hashFunction.hashBytes(input);
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.benchmarks.proofs;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.HashFunction;
+import com.exonum.binding.common.hash.Hashing;
+import com.exonum.binding.common.proofs.CheckedProof;
+import com.exonum.binding.common.proofs.Proofs;
+import com.exonum.binding.common.proofs.UncheckedProof;
+import com.exonum.binding.common.proofs.list.ListProofBranch;
+import com.exonum.binding.common.proofs.list.ListProofElement;
+import com.exonum.binding.common.proofs.list.ListProofHashNode;
+import com.exonum.binding.common.proofs.list.ListProofNode;
+import com.exonum.binding.common.proofs.list.UncheckedListProofAdapter;
+import com.exonum.binding.common.serialization.StandardSerializers;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the latency of checking a batch of list proofs of the same list:
+ * one by one on the benchmark thread, and with {@link Proofs#checkAll} using fork-join pools
+ * of various parallelism.
+ *
+ * <p>The batch includes a proof of each element of the list. Adjacent proofs share
+ * sub-trees, which hashes are computed for each proof.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class ProofsCheckAllBenchmark {
+
+  private static final HashFunction HASH_FUNCTION = Hashing.defaultHashFunction();
+
+  @Param({"6", "10"})
+  private int listHeight;
+
+  @Param({"1", "2", "4", "8"})
+  private int parallelism;
+
+  private List<UncheckedProof> proofs;
+
+  private ForkJoinPool pool;
+
+  @Setup
+  public void setUp() {
+    proofs = createElementProofs(listHeight);
+    pool = new ForkJoinPool(parallelism);
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public List<CheckedProof> checkSequentially() {
+    List<CheckedProof> checkedProofs = new ArrayList<>(proofs.size());
+    for (UncheckedProof proof : proofs) {
+      checkedProofs.add(proof.check());
+    }
+    return checkedProofs;
+  }
+
+  @Benchmark
+  public List<CheckedProof> checkAll() {
+    return Proofs.checkAll(proofs, pool);
+  }
+
+  /**
+   * Creates the proofs of each element of a list of the given height.
+   */
+  private static List<UncheckedProof> createElementProofs(int height) {
+    int size = 1 << height;
+    Random random = new Random(height);
+    ByteString[] elements = new ByteString[size];
+    // The hashes of the nodes of each level of the Merkle tree, from the leaves to the root
+    HashCode[][] levels = new HashCode[height + 1][];
+    levels[0] = new HashCode[size];
+    for (int i = 0; i < size; i++) {
+      byte[] element = new byte[64];
+      random.nextBytes(element);
+      elements[i] = ByteString.copyFrom(element);
+      levels[0][i] = HASH_FUNCTION.hashByteString(elements[i]);
+    }
+    for (int level = 1; level <= height; level++) {
+      HashCode[] children = levels[level - 1];
+      levels[level] = new HashCode[children.length / 2];
+      for (int i = 0; i < levels[level].length; i++) {
+        levels[level][i] = HASH_FUNCTION.newHasher()
+            .putBytes(children[2 * i].asBytes())
+            .putBytes(children[2 * i + 1].asBytes())
+            .hash();
+      }
+    }
+
+    List<UncheckedProof> proofs = new ArrayList<>(size);
+    for (int index = 0; index < size; index++) {
+      ListProofNode node = new ListProofElement(elements[index]);
+      int nodeIndex = index;
+      for (int level = 0; level < height; level++) {
+        ListProofNode sibling = new ListProofHashNode(levels[level][nodeIndex ^ 1]);
+        node = (nodeIndex % 2 == 0) ? new ListProofBranch(node, sibling)
+            : new ListProofBranch(sibling, node);
+        nodeIndex /= 2;
+      }
+      proofs.add(new UncheckedListProofAdapter<>(node, StandardSerializers.bytes()));
+    }
+    return proofs;
+  }
+}
@@ -19,15 +19,23 @@ package com.exonum.binding.common.crypto;
 import static com.exonum.binding.common.crypto.CryptoUtils.byteArrayToHex;
 import static com.google.common.base.Preconditions.checkArgument;
 
+import com.exonum.binding.common.hash.PrimitiveSink;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
  * Represent either a private or public key in a digital signature system.
+ *
+ * <p>Keys are often used as keys in hash maps (and storage maps), therefore, they cache
+ * their hash code, and can be written to a buffer or a hash sink without copying.
  */
 public abstract class AbstractKey {
 
   private final byte[] rawKey;
 
+  /** The cached hash code of this key; zero if not yet computed. */
+  private int hash;
+
   AbstractKey(byte[] rawKey) {
     checkArgument(rawKey.length > 0, "Key must not be empty");
     this.rawKey = rawKey;
@@ -41,12 +49,37 @@ public abstract class AbstractKey {
   }
 
   /**
-   * Returns a mutable view of the underlying bytes for the given key.
+   * Returns the underlying bytes of this key, without copying them.
+   *
+   * <p>The returned array <strong>must not</strong> be modified. This method is intended
+   * for the code in this package that only reads the key bytes, e.g., the crypto functions.
+   * Other code shall use {@link #toBytes()}, or write the key with {@code writeBytesTo}.
    */
   byte[] toBytesNoCopy() {
     return rawKey;
   }
 
+  /**
+   * Puts the bytes of this key into the buffer at its current position, and advances
+   * the position by the size of this key.
+   *
+   * @param dest the buffer into which the key will be written
+   * @throws java.nio.BufferOverflowException if there is not enough room in the buffer
+   * @throws java.nio.ReadOnlyBufferException if the buffer is read-only
+   */
+  public void writeBytesTo(ByteBuffer dest) {
+    dest.put(rawKey);
+  }
+
+  /**
+   * Puts the bytes of this key into the sink.
+   *
+   * @param sink the sink into which the key will be written
+   */
+  public void writeBytesTo(PrimitiveSink sink) {
+    sink.putBytes(rawKey);
+  }
+
   /**
    * Returns the length of this key in bytes.
    */
@@ -64,6 +97,10 @@ public abstract class AbstractKey {
     }
     if (this.getClass() == o.getClass()) {
       AbstractKey that = (AbstractKey) o;
+      // Keys with different hash codes, if both are computed, are not equal
+      if (hash != 0 && that.hash != 0 && hash != that.hash) {
+        return false;
+      }
       return Arrays.equals(rawKey, that.rawKey);
     }
     return false;
@@ -71,6 +108,16 @@ public abstract class AbstractKey {
 
   @Override
   public final int hashCode() {
+    // A racy single-check is fine, as the hash code of the immutable key bytes is idempotent
+    int h = hash;
+    if (h == 0) {
+      h = calculateHashCode();
+      hash = h;
+    }
+    return h;
+  }
+
+  private int calculateHashCode() {
     return Arrays.hashCode(rawKey);
   }
 
@@ -32,6 +32,27 @@ public final class CryptoFunctions {
     return Ed25519CryptoFunction.INSTANCE;
   }
 
+  /**
+   * Returns a ED25519 public-key signature system crypto function, implemented
+   * in the native library of Exonum Java Binding, if the library is loaded
+   * (e.g., in the services running on an Exonum node). Otherwise, returns
+   * the {@linkplain #ed25519() default} ED25519 crypto function.
+   *
+   * <p>The implementation is selected on the first call of this method.
+   *
+   * @see NativeEd25519CryptoFunction
+   */
+  public static CryptoFunction nativeEd25519() {
+    return NativeEd25519Holder.INSTANCE;
+  }
+
+  private static class NativeEd25519Holder {
+
+    static final CryptoFunction INSTANCE = NativeEd25519CryptoFunction.isAvailable()
+        ? NativeEd25519CryptoFunction.INSTANCE
+        : Ed25519CryptoFunction.INSTANCE;
+  }
+
   public static class Ed25519 {
     public static final int SEED_BYTES = Sign.ED25519_SEEDBYTES;
     public static final int SIGNATURE_BYTES = Sign.ED25519_BYTES;
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.crypto;
+
+import static com.exonum.binding.common.crypto.CryptoFunctions.Ed25519.PRIVATE_KEY_BYTES;
+import static com.exonum.binding.common.crypto.CryptoFunctions.Ed25519.PUBLIC_KEY_BYTES;
+import static com.exonum.binding.common.crypto.CryptoFunctions.Ed25519.SEED_BYTES;
+import static com.exonum.binding.common.crypto.CryptoFunctions.Ed25519.SIGNATURE_BYTES;
+import static com.exonum.binding.common.crypto.CryptoUtils.hasLength;
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A ED25519 public-key signature system crypto function, implemented in the native
+ * Exonum library ('java_bindings').
+ *
+ * <p>Unlike {@link Ed25519CryptoFunction}, it does not use JNA, but passes the data
+ * to the native code in direct buffers that are re-used by each thread.
+ * The produced keys and signatures are the same as of {@link Ed25519CryptoFunction}.
+ *
+ * <p>The seed and the private key are erased from the direct buffers after each operation.
+ * Messages larger than {@value #MAX_POOLED_MESSAGE_BUFFER_SIZE} bytes are passed
+ * in one-off buffers, so that a single large message does not pin that much direct memory
+ * for the lifetime of the thread.
+ *
+ * <p>This crypto function can only be used when the native library is loaded
+ * (e.g., in a service running on an Exonum node), otherwise its methods throw
+ * {@link UnsatisfiedLinkError}. {@link CryptoFunctions#nativeEd25519()} falls back
+ * to {@link Ed25519CryptoFunction} when the library is not loaded.
+ */
+public enum NativeEd25519CryptoFunction implements CryptoFunction {
+
+  INSTANCE;
+
+  private static final int INITIAL_MESSAGE_BUFFER_SIZE = 1024;
+  private static final int MAX_POOLED_MESSAGE_BUFFER_SIZE = 64 * 1024;
+
+  private static final byte[] ZEROS = new byte[Math.max(SEED_BYTES, PRIVATE_KEY_BYTES)];
+
+  private static final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+  @Override
+  public KeyPair generateKeyPair(byte[] seed) {
+    checkArgument(hasLength(seed, SEED_BYTES),
+        "Seed byte array has invalid size (%s), must be %s", seed.length, SEED_BYTES);
+
+    Buffers b = buffers.get();
+    try {
+      b.seed.clear();
+      b.seed.put(seed);
+      nativeGenerateKeyPair(b.seed, b.publicKey, b.privateKey);
+      return b.toKeyPair();
+    } finally {
+      erase(b.seed);
+      erase(b.privateKey);
+    }
+  }
+
+  @Override
+  public KeyPair generateKeyPair() {
+    Buffers b = buffers.get();
+    try {
+      nativeGenerateKeyPair(null, b.publicKey, b.privateKey);
+      return b.toKeyPair();
+    } finally {
+      erase(b.privateKey);
+    }
+  }
+
+  @Override
+  public byte[] signMessage(byte[] message, PrivateKey privateKey) {
+    checkArgument(hasLength(privateKey.toBytesNoCopy(), PRIVATE_KEY_BYTES));
+    Buffers b = buffers.get();
+    ByteBuffer messageBuffer = b.putMessage(message);
+    try {
+      b.privateKey.clear();
+      b.privateKey.put(privateKey.toBytesNoCopy());
+      nativeSign(messageBuffer, message.length, b.privateKey, b.signature);
+    } finally {
+      erase(b.privateKey);
+    }
+
+    byte[] signature = new byte[SIGNATURE_BYTES];
+    b.signature.clear();
+    b.signature.get(signature);
+    return signature;
+  }
+
+  @Override
+  public boolean verify(byte[] message, byte[] signature, PublicKey publicKey) {
+    checkArgument(hasLength(publicKey.toBytesNoCopy(), PUBLIC_KEY_BYTES),
+        "Public key has invalid size (%s), must be %s", publicKey.size(), PUBLIC_KEY_BYTES);
+    if (!hasLength(signature, SIGNATURE_BYTES)) {
+      return false;
+    }
+    Buffers b = buffers.get();
+    b.signature.clear();
+    b.signature.put(signature);
+    b.publicKey.clear();
+    b.publicKey.put(publicKey.toBytesNoCopy());
+    ByteBuffer messageBuffer = b.putMessage(message);
+    return nativeVerify(messageBuffer, message.length, b.signature, b.publicKey);
+  }
+
+  /**
+   * Returns true if the native library is loaded, so that this crypto function can be used.
+   */
+  static boolean isAvailable() {
+    try {
+      INSTANCE.generateKeyPair(new byte[SEED_BYTES]);
+      return true;
+    } catch (UnsatisfiedLinkError e) {
+      return false;
+    }
+  }
+
+  /**
+   * Overwrites the whole buffer with zeros.
+   */
+  private static void erase(ByteBuffer buffer) {
+    buffer.clear();
+    buffer.put(ZEROS, 0, buffer.capacity());
+    buffer.clear();
+  }
+
+  /**
+   * Direct buffers of a single thread, passed to the native code.
+   */
+  private static final class Buffers {
+    final ByteBuffer seed = ByteBuffer.allocateDirect(SEED_BYTES);
+    final ByteBuffer publicKey = ByteBuffer.allocateDirect(PUBLIC_KEY_BYTES);
+    final ByteBuffer privateKey = ByteBuffer.allocateDirect(PRIVATE_KEY_BYTES);
+    final ByteBuffer signature = ByteBuffer.allocateDirect(SIGNATURE_BYTES);
+    ByteBuffer message = ByteBuffer.allocateDirect(INITIAL_MESSAGE_BUFFER_SIZE);
+
+    /**
+     * Copies the message in the message buffer, growing it up to
+     * {@link #MAX_POOLED_MESSAGE_BUFFER_SIZE} if needed. Larger messages are copied
+     * in a new buffer that is not retained.
+     */
+    ByteBuffer putMessage(byte[] message) {
+      if (message.length > MAX_POOLED_MESSAGE_BUFFER_SIZE) {
+        ByteBuffer oneOff = ByteBuffer.allocateDirect(message.length);
+        oneOff.put(message);
+        return oneOff;
+      }
+      if (this.message.capacity() < message.length) {
+        this.message = ByteBuffer.allocateDirect(Math.min(MAX_POOLED_MESSAGE_BUFFER_SIZE,
+            Math.max(message.length, 2 * this.message.capacity())));
+      }
+      this.message.clear();
+      this.message.put(message);
+      return this.message;
+    }
+
+    KeyPair toKeyPair() {
+      byte[] publicKey = new byte[PUBLIC_KEY_BYTES];
+      this.publicKey.clear();
+      this.publicKey.get(publicKey);
+
+      byte[] privateKey = new byte[PRIVATE_KEY_BYTES];
+      this.privateKey.clear();
+      this.privateKey.get(privateKey);
+      return KeyPair.createKeyPairNoCopy(privateKey, publicKey);
+    }
+  }
+
+  private static native void nativeGenerateKeyPair(ByteBuffer seed, ByteBuffer publicKey,
+      ByteBuffer privateKey);
+
+  private static native void nativeSign(ByteBuffer message, int messageSize,
+      ByteBuffer privateKey, ByteBuffer signature);
+
+  private static native boolean nativeVerify(ByteBuffer message, int messageSize,
+      ByteBuffer signature, ByteBuffer publicKey);
+}
@@ -48,8 +48,19 @@ import java.nio.ByteOrder;
  */
 @CanIgnoreReturnValue
 abstract class AbstractByteHasher extends AbstractHasher {
+  /**
+   * The maximum size of a chunk in which the contents of a buffer without an accessible
+   * backing array are passed to {@link #update(byte[], int, int)}.
+   */
+  private static final int MAX_CHUNK_SIZE = 512;
+
   private final ByteBuffer scratch = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
 
+  /**
+   * A chunk for the bytes of direct (or read-only) buffers, allocated on first use.
+   */
+  private byte[] chunk;
+
   /**
    * Updates this hasher with the given byte.
    */
@@ -71,14 +82,23 @@ abstract class AbstractByteHasher extends AbstractHasher {
     }
   }
 
-  /** Updates this hasher with bytes from the given buffer. */
+  /**
+   * Updates this hasher with bytes from the given buffer. The bytes of a buffer without
+   * an accessible backing array (e.g., a direct buffer) are passed to
+   * {@link #update(byte[], int, int)} in chunks of bounded size.
+   */
   protected void update(ByteBuffer b) {
     if (b.hasArray()) {
       update(b.array(), b.arrayOffset() + b.position(), b.remaining());
       b.position(b.limit());
     } else {
-      for (int remaining = b.remaining(); remaining > 0; remaining--) {
-        update(b.get());
+      if (chunk == null) {
+        chunk = new byte[MAX_CHUNK_SIZE];
+      }
+      while (b.hasRemaining()) {
+        int chunkSize = Math.min(b.remaining(), chunk.length);
+        b.get(chunk, 0, chunkSize);
+        update(chunk, 0, chunkSize);
       }
     }
   }
@@ -85,8 +85,20 @@ abstract class AbstractNonStreamingHashFunction extends AbstractHashFunction {
   @Override
   public abstract HashCode hashBytes(byte[] input, int off, int len);
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The contents of a buffer backed by an accessible array are hashed in place;
+   * the contents of other buffers are copied into an array.
+   */
   @Override
   public HashCode hashBytes(ByteBuffer input) {
+    if (input.hasArray()) {
+      int len = input.remaining();
+      HashCode hash = hashBytes(input.array(), input.arrayOffset() + input.position(), len);
+      input.position(input.limit());
+      return hash;
+    }
     return newHasher(input.remaining()).putBytes(input).hash();
   }
 
@@ -131,9 +131,10 @@ abstract class AbstractStreamingHasher extends AbstractHasher {
 
     // First add just enough to fill buffer size, and munch that
     int bytesToCopy = bufferSize - buffer.position();
-    for (int i = 0; i < bytesToCopy; i++) {
-      buffer.put(readBuffer.get());
-    }
+    int limit = readBuffer.limit();
+    readBuffer.limit(readBuffer.position() + bytesToCopy);
+    buffer.put(readBuffer);
+    readBuffer.limit(limit);
     munch(); // buffer becomes empty here, since chunkSize divides bufferSize
 
     // Now process directly from the rest of the input buffer
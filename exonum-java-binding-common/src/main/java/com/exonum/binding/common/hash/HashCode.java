@@ -37,11 +37,18 @@ import com.google.common.base.Preconditions;
 import com.google.common.primitives.Ints;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import javax.annotation.Nullable;
 
 /**
  * An immutable hash code of arbitrary bit length.
  *
+ * <p>256-bit hash codes (e.g., SHA-256 hashes) are stored in four {@code long} fields
+ * instead of a byte array, which takes less memory, and makes {@link #equals(Object)}
+ * and {@link #hashCode()} constant-time.
+ *
  * @author Dimitris Andreou
  * @author Kurt Alfred Kluever
  * @since 11.0
@@ -105,6 +112,25 @@ public abstract class HashCode {
 
   abstract void writeBytesToImpl(byte[] dest, int offset, int maxLength);
 
+  /**
+   * Puts the bytes of this hash code into the buffer at its current position,
+   * and advances the position by the size of this hash code.
+   *
+   * @param dest the buffer into which the hash code will be written
+   * @throws BufferOverflowException if there is not enough room in the buffer
+   * @throws java.nio.ReadOnlyBufferException if the buffer is read-only
+   */
+  public void writeBytesTo(ByteBuffer dest) {
+    dest.put(getBytesInternal());
+  }
+
+  /**
+   * Puts the bytes of this hash code into the sink.
+   */
+  void putBytesTo(PrimitiveSink sink) {
+    sink.putBytes(getBytesInternal());
+  }
+
   /**
    * Returns a mutable view of the underlying bytes for the given {@code HashCode} if it is a
    * byte-based hashcode. Otherwise it returns {@link HashCode#asBytes}. Do <i>not</i> mutate this
@@ -256,6 +282,10 @@ public abstract class HashCode {
    */
   public static HashCode fromBytes(byte[] bytes) {
     checkArgument(bytes.length >= 1, "A HashCode must contain at least 1 byte.");
+    if (bytes.length == Bits256HashCode.BYTES) {
+      // Does not retain the array
+      return new Bits256HashCode(bytes);
+    }
     return fromBytesNoCopy(bytes.clone());
   }
 
@@ -264,6 +294,9 @@ public abstract class HashCode {
    * must be handed-off so as to preserve the immutability contract of {@code HashCode}.
    */
   static HashCode fromBytesNoCopy(byte[] bytes) {
+    if (bytes.length == Bits256HashCode.BYTES) {
+      return new Bits256HashCode(bytes);
+    }
     return new BytesHashCode(bytes);
   }
 
@@ -328,13 +361,14 @@ public abstract class HashCode {
     boolean equalsSameBits(HashCode that) {
       // We don't use MessageDigest.isEqual() here because its contract does not guarantee
       // constant-time evaluation (no short-circuiting).
-      if (this.bytes.length != that.getBytesInternal().length) {
+      byte[] thatBytes = that.getBytesInternal();
+      if (this.bytes.length != thatBytes.length) {
         return false;
       }
 
       boolean areEqual = true;
       for (int i = 0; i < this.bytes.length; i++) {
-        areEqual &= (this.bytes[i] == that.getBytesInternal()[i]);
+        areEqual &= (this.bytes[i] == thatBytes[i]);
       }
       return areEqual;
     }
@@ -342,6 +376,171 @@ public abstract class HashCode {
     private static final long serialVersionUID = 0;
   }
 
+  /**
+   * A 256-bit hash code, stored as four 64-bit words. The bytes of the hash code are
+   * the little-endian representations of the words, i.e., the first byte is the least
+   * significant byte of the first word.
+   */
+  private static final class Bits256HashCode extends HashCode implements Serializable {
+    static final int BYTES = 32;
+    static final int BITS = BYTES * Byte.SIZE;
+
+    final long w0;
+    final long w1;
+    final long w2;
+    final long w3;
+
+    Bits256HashCode(byte[] bytes) {
+      this(readLong(bytes, 0), readLong(bytes, 8), readLong(bytes, 16), readLong(bytes, 24));
+    }
+
+    Bits256HashCode(long w0, long w1, long w2, long w3) {
+      this.w0 = w0;
+      this.w1 = w1;
+      this.w2 = w2;
+      this.w3 = w3;
+    }
+
+    /**
+     * Decodes a hash code from a hexadecimal string of 64 characters, without intermediate
+     * arrays.
+     */
+    static Bits256HashCode fromHexString(String string) {
+      return new Bits256HashCode(readHexLong(string, 0), readHexLong(string, 16),
+          readHexLong(string, 32), readHexLong(string, 48));
+    }
+
+    @Override
+    public int bits() {
+      return BITS;
+    }
+
+    @Override
+    public int asInt() {
+      return (int) w0;
+    }
+
+    @Override
+    public long asLong() {
+      return w0;
+    }
+
+    @Override
+    public long padToLong() {
+      return w0;
+    }
+
+    @Override
+    public byte[] asBytes() {
+      byte[] bytes = new byte[BYTES];
+      writeBytesToImpl(bytes, 0, BYTES);
+      return bytes;
+    }
+
+    @Override
+    void writeBytesToImpl(byte[] dest, int offset, int maxLength) {
+      for (int i = 0; i < maxLength; i++) {
+        dest[offset + i] = (byte) (word(i / Long.BYTES) >>> ((i % Long.BYTES) * Byte.SIZE));
+      }
+    }
+
+    @Override
+    public void writeBytesTo(ByteBuffer dest) {
+      if (dest.remaining() < BYTES) {
+        throw new BufferOverflowException();
+      }
+      ByteOrder order = dest.order();
+      dest.order(ByteOrder.LITTLE_ENDIAN)
+          .putLong(w0)
+          .putLong(w1)
+          .putLong(w2)
+          .putLong(w3)
+          .order(order);
+    }
+
+    @Override
+    void putBytesTo(PrimitiveSink sink) {
+      if (sink instanceof Hasher) {
+        // Hashers put the primitives in little-endian order, i.e., as the words are stored
+        sink.putLong(w0)
+            .putLong(w1)
+            .putLong(w2)
+            .putLong(w3);
+      } else {
+        super.putBytesTo(sink);
+      }
+    }
+
+    @Override
+    boolean equalsSameBits(HashCode that) {
+      if (that instanceof Bits256HashCode) {
+        Bits256HashCode other = (Bits256HashCode) that;
+        // Compare all the words, without short-circuiting
+        return ((w0 ^ other.w0) | (w1 ^ other.w1) | (w2 ^ other.w2) | (w3 ^ other.w3)) == 0;
+      }
+      byte[] thatBytes = that.getBytesInternal();
+      boolean areEqual = true;
+      for (int i = 0; i < BYTES; i++) {
+        areEqual &= ((byte) (word(i / Long.BYTES) >>> ((i % Long.BYTES) * Byte.SIZE))
+            == thatBytes[i]);
+      }
+      return areEqual;
+    }
+
+    @Override
+    String toHexString() {
+      char[] hex = new char[2 * BYTES];
+      writeHexLong(w0, hex, 0);
+      writeHexLong(w1, hex, 16);
+      writeHexLong(w2, hex, 32);
+      writeHexLong(w3, hex, 48);
+      return new String(hex);
+    }
+
+    private long word(int index) {
+      switch (index) {
+        case 0:
+          return w0;
+        case 1:
+          return w1;
+        case 2:
+          return w2;
+        case 3:
+          return w3;
+        default:
+          throw new AssertionError("Invalid word index: " + index);
+      }
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+      long word = 0;
+      for (int i = Long.BYTES - 1; i >= 0; i--) {
+        word = (word << Byte.SIZE) | (bytes[offset + i] & 0xFF);
+      }
+      return word;
+    }
+
+    private static long readHexLong(String string, int offset) {
+      long word = 0;
+      for (int i = Long.BYTES - 1; i >= 0; i--) {
+        int position = offset + 2 * i;
+        int b = (decode(string.charAt(position)) << 4) | decode(string.charAt(position + 1));
+        word = (word << Byte.SIZE) | b;
+      }
+      return word;
+    }
+
+    private static void writeHexLong(long word, char[] dest, int offset) {
+      for (int i = 0; i < Long.BYTES; i++) {
+        int b = (int) (word >>> (i * Byte.SIZE));
+        dest[offset + 2 * i] = hexDigits[(b >> 4) & 0xf];
+        dest[offset + 2 * i + 1] = hexDigits[b & 0xf];
+      }
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
   /**
    * Creates a {@code HashCode} from a hexadecimal ({@code base 16}) encoded string. The string must
    * be at least 2 characters long, and contain only valid, lower-cased hexadecimal characters.
@@ -360,6 +559,10 @@ public abstract class HashCode {
         "input string (%s) must have an even number of characters",
         string);
 
+    if (string.length() == 2 * Bits256HashCode.BYTES) {
+      return Bits256HashCode.fromHexString(string);
+    }
+
     byte[] bytes = new byte[string.length() / 2];
     for (int i = 0; i < string.length(); i += 2) {
       int ch1 = decode(string.charAt(i)) << 4;
@@ -429,6 +632,13 @@ public abstract class HashCode {
    */
   @Override
   public final String toString() {
+    return toHexString();
+  }
+
+  /**
+   * Returns a lowercase hexadecimal representation of this hash code.
+   */
+  String toHexString() {
     byte[] bytes = getBytesInternal();
     StringBuilder sb = new StringBuilder(2 * bytes.length);
     for (byte b : bytes) {
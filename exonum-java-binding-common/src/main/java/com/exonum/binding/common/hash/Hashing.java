@@ -57,6 +57,28 @@ public final class Hashing {
     return Sha256Holder.SHA_256;
   }
 
+  /**
+   * Returns a hash function implementing the SHA-256 algorithm (256 hash bits)
+   * in the native library of Exonum Java Binding, if the library is loaded
+   * (e.g., in the services running on an Exonum node). Otherwise, returns
+   * {@linkplain #sha256() the Java implementation}.
+   *
+   * <p>The implementation is selected on the first call of this method: if the native library
+   * is not loaded at that time, the Java implementation is used even if the library is loaded
+   * later. The native implementation passes the input to the native code in a direct buffer,
+   * therefore, it is most efficient for direct {@link java.nio.ByteBuffer}s.
+   */
+  public static HashFunction nativeSha256() {
+    return NativeSha256Holder.NATIVE_SHA_256;
+  }
+
+  private static class NativeSha256Holder {
+
+    static final HashFunction NATIVE_SHA_256 = NativeSha256HashFunction.isAvailable()
+        ? new NativeSha256HashFunction()
+        : sha256();
+  }
+
   /**
    * Returns the default Exonum hash function: SHA-256.
    *
@@ -66,9 +88,18 @@ public final class Hashing {
     return sha256();
   }
 
+  /**
+   * Returns a new resettable hasher of the default Exonum hash function: SHA-256.
+   * Unlike the hashers returned by {@code defaultHashFunction().newHasher()},
+   * it may be re-used to compute several hash codes.
+   */
+  public static ResettableHasher newResettableHasher() {
+    return Sha256Holder.SHA_256.newHasher();
+  }
+
   private static class Sha256Holder {
 
-    static final HashFunction SHA_256 =
+    static final MessageDigestHashFunction SHA_256 =
         new MessageDigestHashFunction("SHA-256", "Hashing.sha256()");
   }
   /**
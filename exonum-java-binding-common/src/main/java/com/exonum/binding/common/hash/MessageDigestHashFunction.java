@@ -31,10 +31,13 @@ package com.exonum.binding.common.hash;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
 import static com.google.common.base.Preconditions.checkState;
 
+import com.google.protobuf.ByteString;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
@@ -42,6 +45,11 @@ import java.util.Arrays;
 /**
  * {@link com.exonum.binding.common.hash.HashFunction} adapter for {@link MessageDigest} instances.
  *
+ * <p>The one-shot hashing methods ({@code hashBytes}, {@code hashByteString}) use a digest
+ * re-used by each thread instead of allocating a new one. Buffers are passed to the digest
+ * as is: direct buffers are not copied into an array of their size, but are read by the digest
+ * in chunks of bounded size.
+ *
  * @author Kevin Bourrillion
  * @author Dimitris Andreou
  */
@@ -50,6 +58,8 @@ final class MessageDigestHashFunction extends AbstractHashFunction implements Se
   private final int bytes;
   private final boolean supportsClone;
   private final String toString;
+  private final transient ThreadLocal<MessageDigest> pooledDigests =
+      ThreadLocal.withInitial(this::newDigest);
 
   MessageDigestHashFunction(String algorithmName, String toString) {
     this.prototype = getMessageDigest(algorithmName);
@@ -96,15 +106,59 @@ final class MessageDigestHashFunction extends AbstractHashFunction implements Se
   }
 
   @Override
-  public Hasher newHasher() {
+  public ResettableHasher newHasher() {
+    return new MessageDigestHasher(newDigest(), bytes);
+  }
+
+  @Override
+  public HashCode hashBytes(byte[] input, int off, int len) {
+    checkPositionIndexes(off, off + len, input.length);
+    MessageDigest digest = getPooledDigest();
+    digest.update(input, off, len);
+    return toHashCode(digest.digest());
+  }
+
+  @Override
+  public HashCode hashBytes(ByteBuffer input) {
+    MessageDigest digest = getPooledDigest();
+    digest.update(input);
+    return toHashCode(digest.digest());
+  }
+
+  @Override
+  public HashCode hashByteString(ByteString input) {
+    MessageDigest digest = getPooledDigest();
+    for (ByteBuffer chunk : input.asReadOnlyByteBufferList()) {
+      digest.update(chunk);
+    }
+    return toHashCode(digest.digest());
+  }
+
+  /**
+   * Returns the digest of the current thread, reset to its initial state.
+   */
+  private MessageDigest getPooledDigest() {
+    MessageDigest digest = pooledDigests.get();
+    // Reset in case the previous use did not complete
+    digest.reset();
+    return digest;
+  }
+
+  private HashCode toHashCode(byte[] digest) {
+    return (bytes == digest.length)
+        ? HashCode.fromBytesNoCopy(digest)
+        : HashCode.fromBytesNoCopy(Arrays.copyOf(digest, bytes));
+  }
+
+  private MessageDigest newDigest() {
     if (supportsClone) {
       try {
-        return new MessageDigestHasher((MessageDigest) prototype.clone(), bytes);
+        return (MessageDigest) prototype.clone();
       } catch (CloneNotSupportedException e) {
         // falls through
       }
     }
-    return new MessageDigestHasher(getMessageDigest(prototype.getAlgorithm()), bytes);
+    return getMessageDigest(prototype.getAlgorithm());
   }
 
   private static final class SerializedForm implements Serializable {
@@ -132,7 +186,8 @@ final class MessageDigestHashFunction extends AbstractHashFunction implements Se
   /**
    * Hasher that updates a message digest.
    */
-  private static final class MessageDigestHasher extends AbstractByteHasher {
+  private static final class MessageDigestHasher extends AbstractByteHasher
+      implements ResettableHasher {
     private final MessageDigest digest;
     private final int bytes;
     private boolean done;
@@ -172,5 +227,28 @@ final class MessageDigestHashFunction extends AbstractHashFunction implements Se
           ? HashCode.fromBytesNoCopy(digest.digest())
           : HashCode.fromBytesNoCopy(Arrays.copyOf(digest.digest(), bytes));
     }
+
+    @Override
+    public ResettableHasher reset() {
+      digest.reset();
+      done = false;
+      return this;
+    }
+
+    @Override
+    public int hashInto(byte[] out, int off) {
+      checkNotDone();
+      checkPositionIndexes(off, off + bytes, out.length);
+      if (bytes == digest.getDigestLength()) {
+        try {
+          digest.digest(out, off, bytes);
+        } catch (DigestException e) {
+          throw new AssertionError("The digest does not fit the checked range", e);
+        }
+      } else {
+        System.arraycopy(digest.digest(), 0, out, off, bytes);
+      }
+      return bytes;
+    }
   }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.hash;
+
+import static com.exonum.binding.common.hash.Hashing.DEFAULT_HASH_SIZE_BITS;
+import static com.exonum.binding.common.hash.Hashing.DEFAULT_HASH_SIZE_BYTES;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+import java.nio.ByteBuffer;
+
+/**
+ * SHA-256 hash function, implemented in the native Exonum library ('java_bindings').
+ *
+ * <p>The input is passed to the native code in a direct buffer: direct input buffers are hashed
+ * in place, other inputs are copied to a direct buffer re-used by each thread.
+ * Inputs larger than {@value #MAX_POOLED_INPUT_BUFFER_SIZE} bytes are copied
+ * to one-off buffers, so that a single large input does not pin that much direct memory
+ * for the lifetime of the thread.
+ *
+ * <p>This hash function can only be used when the native library is loaded,
+ * otherwise its methods throw {@link UnsatisfiedLinkError}. {@link Hashing#nativeSha256()}
+ * falls back to the Java SHA-256 implementation when the library is not loaded.
+ */
+final class NativeSha256HashFunction extends AbstractNonStreamingHashFunction {
+
+  private static final int INITIAL_INPUT_BUFFER_SIZE = 1024;
+  private static final int MAX_POOLED_INPUT_BUFFER_SIZE = 64 * 1024;
+
+  private static final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+  @Override
+  public HashCode hashBytes(byte[] input, int off, int len) {
+    checkPositionIndexes(off, off + len, input.length);
+    Buffers b = buffers.get();
+    ByteBuffer inputBuffer = b.putInput(input, off, len);
+    nativeHash(inputBuffer, 0, len, b.hash);
+    return b.toHashCode();
+  }
+
+  @Override
+  public HashCode hashBytes(ByteBuffer input) {
+    if (!input.isDirect()) {
+      return super.hashBytes(input);
+    }
+    Buffers b = buffers.get();
+    nativeHash(input, input.position(), input.remaining(), b.hash);
+    input.position(input.limit());
+    return b.toHashCode();
+  }
+
+  @Override
+  public int bits() {
+    return DEFAULT_HASH_SIZE_BITS;
+  }
+
+  @Override
+  public String toString() {
+    return "Hashing.nativeSha256()";
+  }
+
+  /**
+   * Returns true if the native library is loaded, so that this hash function can be used.
+   */
+  static boolean isAvailable() {
+    try {
+      new NativeSha256HashFunction().hashBytes(new byte[0]);
+      return true;
+    } catch (UnsatisfiedLinkError e) {
+      return false;
+    }
+  }
+
+  /**
+   * Direct buffers of a single thread, passed to the native code.
+   */
+  private static final class Buffers {
+    final ByteBuffer hash = ByteBuffer.allocateDirect(DEFAULT_HASH_SIZE_BYTES);
+    ByteBuffer input = ByteBuffer.allocateDirect(INITIAL_INPUT_BUFFER_SIZE);
+
+    /**
+     * Copies the input in the input buffer, growing it up to
+     * {@link #MAX_POOLED_INPUT_BUFFER_SIZE} if needed. Larger inputs are copied
+     * in a new buffer that is not retained.
+     */
+    ByteBuffer putInput(byte[] bytes, int off, int len) {
+      if (len > MAX_POOLED_INPUT_BUFFER_SIZE) {
+        ByteBuffer oneOff = ByteBuffer.allocateDirect(len);
+        oneOff.put(bytes, off, len);
+        return oneOff;
+      }
+      if (input.capacity() < len) {
+        input = ByteBuffer.allocateDirect(Math.min(MAX_POOLED_INPUT_BUFFER_SIZE,
+            Math.max(len, 2 * input.capacity())));
+      }
+      input.clear();
+      input.put(bytes, off, len);
+      return input;
+    }
+
+    HashCode toHashCode() {
+      byte[] hashBytes = new byte[DEFAULT_HASH_SIZE_BYTES];
+      hash.clear();
+      hash.get(hashBytes);
+      return HashCode.fromBytesNoCopy(hashBytes);
+    }
+  }
+
+  private static native void nativeHash(ByteBuffer input, int offset, int length,
+      ByteBuffer hash);
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.hash;
+
+import com.google.common.annotations.Beta;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
+/**
+ * A {@link Hasher} that may be re-used to compute several hash codes, so that the hash
+ * engine is not allocated for each of them.
+ *
+ * <p>A hasher computing a hash code with {@link #hash()} must be {@linkplain #reset() reset}
+ * before the next one; {@link #hashInto(byte[], int)} resets it automatically.
+ *
+ * <p>Like other hashers, resettable hashers are not thread-safe.
+ *
+ * @see Hashing#newResettableHasher()
+ */
+@Beta
+@CanIgnoreReturnValue
+public interface ResettableHasher extends Hasher {
+
+  /**
+   * Discards the data provided to this hasher, so that it can compute a new hash code.
+   *
+   * @return this hasher
+   */
+  ResettableHasher reset();
+
+  /**
+   * Computes a hash code based on the data that have been provided to this hasher,
+   * writes it into the given array, and resets this hasher.
+   *
+   * @param out the array to write the hash code into
+   * @param off the offset in the array to write the hash code at
+   * @return the number of bytes written, i.e., the size of the hash code
+   * @throws IndexOutOfBoundsException if the hash code does not fit the array
+   *     at the given offset
+   */
+  int hashInto(byte[] out, int off);
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.proofs;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.proofs.list.CheckedListProof;
+import com.exonum.binding.common.proofs.list.UncheckedListProof;
+import com.exonum.binding.common.proofs.map.CheckedMapProof;
+import com.exonum.binding.common.proofs.map.UncheckedMapProof;
+import java.util.Optional;
+import javax.annotation.Nullable;
+
+/**
+ * A proof verifier that checks successive proofs of the same collection (e.g., the proofs
+ * of the wallets a client polls each block) and remembers the root hash of the last valid one.
+ *
+ * <p>Each proof is checked in full. The hashes of the sub-trees shared with the previous
+ * proofs are <em>not</em> re-used: a proof carries the hashes of the sub-trees it does not
+ * include, and the hash of a branch can only be trusted after it is computed from
+ * the contents of its sub-trees, which takes the same hashing as the check itself.
+ * The verifiers hash the branches in place, without allocations, instead.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class IncrementalProofVerifier {
+
+  @Nullable
+  private volatile HashCode lastRootHash;
+
+  /**
+   * Checks the map proof.
+   *
+   * @param proof the proof to check
+   * @return the same result as {@link UncheckedMapProof#check()}
+   */
+  public CheckedMapProof check(UncheckedMapProof proof) {
+    return remember(proof.check());
+  }
+
+  /**
+   * Checks the list proof.
+   *
+   * @param proof the proof to check
+   * @return the same result as {@link UncheckedListProof#check()}
+   */
+  public CheckedListProof check(UncheckedListProof proof) {
+    return remember(proof.check());
+  }
+
+  private <T extends CheckedProof> T remember(T checkedProof) {
+    if (checkedProof.isValid()) {
+      lastRootHash = checkedProof.getRootHash();
+    }
+    return checkedProof;
+  }
+
+  /**
+   * Returns the root hash of the last valid proof checked by this verifier;
+   * or {@code Optional.empty()} if it has not checked any valid proofs yet.
+   */
+  public Optional<HashCode> getLastRootHash() {
+    return Optional.ofNullable(lastRootHash);
+  }
+}
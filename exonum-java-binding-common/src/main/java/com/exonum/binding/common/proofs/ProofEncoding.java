@@ -0,0 +1,175 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.proofs;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.protobuf.ByteString;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The compact binary encoding of the proofs, produced by the native proof indices.
+ *
+ * <p>A proof is passed from the native code as a single byte array instead of a graph
+ * of Java objects; the proof classes decode it lazily, when the proof is checked.
+ * All numbers are little-endian; sizes are unsigned 32-bit integers:
+ * <pre>
+ * header:     | version: u8 | proof kind: u8 |
+ * flat map:   | header | u32 n | n × (34-byte database key, 32-byte hash)
+ *             | u32 m | m × (32-byte key, u32 value size, value)
+ *             | u32 k | k × 32-byte missing key |
+ * list:       | header | root node |
+ * list node:  | 0 | left node | right node |   (a branch with both children)
+ *             | 1 | left node |                (a branch with the left child only)
+ *             | 2 | 32-byte hash |             (a hash of a sub-tree)
+ *             | 3 | u32 value size | value |   (an element)
+ * </pre>
+ *
+ * <p>The methods of this class throw {@link IllegalArgumentException} if the proof
+ * is malformed, e.g., has an unknown version or kind, or is truncated.
+ */
+public final class ProofEncoding {
+
+  /**
+   * The version of the encoding format.
+   */
+  public static final byte FORMAT_VERSION = 1;
+
+  /**
+   * The kind of an encoded flat map proof.
+   */
+  public static final byte FLAT_MAP_PROOF = 1;
+
+  /**
+   * The kind of an encoded list proof.
+   */
+  public static final byte LIST_PROOF = 2;
+
+  /**
+   * The tag of a list proof branch with both children.
+   */
+  public static final byte LIST_BRANCH = 0;
+
+  /**
+   * The tag of a list proof branch with the left child only.
+   */
+  public static final byte LIST_BRANCH_LEFT_ONLY = 1;
+
+  /**
+   * The tag of a list proof hash node.
+   */
+  public static final byte LIST_HASH = 2;
+
+  /**
+   * The tag of a list proof element.
+   */
+  public static final byte LIST_ELEMENT = 3;
+
+  private static final int HEADER_SIZE = 2;
+
+  /**
+   * Checks the header of the encoded proof.
+   *
+   * @param encodedProof the encoded proof
+   * @param proofKind the expected kind of the proof
+   * @throws IllegalArgumentException if the proof has an unsupported version or other kind
+   */
+  public static void checkHeader(byte[] encodedProof, byte proofKind) {
+    checkArgument(encodedProof.length >= HEADER_SIZE,
+        "Proof is too short (%s bytes)", encodedProof.length);
+    byte version = encodedProof[0];
+    checkArgument(version == FORMAT_VERSION,
+        "Unsupported proof format version: %s", version);
+    byte kind = encodedProof[1];
+    checkArgument(kind == proofKind,
+        "Unexpected proof kind: %s, must be %s", kind, proofKind);
+  }
+
+  /**
+   * Returns a little-endian buffer over the body of the encoded proof, following its header.
+   * The header must be {@linkplain #checkHeader(byte[], byte) checked} beforehand.
+   */
+  public static ByteBuffer body(byte[] encodedProof) {
+    ByteBuffer body = ByteBuffer.wrap(encodedProof, HEADER_SIZE,
+        encodedProof.length - HEADER_SIZE);
+    return body.order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Reads an unsigned 32-bit size.
+   *
+   * @throws IllegalArgumentException if the proof is truncated or the size
+   *     exceeds the maximum array size
+   */
+  public static int readSize(ByteBuffer proof) {
+    checkAvailable(proof, Integer.BYTES);
+    int size = proof.getInt();
+    checkArgument(size >= 0, "Size is too big: %s", Integer.toUnsignedString(size));
+    return size;
+  }
+
+  /**
+   * Reads a single byte.
+   *
+   * @throws IllegalArgumentException if the proof is truncated
+   */
+  public static byte readByte(ByteBuffer proof) {
+    checkAvailable(proof, Byte.BYTES);
+    return proof.get();
+  }
+
+  /**
+   * Reads the given number of bytes into a new array.
+   *
+   * @throws IllegalArgumentException if the proof is truncated
+   */
+  public static byte[] readBytes(ByteBuffer proof, int size) {
+    checkAvailable(proof, size);
+    byte[] bytes = new byte[size];
+    proof.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Reads the given number of bytes into a byte string.
+   *
+   * @throws IllegalArgumentException if the proof is truncated
+   */
+  public static ByteString readByteString(ByteBuffer proof, int size) {
+    checkAvailable(proof, size);
+    return ByteString.copyFrom(proof, size);
+  }
+
+  /**
+   * Checks that the whole proof is read.
+   *
+   * @throws IllegalArgumentException if the proof has trailing bytes
+   */
+  public static void checkFullyRead(ByteBuffer proof) {
+    checkArgument(!proof.hasRemaining(),
+        "Proof has %s trailing bytes", proof.remaining());
+  }
+
+  private static void checkAvailable(ByteBuffer proof, int size) {
+    checkArgument(size <= proof.remaining(),
+        "Proof is truncated: %s bytes required, %s available", size, proof.remaining());
+  }
+
+  private ProofEncoding() {}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.proofs;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Throwables;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Utilities for checking proofs.
+ */
+public final class Proofs {
+
+  /**
+   * The number of tasks per available processor a batch is split into, so that the tasks
+   * are balanced among the threads if some of them are slower.
+   */
+  private static final int TASKS_PER_PROCESSOR = 4;
+
+  /**
+   * Checks the given proofs in parallel in the {@linkplain ForkJoinPool#commonPool() common
+   * fork-join pool}.
+   *
+   * @see #checkAll(Collection, Executor)
+   */
+  public static List<CheckedProof> checkAll(Collection<? extends UncheckedProof> proofs) {
+    return checkAll(proofs, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Checks the given proofs in parallel, using the given executor.
+   *
+   * <p>The proofs are split into contiguous chunks, checked by separate tasks. Each proof
+   * is checked independently, as by {@link UncheckedProof#check()}: the hashes of
+   * the sub-trees shared by several proofs are computed for each of them, which takes
+   * less time than looking them up in a cache shared by the threads.
+   *
+   * @param proofs the proofs to check
+   * @param executor the executor to check the proofs in
+   * @return the checked proofs, in the iteration order of the given collection
+   * @throws RuntimeException if any proof check throws
+   */
+  public static List<CheckedProof> checkAll(Collection<? extends UncheckedProof> proofs,
+      Executor executor) {
+    checkNotNull(proofs, "proofs");
+    checkNotNull(executor, "executor");
+
+    List<UncheckedProof> uncheckedProofs = new ArrayList<>(proofs);
+    int numProofs = uncheckedProofs.size();
+    CheckedProof[] checkedProofs = new CheckedProof[numProofs];
+
+    // Check the proofs in contiguous chunks, as a single check is too short
+    // to be a separate task
+    int numTasks = Math.min(numProofs, TASKS_PER_PROCESSOR * getNumProcessors());
+    List<CompletableFuture<Void>> tasks = new ArrayList<>(numTasks);
+    for (int task = 0; task < numTasks; task++) {
+      int from = (int) ((long) numProofs * task / numTasks);
+      int to = (int) ((long) numProofs * (task + 1) / numTasks);
+      tasks.add(CompletableFuture.runAsync(() -> {
+        for (int i = from; i < to; i++) {
+          checkedProofs[i] = uncheckedProofs.get(i).check();
+        }
+      }, executor));
+    }
+
+    for (CompletableFuture<Void> task : tasks) {
+      waitFor(task);
+    }
+    return Arrays.asList(checkedProofs);
+  }
+
+  private static int getNumProcessors() {
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  private static void waitFor(CompletableFuture<Void> task) {
+    try {
+      task.join();
+    } catch (CompletionException e) {
+      // Re-throw the exception of the check
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    }
+  }
+
+  private Proofs() {}
+}
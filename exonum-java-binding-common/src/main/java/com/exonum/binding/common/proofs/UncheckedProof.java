@@ -0,0 +1,32 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.proofs;
+
+/**
+ * A proof that must be {@linkplain #check() checked} before its contents can be accessed.
+ *
+ * @see com.exonum.binding.common.proofs.list.UncheckedListProof
+ * @see com.exonum.binding.common.proofs.map.UncheckedMapProof
+ */
+public interface UncheckedProof {
+
+  /**
+   * Checks that a proof has either correct or incorrect structure and returns a checked proof.
+   */
+  CheckedProof check();
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.proofs.list;
+
+import static com.exonum.binding.common.hash.Hashing.DEFAULT_HASH_SIZE_BYTES;
+import static com.exonum.binding.common.proofs.ProofEncoding.LIST_PROOF;
+import static com.exonum.binding.common.proofs.list.ListProofVerifier.MAX_NODE_DEPTH;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.exonum.binding.common.proofs.ProofEncoding;
+import com.exonum.binding.common.serialization.Serializer;
+import java.nio.ByteBuffer;
+
+/**
+ * A list proof in the compact {@linkplain ProofEncoding binary encoding}, as produced
+ * by the native proof list index. The proof tree is decoded when it is
+ * {@linkplain #check() checked} or {@linkplain #getRootProofNode() requested}.
+ *
+ * @param <E> the type of proof list elements
+ */
+public final class EncodedListProof<E> implements UncheckedListProof {
+
+  private final byte[] encodedProof;
+
+  private final Serializer<E> serializer;
+
+  private EncodedListProof(byte[] encodedProof, Serializer<E> serializer) {
+    ProofEncoding.checkHeader(encodedProof, LIST_PROOF);
+    this.encodedProof = encodedProof;
+    this.serializer = checkNotNull(serializer, "Serializer must be not null");
+  }
+
+  /**
+   * Creates a list proof from its binary encoding.
+   *
+   * @param encodedProof the encoded proof; the array is copied
+   * @param serializer the serializer of proof elements
+   * @throws IllegalArgumentException if the proof has an unsupported format version or kind
+   */
+  public static <E> EncodedListProof<E> fromBytes(byte[] encodedProof,
+      Serializer<E> serializer) {
+    return new EncodedListProof<>(encodedProof.clone(), serializer);
+  }
+
+  /**
+   * Decodes this proof and checks it.
+   *
+   * @throws IllegalArgumentException if the proof is malformed
+   */
+  @Override
+  public CheckedListProof check() {
+    return new UncheckedListProofAdapter<>(getRootProofNode(), serializer).check();
+  }
+
+  /**
+   * Decodes the proof tree.
+   *
+   * @throws IllegalArgumentException if the proof is malformed, including the case
+   *     when its tree is deeper than any valid list proof
+   */
+  @Override
+  public ListProofNode getRootProofNode() {
+    ByteBuffer body = ProofEncoding.body(encodedProof);
+    ListProofNode root = readNode(body, 0);
+    ProofEncoding.checkFullyRead(body);
+    return root;
+  }
+
+  private static ListProofNode readNode(ByteBuffer body, int depth) {
+    checkArgument(depth <= MAX_NODE_DEPTH + 1, "Proof tree is too deep");
+    byte tag = ProofEncoding.readByte(body);
+    switch (tag) {
+      case ProofEncoding.LIST_BRANCH: {
+        ListProofNode left = readNode(body, depth + 1);
+        ListProofNode right = readNode(body, depth + 1);
+        return new ListProofBranch(left, right);
+      }
+      case ProofEncoding.LIST_BRANCH_LEFT_ONLY: {
+        ListProofNode left = readNode(body, depth + 1);
+        return new ListProofBranch(left, null);
+      }
+      case ProofEncoding.LIST_HASH: {
+        byte[] hash = ProofEncoding.readBytes(body, DEFAULT_HASH_SIZE_BYTES);
+        return new ListProofHashNode(hash);
+      }
+      case ProofEncoding.LIST_ELEMENT: {
+        int size = ProofEncoding.readSize(body);
+        return new ListProofElement(ProofEncoding.readByteString(body, size));
+      }
+      default:
+        throw new IllegalArgumentException("Unknown list proof node tag: " + tag);
+    }
+  }
+
+  /**
+   * Returns the binary encoding of this proof.
+   */
+  public byte[] toByteArray() {
+    return encodedProof.clone();
+  }
+}
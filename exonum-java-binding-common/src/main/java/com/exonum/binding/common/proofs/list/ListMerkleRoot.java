@@ -0,0 +1,230 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.proofs.list;
+
+import static com.exonum.binding.common.hash.Hashing.DEFAULT_HASH_SIZE_BYTES;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.HashFunction;
+import com.exonum.binding.common.hash.Hashing;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+
+/**
+ * Computes the Merkle root hash of a complete list, equal to the root hash of
+ * a proof list index (e.g., {@code ProofListIndexProxy#getRootHash}) with the same elements.
+ *
+ * <p>The hash of an element is the SHA-256 hash of its serialized value. The hash of
+ * a branch node is the hash of the concatenated hashes of its children, or of its left child
+ * only, if the branch has no right child. The root hash of an empty list is all zeros.
+ *
+ * <p>The hashes of large sub-trees are computed in parallel in a fork-join pool.
+ */
+public final class ListMerkleRoot {
+
+  /**
+   * The number of elements in a sub-tree that is hashed sequentially.
+   */
+  static final int SEQUENTIAL_THRESHOLD = 1024;
+
+  private static final HashFunction HASH_FUNCTION = Hashing.defaultHashFunction();
+
+  private static final HashCode EMPTY_LIST_ROOT_HASH =
+      HashCode.fromBytes(new byte[DEFAULT_HASH_SIZE_BYTES]);
+
+  /**
+   * Returns the root hash of the list with the given serialized elements. The hash is computed
+   * in the {@linkplain ForkJoinPool#commonPool() common fork-join pool}.
+   *
+   * @param elements the serialized elements of the list
+   */
+  public static HashCode of(List<byte[]> elements) {
+    return of(elements, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Returns the root hash of the list with the given serialized elements. The hash is computed
+   * in the given fork-join pool.
+   *
+   * @param elements the serialized elements of the list
+   * @param pool the pool to compute the hash in
+   */
+  public static HashCode of(List<byte[]> elements, ForkJoinPool pool) {
+    checkNotNull(elements, "elements");
+    return computeRootHash(elements.size(), i -> HASH_FUNCTION.hashBytes(elements.get(i)), pool);
+  }
+
+  /**
+   * Returns the root hash of the list with elements having the given hashes. The hash is
+   * computed in the {@linkplain ForkJoinPool#commonPool() common fork-join pool}.
+   *
+   * @param elementHashes the hashes of the list elements, in the order of the elements
+   */
+  public static HashCode ofElementHashes(List<HashCode> elementHashes) {
+    return ofElementHashes(elementHashes, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Returns the root hash of the list with elements having the given hashes. The hash is
+   * computed in the given fork-join pool.
+   *
+   * @param elementHashes the hashes of the list elements, in the order of the elements
+   * @param pool the pool to compute the hash in
+   */
+  public static HashCode ofElementHashes(List<HashCode> elementHashes, ForkJoinPool pool) {
+    checkNotNull(elementHashes, "elementHashes");
+    return computeRootHash(elementHashes.size(), i -> checkNotNull(elementHashes.get(i)), pool);
+  }
+
+  /**
+   * Returns the root hash of the list with elements having the given hashes.
+   *
+   * <p>The stream is consumed in the encounter order; only the hashes of O(log N) complete
+   * sub-trees are kept in memory.
+   *
+   * @param elementHashes the hashes of the list elements, in the order of the elements
+   */
+  public static HashCode ofElementHashes(Stream<HashCode> elementHashes) {
+    RootHashAccumulator accumulator = new RootHashAccumulator();
+    elementHashes.forEachOrdered(accumulator::add);
+    return accumulator.getRootHash();
+  }
+
+  private static HashCode computeRootHash(int size, IntFunction<HashCode> elementHashes,
+      ForkJoinPool pool) {
+    checkNotNull(pool, "pool");
+    if (size == 0) {
+      return EMPTY_LIST_ROOT_HASH;
+    }
+    long span = Long.highestOneBit(size);
+    if (span < size) {
+      span *= 2;
+    }
+    return pool.invoke(new SubtreeHashTask(elementHashes, 0, size, span));
+  }
+
+  /**
+   * Computes the hash of a sub-tree of the given span, which elements are at indexes
+   * in [from, to).
+   */
+  private static final class SubtreeHashTask extends RecursiveTask<HashCode> {
+
+    final IntFunction<HashCode> elementHashes;
+    final int from;
+    final int to;
+    final long span;
+
+    SubtreeHashTask(IntFunction<HashCode> elementHashes, int from, int to, long span) {
+      this.elementHashes = elementHashes;
+      this.from = from;
+      this.to = to;
+      this.span = span;
+    }
+
+    @Override
+    protected HashCode compute() {
+      if (to - from <= SEQUENTIAL_THRESHOLD) {
+        return computeSequentially(from, to, span);
+      }
+      long half = span / 2;
+      int middle = (int) Math.min(to, from + half);
+      SubtreeHashTask left = new SubtreeHashTask(elementHashes, from, middle, half);
+      if (middle == to) {
+        return hashBranch(left.compute(), null);
+      }
+      SubtreeHashTask right = new SubtreeHashTask(elementHashes, middle, to, half);
+      right.fork();
+      HashCode leftHash = left.compute();
+      return hashBranch(leftHash, right.join());
+    }
+
+    private HashCode computeSequentially(int from, int to, long span) {
+      if (span == 1) {
+        return elementHashes.apply(from);
+      }
+      long half = span / 2;
+      int middle = (int) Math.min(to, from + half);
+      HashCode leftHash = computeSequentially(from, middle, half);
+      if (middle == to) {
+        return hashBranch(leftHash, null);
+      }
+      return hashBranch(leftHash, computeSequentially(middle, to, half));
+    }
+  }
+
+  /**
+   * Accumulates the hashes of complete sub-trees of the elements added so far:
+   * the sub-tree of 2<sup>h</sup> elements is present iff the h-th bit of the size is set.
+   */
+  private static final class RootHashAccumulator {
+
+    final HashCode[] subtreeHashes = new HashCode[Long.SIZE];
+    long size;
+
+    void add(HashCode elementHash) {
+      checkNotNull(elementHash, "elementHash");
+      HashCode hash = elementHash;
+      int height = 0;
+      while (subtreeHashes[height] != null) {
+        hash = hashBranch(subtreeHashes[height], hash);
+        subtreeHashes[height] = null;
+        height++;
+      }
+      subtreeHashes[height] = hash;
+      size++;
+    }
+
+    HashCode getRootHash() {
+      if (size == 0) {
+        return EMPTY_LIST_ROOT_HASH;
+      }
+      int treeHeight = Long.SIZE - Long.numberOfLeadingZeros(size - 1);
+      if (size == 1L << treeHeight) {
+        return subtreeHashes[treeHeight];
+      }
+      // Hash the rightmost nodes of each level bottom-up
+      HashCode hash = null;
+      for (int height = 0; height < treeHeight; height++) {
+        if (subtreeHashes[height] != null) {
+          hash = hashBranch(subtreeHashes[height], hash);
+        } else if (hash != null) {
+          hash = hashBranch(hash, null);
+        }
+      }
+      return hash;
+    }
+  }
+
+  private static HashCode hashBranch(HashCode leftHash, @Nullable HashCode rightHash) {
+    int leftSize = leftHash.bits() / Byte.SIZE;
+    int rightSize = (rightHash == null) ? 0 : rightHash.bits() / Byte.SIZE;
+    byte[] hashInput = new byte[leftSize + rightSize];
+    leftHash.writeBytesTo(hashInput, 0, leftSize);
+    if (rightHash != null) {
+      rightHash.writeBytesTo(hashInput, leftSize, rightSize);
+    }
+    return HASH_FUNCTION.hashBytes(hashInput);
+  }
+
+  private ListMerkleRoot() {}
+}
@@ -35,7 +35,6 @@ public final class ListProofElement implements ListProofNode {
    * @param element an element of the list
    * @throws NullPointerException if the element is null
    */
-  @SuppressWarnings("unused")  // Native API
   ListProofElement(byte[] element) {
     this.element = ByteString.copyFrom(element);
   }
@@ -30,7 +30,6 @@ public final class ListProofHashNode implements ListProofNode {
   /**
    * Creates a new hash node.
    */
-  @SuppressWarnings("unused")  // native API
   ListProofHashNode(byte[] hash) {
     this(HashCode.fromBytes(hash));
   }
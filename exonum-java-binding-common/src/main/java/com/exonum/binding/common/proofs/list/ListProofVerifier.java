@@ -0,0 +1,363 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.proofs.list;
+
+import static com.exonum.binding.common.hash.Hashing.DEFAULT_HASH_SIZE_BYTES;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.HashFunction;
+import com.exonum.binding.common.hash.Hashing;
+import com.exonum.binding.common.hash.ResettableHasher;
+import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
+import com.exonum.binding.common.serialization.Serializer;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.protobuf.ByteString;
+import java.util.Arrays;
+import java.util.NavigableMap;
+import javax.annotation.Nullable;
+
+/**
+ * A verifier of list proofs, which checks the proof tree structure and computes
+ * its root hash in a single pass.
+ *
+ * <p>The tree is traversed iteratively, depth-first, with an explicit stack of the branches
+ * on the path to the current node. As the left sub-tree of each branch is visited before
+ * the right one, the elements are visited in the ascending order of their indexes, therefore,
+ * they are appended to primitive arrays that remain sorted.
+ *
+ * <p>The hashes of the visited sub-trees are kept in a byte array stack: the hash of
+ * a sub-tree is written at the position where the sub-tree starts, therefore, the hashes
+ * of the children of a branch are adjacent. They form the hash input of the branch, which
+ * hash is written in place of them, so that no hash input nor hash code is allocated
+ * for a branch.
+ *
+ * @param <E> the type of elements in the corresponding list
+ */
+final class ListProofVerifier<E> implements ListProofVisitor {
+
+  static final int MAX_NODE_DEPTH = 63;
+
+  private static final HashFunction HASH_FUNCTION = Hashing.defaultHashFunction();
+
+  /** The hashers of the threads, which compute the hashes of the branches in place. */
+  private static final ThreadLocal<ResettableHasher> hashers =
+      ThreadLocal.withInitial(Hashing::newResettableHasher);
+
+  private static final int INITIAL_STACK_CAPACITY = MAX_NODE_DEPTH + 1;
+
+  private static final int INITIAL_ELEMENTS_CAPACITY = 16;
+
+  private static final int NO_DEPTH = -1;
+
+  private static final int NO_HASH = -1;
+
+  private final CheckingSerializerDecorator<E> serializer;
+
+  /** The branches on the path from the root to the current node. */
+  private ListProofBranch[] branches = new ListProofBranch[INITIAL_STACK_CAPACITY];
+
+  /** The indexes of the branches on the path. */
+  private long[] branchIndexes = new long[INITIAL_STACK_CAPACITY];
+
+  /** The offsets of the hashes of the sub-trees of the branches on the path. */
+  private int[] branchHashOffsets = new int[INITIAL_STACK_CAPACITY];
+
+  /**
+   * The sizes of the hashes of the left children of the branches on the path;
+   * or {@link #NO_HASH} if the left sub-tree is being visited.
+   */
+  private int[] leftHashSizes = new int[INITIAL_STACK_CAPACITY];
+
+  private int stackSize;
+
+  /** The indexes of the elements, in ascending order. */
+  private long[] elementIndexes = new long[INITIAL_ELEMENTS_CAPACITY];
+
+  private ByteString[] elementValues = new ByteString[INITIAL_ELEMENTS_CAPACITY];
+
+  private int numElements;
+
+  private int numBranches;
+
+  /** The index of the node being visited. */
+  private long index;
+
+  /** The branch to descend into, set when a branch is visited. */
+  @Nullable
+  private ListProofBranch nextBranch;
+
+  /** The stack of the hashes of the visited sub-trees. */
+  private byte[] hashes = new byte[INITIAL_STACK_CAPACITY * DEFAULT_HASH_SIZE_BYTES];
+
+  private int hashesSize;
+
+  /** The position of the hash of the last visited sub-tree. */
+  private int hashOffset;
+
+  private int hashSize;
+
+  private int elementDepth = NO_DEPTH;
+
+  private boolean elementTooDeep;
+
+  private boolean hashNodeTooDeep;
+
+  private boolean elementsAtDifferentDepths;
+
+  private boolean hashesOnlyBranch;
+
+  private final ListProofStatus proofStatus;
+
+  private final HashCode calculatedRootHash;
+
+  private final NavigableMap<Long, E> elements;
+
+  /**
+   * Creates a new verifier and verifies the given proof.
+   *
+   * @param listProof the root node of the proof tree
+   * @param serializer a serializer of list elements
+   */
+  ListProofVerifier(ListProofNode listProof, Serializer<E> serializer) {
+    this.serializer = CheckingSerializerDecorator.from(serializer);
+    calculatedRootHash = traverse(listProof);
+    proofStatus = getStatus();
+    elements = isValid() ? deserializeElements() : ImmutableSortedMap.of();
+  }
+
+  private HashCode traverse(ListProofNode root) {
+    ListProofNode node = root;
+    index = 0;
+    while (true) {
+      // Descend to the leftmost leaf of the sub-tree
+      node.accept(this);
+      while (nextBranch != null) {
+        ListProofBranch branch = nextBranch;
+        nextBranch = null;
+        push(branch);
+        index = 2 * index;
+        branch.getLeft().accept(this);
+      }
+
+      // Ascend until a branch with a right child that is not visited yet
+      ListProofNode right = null;
+      while (stackSize > 0 && right == null) {
+        int top = stackSize - 1;
+        if (leftHashSizes[top] == NO_HASH) {
+          // The hash of the left child remains at the start of the branch sub-tree
+          leftHashSizes[top] = hashSize;
+          right = branches[top].getRight().orElse(null);
+          if (right == null) {
+            computeBranchHash(top);
+            pop();
+          } else {
+            index = 2 * branchIndexes[top] + 1;
+          }
+        } else {
+          computeBranchHash(top);
+          pop();
+        }
+      }
+      if (right == null) {
+        return HashCode.fromBytes(Arrays.copyOfRange(hashes, hashOffset, hashOffset + hashSize));
+      }
+      node = right;
+    }
+  }
+
+  @Override
+  public void visit(ListProofBranch branch) {
+    numBranches++;
+    ListProofNode right = branch.getRight().orElse(null);
+    if (isHashNode(branch.getLeft()) && (right == null || isHashNode(right))) {
+      hashesOnlyBranch = true;
+    }
+    nextBranch = branch;
+  }
+
+  @Override
+  public void visit(ListProofHashNode hashNode) {
+    if (stackSize > MAX_NODE_DEPTH) {
+      hashNodeTooDeep = true;
+    }
+    pushHash(hashNode.getHash());
+  }
+
+  @Override
+  public void visit(ListProofElement element) {
+    int depth = stackSize;
+    if (depth > MAX_NODE_DEPTH) {
+      elementTooDeep = true;
+    }
+    if (elementDepth == NO_DEPTH) {
+      elementDepth = depth;
+    } else if (elementDepth != depth) {
+      elementsAtDifferentDepths = true;
+    }
+
+    ByteString value = element.getElement();
+    addElement(index, value);
+    pushHash(HASH_FUNCTION.hashByteString(value));
+  }
+
+  /**
+   * Returns true if the given child node of a branch is a hash node.
+   *
+   * @throws RuntimeException in case if node type is unknown
+   */
+  private static boolean isHashNode(ListProofNode node) {
+    if (node instanceof ListProofHashNode) {
+      return true;
+    } else if (node instanceof ListProofBranch || node instanceof ListProofElement) {
+      return false;
+    } else {
+      throw new RuntimeException("Unknown tree node type: " + node);
+    }
+  }
+
+  /**
+   * Computes the hash of the given branch on the path from the hashes of its children,
+   * which are the last hashes on the stack, and writes it in place of them.
+   */
+  private void computeBranchHash(int branch) {
+    int inputOffset = branchHashOffsets[branch];
+    int inputSize = hashOffset + hashSize - inputOffset;
+    assert inputSize == leftHashSizes[branch]
+        || hashOffset == inputOffset + leftHashSizes[branch] :
+        "The hashes of the children must be adjacent";
+    ResettableHasher hasher = hashers.get();
+    hasher.reset()
+        .putBytes(hashes, inputOffset, inputSize);
+    hashSize = hasher.hashInto(hashes, inputOffset);
+    hashOffset = inputOffset;
+    hashesSize = hashOffset + hashSize;
+  }
+
+  /**
+   * Pushes the hash of the visited node on the hash stack.
+   */
+  private void pushHash(HashCode hash) {
+    int size = hash.bits() / Byte.SIZE;
+    if (hashes.length < hashesSize + size) {
+      hashes = Arrays.copyOf(hashes, Math.max(hashesSize + size, 2 * hashes.length));
+    }
+    hash.writeBytesTo(hashes, hashesSize, size);
+    hashOffset = hashesSize;
+    hashSize = size;
+    hashesSize += size;
+  }
+
+  private void push(ListProofBranch branch) {
+    if (stackSize == branches.length) {
+      int newCapacity = 2 * stackSize;
+      branches = Arrays.copyOf(branches, newCapacity);
+      branchIndexes = Arrays.copyOf(branchIndexes, newCapacity);
+      branchHashOffsets = Arrays.copyOf(branchHashOffsets, newCapacity);
+      leftHashSizes = Arrays.copyOf(leftHashSizes, newCapacity);
+    }
+    branches[stackSize] = branch;
+    branchIndexes[stackSize] = index;
+    branchHashOffsets[stackSize] = hashesSize;
+    leftHashSizes[stackSize] = NO_HASH;
+    stackSize++;
+  }
+
+  private void pop() {
+    stackSize--;
+    branches[stackSize] = null;
+  }
+
+  private void addElement(long elementIndex, ByteString value) {
+    assert numElements == 0 || elementIndexes[numElements - 1] < elementIndex :
+        "Elements must be visited in ascending order of indexes: i=" + elementIndex;
+    if (numElements == elementIndexes.length) {
+      int newCapacity = 2 * numElements;
+      elementIndexes = Arrays.copyOf(elementIndexes, newCapacity);
+      elementValues = Arrays.copyOf(elementValues, newCapacity);
+    }
+    elementIndexes[numElements] = elementIndex;
+    elementValues[numElements] = value;
+    numElements++;
+  }
+
+  private NavigableMap<Long, E> deserializeElements() {
+    ImmutableSortedMap.Builder<Long, E> builder = ImmutableSortedMap.naturalOrder();
+    for (int i = 0; i < numElements; i++) {
+      E element = serializer.fromBytes(elementValues[i].toByteArray());
+      builder.put(elementIndexes[i], element);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Returns the proof status, based on the checks performed during the traversal.
+   */
+  private ListProofStatus getStatus() {
+    if (elementTooDeep) {
+      return ListProofStatus.INVALID_ELEMENT_NODE_DEPTH;
+    } else if (hashNodeTooDeep) {
+      return ListProofStatus.INVALID_HASH_NODE_DEPTH;
+    } else if (elementsAtDifferentDepths) {
+      return ListProofStatus.INVALID_NODE_DEPTH;
+    } else if (numBranches > 0 && numElements == 0) {
+      return ListProofStatus.INVALID_TREE_NO_ELEMENTS;
+    } else if (hashesOnlyBranch) {
+      return ListProofStatus.INVALID_HASH_NODES_COUNT;
+    } else {
+      return ListProofStatus.VALID;
+    }
+  }
+
+  /**
+   * Returns proof status.
+   */
+  ListProofStatus getProofStatus() {
+    return proofStatus;
+  }
+
+  /**
+   * Returns true if proof status is VALID, false otherwise.
+   */
+  boolean isValid() {
+    return proofStatus == ListProofStatus.VALID;
+  }
+
+  /**
+   * Returns calculated root hash of a list proof tree.
+   */
+  HashCode getCalculatedRootHash() {
+    return calculatedRootHash;
+  }
+
+  /**
+   * Returns a collection of list entries: index-element pairs, ordered by indices.
+   * If the proof is not valid, returns an empty collection.
+   */
+  NavigableMap<Long, E> getElements() {
+    return elements;
+  }
+
+  @Override
+  public String toString() {
+    return "ListProofVerifier{"
+        + "proofStatus=" + proofStatus
+        + ", calculatedRootHash=" + calculatedRootHash
+        + ", elements=" + elements
+        + '}';
+  }
+}
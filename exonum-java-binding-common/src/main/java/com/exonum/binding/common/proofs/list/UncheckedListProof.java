@@ -16,15 +16,18 @@
 
 package com.exonum.binding.common.proofs.list;
 
+import com.exonum.binding.common.proofs.UncheckedProof;
+
 /**
  * A proof that some elements exist in a proof list. You must
  * {@link #check} its structure and root hash before accessing the elements.
  */
-public interface UncheckedListProof {
+public interface UncheckedListProof extends UncheckedProof {
 
   /**
    * Checks that a proof has either correct or incorrect structure and returns a CheckedListProof.
    */
+  @Override
   CheckedListProof check();
 
   /**
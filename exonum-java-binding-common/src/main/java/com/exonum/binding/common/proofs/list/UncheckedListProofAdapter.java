@@ -16,7 +16,6 @@
 
 package com.exonum.binding.common.proofs.list;
 
-import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.common.serialization.Serializer;
 import com.google.common.base.Preconditions;
 
@@ -27,9 +26,7 @@ public class UncheckedListProofAdapter<E> implements UncheckedListProof {
 
   private final ListProofNode rootProofNode;
 
-  private final ListProofStructureValidator listProofStructureValidator;
-
-  private final ListProofRootHashCalculator<E> listProofRootHashCalculator;
+  private final Serializer<E> serializer;
 
   /**
    * Creates UncheckedListProofAdapter for convenient usage of ListProof interfaces.
@@ -45,17 +42,15 @@ public class UncheckedListProofAdapter<E> implements UncheckedListProof {
     Preconditions.checkNotNull(serializer, "Serializer must be not null");
 
     this.rootProofNode = rootProofNode;
-    this.listProofStructureValidator = new ListProofStructureValidator(rootProofNode);
-    this.listProofRootHashCalculator = new ListProofRootHashCalculator<>(rootProofNode, serializer);
+    this.serializer = serializer;
   }
 
   @Override
   public CheckedListProof check() {
-    ListProofStatus structureCheckStatus = listProofStructureValidator.getProofStatus();
-    HashCode calculatedRootHash = listProofRootHashCalculator.getCalculatedRootHash();
+    ListProofVerifier<E> verifier = new ListProofVerifier<>(rootProofNode, serializer);
 
     return new CheckedListProofImpl<>(
-        calculatedRootHash, listProofRootHashCalculator.getElements(), structureCheckStatus);
+        verifier.getCalculatedRootHash(), verifier.getElements(), verifier.getProofStatus());
   }
 
   @Override
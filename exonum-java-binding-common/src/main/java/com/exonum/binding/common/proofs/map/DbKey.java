@@ -16,6 +16,10 @@
 
 package com.exonum.binding.common.proofs.map;
 
+import static com.exonum.binding.common.proofs.map.DbKeyWords.WORDS;
+import static com.exonum.binding.common.proofs.map.DbKeyWords.hasNoBitsAfter;
+import static com.exonum.binding.common.proofs.map.DbKeyWords.readWords;
+import static com.exonum.binding.common.proofs.map.DbKeyWords.writeWords;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.common.primitives.UnsignedBytes;
@@ -40,6 +44,9 @@ import java.util.BitSet;
  *       Offset:   0           1 …                 32  33                   34
  * Database key: | node type | 32-byte long user key | common prefix size |
  * </pre>
+ *
+ * <p>The user key is also kept packed into four 64-bit words, so that the keys are compared
+ * with bitwise operations on whole words.
  */
 public final class DbKey implements Comparable<DbKey> {
 
@@ -94,7 +101,10 @@ public final class DbKey implements Comparable<DbKey> {
 
   private final Type nodeType;
 
-  private final byte[] keySlice;
+  /**
+   * The key slice packed into words, see {@link DbKeyWords}.
+   */
+  private final long[] keyWords;
 
   private final int numSignificantBits;
 
@@ -114,13 +124,14 @@ public final class DbKey implements Comparable<DbKey> {
         "Database key has illegal size: %s", rawDbKey.length);
     this.rawDbKey = rawDbKey.clone();
     nodeType = Type.from(rawDbKey[0]);
-    keySlice = Arrays.copyOfRange(rawDbKey, KEY_START_POSITION, KEY_START_POSITION + KEY_SIZE);
+    keyWords = new long[WORDS];
+    readWords(rawDbKey, KEY_START_POSITION, keyWords, 0);
     int numSignificantBits = Byte.toUnsignedInt(rawDbKey[DB_KEY_SIZE - 1]);
     switch (nodeType) {
       case BRANCH:
         checkArgument(0 <= numSignificantBits && numSignificantBits < KEY_SIZE_BITS,
             "Invalid end index: %s", numSignificantBits);
-        checkBranchKeySlice(keySlice, numSignificantBits);
+        checkBranchKeyWords(keyWords, numSignificantBits);
         this.numSignificantBits = numSignificantBits;
         break;
       case LEAF:
@@ -133,13 +144,13 @@ public final class DbKey implements Comparable<DbKey> {
     }
   }
 
-  private DbKey(DbKey.Type nodeType, byte[] keySlice, int numSignificantBits) {
+  private DbKey(Type nodeType, long[] keyWords, int numSignificantBits) {
     this.nodeType = nodeType;
-    this.keySlice = keySlice;
+    this.keyWords = keyWords;
     this.numSignificantBits = numSignificantBits;
     this.rawDbKey = new byte[DB_KEY_SIZE];
     rawDbKey[0] = nodeType.code;
-    System.arraycopy(keySlice, 0, rawDbKey, KEY_START_POSITION, KEY_SIZE);
+    writeWords(keyWords, 0, rawDbKey, KEY_START_POSITION);
     rawDbKey[DB_KEY_SIZE - 1] = (numSignificantBits == KEY_SIZE_BITS) ? 0
         : UnsignedBytes.checkedCast(numSignificantBits);
   }
@@ -148,7 +159,10 @@ public final class DbKey implements Comparable<DbKey> {
    * Given key as a ByteString, returns new leaf DbKey.
    */
   public static DbKey newLeafKey(ByteString key) {
-    return newLeafKey(key.toByteArray());
+    checkArgument(key.size() == KEY_SIZE);
+    long[] keyWords = new long[WORDS];
+    readWords(key, keyWords, 0);
+    return new DbKey(Type.LEAF, keyWords, KEY_SIZE_BITS);
   }
 
   /**
@@ -156,7 +170,7 @@ public final class DbKey implements Comparable<DbKey> {
    */
   public static DbKey newLeafKey(byte[] keySlice) {
     checkArgument(keySlice.length == KEY_SIZE);
-    return new DbKey(Type.LEAF, keySlice, KEY_SIZE_BITS);
+    return new DbKey(Type.LEAF, toWords(keySlice), KEY_SIZE_BITS);
   }
 
   /**
@@ -169,15 +183,24 @@ public final class DbKey implements Comparable<DbKey> {
   public static DbKey newBranchKey(byte[] keySlice, int numSignificantBits) {
     checkArgument(keySlice.length == KEY_SIZE);
     checkArgument(0 <= numSignificantBits && numSignificantBits < KEY_SIZE_BITS);
-    checkBranchKeySlice(keySlice, numSignificantBits);
-    return new DbKey(Type.BRANCH, keySlice, numSignificantBits);
+    long[] keyWords = toWords(keySlice);
+    checkBranchKeyWords(keyWords, numSignificantBits);
+    return new DbKey(Type.BRANCH, keyWords, numSignificantBits);
+  }
+
+  private static long[] toWords(byte[] keySlice) {
+    long[] keyWords = new long[WORDS];
+    readWords(keySlice, 0, keyWords, 0);
+    return keyWords;
   }
 
-  private static void checkBranchKeySlice(byte[] keySlice, int numSignificantBits) {
-    BitSet keyBits = BitSet.valueOf(keySlice);
-    checkArgument(keyBits.length() <= numSignificantBits,
-        "Branch key slice contains set bits after its numSignificantBits (%s): "
-            + "length=%s, keyBits=%s", numSignificantBits, keyBits.length(), keyBits);
+  private static void checkBranchKeyWords(long[] keyWords, int numSignificantBits) {
+    if (!hasNoBitsAfter(keyWords, 0, numSignificantBits)) {
+      BitSet keyBits = BitSet.valueOf(keyWords);
+      throw new IllegalArgumentException(String.format(
+          "Branch key slice contains set bits after its numSignificantBits (%s): "
+              + "length=%s, keyBits=%s", numSignificantBits, keyBits.length(), keyBits));
+    }
   }
 
   /**
@@ -188,11 +211,11 @@ public final class DbKey implements Comparable<DbKey> {
   }
 
   /**
-   * Returns the key slice. It's size is equal to {@link #KEY_SIZE}, but the number of significant
-   * <em>bits</em> is equal to the {@link #getNumSignificantBits}.
+   * Returns a copy of the key slice. It's size is equal to {@link #KEY_SIZE}, but the number
+   * of significant <em>bits</em> is equal to the {@link #getNumSignificantBits}.
    */
   public byte[] getKeySlice() {
-    return keySlice;
+    return Arrays.copyOfRange(rawDbKey, KEY_START_POSITION, KEY_START_POSITION + KEY_SIZE);
   }
 
   /**
@@ -202,15 +225,26 @@ public final class DbKey implements Comparable<DbKey> {
     return numSignificantBits;
   }
 
+  /**
+   * Returns the raw database key, as used in the underlying storage. The returned array
+   * is not a copy, therefore, it must not be modified.
+   */
   public byte[] getRawDbKey() {
     return rawDbKey;
   }
 
+  /**
+   * Copies the words of the key slice into the given array.
+   */
+  void copyKeyWords(long[] destination, int offset) {
+    System.arraycopy(keyWords, 0, destination, offset, WORDS);
+  }
+
   /**
    * Returns a key as a bit set.
    */
   public KeyBitSet keyBits() {
-    return new KeyBitSet(keySlice, numSignificantBits);
+    return new KeyBitSet(keyWords, numSignificantBits);
   }
 
   /**
@@ -221,28 +255,18 @@ public final class DbKey implements Comparable<DbKey> {
     if (other.equals(this)) {
       return this;
     }
-    BitSet thisBits = this.keyBits().getKeyBits();
-    thisBits.xor(other.keyBits().getKeyBits());
-    int firstSetBitIndex = thisBits.nextSetBit(0);
-
-    int minPrefixSize = Math.min(this.numSignificantBits, other.numSignificantBits);
-
-    // firstSetBitIndex equals -1 when either both keys are equal or one is a prefix of another with
-    // trailing zeros in their prefixes
-    if (firstSetBitIndex == -1) {
-      return newBranchKey(this.keySlice, minPrefixSize);
-    }
-    int commonPrefixSize = Math.min(firstSetBitIndex, minPrefixSize);
-    byte[] commonPrefix = this.keyBits().getKeyBits().get(0, firstSetBitIndex).toByteArray();
-    byte[] newKeySlice = Arrays.copyOf(commonPrefix, DbKey.KEY_SIZE);
-    return newBranchKey(newKeySlice, commonPrefixSize);
+    long[] prefixWords = new long[WORDS];
+    int commonPrefixSize = DbKeyWords.commonPrefix(keyWords, 0, numSignificantBits,
+        other.keyWords, 0, other.numSignificantBits, prefixWords, 0);
+    return new DbKey(Type.BRANCH, prefixWords, commonPrefixSize);
   }
 
   /**
    * Returns true if this {@code DbKey} is a prefix of that {@code DbKey}.
    */
   public boolean isPrefixOf(DbKey other) {
-    return this.keyBits().isPrefixOf(other.keyBits());
+    return DbKeyWords.isPrefixOf(keyWords, 0, numSignificantBits,
+        other.keyWords, 0, other.numSignificantBits);
   }
 
   @Override
@@ -272,21 +296,7 @@ public final class DbKey implements Comparable<DbKey> {
    */
   @Override
   public int compareTo(DbKey other) {
-    if (other.equals(this)) {
-      return 0;
-    }
-    int commonPartSize = Math.min(this.numSignificantBits, other.numSignificantBits);
-    BitSet thisBits = this.keyBits().getKeyBits();
-    BitSet otherBits = other.keyBits().getKeyBits();
-    for (int i = 0; i < commonPartSize; i++) {
-      if (thisBits.get(i) ^ otherBits.get(i)) {
-        if (thisBits.get(i)) {
-          return 1;
-        } else {
-          return -1;
-        }
-      }
-    }
-    return Integer.compare(this.numSignificantBits, other.numSignificantBits);
+    return DbKeyWords.compare(keyWords, 0, numSignificantBits,
+        other.keyWords, 0, other.numSignificantBits);
   }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.proofs.map;
+
+import static com.exonum.binding.common.proofs.map.DbKey.KEY_SIZE;
+import static com.exonum.binding.common.proofs.map.DbKey.KEY_SIZE_BITS;
+
+import com.google.protobuf.ByteString;
+
+/**
+ * Operations on 256-bit keys of Merkle-Patricia tree nodes, packed into four 64-bit words.
+ *
+ * <p>The bit order is the same as in {@link java.util.BitSet}: bit <em>i</em> of a key is
+ * bit <em>(i % 64)</em> of word <em>(i / 64)</em>, where the words are read from the key bytes
+ * in little-endian order. Hence the first different bit of two keys is found
+ * with {@link Long#numberOfTrailingZeros(long)} of their XOR.
+ *
+ * <p>A key is identified by an array, an offset of its first word in that array and
+ * the number of significant bits, so that the keys of several nodes can be stored
+ * in a single array. The bits after the number of significant bits must be zero.
+ */
+final class DbKeyWords {
+
+  /** The number of words in a key. */
+  static final int WORDS = KEY_SIZE / Long.BYTES;
+
+  /** The index of the first different bit of equal keys. */
+  static final int NO_DIFFERENCE = -1;
+
+  /**
+   * Compares two keys in the same way as {@link DbKey#compareTo(DbKey)}: by the first
+   * different bit in their common part, or, if there is none, by their lengths.
+   */
+  static int compare(long[] words1, int offset1, int length1,
+      long[] words2, int offset2, int length2) {
+    int firstDifferentBit = firstDifferentBit(words1, offset1, words2, offset2);
+    if (firstDifferentBit != NO_DIFFERENCE && firstDifferentBit < Math.min(length1, length2)) {
+      return getBit(words1, offset1, firstDifferentBit) ? 1 : -1;
+    }
+    return Integer.compare(length1, length2);
+  }
+
+  /**
+   * Returns true if the first key is a prefix of the second.
+   */
+  static boolean isPrefixOf(long[] words1, int offset1, int length1,
+      long[] words2, int offset2, int length2) {
+    if (length2 < length1) {
+      return false;
+    }
+    int firstDifferentBit = firstDifferentBit(words1, offset1, words2, offset2);
+    return firstDifferentBit == NO_DIFFERENCE || firstDifferentBit >= length1;
+  }
+
+  /**
+   * Writes the common prefix of two keys into the given array, and returns its length.
+   */
+  static int commonPrefix(long[] words1, int offset1, int length1,
+      long[] words2, int offset2, int length2, long[] prefix, int prefixOffset) {
+    int firstDifferentBit = firstDifferentBit(words1, offset1, words2, offset2);
+    int prefixLength = Math.min(length1, length2);
+    if (firstDifferentBit != NO_DIFFERENCE) {
+      prefixLength = Math.min(prefixLength, firstDifferentBit);
+    }
+    for (int i = 0; i < WORDS; i++) {
+      prefix[prefixOffset + i] = words1[offset1 + i] & mask(i, prefixLength);
+    }
+    return prefixLength;
+  }
+
+  /**
+   * Returns the index of the first different bit of two keys, or {@link #NO_DIFFERENCE}.
+   */
+  static int firstDifferentBit(long[] words1, int offset1, long[] words2, int offset2) {
+    for (int i = 0; i < WORDS; i++) {
+      long difference = words1[offset1 + i] ^ words2[offset2 + i];
+      if (difference != 0) {
+        return i * Long.SIZE + Long.numberOfTrailingZeros(difference);
+      }
+    }
+    return NO_DIFFERENCE;
+  }
+
+  /**
+   * Returns true if the key has no set bits after the given number of significant bits.
+   */
+  static boolean hasNoBitsAfter(long[] words, int offset, int length) {
+    for (int i = 0; i < WORDS; i++) {
+      if ((words[offset + i] & ~mask(i, length)) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the mask of the significant bits in the word with the given index.
+   */
+  private static long mask(int wordIndex, int length) {
+    int wordStart = wordIndex * Long.SIZE;
+    if (length <= wordStart) {
+      return 0L;
+    } else if (length < wordStart + Long.SIZE) {
+      return (1L << (length - wordStart)) - 1;
+    } else {
+      return -1L;
+    }
+  }
+
+  static boolean getBit(long[] words, int offset, int bitIndex) {
+    return (words[offset + bitIndex / Long.SIZE] & (1L << (bitIndex % Long.SIZE))) != 0;
+  }
+
+  /**
+   * Reads a 32-byte key, starting at the given position of the byte array.
+   */
+  static void readWords(byte[] bytes, int bytesOffset, long[] words, int wordsOffset) {
+    for (int i = 0; i < WORDS; i++) {
+      long word = 0L;
+      for (int j = Long.BYTES - 1; j >= 0; j--) {
+        word = (word << Byte.SIZE) | Byte.toUnsignedLong(bytes[bytesOffset + i * Long.BYTES + j]);
+      }
+      words[wordsOffset + i] = word;
+    }
+  }
+
+  /**
+   * Reads a 32-byte key.
+   */
+  static void readWords(ByteString key, long[] words, int wordsOffset) {
+    assert key.size() == KEY_SIZE;
+    for (int i = 0; i < WORDS; i++) {
+      long word = 0L;
+      for (int j = Long.BYTES - 1; j >= 0; j--) {
+        word = (word << Byte.SIZE) | Byte.toUnsignedLong(key.byteAt(i * Long.BYTES + j));
+      }
+      words[wordsOffset + i] = word;
+    }
+  }
+
+  /**
+   * Writes a key as 32 bytes, starting at the given position of the byte array.
+   */
+  static void writeWords(long[] words, int wordsOffset, byte[] bytes, int bytesOffset) {
+    for (int i = 0; i < WORDS; i++) {
+      long word = words[wordsOffset + i];
+      for (int j = 0; j < Long.BYTES; j++) {
+        bytes[bytesOffset + i * Long.BYTES + j] = (byte) word;
+        word >>>= Byte.SIZE;
+      }
+    }
+  }
+
+  /**
+   * Returns true if the key with the given number of significant bits is a leaf key.
+   */
+  static boolean isLeaf(int length) {
+    return length == KEY_SIZE_BITS;
+  }
+
+  private DbKeyWords() {}
+}
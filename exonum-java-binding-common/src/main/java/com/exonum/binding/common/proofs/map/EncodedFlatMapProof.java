@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.proofs.map;
+
+import static com.exonum.binding.common.hash.Hashing.DEFAULT_HASH_SIZE_BYTES;
+import static com.exonum.binding.common.proofs.ProofEncoding.FLAT_MAP_PROOF;
+import static com.exonum.binding.common.proofs.map.DbKey.DB_KEY_SIZE;
+import static com.exonum.binding.common.proofs.map.DbKey.KEY_SIZE;
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.exonum.binding.common.collect.MapEntry;
+import com.exonum.binding.common.proofs.ProofEncoding;
+import com.google.protobuf.ByteString;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A flat map proof in the compact {@linkplain ProofEncoding binary encoding}, as produced
+ * by the native proof map index. The proof is decoded when it is {@linkplain #check() checked}.
+ */
+public final class EncodedFlatMapProof implements UncheckedMapProof {
+
+  private static final int PROOF_ENTRY_SIZE = DB_KEY_SIZE + DEFAULT_HASH_SIZE_BYTES;
+
+  private final byte[] encodedProof;
+
+  private EncodedFlatMapProof(byte[] encodedProof) {
+    ProofEncoding.checkHeader(encodedProof, FLAT_MAP_PROOF);
+    this.encodedProof = encodedProof;
+  }
+
+  /**
+   * Creates a flat map proof from its binary encoding.
+   *
+   * @param encodedProof the encoded proof; the array is copied
+   * @throws IllegalArgumentException if the proof has an unsupported format version or kind
+   */
+  public static EncodedFlatMapProof fromBytes(byte[] encodedProof) {
+    return new EncodedFlatMapProof(encodedProof.clone());
+  }
+
+  /**
+   * Decodes this proof and checks it.
+   *
+   * @throws IllegalArgumentException if the proof is malformed
+   */
+  @Override
+  public CheckedMapProof check() {
+    return decode().check();
+  }
+
+  /**
+   * Decodes this proof.
+   *
+   * @throws IllegalArgumentException if the proof is malformed
+   */
+  UncheckedFlatMapProof decode() {
+    ByteBuffer body = ProofEncoding.body(encodedProof);
+
+    int numProofEntries = ProofEncoding.readSize(body);
+    List<MapProofEntry> proof = new ArrayList<>(
+        Math.min(numProofEntries, body.remaining() / PROOF_ENTRY_SIZE));
+    for (int i = 0; i < numProofEntries; i++) {
+      byte[] dbKey = ProofEncoding.readBytes(body, DB_KEY_SIZE);
+      byte[] hash = ProofEncoding.readBytes(body, DEFAULT_HASH_SIZE_BYTES);
+      proof.add(new MapProofEntry(dbKey, hash));
+    }
+
+    List<MapEntry<ByteString, ByteString>> entries = readEntries(body);
+
+    int numMissingKeys = ProofEncoding.readSize(body);
+    List<byte[]> missingKeys = new ArrayList<>(
+        Math.min(numMissingKeys, body.remaining() / KEY_SIZE));
+    for (int i = 0; i < numMissingKeys; i++) {
+      missingKeys.add(ProofEncoding.readBytes(body, KEY_SIZE));
+    }
+
+    ProofEncoding.checkFullyRead(body);
+    return new UncheckedFlatMapProof(proof, entries, missingKeys);
+  }
+
+  /**
+   * Returns the entries of this proof, without checking the proof. The entries may be used
+   * by the code that has obtained the proof from its own database, e.g., to reply with
+   * the values and their proof without reading the values twice; the clients must
+   * check the proof themselves.
+   *
+   * @throws IllegalArgumentException if the proof is malformed
+   */
+  public List<MapEntry<ByteString, ByteString>> getUncheckedEntries() {
+    ByteBuffer body = ProofEncoding.body(encodedProof);
+    int numProofEntries = ProofEncoding.readSize(body);
+    long proofEntriesSize = (long) numProofEntries * PROOF_ENTRY_SIZE;
+    checkArgument(proofEntriesSize <= body.remaining(),
+        "Proof is truncated: %s bytes required, %s available", proofEntriesSize,
+        body.remaining());
+    body.position(body.position() + (int) proofEntriesSize);
+    return readEntries(body);
+  }
+
+  private static List<MapEntry<ByteString, ByteString>> readEntries(ByteBuffer body) {
+    int numEntries = ProofEncoding.readSize(body);
+    List<MapEntry<ByteString, ByteString>> entries = new ArrayList<>(
+        Math.min(numEntries, body.remaining() / (KEY_SIZE + Integer.BYTES)));
+    for (int i = 0; i < numEntries; i++) {
+      ByteString key = ProofEncoding.readByteString(body, KEY_SIZE);
+      int valueSize = ProofEncoding.readSize(body);
+      ByteString value = ProofEncoding.readByteString(body, valueSize);
+      entries.add(MapEntry.valueOf(key, value));
+    }
+    return entries;
+  }
+
+  /**
+   * Returns the binary encoding of this proof.
+   */
+  public byte[] toByteArray() {
+    return encodedProof.clone();
+  }
+}
@@ -0,0 +1,468 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.proofs.map;
+
+import static com.exonum.binding.common.hash.Funnels.hashCodeFunnel;
+import static com.exonum.binding.common.hash.Hashing.DEFAULT_HASH_SIZE_BYTES;
+import static com.exonum.binding.common.proofs.map.DbKey.DB_KEY_SIZE;
+import static com.exonum.binding.common.proofs.map.DbKey.KEY_SIZE;
+import static com.exonum.binding.common.proofs.map.DbKey.KEY_SIZE_BITS;
+import static com.exonum.binding.common.proofs.map.DbKeyWords.WORDS;
+import static com.exonum.binding.common.proofs.map.DbKeyWords.commonPrefix;
+import static com.exonum.binding.common.proofs.map.DbKeyWords.compare;
+import static com.exonum.binding.common.proofs.map.DbKeyWords.isLeaf;
+import static com.exonum.binding.common.proofs.map.DbKeyWords.isPrefixOf;
+import static com.exonum.binding.common.proofs.map.DbKeyWords.readWords;
+import static com.exonum.binding.common.proofs.map.DbKeyWords.writeWords;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Collections.emptySet;
+
+import com.exonum.binding.common.collect.MapEntry;
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.HashFunction;
+import com.exonum.binding.common.hash.Hasher;
+import com.exonum.binding.common.hash.Hashing;
+import com.exonum.binding.common.hash.ResettableHasher;
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.ByteString;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A verifier of flat map proofs, which does not allocate intermediate objects
+ * apart from the computed hashes and their inputs.
+ *
+ * <p>The keys of the tree nodes are represented as four 64-bit words and the number of
+ * significant bits, see {@link DbKeyWords}.
+ *
+ * <p>The hashes of the contour entries are stored contiguously in a byte array, in the order
+ * of the entries. As the two topmost entries are adjacent, the hash input of their parent
+ * branch is formed by appending their keys after their hashes. The branch hash is written
+ * in place of the hashes of its children, therefore, no hash input nor hash code is allocated
+ * for a branch.
+ *
+ * <p>The verifier re-uses its arrays, including the contour stack, between invocations,
+ * therefore, it is not thread-safe. Use {@link #getInstance()} to get an instance
+ * of the current thread. The arrays grown for a proof larger than
+ * {@value #MAX_RETAINED_CAPACITY} nodes are released after its verification.
+ *
+ * <p>It produces the same results as the verification algorithm based on {@link DbKey}s.
+ */
+final class FlatMapProofVerifier {
+
+  private static final HashFunction HASH_FUNCTION = Hashing.defaultHashFunction();
+
+  private static final ThreadLocal<FlatMapProofVerifier> instances =
+      ThreadLocal.withInitial(FlatMapProofVerifier::new);
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  /** The maximum number of nodes which arrays are retained between invocations. */
+  static final int MAX_RETAINED_CAPACITY = 1024;
+
+  /**
+   * The tree nodes: the proof entries, followed by the leaves of the requested entries.
+   * The key of node {@code i} occupies words {@code [i * WORDS, (i + 1) * WORDS)}.
+   */
+  private long[] nodeKeys;
+  private int[] nodeLengths;
+  private HashCode[] nodeHashes;
+
+  /** The indexes of the nodes, sorted by their keys. */
+  private int[] nodeOrder;
+
+  /** The indexes of the leaves of the requested entries, sorted by their keys. */
+  private Integer[] leafOrder;
+
+  private final Comparator<Integer> nodeComparator = this::compareNodes;
+
+  /** The contour stack, which keys have the same layout as the nodes. */
+  private long[] contourKeys;
+  private int[] contourLengths;
+  private int contourSize;
+
+  /**
+   * The hashes of the contour entries, one after another. The hash of entry {@code i}
+   * occupies bytes {@code [contourHashOffsets[i], contourHashOffsets[i] + contourHashSizes[i])}.
+   */
+  private byte[] contourHashes;
+  private int[] contourHashOffsets;
+  private int[] contourHashSizes;
+
+  /** The common prefix of the two topmost contour entries. */
+  private final long[] lastPrefix = new long[WORDS];
+  private int lastPrefixLength;
+
+  /** The common prefix of the topmost contour entry and the next node. */
+  private final long[] newPrefix = new long[WORDS];
+
+  /** The common prefix of the two topmost contour entries after a fold. */
+  private final long[] parentPrefix = new long[WORDS];
+
+  private final long[] requestedKey = new long[WORDS];
+
+  /** The hasher of this verifier, which is confined to a thread, as the verifier is. */
+  private final ResettableHasher hasher = Hashing.newResettableHasher();
+
+  FlatMapProofVerifier() {
+    allocate(INITIAL_CAPACITY);
+  }
+
+  /**
+   * Returns the verifier of the current thread.
+   */
+  static FlatMapProofVerifier getInstance() {
+    return instances.get();
+  }
+
+  /**
+   * Verifies the flat map proof.
+   *
+   * @param proof the proof entries
+   * @param entries the requested entries that are present in the map
+   * @param missingKeys the requested keys that are absent in the map
+   * @throws IllegalArgumentException if any requested key has invalid size
+   */
+  CheckedMapProof verify(List<MapProofEntry> proof,
+      List<MapEntry<ByteString, ByteString>> entries,
+      List<ByteString> missingKeys) {
+    try {
+      return doVerify(proof, entries, missingKeys);
+    } finally {
+      if (nodeLengths.length > MAX_RETAINED_CAPACITY
+          || contourHashes.length > MAX_RETAINED_CAPACITY * DEFAULT_HASH_SIZE_BYTES) {
+        // Do not retain the arrays of a large proof
+        allocate(INITIAL_CAPACITY);
+      } else {
+        // Do not retain the hashes of the last proof
+        Arrays.fill(nodeHashes, null);
+        Arrays.fill(leafOrder, null);
+      }
+      contourSize = 0;
+    }
+  }
+
+  private CheckedMapProof doVerify(List<MapProofEntry> proof,
+      List<MapEntry<ByteString, ByteString>> entries,
+      List<ByteString> missingKeys) {
+    int numProofNodes = proof.size();
+    int numNodes = numProofNodes + entries.size();
+    if (nodeLengths.length < numNodes) {
+      allocate(Math.max(numNodes, 2 * nodeLengths.length));
+    }
+
+    for (int i = 0; i < numProofNodes; i++) {
+      MapProofEntry entry = proof.get(i);
+      DbKey dbKey = entry.getDbKey();
+      dbKey.copyKeyWords(nodeKeys, i * WORDS);
+      nodeLengths[i] = dbKey.getNumSignificantBits();
+      nodeHashes[i] = entry.getHash();
+    }
+
+    MapProofStatus orderCheckResult = checkOrder(numProofNodes);
+    if (orderCheckResult != MapProofStatus.CORRECT) {
+      return CheckedFlatMapProof.invalid(orderCheckResult);
+    }
+
+    for (int i = 0; i < entries.size(); i++) {
+      int node = numProofNodes + i;
+      readKey(entries.get(i).getKey(), nodeKeys, node * WORDS);
+      nodeLengths[node] = KEY_SIZE_BITS;
+    }
+
+    if (prefixesIncluded(numProofNodes, numNodes, missingKeys)) {
+      return CheckedFlatMapProof.invalid(MapProofStatus.EMBEDDED_PATH);
+    }
+
+    Set<MapEntry<ByteString, ByteString>> entriesSet = ImmutableSet.copyOf(entries);
+    Set<ByteString> missingKeysSet = ImmutableSet.copyOf(missingKeys);
+    if (numNodes == 0) {
+      return CheckedFlatMapProof.correct(getEmptyProofListHash(), emptySet(), missingKeysSet);
+    }
+
+    for (int i = 0; i < entries.size(); i++) {
+      nodeHashes[numProofNodes + i] = HASH_FUNCTION.hashByteString(entries.get(i).getValue());
+    }
+
+    if (numNodes == 1) {
+      // The single node, either a proof entry or a requested entry, must correspond to a leaf
+      if (nodeLengths[0] != KEY_SIZE_BITS) {
+        return CheckedFlatMapProof.invalid(MapProofStatus.NON_TERMINAL_NODE);
+      }
+      HashCode rootHash = getSingleEntryRootHash();
+      return CheckedFlatMapProof.correct(rootHash, entriesSet, missingKeysSet);
+    }
+
+    sortNodes(numProofNodes, numNodes);
+    HashCode rootHash = computeRootHash(numNodes);
+    return CheckedFlatMapProof.correct(rootHash, entriesSet, missingKeysSet);
+  }
+
+  /**
+   * Checks that the proof entries are in ascending order, and none of them is a prefix
+   * of the next one.
+   *
+   * @see UncheckedFlatMapProof#check()
+   */
+  private MapProofStatus checkOrder(int numProofNodes) {
+    for (int i = 1; i < numProofNodes; i++) {
+      int comparisonResult = compare(nodeKeys, (i - 1) * WORDS, nodeLengths[i - 1],
+          nodeKeys, i * WORDS, nodeLengths[i]);
+      if (comparisonResult < 0) {
+        if (isPrefixOf(nodeKeys, (i - 1) * WORDS, nodeLengths[i - 1],
+            nodeKeys, i * WORDS, nodeLengths[i])) {
+          return MapProofStatus.EMBEDDED_PATH;
+        }
+      } else if (comparisonResult == 0) {
+        return MapProofStatus.DUPLICATE_PATH;
+      } else {
+        return MapProofStatus.INVALID_ORDER;
+      }
+    }
+    return MapProofStatus.CORRECT;
+  }
+
+  /**
+   * Returns true if any requested key, either present or absent, has a prefix among
+   * the proof entries.
+   */
+  private boolean prefixesIncluded(int numProofNodes, int numNodes,
+      List<ByteString> missingKeys) {
+    for (int node = numProofNodes; node < numNodes; node++) {
+      if (hasPrefixInProof(numProofNodes, nodeKeys, node * WORDS)) {
+        return true;
+      }
+    }
+    for (ByteString missingKey : missingKeys) {
+      readKey(missingKey, requestedKey, 0);
+      if (hasPrefixInProof(numProofNodes, requestedKey, 0)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns true if any proof entry is a prefix of the given leaf key.
+   *
+   * <p>As the proof entries are sorted and none of them is a prefix of another, only
+   * the greatest entry that is not greater than the key might be its prefix: any entry
+   * between the prefix and the key would also start with the prefix.
+   */
+  private boolean hasPrefixInProof(int numProofNodes, long[] leafKey, int leafKeyOffset) {
+    int low = 0;
+    int high = numProofNodes;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (compare(nodeKeys, mid * WORDS, nodeLengths[mid], leafKey, leafKeyOffset,
+          KEY_SIZE_BITS) <= 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    int candidate = low - 1;
+    return candidate >= 0
+        && isPrefixOf(nodeKeys, candidate * WORDS, nodeLengths[candidate],
+        leafKey, leafKeyOffset, KEY_SIZE_BITS);
+  }
+
+  private HashCode getSingleEntryRootHash() {
+    hasher.reset();
+    putDbKey(hasher, nodeKeys, 0, nodeLengths[0]);
+    return hasher.putObject(nodeHashes[0], hashCodeFunnel())
+        .hash();
+  }
+
+  /**
+   * Sorts the nodes by their keys. The proof entries are already sorted, therefore,
+   * only the leaves are sorted, and then merged with the proof entries.
+   */
+  private void sortNodes(int numProofNodes, int numNodes) {
+    int numLeaves = numNodes - numProofNodes;
+    for (int i = 0; i < numLeaves; i++) {
+      leafOrder[i] = numProofNodes + i;
+    }
+    Arrays.sort(leafOrder, 0, numLeaves, nodeComparator);
+
+    int proofNode = 0;
+    int leaf = 0;
+    for (int i = 0; i < numNodes; i++) {
+      if (leaf == numLeaves
+          || (proofNode < numProofNodes && compareNodes(proofNode, leafOrder[leaf]) < 0)) {
+        nodeOrder[i] = proofNode++;
+      } else {
+        nodeOrder[i] = leafOrder[leaf++];
+      }
+    }
+  }
+
+  private int compareNodes(int first, int second) {
+    return compare(nodeKeys, first * WORDS, nodeLengths[first],
+        nodeKeys, second * WORDS, nodeLengths[second]);
+  }
+
+  /**
+   * Computes the root hash of the tree, folding its contour.
+   */
+  private HashCode computeRootHash(int numNodes) {
+    int first = nodeOrder[0];
+    int second = nodeOrder[1];
+    lastPrefixLength = commonPrefix(nodeKeys, first * WORDS, nodeLengths[first],
+        nodeKeys, second * WORDS, nodeLengths[second], lastPrefix, 0);
+    pushNode(first);
+    pushNode(second);
+    for (int i = 2; i < numNodes; i++) {
+      int node = nodeOrder[i];
+      int top = contourSize - 1;
+      int newPrefixLength = commonPrefix(contourKeys, top * WORDS, contourLengths[top],
+          nodeKeys, node * WORDS, nodeLengths[node], newPrefix, 0);
+      while (contourSize > 1 && newPrefixLength < lastPrefixLength) {
+        fold();
+      }
+      pushNode(node);
+      System.arraycopy(newPrefix, 0, lastPrefix, 0, WORDS);
+      lastPrefixLength = newPrefixLength;
+    }
+    while (contourSize > 1) {
+      fold();
+    }
+    int rootHashOffset = contourHashOffsets[0];
+    return HashCode.fromBytes(Arrays.copyOfRange(contourHashes, rootHashOffset,
+        rootHashOffset + contourHashSizes[0]));
+  }
+
+  /**
+   * Replaces the two topmost contour entries with their parent branch, which has
+   * the last prefix as its key; and updates the last prefix.
+   */
+  private void fold() {
+    int last = --contourSize;
+    int penultimate = --contourSize;
+    int branchHashSize = computeBranchHash(penultimate, last);
+
+    int parentPrefixLength = lastPrefixLength;
+    if (contourSize > 0) {
+      int previous = contourSize - 1;
+      parentPrefixLength = commonPrefix(contourKeys, previous * WORDS,
+          contourLengths[previous], lastPrefix, 0, lastPrefixLength, parentPrefix, 0);
+    }
+
+    // The branch hash is already in place of the hash of the left child
+    int branch = contourSize++;
+    System.arraycopy(lastPrefix, 0, contourKeys, branch * WORDS, WORDS);
+    contourLengths[branch] = lastPrefixLength;
+    contourHashSizes[branch] = branchHashSize;
+
+    if (contourSize > 1) {
+      System.arraycopy(parentPrefix, 0, lastPrefix, 0, WORDS);
+      lastPrefixLength = parentPrefixLength;
+    }
+  }
+
+  /**
+   * Computes the hash of the branch with the given children, which are the topmost
+   * contour entries, and writes it in place of the hash of the left child.
+   *
+   * @return the size of the branch hash
+   */
+  private int computeBranchHash(int leftChild, int rightChild) {
+    int inputOffset = contourHashOffsets[leftChild];
+    int keysOffset = contourHashOffsets[rightChild] + contourHashSizes[rightChild];
+    ensureHashCapacity(keysOffset + 2 * DB_KEY_SIZE);
+    int inputEnd = writeDbKey(contourKeys, leftChild * WORDS, contourLengths[leftChild],
+        contourHashes, keysOffset);
+    inputEnd = writeDbKey(contourKeys, rightChild * WORDS, contourLengths[rightChild],
+        contourHashes, inputEnd);
+    hasher.reset()
+        .putBytes(contourHashes, inputOffset, inputEnd - inputOffset);
+    return hasher.hashInto(contourHashes, inputOffset);
+  }
+
+  private void pushNode(int node) {
+    HashCode hash = nodeHashes[node];
+    int hashSize = hash.bits() / Byte.SIZE;
+    int i = contourSize++;
+    System.arraycopy(nodeKeys, node * WORDS, contourKeys, i * WORDS, WORDS);
+    contourLengths[i] = nodeLengths[node];
+    int hashOffset = (i == 0) ? 0 : contourHashOffsets[i - 1] + contourHashSizes[i - 1];
+    ensureHashCapacity(hashOffset + hashSize);
+    hash.writeBytesTo(contourHashes, hashOffset, hashSize);
+    contourHashOffsets[i] = hashOffset;
+    contourHashSizes[i] = hashSize;
+  }
+
+  private void ensureHashCapacity(int minCapacity) {
+    if (contourHashes.length < minCapacity) {
+      contourHashes = Arrays.copyOf(contourHashes,
+          Math.max(minCapacity, 2 * contourHashes.length));
+    }
+  }
+
+  private void allocate(int capacity) {
+    nodeKeys = new long[capacity * WORDS];
+    nodeLengths = new int[capacity];
+    nodeHashes = new HashCode[capacity];
+    nodeOrder = new int[capacity];
+    leafOrder = new Integer[capacity];
+    contourKeys = new long[capacity * WORDS];
+    contourLengths = new int[capacity];
+    contourHashes = new byte[capacity * DEFAULT_HASH_SIZE_BYTES + 2 * DB_KEY_SIZE];
+    contourHashOffsets = new int[capacity];
+    contourHashSizes = new int[capacity];
+  }
+
+  /**
+   * Writes the raw database key into the array and returns the position after it.
+   *
+   * @see #putDbKey(Hasher, long[], int, int)
+   */
+  private static int writeDbKey(long[] keys, int offset, int length, byte[] destination,
+      int destinationOffset) {
+    boolean leaf = isLeaf(length);
+    destination[destinationOffset] = leaf ? DbKey.Type.LEAF.code : DbKey.Type.BRANCH.code;
+    writeWords(keys, offset, destination, destinationOffset + 1);
+    destination[destinationOffset + DB_KEY_SIZE - 1] = leaf ? 0 : (byte) length;
+    return destinationOffset + DB_KEY_SIZE;
+  }
+
+  /**
+   * Puts the raw database key into the hasher: the node type, the key and the number
+   * of significant bits for branches.
+   */
+  private static void putDbKey(Hasher hasher, long[] keys, int offset, int length) {
+    boolean leaf = isLeaf(length);
+    hasher.putByte(leaf ? DbKey.Type.LEAF.code : DbKey.Type.BRANCH.code);
+    for (int i = 0; i < WORDS; i++) {
+      // Hashers put the primitives in little-endian order, i.e., as the words are read
+      hasher.putLong(keys[offset + i]);
+    }
+    hasher.putByte(leaf ? 0 : (byte) length);
+  }
+
+  private static void readKey(ByteString key, long[] words, int wordsOffset) {
+    checkArgument(key.size() == KEY_SIZE, "Key has invalid size: %s", key.size());
+    readWords(key, words, wordsOffset);
+  }
+
+  private static HashCode getEmptyProofListHash() {
+    return HashCode.fromBytes(new byte[DEFAULT_HASH_SIZE_BYTES]);
+  }
+}
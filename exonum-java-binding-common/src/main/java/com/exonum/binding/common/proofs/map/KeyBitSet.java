@@ -19,19 +19,23 @@ package com.exonum.binding.common.proofs.map;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import java.util.BitSet;
-import java.util.Objects;
 
 /**
  * A key bit set.
+ *
+ * <p>The bits are packed into 64-bit words in the same order as in {@link BitSet}.
  */
 public final class KeyBitSet {
 
-  private final BitSet keyBits;
+  /**
+   * The key bits. The words after the array end are zero.
+   */
+  private final long[] keyWords;
 
   /**
    * A length of this key in bits, i.e., the number of significant bits.
    *
-   * <p>NOT the same as {@code keyBits.length()}, which is the most significant set bit.</p>
+   * <p>NOT the same as {@code getKeyBits().length()}, which is the most significant set bit.</p>
    */
   private final int length;
 
@@ -42,8 +46,15 @@ public final class KeyBitSet {
    * @param length a length in bits, i.e., the number of significant bits in key array
    */
   public KeyBitSet(byte[] key, int length) {
+    this(BitSet.valueOf(key).toLongArray(), length);
+  }
+
+  /**
+   * Creates a new bit set over the given words. The array is not copied.
+   */
+  KeyBitSet(long[] keyWords, int length) {
     checkArgument(length >= 0, "length (%s) must be non-negative", length);
-    keyBits = BitSet.valueOf(key);
+    this.keyWords = keyWords;
     this.length = length;
   }
 
@@ -52,7 +63,7 @@ public final class KeyBitSet {
   }
 
   public BitSet getKeyBits() {
-    return (BitSet) keyBits.clone();
+    return BitSet.valueOf(keyWords);
   }
 
   /**
@@ -69,13 +80,26 @@ public final class KeyBitSet {
       return false;
     }
     KeyBitSet keyBitSet = (KeyBitSet) o;
-    return length == keyBitSet.length
-        && Objects.equals(keyBits, keyBitSet.keyBits);
+    if (length != keyBitSet.length) {
+      return false;
+    }
+    int numWords = Math.max(keyWords.length, keyBitSet.keyWords.length);
+    for (int i = 0; i < numWords; i++) {
+      if (getWord(i) != keyBitSet.getWord(i)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(keyBits, length);
+    int result = 1;
+    int numWords = numWordsInUse();
+    for (int i = 0; i < numWords; i++) {
+      result = 31 * result + Long.hashCode(keyWords[i]);
+    }
+    return 31 * result + length;
   }
 
   @SuppressWarnings("ReferenceEquality")
@@ -86,16 +110,33 @@ public final class KeyBitSet {
     if (other.length < this.length) {
       return false;
     }
-    BitSet thisBits = (BitSet) this.keyBits.clone();
-    thisBits.xor(other.keyBits);
-    int firstSetBitIndex = thisBits.nextSetBit(0);
-    return (firstSetBitIndex >= this.length) || (firstSetBitIndex == -1);
+    int numWords = Math.max(keyWords.length, other.keyWords.length);
+    for (int i = 0; i < numWords; i++) {
+      long difference = getWord(i) ^ other.getWord(i);
+      if (difference != 0) {
+        int firstSetBitIndex = i * Long.SIZE + Long.numberOfTrailingZeros(difference);
+        return firstSetBitIndex >= this.length;
+      }
+    }
+    return true;
+  }
+
+  private long getWord(int wordIndex) {
+    return wordIndex < keyWords.length ? keyWords[wordIndex] : 0L;
+  }
+
+  private int numWordsInUse() {
+    int numWords = keyWords.length;
+    while (numWords > 0 && keyWords[numWords - 1] == 0L) {
+      numWords--;
+    }
+    return numWords;
   }
 
   @Override
   public String toString() {
     return "KeyBitSet{"
-        + "keyBits=" + keyBits
+        + "keyBits=" + getKeyBits()
         + ", length=" + length
         + '}';
   }
@@ -34,7 +34,6 @@ public class MapProofEntry {
    * @param dbKey a 34-byte database key of the corresponding branch node
    * @param nodeHash a hash of the corresponding node
    */
-  @SuppressWarnings("unused") // Native API
   MapProofEntry(byte[] dbKey, byte[] nodeHash) {
     this(DbKey.fromBytes(dbKey), HashCode.fromBytes(nodeHash));
   }
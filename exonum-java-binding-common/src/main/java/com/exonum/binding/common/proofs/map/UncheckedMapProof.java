@@ -16,6 +16,8 @@
 
 package com.exonum.binding.common.proofs.map;
 
+import com.exonum.binding.common.proofs.UncheckedProof;
+
 /**
  * An unchecked map proof.
  * It's used to get a checked map proof.
@@ -33,10 +35,11 @@ package com.exonum.binding.common.proofs.map;
  * }
  * </code></pre>
  */
-public interface UncheckedMapProof {
+public interface UncheckedMapProof extends UncheckedProof {
 
   /**
    * Checks that a proof has either correct or incorrect structure and returns a CheckedMapProof.
    */
+  @Override
   CheckedMapProof check();
 }
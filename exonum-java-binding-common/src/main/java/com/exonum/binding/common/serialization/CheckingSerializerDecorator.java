@@ -58,6 +58,14 @@ public final class CheckingSerializerDecorator<T> implements Serializer<T> {
     return valueBytes;
   }
 
+  @Override
+  public byte[] toBytesNoCopy(T value) {
+    byte[] valueBytes = delegate.toBytesNoCopy(checkNotNull(value, "value is null"));
+    checkState(valueBytes != null,
+        "Broken serializer (%s): produces null byte array for a non-null value", delegate);
+    return valueBytes;
+  }
+
   @Override
   public T fromBytes(byte[] serializedValue) {
     T value = delegate.fromBytes(checkNotNull(serializedValue, "serializedValue is null"));
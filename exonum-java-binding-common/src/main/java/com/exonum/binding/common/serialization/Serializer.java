@@ -40,6 +40,23 @@ public interface Serializer<T> {
    */
   byte[] toBytes(T value);
 
+  /**
+   * Serializes a given value into a byte array, which may be shared with the value
+   * (e.g., be its internal state). The caller <strong>must not</strong> modify the returned array.
+   *
+   * <p>Storage proxies use this method to serialize the keys they pass to the native code,
+   * which only reads them. Serializers of immutable values that keep their binary
+   * representation may override it to avoid copying; the default implementation
+   * returns {@link #toBytes(Object)}.
+   *
+   * @param value a value to serialize, must not be null
+   * @return a byte array containing a serialized value; must not be modified
+   * @throws NullPointerException if value is null
+   */
+  default byte[] toBytesNoCopy(T value) {
+    return toBytes(value);
+  }
+
   /**
    * De-serializes a value from a given byte array.
    *
@@ -16,6 +16,19 @@
 
 package com.exonum.binding.common.crypto;
 
+import static com.exonum.binding.test.Bytes.bytes;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.Hasher;
+import com.exonum.binding.common.hash.Hashing;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import org.junit.jupiter.api.Test;
 
@@ -25,6 +38,7 @@ class AbstractKeyTest {
   void verifyEqualsPublicKey() {
     EqualsVerifier.forClass(PublicKey.class)
         .usingGetClass()
+        .withCachedHashCode("hash", "calculateHashCode", PublicKey.fromBytes(bytes(1, 2, 3)))
         .verify();
   }
 
@@ -32,6 +46,67 @@ class AbstractKeyTest {
   void verifyEqualsPrivateKey() {
     EqualsVerifier.forClass(PrivateKey.class)
         .usingGetClass()
+        .withCachedHashCode("hash", "calculateHashCode", PrivateKey.fromBytes(bytes(1, 2, 3)))
         .verify();
   }
+
+  @Test
+  void hashCodeIsCached() {
+    byte[] keyBytes = bytes(1, 2, 3);
+    PublicKey key = PublicKey.fromBytes(keyBytes);
+
+    int hashCode = key.hashCode();
+
+    assertEquals(Arrays.hashCode(keyBytes), hashCode);
+    assertEquals(hashCode, key.hashCode());
+  }
+
+  @Test
+  void toBytesReturnsCopy() {
+    PublicKey key = PublicKey.fromBytes(bytes(1, 2, 3));
+
+    byte[] keyBytes = key.toBytes();
+
+    assertNotSame(key.toBytesNoCopy(), keyBytes);
+    assertArrayEquals(key.toBytesNoCopy(), keyBytes);
+  }
+
+  @Test
+  void toBytesNoCopyReturnsSameArray() {
+    PublicKey key = PublicKey.fromBytes(bytes(1, 2, 3));
+
+    assertSame(key.toBytesNoCopy(), key.toBytesNoCopy());
+  }
+
+  @Test
+  void writeBytesToBuffer() {
+    PublicKey key = PublicKey.fromBytes(bytes(1, 2, 3));
+    ByteBuffer buffer = ByteBuffer.allocate(5);
+    buffer.put((byte) 0);
+
+    key.writeBytesTo(buffer);
+
+    assertEquals(4, buffer.position());
+    assertArrayEquals(bytes(0, 1, 2, 3, 0), buffer.array());
+  }
+
+  @Test
+  void writeBytesToBufferWithNotEnoughSpace() {
+    PublicKey key = PublicKey.fromBytes(bytes(1, 2, 3));
+    ByteBuffer buffer = ByteBuffer.allocate(2);
+
+    assertThrows(BufferOverflowException.class, () -> key.writeBytesTo(buffer));
+  }
+
+  @Test
+  void writeBytesToSink() {
+    byte[] keyBytes = bytes(1, 2, 3);
+    PublicKey key = PublicKey.fromBytes(keyBytes);
+    Hasher hasher = Hashing.defaultHashFunction().newHasher();
+
+    key.writeBytesTo(hasher);
+    HashCode hash = hasher.hash();
+
+    assertEquals(Hashing.defaultHashFunction().hashBytes(keyBytes), hash);
+  }
 }
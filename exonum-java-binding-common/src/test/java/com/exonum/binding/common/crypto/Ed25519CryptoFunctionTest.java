@@ -23,6 +23,7 @@ import static com.exonum.binding.common.crypto.CryptoFunctions.Ed25519.SIGNATURE
 import static com.exonum.binding.test.Bytes.bytes;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -36,6 +37,11 @@ class Ed25519CryptoFunctionTest {
 
   private static final CryptoFunction CRYPTO_FUNCTION = CryptoFunctions.ed25519();
 
+  @Test
+  void nativeEd25519FallsBackWithoutNativeLibrary() {
+    assertThat(CryptoFunctions.nativeEd25519(), sameInstance(CRYPTO_FUNCTION));
+  }
+
   @Test
   void generateKeyPairWithSeed() {
     byte[] seed = new byte[SEED_BYTES];
@@ -32,10 +32,13 @@ package com.exonum.binding.common.hash;
 import static com.google.common.base.Charsets.UTF_16LE;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Random;
 import org.junit.jupiter.api.Test;
 
@@ -58,6 +61,26 @@ class AbstractByteHasherTest {
     hasher.assertBytes(expected);
   }
 
+  @Test
+  void testDirectBuffer() {
+    Random random = new Random();
+    // Larger than a chunk, and not a multiple of its size
+    byte[] bytes = new byte[1500];
+    random.nextBytes(bytes);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 2);
+    buffer.put(bytes);
+    buffer.position(1);
+    buffer.limit(bytes.length - 1);
+
+    TestHasher hasher = new TestHasher();
+    hasher.putBytes(new byte[]{});
+    hasher.putBytes(ByteBuffer.allocateDirect(0));
+    hasher.putBytes(buffer);
+
+    assertFalse(buffer.hasRemaining());
+    hasher.assertBytes(Arrays.copyOfRange(bytes, 1, bytes.length - 1));
+  }
+
   @Test
   void testShort() {
     TestHasher hasher = new TestHasher();
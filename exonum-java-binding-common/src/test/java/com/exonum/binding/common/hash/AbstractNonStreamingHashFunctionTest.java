@@ -32,6 +32,7 @@
 package com.exonum.binding.common.hash;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import com.exonum.binding.common.hash.HashTestUtils.RandomHasherAction;
 import com.google.common.collect.ImmutableList;
@@ -71,6 +72,31 @@ class AbstractNonStreamingHashFunctionTest {
     }
   }
 
+  @Test
+  void testHashBytesOfHeapBuffer() {
+    byte[] bytes = {0, 1, 2, 3, 4, 5, 6, 7};
+    ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, 6)
+        .slice();
+    buffer.position(1);
+
+    HashCode hash = new NonStreamingVersion().hashBytes(buffer);
+
+    assertEquals(HashCode.fromBytes(new byte[]{2, 3, 4, 5, 6}), hash);
+    assertFalse(buffer.hasRemaining());
+  }
+
+  @Test
+  void testHashBytesOfDirectBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(6);
+    buffer.put(new byte[]{1, 2, 3, 4, 5, 6});
+    buffer.position(1);
+
+    HashCode hash = new NonStreamingVersion().hashBytes(buffer);
+
+    assertEquals(HashCode.fromBytes(new byte[]{2, 3, 4, 5, 6}), hash);
+    assertFalse(buffer.hasRemaining());
+  }
+
   @Test
   void testPutStringWithLowSurrogate() {
     // we pad because the dummy hash function we use to test this, merely copies the input into
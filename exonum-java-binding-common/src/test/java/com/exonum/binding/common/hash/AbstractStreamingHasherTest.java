@@ -120,6 +120,32 @@ class AbstractStreamingHasherTest {
     }
   }
 
+  @Test
+  void testDirectBuffer() {
+    byte[] bytes = new byte[30];
+    new Random().nextBytes(bytes);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 1)
+        .order(ByteOrder.BIG_ENDIAN);
+    buffer.put(bytes);
+    buffer.flip();
+
+    Sink sink = new Sink(4, 12);
+    sink.putByte((byte) 1);
+    sink.putByte((byte) 2);
+    sink.putBytes(buffer);
+    HashCode unused = sink.hash();
+
+    assertFalse(buffer.hasRemaining());
+    assertEquals(bytes.length, buffer.limit());
+    assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+    sink.assertInvariants(bytes.length + 2);
+    byte[] expected = new byte[bytes.length + 2];
+    expected[0] = 1;
+    expected[1] = 2;
+    System.arraycopy(bytes, 0, expected, 2, bytes.length);
+    sink.assertBytes(expected);
+  }
+
   @Test
   void testFloat() {
     Sink sink = new Sink(4);
@@ -36,11 +36,18 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.BaseEncoding;
 import com.google.common.testing.ClassSanityTester;
+import com.google.common.testing.EqualsTester;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import org.junit.jupiter.api.Test;
 
@@ -359,6 +366,165 @@ class HashCodeTest {
     assertTrue(Arrays.equals(new byte[]{(byte) 0xaa, (byte) 0xbb, (byte) 0x00}, dest));
   }
 
+  @Test
+  void test256BitsFromBytes() {
+    byte[] bytes = bytes256();
+    HashCode hash = HashCode.fromBytes(bytes);
+
+    assertEquals(256, hash.bits());
+    assertTrue(Arrays.equals(bytes, hash.asBytes()));
+    assertEquals(0x03020100, hash.asInt());
+    assertEquals(0x0706050403020100L, hash.asLong());
+    assertEquals(0x0706050403020100L, hash.padToLong());
+    assertEquals(base16().lowerCase().encode(bytes), hash.toString());
+    assertSideEffectFree(hash);
+    assertReadableBytes(hash);
+  }
+
+  @Test
+  void test256BitsFromBytes_copyOccurs() {
+    byte[] bytes = bytes256();
+    HashCode hash = HashCode.fromBytes(bytes);
+
+    bytes[0]++;
+
+    assertEquals(HashCode.fromBytes(bytes256()), hash);
+  }
+
+  @Test
+  void test256BitsFromString() {
+    byte[] bytes = bytes256();
+    String hex = base16().lowerCase().encode(bytes);
+    HashCode hash = HashCode.fromString(hex);
+
+    assertTrue(Arrays.equals(bytes, hash.asBytes()));
+    assertEquals(hex, hash.toString());
+  }
+
+  @Test
+  void test256BitsFromStringFailsWithInvalidHexChar() {
+    String hex = Strings.repeat("0", 63) + "g";
+
+    assertThrows(IllegalArgumentException.class, () -> HashCode.fromString(hex));
+  }
+
+  @Test
+  void test256BitsEqualsAndHashCode() {
+    byte[] bytes = bytes256();
+    byte[] otherBytes = bytes256();
+    otherBytes[31]++;
+
+    new EqualsTester()
+        .addEqualityGroup(HashCode.fromBytes(bytes), HashCode.fromBytesNoCopy(bytes256()),
+            HashCode.fromString(base16().lowerCase().encode(bytes)))
+        .addEqualityGroup(HashCode.fromBytes(otherBytes))
+        .testEquals();
+  }
+
+  @Test
+  void test256BitsObjectHashCode() {
+    HashCode hash = HashCode.fromBytes(bytes256());
+
+    assertEquals(hash.asInt(), hash.hashCode());
+  }
+
+  @Test
+  void test256BitsWriteBytesToArray() {
+    byte[] dest = new byte[34];
+    HashCode.fromBytes(bytes256()).writeBytesTo(dest, 1, 32);
+
+    byte[] expected = new byte[34];
+    System.arraycopy(bytes256(), 0, expected, 1, 32);
+    assertTrue(Arrays.equals(expected, dest));
+  }
+
+  @Test
+  void writeBytesToBigEndianBuffer() {
+    checkWriteBytesToBuffer(ByteOrder.BIG_ENDIAN);
+  }
+
+  @Test
+  void writeBytesToLittleEndianBuffer() {
+    checkWriteBytesToBuffer(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private static void checkWriteBytesToBuffer(ByteOrder order) {
+    ByteBuffer buffer = ByteBuffer.allocate(34)
+        .order(order);
+    buffer.position(1);
+
+    HashCode.fromBytes(bytes256()).writeBytesTo(buffer);
+
+    assertEquals(33, buffer.position());
+    assertEquals(order, buffer.order());
+    byte[] expected = new byte[34];
+    System.arraycopy(bytes256(), 0, expected, 1, 32);
+    assertTrue(Arrays.equals(expected, buffer.array()));
+  }
+
+  @Test
+  void writeBytesToBufferOfShortHash() {
+    ByteBuffer buffer = ByteBuffer.allocate(4);
+
+    HASH_ABCD.writeBytesTo(buffer);
+
+    assertEquals(4, buffer.position());
+    assertTrue(Arrays.equals(HASH_ABCD.asBytes(), buffer.array()));
+  }
+
+  @Test
+  void writeBytesToBufferWithNotEnoughSpace() {
+    ByteBuffer buffer = ByteBuffer.allocate(32);
+    buffer.position(1);
+    HashCode hash = HashCode.fromBytes(bytes256());
+
+    assertThrows(BufferOverflowException.class, () -> hash.writeBytesTo(buffer));
+    // Must not write anything
+    assertEquals(1, buffer.position());
+  }
+
+  @Test
+  void test256BitsFunnel() {
+    HashCode hash = HashCode.fromBytes(bytes256());
+    HashFunction sha256 = Hashing.sha256();
+
+    HashCode funneled = sha256.newHasher()
+        .putObject(hash, Funnels.hashCodeFunnel())
+        .hash();
+
+    assertEquals(sha256.hashBytes(bytes256()), funneled);
+  }
+
+  @Test
+  void test256BitsFunnelIntoNonHasherSink() {
+    HashCode hash = HashCode.fromBytes(bytes256());
+    PrimitiveSink sink = mock(PrimitiveSink.class);
+
+    Funnels.hashCodeFunnel().funnel(hash, sink);
+
+    verify(sink).putBytes(bytes256());
+  }
+
+  @Test
+  void test256BitsSha256() {
+    byte[] input = "hello".getBytes(Charsets.UTF_8);
+    HashCode hash = Hashing.sha256().hashBytes(input);
+
+    assertEquals("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824",
+        hash.toString());
+  }
+
+  /**
+   * Returns 32 bytes: 0, 1, …, 31.
+   */
+  private static byte[] bytes256() {
+    byte[] bytes = new byte[32];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) i;
+    }
+    return bytes;
+  }
+
   private static ClassSanityTester.FactoryMethodReturnValueTester sanityTester() {
     return new ClassSanityTester()
         .setDefault(byte[].class, new byte[]{1, 2, 3, 4})
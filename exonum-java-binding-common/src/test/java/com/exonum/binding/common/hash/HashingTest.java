@@ -33,6 +33,7 @@ package com.exonum.binding.common.hash;
 
 import static com.exonum.binding.test.Bytes.bytes;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -64,6 +65,11 @@ class HashingTest {
     assertThat(f.hashBytes(ByteBuffer.allocate(0)), equalTo(ZERO_HASH_CODE));
   }
 
+  @Test
+  void nativeSha256FallsBackWithoutNativeLibrary() {
+    assertThat(Hashing.nativeSha256(), sameInstance(Hashing.sha256()));
+  }
+
   @Test
   void testSha256() {
     HashTestUtils.checkAvalanche(Hashing.sha256(), 100, 0.4);
@@ -37,6 +37,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.ByteString;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
@@ -95,6 +96,76 @@ class MessageDigestHashFunctionTest {
     assertThrows(IllegalStateException.class, () -> sha256.hash());
   }
 
+  @Test
+  void testResettableHasherReset() {
+    ResettableHasher sha256 = Hashing.newResettableHasher();
+    HashCode first = sha256.putString("first", Charsets.UTF_8)
+        .hash();
+
+    HashCode second = sha256.reset()
+        .putString("second", Charsets.UTF_8)
+        .hash();
+
+    assertEquals(Hashing.sha256().hashString("first", Charsets.UTF_8), first);
+    assertEquals(Hashing.sha256().hashString("second", Charsets.UTF_8), second);
+  }
+
+  @Test
+  void testResettableHasherHashInto() {
+    ResettableHasher sha256 = Hashing.newResettableHasher();
+    byte[] out = new byte[2 + 2 * 32];
+
+    sha256.putString("first", Charsets.UTF_8);
+    int size = sha256.hashInto(out, 2);
+    sha256.putString("second", Charsets.UTF_8);
+    sha256.hashInto(out, 2 + size);
+
+    assertEquals(32, size);
+    assertEquals(Hashing.sha256().hashString("first", Charsets.UTF_8),
+        HashCode.fromBytes(Arrays.copyOfRange(out, 2, 2 + size)));
+    assertEquals(Hashing.sha256().hashString("second", Charsets.UTF_8),
+        HashCode.fromBytes(Arrays.copyOfRange(out, 2 + size, out.length)));
+  }
+
+  @Test
+  void testResettableHasherHashIntoTruncated() {
+    MessageDigestHashFunction sha256Truncated =
+        new MessageDigestHashFunction("SHA-256", 8, "SHA-256");
+    ResettableHasher hasher = sha256Truncated.newHasher();
+    byte[] out = new byte[8];
+
+    hasher.putInt(42);
+    hasher.hashInto(out, 0);
+
+    assertEquals(sha256Truncated.hashInt(42), HashCode.fromBytes(out));
+  }
+
+  @Test
+  void testResettableHasherHashIntoTooSmallArray() {
+    ResettableHasher sha256 = Hashing.newResettableHasher();
+
+    assertThrows(IndexOutOfBoundsException.class, () -> sha256.hashInto(new byte[32], 1));
+  }
+
+  @Test
+  void testHashByteString() {
+    ByteString input = ByteString.copyFromUtf8("foo")
+        .concat(ByteString.copyFromUtf8("bar"));
+
+    assertEquals(Hashing.sha256().hashBytes(input.toByteArray()),
+        Hashing.sha256().hashByteString(input));
+  }
+
+  @Test
+  void testHashBytesWithOffset() {
+    byte[] input = HashTestUtils.ascii("foobar");
+
+    assertEquals(Hashing.sha256().hashBytes(HashTestUtils.ascii("oba")),
+        Hashing.sha256().hashBytes(input, 2, 3));
+    assertThrows(IndexOutOfBoundsException.class,
+        () -> Hashing.sha256().hashBytes(input, 4, 3));
+  }
+
   @Test
   void testToString() {
     assertEquals("Hashing.sha256()", Hashing.sha256().toString());
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.proofs;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.proofs.list.CheckedListProof;
+import com.exonum.binding.common.proofs.list.ListProofBranch;
+import com.exonum.binding.common.proofs.list.ListProofElement;
+import com.exonum.binding.common.proofs.list.ListProofHashNode;
+import com.exonum.binding.common.proofs.list.ListProofNode;
+import com.exonum.binding.common.proofs.list.UncheckedListProof;
+import com.exonum.binding.common.proofs.list.UncheckedListProofAdapter;
+import com.exonum.binding.common.serialization.StandardSerializers;
+import com.google.protobuf.ByteString;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class IncrementalProofVerifierTest {
+
+  private static final HashCode H1 = HashCode.fromString("a1");
+  private static final HashCode H2 = HashCode.fromString("a2");
+
+  @Test
+  void checkReturnsSameResultAsProof() {
+    IncrementalProofVerifier verifier = new IncrementalProofVerifier();
+    UncheckedListProof proof = proofOf(new ListProofBranch(leafOf("v1"), leafOf("v2")),
+        new ListProofHashNode(H1));
+
+    CheckedListProof checkedProof = verifier.check(proof);
+
+    CheckedListProof expected = proof.check();
+    assertThat(checkedProof.getRootHash(), equalTo(expected.getRootHash()));
+    assertThat(checkedProof.getElements(), equalTo(expected.getElements()));
+    assertThat(verifier.getLastRootHash(), equalTo(Optional.of(expected.getRootHash())));
+  }
+
+  @Test
+  void checkInvalidProofKeepsLastRootHash() {
+    IncrementalProofVerifier verifier = new IncrementalProofVerifier();
+    CheckedListProof valid = verifier.check(proofOf(leafOf("v1"), new ListProofHashNode(H1)));
+
+    CheckedListProof invalid = verifier.check(proofOf(new ListProofHashNode(H1),
+        new ListProofHashNode(H2)));
+
+    assertFalse(invalid.isValid());
+    assertThat(verifier.getLastRootHash(), equalTo(Optional.of(valid.getRootHash())));
+  }
+
+  private static UncheckedListProof proofOf(ListProofNode left, ListProofNode right) {
+    return new UncheckedListProofAdapter<>(new ListProofBranch(left, right),
+        StandardSerializers.string());
+  }
+
+  private static ListProofElement leafOf(String element) {
+    return new ListProofElement(ByteString.copyFromUtf8(element));
+  }
+}
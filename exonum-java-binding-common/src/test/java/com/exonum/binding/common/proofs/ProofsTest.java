@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.proofs;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.proofs.list.CheckedListProof;
+import com.exonum.binding.common.proofs.list.ListProofBranch;
+import com.exonum.binding.common.proofs.list.ListProofElement;
+import com.exonum.binding.common.proofs.list.ListProofHashNode;
+import com.exonum.binding.common.proofs.list.ListProofNode;
+import com.exonum.binding.common.proofs.list.UncheckedListProofAdapter;
+import com.exonum.binding.common.serialization.StandardSerializers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class ProofsTest {
+
+  private static final HashCode H1 = HashCode.fromString("a1");
+  private static final HashCode H2 = HashCode.fromString("a2");
+
+  @Test
+  void checkAllEmpty() {
+    List<CheckedProof> checkedProofs = Proofs.checkAll(ImmutableList.of());
+
+    assertThat(checkedProofs, equalTo(ImmutableList.of()));
+  }
+
+  @Test
+  void checkAllReturnsResultsInOrder() {
+    List<UncheckedProof> proofs = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      proofs.add(proofOf(leafOf("v" + i), new ListProofHashNode(H1)));
+    }
+    // An invalid proof
+    proofs.add(proofOf(new ListProofHashNode(H1), new ListProofHashNode(H2)));
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<CheckedProof> checkedProofs = Proofs.checkAll(proofs, executor);
+
+      assertThat(checkedProofs.size(), equalTo(proofs.size()));
+      for (int i = 0; i < proofs.size(); i++) {
+        CheckedProof expected = proofs.get(i).check();
+        CheckedProof actual = checkedProofs.get(i);
+        assertThat(actual.getProofStatus(), equalTo(expected.getProofStatus()));
+        if (expected.isValid()) {
+          assertThat(actual.getRootHash(), equalTo(expected.getRootHash()));
+          assertThat(((CheckedListProof<?>) actual).getElements(),
+              equalTo(((CheckedListProof<?>) expected).getElements()));
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void checkAllRethrowsCheckExceptions() {
+    UncheckedProof proof = mock(UncheckedProof.class);
+    IllegalStateException checkException = new IllegalStateException("Check failed");
+    when(proof.check()).thenThrow(checkException);
+
+    IllegalStateException thrown = assertThrows(IllegalStateException.class,
+        () -> Proofs.checkAll(ImmutableList.of(proof), MoreExecutors.directExecutor()));
+
+    assertThat(thrown, sameInstance(checkException));
+  }
+
+  @Test
+  void checkAllProofsWithSharedSubTrees() {
+    // Both proofs have the same left sub-tree
+    ListProofNode subtree = new ListProofBranch(leafOf("v1"), leafOf("v2"));
+    UncheckedProof first = proofOf(subtree, new ListProofHashNode(H1));
+    UncheckedProof second = proofOf(subtree, new ListProofHashNode(H2));
+
+    List<CheckedProof> checkedProofs = Proofs.checkAll(ImmutableList.of(first, second),
+        MoreExecutors.directExecutor());
+
+    assertThat(checkedProofs.get(0).getRootHash(), equalTo(first.check().getRootHash()));
+    assertThat(checkedProofs.get(1).getRootHash(), equalTo(second.check().getRootHash()));
+  }
+
+  private static UncheckedProof proofOf(ListProofNode left, ListProofNode right) {
+    return new UncheckedListProofAdapter<>(new ListProofBranch(left, right),
+        StandardSerializers.string());
+  }
+
+  private static ListProofElement leafOf(String element) {
+    return new ListProofElement(ByteString.copyFromUtf8(element));
+  }
+}
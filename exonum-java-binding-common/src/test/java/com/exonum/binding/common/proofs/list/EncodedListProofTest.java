@@ -0,0 +1,281 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.proofs.list;
+
+import static com.exonum.binding.common.proofs.ProofEncoding.FLAT_MAP_PROOF;
+import static com.exonum.binding.common.proofs.ProofEncoding.FORMAT_VERSION;
+import static com.exonum.binding.common.proofs.ProofEncoding.LIST_BRANCH;
+import static com.exonum.binding.common.proofs.ProofEncoding.LIST_BRANCH_LEFT_ONLY;
+import static com.exonum.binding.common.proofs.ProofEncoding.LIST_ELEMENT;
+import static com.exonum.binding.common.proofs.ProofEncoding.LIST_HASH;
+import static com.exonum.binding.common.proofs.ProofEncoding.LIST_PROOF;
+import static com.exonum.binding.common.proofs.list.ListProofUtils.getBranchHashCode;
+import static com.exonum.binding.common.proofs.list.ListProofUtils.getNodeHashCode;
+import static com.exonum.binding.common.proofs.list.ListProofUtils.leafOf;
+import static com.google.common.collect.ImmutableMap.of;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.serialization.Serializer;
+import com.exonum.binding.common.serialization.StandardSerializers;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class EncodedListProofTest {
+
+  private static final Serializer<String> SERIALIZER = StandardSerializers.string();
+
+  private static final String V1 = "v1";
+  private static final String V2 = "v2";
+
+  private static final HashCode H1 = HashCode.fromString(
+      "a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1a1");
+
+  @Test
+  void checkFullBranch() {
+    byte[] encodedProof = new ProofBytes()
+        .branch()
+        .element(V1)
+        .element(V2)
+        .toByteArray();
+
+    CheckedListProof checkedProof = createProof(encodedProof).check();
+
+    assertThat(checkedProof.getProofStatus(), is(ListProofStatus.VALID));
+    assertThat(checkedProof.getElements(), equalTo(of(0L, V1, 1L, V2)));
+    HashCode expectedRootHash = getBranchHashCode(getNodeHashCode(V1), getNodeHashCode(V2));
+    assertThat(checkedProof.getRootHash(), equalTo(expectedRootHash));
+  }
+
+  @Test
+  void checkBranchWithHash() {
+    byte[] encodedProof = new ProofBytes()
+        .branch()
+        .hash(H1)
+        .element(V2)
+        .toByteArray();
+
+    CheckedListProof checkedProof = createProof(encodedProof).check();
+
+    assertThat(checkedProof.getProofStatus(), is(ListProofStatus.VALID));
+    assertThat(checkedProof.getElements(), equalTo(of(1L, V2)));
+    assertThat(checkedProof.getRootHash(), equalTo(getBranchHashCode(H1, getNodeHashCode(V2))));
+  }
+
+  @Test
+  void checkBranchWithLeftChildOnly() {
+    byte[] encodedProof = new ProofBytes()
+        .branchLeftOnly()
+        .element(V1)
+        .toByteArray();
+
+    CheckedListProof checkedProof = createProof(encodedProof).check();
+
+    assertThat(checkedProof.getProofStatus(), is(ListProofStatus.VALID));
+    assertThat(checkedProof.getElements(), equalTo(of(0L, V1)));
+    assertThat(checkedProof.getRootHash(), equalTo(getBranchHashCode(getNodeHashCode(V1), null)));
+  }
+
+  @Test
+  void checkSameAsAdapter() {
+    byte[] encodedProof = new ProofBytes()
+        .branch()
+        .element(V1)
+        .hash(H1)
+        .toByteArray();
+    ListProofBranch root = new ListProofBranch(leafOf(V1), new ListProofHashNode(H1));
+
+    CheckedListProof expected = new UncheckedListProofAdapter<>(root, SERIALIZER).check();
+    CheckedListProof actual = createProof(encodedProof).check();
+
+    assertThat(actual.getProofStatus(), equalTo(expected.getProofStatus()));
+    assertThat(actual.getRootHash(), equalTo(expected.getRootHash()));
+    assertThat(actual.getElements(), equalTo(expected.getElements()));
+  }
+
+  @Test
+  void checkInvalidProof() {
+    byte[] encodedProof = new ProofBytes()
+        .branch()
+        .hash(H1)
+        .hash(H1)
+        .toByteArray();
+
+    CheckedListProof checkedProof = createProof(encodedProof).check();
+
+    assertThat(checkedProof.getProofStatus(), is(ListProofStatus.INVALID_TREE_NO_ELEMENTS));
+  }
+
+  @Test
+  void getRootProofNode() {
+    byte[] encodedProof = new ProofBytes()
+        .branch()
+        .element(V1)
+        .hash(H1)
+        .toByteArray();
+
+    ListProofNode root = createProof(encodedProof).getRootProofNode();
+
+    assertThat(root, instanceOf(ListProofBranch.class));
+    ListProofBranch branch = (ListProofBranch) root;
+    assertThat(((ListProofElement) branch.getLeft()).getElement(),
+        equalTo(leafOf(V1).getElement()));
+    assertThat(((ListProofHashNode) branch.getRight().get()).getHash(), equalTo(H1));
+  }
+
+  @Test
+  void toByteArrayReturnsCopy() {
+    byte[] encodedProof = new ProofBytes()
+        .element(V1)
+        .toByteArray();
+    byte[] source = encodedProof.clone();
+
+    EncodedListProof<String> proof = createProof(source);
+    source[2] = LIST_HASH;
+    byte[] proofBytes = proof.toByteArray();
+    proofBytes[2] = LIST_HASH;
+
+    assertThat(proof.toByteArray(), equalTo(encodedProof));
+  }
+
+  @Test
+  void fromBytesRejectsUnsupportedVersion() {
+    byte[] encodedProof = new ProofBytes()
+        .element(V1)
+        .toByteArray();
+    encodedProof[0] = FORMAT_VERSION + 1;
+
+    assertThrows(IllegalArgumentException.class, () -> createProof(encodedProof));
+  }
+
+  @Test
+  void fromBytesRejectsOtherProofKind() {
+    byte[] encodedProof = {FORMAT_VERSION, FLAT_MAP_PROOF, 0, 0, 0, 0};
+
+    assertThrows(IllegalArgumentException.class, () -> createProof(encodedProof));
+  }
+
+  @Test
+  void fromBytesRejectsEmptyArray() {
+    assertThrows(IllegalArgumentException.class, () -> createProof(new byte[0]));
+  }
+
+  @Test
+  void checkRejectsTruncatedProof() {
+    byte[] encodedProof = new ProofBytes()
+        .branch()
+        .element(V1)
+        .hash(H1)
+        .toByteArray();
+    byte[] truncated = Arrays.copyOf(encodedProof, encodedProof.length - 1);
+
+    EncodedListProof<String> proof = createProof(truncated);
+
+    assertThrows(IllegalArgumentException.class, proof::check);
+  }
+
+  @Test
+  void checkRejectsTrailingBytes() {
+    byte[] encodedProof = new ProofBytes()
+        .element(V1)
+        .hash(H1)
+        .toByteArray();
+
+    EncodedListProof<String> proof = createProof(encodedProof);
+
+    assertThrows(IllegalArgumentException.class, proof::check);
+  }
+
+  @Test
+  void checkRejectsUnknownNodeTag() {
+    byte[] encodedProof = {FORMAT_VERSION, LIST_PROOF, 7};
+
+    EncodedListProof<String> proof = createProof(encodedProof);
+
+    assertThrows(IllegalArgumentException.class, proof::check);
+  }
+
+  @Test
+  void checkRejectsTooDeepTree() {
+    ProofBytes proofBytes = new ProofBytes();
+    for (int i = 0; i < 1000; i++) {
+      proofBytes.branchLeftOnly();
+    }
+    byte[] encodedProof = proofBytes.element(V1)
+        .toByteArray();
+
+    EncodedListProof<String> proof = createProof(encodedProof);
+
+    assertThrows(IllegalArgumentException.class, proof::check);
+  }
+
+  private static EncodedListProof<String> createProof(byte[] encodedProof) {
+    return EncodedListProof.fromBytes(encodedProof, SERIALIZER);
+  }
+
+  /**
+   * Encodes a list proof tree in pre-order.
+   */
+  private static class ProofBytes {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    ProofBytes() {
+      out.write(FORMAT_VERSION);
+      out.write(LIST_PROOF);
+    }
+
+    ProofBytes branch() {
+      out.write(LIST_BRANCH);
+      return this;
+    }
+
+    ProofBytes branchLeftOnly() {
+      out.write(LIST_BRANCH_LEFT_ONLY);
+      return this;
+    }
+
+    ProofBytes hash(HashCode hash) {
+      out.write(LIST_HASH);
+      byte[] bytes = hash.asBytes();
+      out.write(bytes, 0, bytes.length);
+      return this;
+    }
+
+    ProofBytes element(String value) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      out.write(LIST_ELEMENT);
+      int size = bytes.length;
+      out.write(size);
+      out.write(size >>> 8);
+      out.write(size >>> 16);
+      out.write(size >>> 24);
+      out.write(bytes, 0, size);
+      return this;
+    }
+
+    byte[] toByteArray() {
+      return out.toByteArray();
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.proofs.list;
+
+import static com.exonum.binding.common.hash.Hashing.DEFAULT_HASH_SIZE_BYTES;
+import static com.exonum.binding.common.proofs.list.ListProofUtils.getBranchHashCode;
+import static com.exonum.binding.common.proofs.list.ListProofUtils.getNodeHashCode;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.HashFunction;
+import com.exonum.binding.common.hash.Hashing;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ListMerkleRootTest {
+
+  private static final HashFunction HASH_FUNCTION = Hashing.defaultHashFunction();
+
+  private static final HashCode EMPTY_LIST_ROOT_HASH =
+      HashCode.fromBytes(new byte[DEFAULT_HASH_SIZE_BYTES]);
+
+  @Test
+  void rootHashOfEmptyList() {
+    assertEquals(EMPTY_LIST_ROOT_HASH, ListMerkleRoot.of(Collections.emptyList()));
+    assertEquals(EMPTY_LIST_ROOT_HASH, ListMerkleRoot.ofElementHashes(Collections.emptyList()));
+    assertEquals(EMPTY_LIST_ROOT_HASH, ListMerkleRoot.ofElementHashes(Stream.empty()));
+  }
+
+  @Test
+  void rootHashOfSingletonList() {
+    HashCode expected = getNodeHashCode("v1");
+
+    assertRootHash(expected, elements("v1"));
+  }
+
+  @Test
+  void rootHashOf2ElementList() {
+    HashCode expected = getBranchHashCode(getNodeHashCode("v1"), getNodeHashCode("v2"));
+
+    assertRootHash(expected, elements("v1", "v2"));
+  }
+
+  @Test
+  void rootHashOf3ElementList() {
+    HashCode expected = getBranchHashCode(
+        getBranchHashCode(getNodeHashCode("v1"), getNodeHashCode("v2")),
+        getBranchHashCode(getNodeHashCode("v3"), null)
+    );
+
+    assertRootHash(expected, elements("v1", "v2", "v3"));
+  }
+
+  @Test
+  void rootHashOf5ElementList() {
+    HashCode expected = getBranchHashCode(
+        getBranchHashCode(
+            getBranchHashCode(getNodeHashCode("v1"), getNodeHashCode("v2")),
+            getBranchHashCode(getNodeHashCode("v3"), getNodeHashCode("v4"))
+        ),
+        getBranchHashCode(
+            getBranchHashCode(getNodeHashCode("v5"), null),
+            null
+        )
+    );
+
+    assertRootHash(expected, elements("v1", "v2", "v3", "v4", "v5"));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {6, 7, 8, 9, 15, 16, 17, 33, 100,
+      ListMerkleRoot.SEQUENTIAL_THRESHOLD,
+      ListMerkleRoot.SEQUENTIAL_THRESHOLD + 1,
+      4 * ListMerkleRoot.SEQUENTIAL_THRESHOLD + 5})
+  void rootHashIsEqualToReference(int size) {
+    List<byte[]> elements = IntStream.range(0, size)
+        .mapToObj(i -> ("element #" + i).getBytes(UTF_8))
+        .collect(toList());
+
+    HashCode expected = referenceRootHash(elements);
+
+    assertRootHash(expected, elements);
+  }
+
+  @Test
+  void rootHashInCustomPool() {
+    List<byte[]> elements = IntStream.range(0, 3 * ListMerkleRoot.SEQUENTIAL_THRESHOLD)
+        .mapToObj(i -> new byte[]{(byte) i, (byte) (i >>> 8)})
+        .collect(toList());
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      assertEquals(referenceRootHash(elements), ListMerkleRoot.of(elements, pool));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void rootHashFailsIfNullElementHash() {
+    List<HashCode> hashes = Arrays.asList(getNodeHashCode("v1"), null);
+
+    assertThrows(NullPointerException.class, () -> ListMerkleRoot.ofElementHashes(hashes));
+    assertThrows(NullPointerException.class,
+        () -> ListMerkleRoot.ofElementHashes(hashes.stream()));
+  }
+
+  private static void assertRootHash(HashCode expected, List<byte[]> elements) {
+    List<HashCode> hashes = elements.stream()
+        .map(HASH_FUNCTION::hashBytes)
+        .collect(toList());
+
+    assertEquals(expected, ListMerkleRoot.of(elements));
+    assertEquals(expected, ListMerkleRoot.ofElementHashes(hashes));
+    assertEquals(expected, ListMerkleRoot.ofElementHashes(hashes.stream()));
+  }
+
+  private static List<byte[]> elements(String... elements) {
+    return Arrays.stream(elements)
+        .map(e -> e.getBytes(UTF_8))
+        .collect(toList());
+  }
+
+  /**
+   * Computes the root hash level by level.
+   */
+  private static HashCode referenceRootHash(List<byte[]> elements) {
+    List<HashCode> level = elements.stream()
+        .map(HASH_FUNCTION::hashBytes)
+        .collect(toList());
+    while (level.size() > 1) {
+      List<HashCode> nextLevel = new ArrayList<>();
+      for (int i = 0; i < level.size(); i += 2) {
+        HashCode right = (i + 1 < level.size()) ? level.get(i + 1) : null;
+        nextLevel.add(getBranchHashCode(level.get(i), right));
+      }
+      level = ImmutableList.copyOf(nextLevel);
+    }
+    return level.get(0);
+  }
+}
@@ -28,7 +28,7 @@ import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.common.serialization.StandardSerializers;
 import org.junit.jupiter.api.Test;
 
-class ListProofHashCodeCalculatorTest {
+class ListProofVerifierRootHashTest {
 
   private static final String V1 = "v1";
   private static final String V2 = "v2";
@@ -38,16 +38,16 @@ class ListProofHashCodeCalculatorTest {
   private static final HashCode H1 = HashCode.fromString("a1");
   private static final HashCode H2 = HashCode.fromString("a2");
 
-  private ListProofRootHashCalculator<String> calculator;
+  private ListProofVerifier<String> verifier;
 
   @Test
   void visit_SingletonListProof() {
     ListProofNode root = leafOf(V1);
 
-    calculator = createListProofCalculator(root);
+    verifier = createListProofVerifier(root);
 
-    assertThat(calculator.getElements(), equalTo(of(0L, V1)));
-    assertEquals(getNodeHashCode(V1), calculator.getCalculatedRootHash());
+    assertThat(verifier.getElements(), equalTo(of(0L, V1)));
+    assertEquals(getNodeHashCode(V1), verifier.getCalculatedRootHash());
   }
 
   @Test
@@ -56,14 +56,14 @@ class ListProofHashCodeCalculatorTest {
     ListProofElement right = leafOf(V2);
     ListProofBranch root = new ListProofBranch(left, right);
 
-    calculator = createListProofCalculator(root);
+    verifier = createListProofVerifier(root);
 
     //calculate expected root hash
     HashCode expectedRootHash = getBranchHashCode(getNodeHashCode(V1), getNodeHashCode(V2));
 
-    assertThat(calculator.getElements(), equalTo(of(0L, V1,
+    assertThat(verifier.getElements(), equalTo(of(0L, V1,
         1L, V2)));
-    assertEquals(expectedRootHash, calculator.getCalculatedRootHash());
+    assertEquals(expectedRootHash, verifier.getCalculatedRootHash());
   }
 
   @Test
@@ -84,14 +84,14 @@ class ListProofHashCodeCalculatorTest {
     HashCode rightBranchHash = getBranchHashCode(getNodeHashCode(V3), getNodeHashCode(V4));
     HashCode expectedRootHash = getBranchHashCode(leftBranchHash, rightBranchHash);
 
-    calculator = createListProofCalculator(root);
+    verifier = createListProofVerifier(root);
 
-    assertThat(calculator.getElements(),
+    assertThat(verifier.getElements(),
         equalTo(of(0L, V1,
             1L, V2,
             2L, V3,
             3L, V4)));
-    assertEquals(expectedRootHash, calculator.getCalculatedRootHash());
+    assertEquals(expectedRootHash, verifier.getCalculatedRootHash());
   }
 
   @Test
@@ -102,10 +102,10 @@ class ListProofHashCodeCalculatorTest {
 
     HashCode expectedRootHash = getBranchHashCode(getNodeHashCode(V1), H2);
 
-    calculator = createListProofCalculator(root);
+    verifier = createListProofVerifier(root);
 
-    assertThat(calculator.getElements(), equalTo(of(0L, V1)));
-    assertEquals(expectedRootHash, calculator.getCalculatedRootHash());
+    assertThat(verifier.getElements(), equalTo(of(0L, V1)));
+    assertEquals(expectedRootHash, verifier.getCalculatedRootHash());
   }
 
   @Test
@@ -114,12 +114,12 @@ class ListProofHashCodeCalculatorTest {
     ListProofNode right = leafOf(V2);
     ListProofBranch root = new ListProofBranch(left, right);
 
-    calculator = createListProofCalculator(root);
+    verifier = createListProofVerifier(root);
 
     HashCode expectedRootHash = getBranchHashCode(H1, getNodeHashCode(V2));
 
-    assertThat(calculator.getElements(), equalTo(of(1L, V2)));
-    assertEquals(expectedRootHash, calculator.getCalculatedRootHash());
+    assertThat(verifier.getElements(), equalTo(of(1L, V2)));
+    assertEquals(expectedRootHash, verifier.getCalculatedRootHash());
   }
 
   @Test
@@ -135,22 +135,73 @@ class ListProofHashCodeCalculatorTest {
         )
     );
 
-    calculator = createListProofCalculator(root);
+    verifier = createListProofVerifier(root);
 
     HashCode leftBranchHash = getBranchHashCode(getNodeHashCode(V1), getNodeHashCode(V2));
     HashCode rightBranchHash = getBranchHashCode(getNodeHashCode(V3), null);
     HashCode expectedRootHash = getBranchHashCode(leftBranchHash, rightBranchHash);
 
-    assertThat(calculator.getElements(),
+    assertThat(verifier.getElements(),
         equalTo(of(
             0L, V1,
             1L, V2,
             2L, V3))
     );
-    assertEquals(expectedRootHash, calculator.getCalculatedRootHash());
+    assertEquals(expectedRootHash, verifier.getCalculatedRootHash());
   }
 
-  private ListProofRootHashCalculator<String> createListProofCalculator(ListProofNode listProof) {
-    return new ListProofRootHashCalculator<>(listProof, StandardSerializers.string());
+  @Test
+  void visit_ProofRightSubTreeElements() {
+    ListProofBranch root = new ListProofBranch(
+        new ListProofHashNode(H1),
+        new ListProofBranch(
+            leafOf(V3),
+            leafOf(V4)
+        )
+    );
+
+    verifier = createListProofVerifier(root);
+
+    HashCode rightBranchHash = getBranchHashCode(getNodeHashCode(V3), getNodeHashCode(V4));
+    HashCode expectedRootHash = getBranchHashCode(H1, rightBranchHash);
+
+    assertThat(verifier.getElements(),
+        equalTo(of(
+            2L, V3,
+            3L, V4))
+    );
+    assertEquals(expectedRootHash, verifier.getCalculatedRootHash());
+  }
+
+  @Test
+  void visit_MultiProofScatteredElements() {
+    // A proof of elements 0 and 3 of a list of four elements
+    ListProofBranch root = new ListProofBranch(
+        new ListProofBranch(
+            leafOf(V1),
+            new ListProofHashNode(H1)
+        ),
+        new ListProofBranch(
+            new ListProofHashNode(H2),
+            leafOf(V4)
+        )
+    );
+
+    verifier = createListProofVerifier(root);
+
+    HashCode leftBranchHash = getBranchHashCode(getNodeHashCode(V1), H1);
+    HashCode rightBranchHash = getBranchHashCode(H2, getNodeHashCode(V4));
+    HashCode expectedRootHash = getBranchHashCode(leftBranchHash, rightBranchHash);
+
+    assertThat(verifier.getElements(),
+        equalTo(of(
+            0L, V1,
+            3L, V4))
+    );
+    assertEquals(expectedRootHash, verifier.getCalculatedRootHash());
+  }
+
+  private ListProofVerifier<String> createListProofVerifier(ListProofNode listProof) {
+    return new ListProofVerifier<>(listProof, StandardSerializers.string());
   }
 }
@@ -24,10 +24,11 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 
 import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.serialization.StandardSerializers;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
-class ListProofStructureValidatorTest {
+class ListProofVerifierStructureTest {
 
   private static final String V1 = "v1";
   private static final String V2 = "v2";
@@ -38,15 +39,15 @@ class ListProofStructureValidatorTest {
   private static final HashCode H2 = HashCode.fromString("a2");
   private static final HashCode H3 = HashCode.fromString("a3");
 
-  private ListProofStructureValidator validator;
+  private ListProofVerifier<String> verifier;
 
   @Test
   void visit_SingletonListProof() {
     ListProofNode root = leafOf(V1);
 
-    validator = createListProofStructureValidator(root);
+    verifier = createListProofVerifier(root);
 
-    assertTrue(validator.isValid());
+    assertTrue(verifier.isValid());
   }
 
   @Test
@@ -55,9 +56,9 @@ class ListProofStructureValidatorTest {
     ListProofElement right = leafOf(V2);
     ListProofBranch root = new ListProofBranch(left, right);
 
-    validator = createListProofStructureValidator(root);
+    verifier = createListProofVerifier(root);
 
-    assertTrue(validator.isValid());
+    assertTrue(verifier.isValid());
   }
 
   @Test
@@ -73,9 +74,9 @@ class ListProofStructureValidatorTest {
         )
     );
 
-    validator = createListProofStructureValidator(root);
+    verifier = createListProofVerifier(root);
 
-    assertTrue(validator.isValid());
+    assertTrue(verifier.isValid());
   }
 
   @Test
@@ -84,9 +85,9 @@ class ListProofStructureValidatorTest {
     ListProofNode right = new ListProofHashNode(H2);
     ListProofBranch root = new ListProofBranch(left, right);
 
-    validator = createListProofStructureValidator(root);
+    verifier = createListProofVerifier(root);
 
-    assertTrue(validator.isValid());
+    assertTrue(verifier.isValid());
   }
 
   @Test
@@ -95,9 +96,9 @@ class ListProofStructureValidatorTest {
     ListProofNode right = leafOf(V2);
     ListProofBranch root = new ListProofBranch(left, right);
 
-    validator = createListProofStructureValidator(root);
+    verifier = createListProofVerifier(root);
 
-    assertTrue(validator.isValid());
+    assertTrue(verifier.isValid());
   }
 
   @Test
@@ -105,9 +106,9 @@ class ListProofStructureValidatorTest {
     ListProofNode left = new ListProofHashNode(H1);
     ListProofBranch root = new ListProofBranch(left, null);
 
-    validator = createListProofStructureValidator(root);
+    verifier = createListProofVerifier(root);
 
-    assertThat(validator.getProofStatus(), is(ListProofStatus.INVALID_TREE_NO_ELEMENTS));
+    assertThat(verifier.getProofStatus(), is(ListProofStatus.INVALID_TREE_NO_ELEMENTS));
   }
 
   @Test
@@ -118,9 +119,9 @@ class ListProofStructureValidatorTest {
         leafOf(V3) // <-- A value at the wrong depth.
     );
 
-    validator = createListProofStructureValidator(root);
+    verifier = createListProofVerifier(root);
 
-    assertThat(validator.getProofStatus(), is(ListProofStatus.INVALID_NODE_DEPTH));
+    assertThat(verifier.getProofStatus(), is(ListProofStatus.INVALID_NODE_DEPTH));
   }
 
   @Test
@@ -131,39 +132,49 @@ class ListProofStructureValidatorTest {
             new ListProofHashNode(H3))
     );
 
-    validator = createListProofStructureValidator(root);
+    verifier = createListProofVerifier(root);
 
-    assertThat(validator.getProofStatus(), is(ListProofStatus.INVALID_NODE_DEPTH));
+    assertThat(verifier.getProofStatus(), is(ListProofStatus.INVALID_NODE_DEPTH));
   }
 
   @Test
   void visit_MaxAllowedDepth() {
-    int depth = ListProofStructureValidator.MAX_NODE_DEPTH;
+    int depth = ListProofVerifier.MAX_NODE_DEPTH;
     ListProofNode root = generateRightLeaningProofTree(depth, leafOf(V1));
 
-    validator = createListProofStructureValidator(root);
+    verifier = createListProofVerifier(root);
 
-    assertTrue(validator.isValid());
+    assertTrue(verifier.isValid());
   }
 
   @Test
   void visit_UnbalancedElementNodeTooDeep() {
-    int depth = ListProofStructureValidator.MAX_NODE_DEPTH + 1;
+    int depth = ListProofVerifier.MAX_NODE_DEPTH + 1;
     ListProofNode root = generateRightLeaningProofTree(depth, leafOf(V1));
 
-    validator = createListProofStructureValidator(root);
+    verifier = createListProofVerifier(root);
 
-    assertThat(validator.getProofStatus(), is(ListProofStatus.INVALID_ELEMENT_NODE_DEPTH));
+    assertThat(verifier.getProofStatus(), is(ListProofStatus.INVALID_ELEMENT_NODE_DEPTH));
+  }
+
+  @Test
+  void visit_ElementNodeMuchTooDeep() {
+    int depth = 2 * ListProofVerifier.MAX_NODE_DEPTH;
+    ListProofNode root = generateRightLeaningProofTree(depth, leafOf(V1));
+
+    verifier = createListProofVerifier(root);
+
+    assertThat(verifier.getProofStatus(), is(ListProofStatus.INVALID_ELEMENT_NODE_DEPTH));
   }
 
   @Test
   void visit_UnbalancedHashNodeTooDeep() {
-    int depth = ListProofStructureValidator.MAX_NODE_DEPTH + 1;
+    int depth = ListProofVerifier.MAX_NODE_DEPTH + 1;
     ListProofNode root = generateRightLeaningProofTree(depth, new ListProofHashNode(H2));
 
-    validator = createListProofStructureValidator(root);
+    verifier = createListProofVerifier(root);
 
-    assertThat(validator.getProofStatus(), is(ListProofStatus.INVALID_HASH_NODE_DEPTH));
+    assertThat(verifier.getProofStatus(), is(ListProofStatus.INVALID_HASH_NODE_DEPTH));
   }
 
   @Test
@@ -179,9 +190,9 @@ class ListProofStructureValidatorTest {
         )
     );
 
-    validator = createListProofStructureValidator(root);
+    verifier = createListProofVerifier(root);
 
-    assertThat(validator.getProofStatus(), is(ListProofStatus.INVALID_HASH_NODES_COUNT));
+    assertThat(verifier.getProofStatus(), is(ListProofStatus.INVALID_HASH_NODES_COUNT));
   }
 
   @Test
@@ -197,9 +208,9 @@ class ListProofStructureValidatorTest {
         )
     );
 
-    validator = createListProofStructureValidator(root);
+    verifier = createListProofVerifier(root);
 
-    assertThat(validator.getProofStatus(), is(ListProofStatus.INVALID_HASH_NODES_COUNT));
+    assertThat(verifier.getProofStatus(), is(ListProofStatus.INVALID_HASH_NODES_COUNT));
   }
 
   @Test
@@ -213,12 +224,12 @@ class ListProofStructureValidatorTest {
         new ListProofHashNode(H1)
     );
 
-    validator = createListProofStructureValidator(root);
+    verifier = createListProofVerifier(root);
 
-    assertFalse(validator.isValid());
+    assertFalse(verifier.isValid());
   }
 
-  private ListProofStructureValidator createListProofStructureValidator(ListProofNode listProof) {
-    return new ListProofStructureValidator(listProof);
+  private ListProofVerifier<String> createListProofVerifier(ListProofNode listProof) {
+    return new ListProofVerifier<>(listProof, StandardSerializers.string());
   }
 }
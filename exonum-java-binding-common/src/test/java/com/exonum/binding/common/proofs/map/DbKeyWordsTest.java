@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.proofs.map;
+
+import static com.exonum.binding.common.proofs.map.DbKeyWords.WORDS;
+import static com.exonum.binding.common.proofs.map.DbKeyWords.hasNoBitsAfter;
+import static com.exonum.binding.common.proofs.map.DbKeyWords.readWords;
+import static com.exonum.binding.common.proofs.map.DbKeyWords.writeWords;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.protobuf.ByteString;
+import java.util.BitSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class DbKeyWordsTest {
+
+  @Test
+  void readWordsHasSameBitOrderAsBitSet() {
+    byte[] key = DbKeyTestUtils.keyFromString("0010 0000 0000 0001 1");
+    long[] words = new long[WORDS];
+
+    readWords(key, 0, words, 0);
+
+    BitSet expected = BitSet.valueOf(key);
+    assertThat(BitSet.valueOf(words), equalTo(expected));
+  }
+
+  @Test
+  void readWordsFromByteString() {
+    byte[] key = DbKeyTestUtils.keyFromString("0101 1111 0000 0011");
+    long[] fromBytes = new long[WORDS];
+    long[] fromByteString = new long[WORDS];
+
+    readWords(key, 0, fromBytes, 0);
+    readWords(ByteString.copyFrom(key), fromByteString, 0);
+
+    assertThat(fromByteString, equalTo(fromBytes));
+  }
+
+  @Test
+  void writeWordsIsInverseOfReadWords() {
+    byte[] key = new byte[DbKey.KEY_SIZE];
+    for (int i = 0; i < key.length; i++) {
+      key[i] = (byte) (i * 37 + 11);
+    }
+    long[] words = new long[WORDS];
+    readWords(key, 0, words, 0);
+
+    byte[] written = new byte[DbKey.KEY_SIZE + 2];
+    writeWords(words, 0, written, 1);
+
+    for (int i = 0; i < key.length; i++) {
+      assertThat(written[i + 1], equalTo(key[i]));
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 63, 64, 65, 128, 200, 255})
+  void hasNoBitsAfterSignificantBits(int length) {
+    long[] words = new long[WORDS];
+    if (length > 0) {
+      int lastBit = length - 1;
+      words[lastBit / Long.SIZE] |= 1L << (lastBit % Long.SIZE);
+    }
+    assertTrue(hasNoBitsAfter(words, 0, length));
+
+    words[length / Long.SIZE] |= 1L << (length % Long.SIZE);
+    assertFalse(hasNoBitsAfter(words, 0, length));
+  }
+}
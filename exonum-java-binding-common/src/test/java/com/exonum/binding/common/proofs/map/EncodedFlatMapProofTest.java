@@ -0,0 +1,218 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.common.proofs.map;
+
+import static com.exonum.binding.common.proofs.ProofEncoding.FLAT_MAP_PROOF;
+import static com.exonum.binding.common.proofs.ProofEncoding.FORMAT_VERSION;
+import static com.exonum.binding.common.proofs.ProofEncoding.LIST_PROOF;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.exonum.binding.common.collect.MapEntry;
+import com.exonum.binding.common.hash.HashCode;
+import com.google.protobuf.ByteString;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EncodedFlatMapProofTest {
+
+  private static final ByteString VALUE = ByteString.copyFromUtf8("testValue");
+
+  private static final DbKey FIRST_DB_KEY = DbKeyTestUtils.branchKeyFromPrefix("101100");
+  private static final ByteString VALUE_KEY = DbKeyTestUtils.keyByteStringFromString("101110");
+  private static final DbKey THIRD_DB_KEY = DbKeyTestUtils.branchKeyFromPrefix("1011111");
+  private static final ByteString MISSING_KEY = DbKeyTestUtils.keyByteStringFromString("0001");
+
+  @Test
+  void checkSameAsUncheckedFlatMapProof() {
+    List<MapProofEntry> proof = Arrays.asList(
+        createMapProofEntry(FIRST_DB_KEY),
+        createMapProofEntry(THIRD_DB_KEY)
+    );
+    List<MapEntry<ByteString, ByteString>> entries =
+        singletonList(MapEntry.valueOf(VALUE_KEY, VALUE));
+    byte[] encodedProof = encode(proof, entries, emptyList());
+
+    CheckedMapProof expected = new UncheckedFlatMapProof(proof, entries, emptyList()).check();
+    CheckedMapProof actual = EncodedFlatMapProof.fromBytes(encodedProof).check();
+
+    assertThat(actual.getProofStatus(), equalTo(MapProofStatus.CORRECT));
+    assertThat(actual.getProofStatus(), equalTo(expected.getProofStatus()));
+    assertThat(actual.getRootHash(), equalTo(expected.getRootHash()));
+    assertThat(actual.getEntries(), equalTo(singleton(MapEntry.valueOf(VALUE_KEY, VALUE))));
+  }
+
+  @Test
+  void checkProofOfAbsence() {
+    DbKey leafKey = DbKeyTestUtils.leafKeyFromPrefix("101100");
+    List<MapProofEntry> proof = singletonList(createMapProofEntry(leafKey));
+    List<byte[]> missingKeys = singletonList(MISSING_KEY.toByteArray());
+    byte[] encodedProof = encode(proof, emptyList(), missingKeys);
+
+    CheckedMapProof expected = new UncheckedFlatMapProof(proof, emptyList(), missingKeys).check();
+    CheckedMapProof actual = EncodedFlatMapProof.fromBytes(encodedProof).check();
+
+    assertThat(actual.getProofStatus(), equalTo(MapProofStatus.CORRECT));
+    assertThat(actual.getRootHash(), equalTo(expected.getRootHash()));
+    assertThat(actual.getMissingKeys(), equalTo(singleton(MISSING_KEY)));
+  }
+
+  @Test
+  void checkEmptyProof() {
+    byte[] encodedProof = encode(emptyList(), emptyList(), emptyList());
+
+    CheckedMapProof actual = EncodedFlatMapProof.fromBytes(encodedProof).check();
+
+    assertThat(actual.getProofStatus(), equalTo(MapProofStatus.CORRECT));
+    assertThat(actual.getRootHash(), equalTo(HashCode.fromBytes(new byte[32])));
+  }
+
+  @Test
+  void getUncheckedEntries() {
+    List<MapProofEntry> proof = Arrays.asList(
+        createMapProofEntry(FIRST_DB_KEY),
+        createMapProofEntry(THIRD_DB_KEY)
+    );
+    List<MapEntry<ByteString, ByteString>> entries =
+        singletonList(MapEntry.valueOf(VALUE_KEY, VALUE));
+    byte[] encodedProof = encode(proof, entries, singletonList(MISSING_KEY.toByteArray()));
+
+    EncodedFlatMapProof mapProof = EncodedFlatMapProof.fromBytes(encodedProof);
+
+    assertThat(mapProof.getUncheckedEntries(), equalTo(entries));
+  }
+
+  @Test
+  void getUncheckedEntriesRejectsTruncatedProof() {
+    List<MapProofEntry> proof = singletonList(createMapProofEntry(FIRST_DB_KEY));
+    byte[] encodedProof = encode(proof, emptyList(), emptyList());
+    byte[] truncated = Arrays.copyOf(encodedProof, 10);
+
+    EncodedFlatMapProof mapProof = EncodedFlatMapProof.fromBytes(truncated);
+
+    assertThrows(IllegalArgumentException.class, mapProof::getUncheckedEntries);
+  }
+
+  @Test
+  void toByteArrayReturnsCopy() {
+    byte[] encodedProof = encode(emptyList(), emptyList(), emptyList());
+    byte[] source = encodedProof.clone();
+
+    EncodedFlatMapProof proof = EncodedFlatMapProof.fromBytes(source);
+    source[2] = 1;
+    byte[] proofBytes = proof.toByteArray();
+    proofBytes[2] = 1;
+
+    assertThat(proof.toByteArray(), equalTo(encodedProof));
+  }
+
+  @Test
+  void fromBytesRejectsUnsupportedVersion() {
+    byte[] encodedProof = encode(emptyList(), emptyList(), emptyList());
+    encodedProof[0] = FORMAT_VERSION + 1;
+
+    assertThrows(IllegalArgumentException.class,
+        () -> EncodedFlatMapProof.fromBytes(encodedProof));
+  }
+
+  @Test
+  void fromBytesRejectsOtherProofKind() {
+    byte[] encodedProof = encode(emptyList(), emptyList(), emptyList());
+    encodedProof[1] = LIST_PROOF;
+
+    assertThrows(IllegalArgumentException.class,
+        () -> EncodedFlatMapProof.fromBytes(encodedProof));
+  }
+
+  @Test
+  void checkRejectsTruncatedProof() {
+    List<MapProofEntry> proof = singletonList(createMapProofEntry(FIRST_DB_KEY));
+    byte[] encodedProof = encode(proof, emptyList(), emptyList());
+    byte[] truncated = Arrays.copyOf(encodedProof, encodedProof.length - 5);
+
+    EncodedFlatMapProof mapProof = EncodedFlatMapProof.fromBytes(truncated);
+
+    assertThrows(IllegalArgumentException.class, mapProof::check);
+  }
+
+  @Test
+  void checkRejectsTrailingBytes() {
+    byte[] encodedProof = encode(emptyList(), emptyList(), emptyList());
+    byte[] withTrailingBytes = Arrays.copyOf(encodedProof, encodedProof.length + 1);
+
+    EncodedFlatMapProof mapProof = EncodedFlatMapProof.fromBytes(withTrailingBytes);
+
+    assertThrows(IllegalArgumentException.class, mapProof::check);
+  }
+
+  @Test
+  void checkRejectsTooBigSize() {
+    byte[] encodedProof = {FORMAT_VERSION, FLAT_MAP_PROOF, -1, -1, -1, -1};
+
+    EncodedFlatMapProof mapProof = EncodedFlatMapProof.fromBytes(encodedProof);
+
+    assertThrows(IllegalArgumentException.class, mapProof::check);
+  }
+
+  @Test
+  void checkRejectsInvalidDbKey() {
+    List<MapProofEntry> proof = singletonList(createMapProofEntry(FIRST_DB_KEY));
+    byte[] encodedProof = encode(proof, emptyList(), emptyList());
+    // Set an unknown node type of the database key
+    encodedProof[6] = 2;
+
+    EncodedFlatMapProof mapProof = EncodedFlatMapProof.fromBytes(encodedProof);
+
+    assertThrows(IllegalArgumentException.class, mapProof::check);
+  }
+
+  private static byte[] encode(List<MapProofEntry> proof,
+      List<MapEntry<ByteString, ByteString>> entries, List<byte[]> missingKeys) {
+    ByteBuffer buffer = ByteBuffer.allocate(1024)
+        .order(ByteOrder.LITTLE_ENDIAN)
+        .put(FORMAT_VERSION)
+        .put(FLAT_MAP_PROOF);
+    buffer.putInt(proof.size());
+    for (MapProofEntry e : proof) {
+      buffer.put(e.getDbKey().getRawDbKey())
+          .put(e.getHash().asBytes());
+    }
+    buffer.putInt(entries.size());
+    for (MapEntry<ByteString, ByteString> e : entries) {
+      buffer.put(e.getKey().toByteArray())
+          .putInt(e.getValue().size())
+          .put(e.getValue().toByteArray());
+    }
+    buffer.putInt(missingKeys.size());
+    for (byte[] key : missingKeys) {
+      buffer.put(key);
+    }
+    return Arrays.copyOf(buffer.array(), buffer.position());
+  }
+
+  private static MapProofEntry createMapProofEntry(DbKey dbKey) {
+    return new MapProofEntry(dbKey, HashCode.fromBytes(dbKey.getKeySlice()));
+  }
+}
@@ -31,9 +31,13 @@ import com.exonum.binding.common.collect.MapEntry;
 import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.common.hash.HashFunction;
 import com.exonum.binding.common.hash.Hashing;
+import com.exonum.binding.common.proofs.IncrementalProofVerifier;
 import com.google.protobuf.ByteString;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
 
@@ -67,6 +71,35 @@ class UncheckedFlatMapProofTest {
     assertThat(checkedMapProof.get(valueKey), equalTo(FIRST_VALUE));
   }
 
+  @Test
+  void mapProofCheckedIncrementallyShouldBeCorrect() {
+    ByteString firstKey = DbKeyTestUtils.keyByteStringFromString("0011_0101");
+    ByteString secondKey = DbKeyTestUtils.keyByteStringFromString("0011_0110");
+    DbKey thirdDbKey = DbKeyTestUtils.branchKeyFromPrefix("0100_0000");
+    ByteString fourthKey = DbKeyTestUtils.keyByteStringFromString("1000_1101");
+    List<MapProofEntry> proof = singletonList(createMapProofEntry(thirdDbKey));
+    IncrementalProofVerifier verifier = new IncrementalProofVerifier();
+    verifier.check(new UncheckedFlatMapProof(proof, Arrays.asList(
+        createMapEntry(firstKey, FIRST_VALUE),
+        createMapEntry(secondKey, SECOND_VALUE),
+        createMapEntry(fourthKey, THIRD_VALUE)),
+        emptyList()));
+
+    // The value of the fourth entry changes, the sub-tree of the first two does not
+    UncheckedMapProof nextProof = new UncheckedFlatMapProof(proof, Arrays.asList(
+        createMapEntry(firstKey, FIRST_VALUE),
+        createMapEntry(secondKey, SECOND_VALUE),
+        createMapEntry(fourthKey, FIRST_VALUE)),
+        emptyList());
+    CheckedMapProof checkedMapProof = verifier.check(nextProof);
+
+    CheckedMapProof expected = nextProof.check();
+    assertTrue(checkedMapProof.isValid());
+    assertThat(checkedMapProof.getRootHash(), equalTo(expected.getRootHash()));
+    assertThat(checkedMapProof.getEntries(), equalTo(expected.getEntries()));
+    assertThat(verifier.getLastRootHash(), equalTo(Optional.of(expected.getRootHash())));
+  }
+
   @Test
   void mapProofWithSeveralLeafsShouldBeCorrect() {
     ByteString firstKey = DbKeyTestUtils.keyByteStringFromString("0011_0101");
@@ -250,6 +283,115 @@ class UncheckedFlatMapProofTest {
     assertThat(checkedMapProof.getProofStatus(), equalTo(MapProofStatus.EMBEDDED_PATH));
   }
 
+  @Test
+  void mapProofWithUnsortedLeavesShouldHaveCorrectRootHash() {
+    ByteString firstKey = DbKeyTestUtils.keyByteStringFromString("0011");
+    ByteString secondKey = DbKeyTestUtils.keyByteStringFromString("0010");
+    DbKey thirdDbKey = DbKeyTestUtils.branchKeyFromPrefix("1");
+    MapProofEntry thirdEntry = createMapProofEntry(thirdDbKey);
+
+    UncheckedMapProof uncheckedFlatMapProof =
+        new UncheckedFlatMapProof(
+            singletonList(thirdEntry),
+            Arrays.asList(
+                createMapEntry(firstKey, FIRST_VALUE),
+                createMapEntry(secondKey, SECOND_VALUE)),
+            emptyList());
+
+    CheckedMapProof checkedMapProof = uncheckedFlatMapProof.check();
+
+    // "001" is the prefix of both leaves, "" is the prefix of it and "1"
+    DbKey leavesPrefix = DbKeyTestUtils.branchKeyFromPrefix("001");
+    HashCode leavesHash = computeBranchHash(
+        DbKey.newLeafKey(secondKey), HASH_FUNCTION.hashByteString(SECOND_VALUE),
+        DbKey.newLeafKey(firstKey), HASH_FUNCTION.hashByteString(FIRST_VALUE));
+    HashCode expectedRootHash = computeBranchHash(leavesPrefix, leavesHash,
+        thirdDbKey, thirdEntry.getHash());
+    assertThat(checkedMapProof.getProofStatus(), equalTo(MapProofStatus.CORRECT));
+    assertThat(checkedMapProof.getRootHash(), equalTo(expectedRootHash));
+  }
+
+  @Test
+  void mapProofWithManyLeavesShouldBeCorrect() {
+    List<MapEntry<ByteString, ByteString>> leaves = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      byte[] key = new byte[DbKey.KEY_SIZE];
+      key[0] = (byte) i;
+      leaves.add(createMapEntry(ByteString.copyFrom(key), ByteString.copyFromUtf8("value" + i)));
+    }
+    UncheckedMapProof uncheckedFlatMapProof =
+        new UncheckedFlatMapProof(emptyList(), leaves, emptyList());
+
+    CheckedMapProof checkedMapProof = uncheckedFlatMapProof.check();
+    CheckedMapProof secondCheckedMapProof = uncheckedFlatMapProof.check();
+
+    assertThat(checkedMapProof.getProofStatus(), equalTo(MapProofStatus.CORRECT));
+    assertThat(checkedMapProof.getEntries(), containsInAnyOrder(leaves.toArray()));
+    assertThat(secondCheckedMapProof.getRootHash(), equalTo(checkedMapProof.getRootHash()));
+  }
+
+  @Test
+  void mapProofWithManyUnsortedLeavesShouldHaveSameRootHashAsSorted() {
+    List<MapEntry<ByteString, ByteString>> leaves = new ArrayList<>();
+    int numLeaves = FlatMapProofVerifier.MAX_RETAINED_CAPACITY + 1;
+    for (int i = 0; i < numLeaves; i++) {
+      byte[] key = new byte[DbKey.KEY_SIZE];
+      key[0] = (byte) (i >>> 8);
+      key[1] = (byte) i;
+      leaves.add(createMapEntry(ByteString.copyFrom(key), ByteString.copyFromUtf8("value" + i)));
+    }
+    List<MapEntry<ByteString, ByteString>> reversedLeaves = new ArrayList<>(leaves);
+    Collections.reverse(reversedLeaves);
+
+    CheckedMapProof sortedProof =
+        new UncheckedFlatMapProof(emptyList(), leaves, emptyList()).check();
+    CheckedMapProof unsortedProof =
+        new UncheckedFlatMapProof(emptyList(), reversedLeaves, emptyList()).check();
+
+    assertThat(unsortedProof.getProofStatus(), equalTo(MapProofStatus.CORRECT));
+    assertThat(unsortedProof.getRootHash(), equalTo(sortedProof.getRootHash()));
+  }
+
+  @Test
+  void mapProofWithIncludedPrefixInTheMiddleShouldBeInvalid() {
+    DbKey firstDbKey = DbKeyTestUtils.branchKeyFromPrefix("00");
+    DbKey secondDbKey = DbKeyTestUtils.branchKeyFromPrefix("01");
+    DbKey thirdDbKey = DbKeyTestUtils.branchKeyFromPrefix("1");
+    byte[] absentKey = DbKeyTestUtils.keyFromString("0110");
+
+    UncheckedMapProof uncheckedFlatMapProof =
+        new UncheckedFlatMapProof(
+            Arrays.asList(
+                createMapProofEntry(firstDbKey),
+                createMapProofEntry(secondDbKey),
+                createMapProofEntry(thirdDbKey)),
+            emptyList(),
+            singletonList(absentKey));
+
+    CheckedMapProof checkedMapProof = uncheckedFlatMapProof.check();
+    assertThat(checkedMapProof.getProofStatus(), equalTo(MapProofStatus.EMBEDDED_PATH));
+  }
+
+  @Test
+  void mapProofWithInvalidKeySizeShouldThrow() {
+    byte[] absentKey = new byte[DbKey.KEY_SIZE - 1];
+
+    UncheckedMapProof uncheckedFlatMapProof =
+        new UncheckedFlatMapProof(emptyList(), emptyList(), singletonList(absentKey));
+
+    assertThrows(IllegalArgumentException.class, uncheckedFlatMapProof::check);
+  }
+
+  private static HashCode computeBranchHash(DbKey leftKey, HashCode leftHash,
+      DbKey rightKey, HashCode rightHash) {
+    return HASH_FUNCTION.newHasher()
+        .putObject(leftHash, hashCodeFunnel())
+        .putObject(rightHash, hashCodeFunnel())
+        .putObject(leftKey, dbKeyFunnel())
+        .putObject(rightKey, dbKeyFunnel())
+        .hash();
+  }
+
   private static MapProofEntry createMapProofEntry(DbKey dbKey) {
     return new MapProofEntry(dbKey, HashCode.fromBytes(dbKey.getKeySlice()));
   }
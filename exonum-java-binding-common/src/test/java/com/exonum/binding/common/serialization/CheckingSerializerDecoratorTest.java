@@ -68,6 +68,27 @@ class CheckingSerializerDecoratorTest {
     expectBrokenSerializerException(() -> decorator.toBytes(new Object()));
   }
 
+  @Test
+  void toBytesNoCopy() {
+    Object value = new Object();
+    byte[] valueBytes = new byte[0];
+    when(delegateMock.toBytesNoCopy(value)).thenReturn(valueBytes);
+
+    assertThat(decorator.toBytesNoCopy(value), sameInstance(valueBytes));
+  }
+
+  @Test
+  void toBytesNoCopy_NullValue() {
+    assertThrows(NullPointerException.class, () -> decorator.toBytesNoCopy(null));
+  }
+
+  @Test
+  void toBytesNoCopy_NullFromDelegate() {
+    when(delegateMock.toBytesNoCopy(any())).thenReturn(null);
+
+    expectBrokenSerializerException(() -> decorator.toBytesNoCopy(new Object()));
+  }
+
   @Test
   void fromBytes() {
     Object value = new Object();
@@ -20,6 +20,8 @@ package com.exonum.binding.common.serialization;
 import static com.exonum.binding.common.crypto.CryptoFunctions.ed25519;
 import static com.exonum.binding.common.serialization.StandardSerializersTest.invalidBytesValueTest;
 import static com.exonum.binding.common.serialization.StandardSerializersTest.roundTripTest;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
 
 import com.exonum.binding.common.crypto.KeyPair;
 import com.exonum.binding.common.crypto.PublicKey;
@@ -39,6 +41,16 @@ class PublicKeySerializerTest {
     roundTripTest(key, serializer);
   }
 
+  @Test
+  void toBytesNoCopyDoesNotExposeKeyBytes() {
+    PublicKey key = PublicKey.fromBytes(Bytes.bytes(1, 2, 3));
+
+    byte[] keyBytes = serializer.toBytesNoCopy(key);
+    keyBytes[0] = 0;
+
+    assertThat(key, equalTo(PublicKey.fromBytes(Bytes.bytes(1, 2, 3))));
+  }
+
   @Test
   void deserializeInvalidValue() {
     byte[] invalidValue = Bytes.bytes();
@@ -0,0 +1,140 @@
+// Copyright 2018 The Exonum Team
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+//! Native implementations of the Exonum cryptographic primitives (Ed25519 signatures
+//! and SHA-256 hashing) for the Java `NativeEd25519CryptoFunction`
+//! and `NativeSha256HashFunction`.
+//!
+//! All functions accept direct `ByteBuffer`s, so that the data is accessed in place,
+//! without copying it to or from Java arrays.
+
+use exonum::crypto::{
+    self, PublicKey, SecretKey, Seed, Signature, HASH_SIZE, PUBLIC_KEY_LENGTH, SECRET_KEY_LENGTH,
+    SEED_LENGTH, SIGNATURE_LENGTH,
+};
+use jni::objects::{JByteBuffer, JClass};
+use jni::sys::{jboolean, jint};
+use jni::JNIEnv;
+
+use std::panic;
+
+use utils;
+use JniResult;
+
+/// Generates an Ed25519 key pair and writes its keys into the given buffers.
+///
+/// If `seed` is `null`, a random seed is used.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_common_crypto_NativeEd25519CryptoFunction_nativeGenerateKeyPair(
+    env: JNIEnv,
+    _: JClass,
+    seed: JByteBuffer,
+    public_key: JByteBuffer,
+    secret_key: JByteBuffer,
+) {
+    let res = panic::catch_unwind(|| {
+        let (pk, sk) = if seed.is_null() {
+            crypto::gen_keypair()
+        } else {
+            let seed = direct_slice(&env, seed, 0, SEED_LENGTH)?;
+            crypto::gen_keypair_from_seed(&Seed::from_slice(seed).expect("Invalid seed"))
+        };
+        direct_slice(&env, public_key, 0, PUBLIC_KEY_LENGTH)?.copy_from_slice(pk.as_ref());
+        direct_slice(&env, secret_key, 0, SECRET_KEY_LENGTH)?.copy_from_slice(sk.as_ref());
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Signs the first `message_size` bytes of the `message` and writes the signature
+/// into the `signature` buffer.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_common_crypto_NativeEd25519CryptoFunction_nativeSign(
+    env: JNIEnv,
+    _: JClass,
+    message: JByteBuffer,
+    message_size: jint,
+    secret_key: JByteBuffer,
+    signature: JByteBuffer,
+) {
+    let res = panic::catch_unwind(|| {
+        let message = direct_slice(&env, message, 0, message_size as usize)?;
+        let secret_key = direct_slice(&env, secret_key, 0, SECRET_KEY_LENGTH)?;
+        let secret_key = SecretKey::from_slice(secret_key).expect("Invalid secret key");
+        let result = crypto::sign(message, &secret_key);
+        direct_slice(&env, signature, 0, SIGNATURE_LENGTH)?.copy_from_slice(result.as_ref());
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Returns `true` if the `signature` of the first `message_size` bytes of the `message`
+/// is valid for the given `public_key`.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_common_crypto_NativeEd25519CryptoFunction_nativeVerify(
+    env: JNIEnv,
+    _: JClass,
+    message: JByteBuffer,
+    message_size: jint,
+    signature: JByteBuffer,
+    public_key: JByteBuffer,
+) -> jboolean {
+    let res = panic::catch_unwind(|| {
+        let message = direct_slice(&env, message, 0, message_size as usize)?;
+        let signature = direct_slice(&env, signature, 0, SIGNATURE_LENGTH)?;
+        let signature = Signature::from_slice(signature).expect("Invalid signature");
+        let public_key = direct_slice(&env, public_key, 0, PUBLIC_KEY_LENGTH)?;
+        let public_key = PublicKey::from_slice(public_key).expect("Invalid public key");
+        Ok(crypto::verify(&signature, message, &public_key) as jboolean)
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// Computes the SHA-256 hash of `length` bytes of the `input`, starting at `offset`,
+/// and writes it into the `hash` buffer.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_common_hash_NativeSha256HashFunction_nativeHash(
+    env: JNIEnv,
+    _: JClass,
+    input: JByteBuffer,
+    offset: jint,
+    length: jint,
+    hash: JByteBuffer,
+) {
+    let res = panic::catch_unwind(|| {
+        let input = direct_slice(&env, input, offset as usize, length as usize)?;
+        let result = crypto::hash(input);
+        direct_slice(&env, hash, 0, HASH_SIZE)?.copy_from_slice(result.as_ref());
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+// Returns `length` bytes of the direct buffer, starting at `offset`.
+// Panics if the buffer is not large enough.
+fn direct_slice<'a>(
+    env: &'a JNIEnv,
+    buffer: JByteBuffer,
+    offset: usize,
+    length: usize,
+) -> JniResult<&'a mut [u8]> {
+    let bytes = env.get_direct_buffer_address(buffer)?;
+    assert!(
+        offset + length <= bytes.len(),
+        "Buffer is too small: capacity={}, required={}",
+        bytes.len(),
+        offset + length
+    );
+    Ok(&mut bytes[offset..offset + length])
+}
@@ -38,6 +38,7 @@ pub extern crate serde_json;
 #[macro_use]
 extern crate lazy_static;
 
+mod crypto;
 mod error;
 mod init;
 mod proxy;
@@ -46,6 +47,7 @@ mod storage;
 #[doc(hidden)]
 pub mod utils;
 
+pub use crypto::*;
 pub use error::*;
 pub use init::*;
 pub use proxy::*;
@@ -14,13 +14,13 @@ use std::fmt;
 
 use storage::View;
 use utils::{
-    check_error_on_exception, convert_to_string, describe_java_exception,
-    get_and_clear_java_exception, get_exception_message, panic_on_exception, to_handle, unwrap_jni,
+    check_error_on_exception, convert_to_string, get_exception_message, panic_on_exception,
+    to_handle, unwrap_jni,
 };
-use {JniErrorKind, JniExecutor, JniResult, MainExecutor};
+use {JniExecutor, JniResult, MainExecutor};
 
-const CLASS_TRANSACTION_EXCEPTION: &str =
-    "com/exonum/binding/transaction/TransactionExecutionException";
+const TRANSACTION_EXECUTE_SIG: &str =
+    "(J)Lcom/exonum/binding/transaction/TransactionExecutionException;";
 
 /// A proxy for `Transaction`s.
 #[derive(Clone)]
@@ -97,10 +97,11 @@ impl Transaction for TransactionProxy {
                 .call_method(
                     self.transaction.as_obj(),
                     "execute",
-                    "(J)V",
+                    TRANSACTION_EXECUTE_SIG,
                     &[JValue::from(view_handle)],
-                ).and_then(JValue::v);
-            Ok(check_transaction_execution_result(env, res))
+                ).and_then(JValue::l);
+            let execution_exception = panic_on_exception(env, res);
+            to_execution_result(env, execution_exception)
         });
         unwrap_jni(res)
     }
@@ -119,40 +120,20 @@ impl Message for TransactionProxy {
     }
 }
 
-/// Handles exceptions after executing transactions
+/// Converts the result of the transaction execution into `ExecutionResult`.
 ///
-/// The TransactionExecutionException and its descendants are converted into `Error`s with their
-/// descriptions. The rest (Java and JNI errors) are treated as unrecoverable and result in a panic.
-///
-/// Panics:
-/// - Panics if there is some JNI error.
-/// - If there is a pending Java throwable that IS NOT an instance of the
-/// `TransactionExecutionException`.
-fn check_transaction_execution_result<T>(
-    env: &JNIEnv,
-    result: JniResult<T>,
-) -> Result<T, ExecutionError> {
-    result.map_err(|jni_error| match jni_error.0 {
-        JniErrorKind::JavaException => {
-            let exception = get_and_clear_java_exception(env);
-            let message = unwrap_jni(get_exception_message(env, exception));
-            if !unwrap_jni(env.is_instance_of(exception, CLASS_TRANSACTION_EXCEPTION)) {
-                let panic_msg = describe_java_exception(env, exception);
-                panic!(panic_msg);
-            }
-
-            let err_code = unwrap_jni(get_tx_error_code(env, exception)) as u8;
-            match message {
-                Some(msg) => ExecutionError::with_description(err_code, msg),
-                None => ExecutionError::new(err_code),
-            }
-        }
-        _ => unwrap_jni(Err(jni_error)),
-    })
-}
-
-/// Returns the error code of the `TransactionExecutionException` instance.
-fn get_tx_error_code(env: &JNIEnv, exception: JObject) -> JniResult<i8> {
-    let err_code = env.call_method(exception, "getErrorCode", "()B", &[])?;
-    err_code.b()
+/// The Java transaction does not throw the `TransactionExecutionException`, but returns it
+/// if the execution failed, and `null` otherwise. That makes a failed transaction as cheap
+/// to handle as a successful one, as no Java exception is pending in the JNI environment.
+/// The error code and description are converted into an `ExecutionError`.
+fn to_execution_result(env: &JNIEnv, execution_exception: JObject) -> JniResult<ExecutionResult> {
+    if execution_exception.is_null() {
+        return Ok(Ok(()));
+    }
+    let err_code = env.get_field(execution_exception, "errorCode", "B")?.b()? as u8;
+    let message = get_exception_message(env, execution_exception)?;
+    Ok(Err(match message {
+        Some(msg) => ExecutionError::with_description(err_code, msg),
+        None => ExecutionError::new(err_code),
+    }))
 }
@@ -0,0 +1,131 @@
+// Copyright 2018 The Exonum Team
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+//! Aggregation operators over the values of indices, which run entirely in the native code,
+//! so that an index is aggregated without passing its entries to Java.
+//!
+//! The operators are shared by all indices: an index only supplies an iterator over
+//! the values in the requested range of keys or positions.
+//!
+//! The numeric operators read a signed 64-bit little-endian integer from each value
+//! at the given offset.
+
+use jni::objects::JValue;
+use jni::sys::{jbyteArray, jint, jobject};
+use jni::JNIEnv;
+
+use std::ptr;
+
+use JniResult;
+
+const NUMBER_SIZE: usize = 8;
+
+/// An aggregation operator. The codes of the operators must match the ordinals
+/// of `com.exonum.binding.storage.indices.Aggregation.Operator`.
+#[derive(Clone, Copy, Debug, PartialEq)]
+pub(crate) enum Operator {
+    Count,
+    Sum,
+    Min,
+    Max,
+}
+
+impl Operator {
+    /// Returns the operator with the given code.
+    ///
+    /// Panics if the code is unknown.
+    pub(crate) fn from_code(code: jint) -> Operator {
+        match code {
+            0 => Operator::Count,
+            1 => Operator::Sum,
+            2 => Operator::Min,
+            3 => Operator::Max,
+            _ => panic!("Unknown aggregation operator: {}", code),
+        }
+    }
+}
+
+/// Applies the operator to the values. Returns `None` if there are no values and the operator
+/// has no result for an empty range (min and max).
+///
+/// Panics if a value is too short to contain the number at the offset, or the sum overflows.
+pub(crate) fn aggregate<V, I>(values: I, operator: Operator, offset: usize) -> Option<i64>
+where
+    V: AsRef<[u8]>,
+    I: Iterator<Item = V>,
+{
+    match operator {
+        Operator::Count => Some(values.count() as i64),
+        Operator::Sum => Some(values.fold(0i64, |sum, value| {
+            sum.checked_add(read_number(value.as_ref(), offset))
+                .expect("Sum overflow")
+        })),
+        Operator::Min => values.map(|value| read_number(value.as_ref(), offset)).min(),
+        Operator::Max => values.map(|value| read_number(value.as_ref(), offset)).max(),
+    }
+}
+
+/// Returns the values of the entries which keys are less than `to_key`, or all values
+/// if it is `None`. The entries must be ordered by key.
+pub(crate) fn values_before<'a, K, V, I>(
+    entries: I,
+    to_key: Option<&'a [u8]>,
+) -> impl Iterator<Item = V> + 'a
+where
+    K: AsRef<[u8]> + 'a,
+    V: 'a,
+    I: Iterator<Item = (K, V)> + 'a,
+{
+    entries
+        .take_while(move |entry| to_key.map_or(true, |to_key| entry.0.as_ref() < to_key))
+        .map(|(_, value)| value)
+}
+
+/// Converts a nullable Java byte array into an optional vector.
+pub(crate) fn convert_optional_bytes(
+    env: &JNIEnv,
+    array: jbyteArray,
+) -> JniResult<Option<Vec<u8>>> {
+    if array.is_null() {
+        Ok(None)
+    } else {
+        env.convert_byte_array(array).map(Some)
+    }
+}
+
+/// Converts an optional number into a `java.lang.Long`, or `null` if it is `None`.
+pub(crate) fn to_java_long(env: &JNIEnv, number: Option<i64>) -> JniResult<jobject> {
+    match number {
+        Some(number) => env
+            .new_object("java/lang/Long", "(J)V", &[JValue::from(number)])
+            .map(|obj| obj.into_inner()),
+        None => Ok(ptr::null_mut()),
+    }
+}
+
+// Reads a signed 64-bit little-endian integer at the given offset.
+// Panics if the value is too short.
+fn read_number(value: &[u8], offset: usize) -> i64 {
+    assert!(
+        offset + NUMBER_SIZE <= value.len(),
+        "Value is too short: size={}, required={}",
+        value.len(),
+        offset + NUMBER_SIZE
+    );
+    value[offset..offset + NUMBER_SIZE]
+        .iter()
+        .rev()
+        .fold(0u64, |number, &byte| (number << 8) | u64::from(byte)) as i64
+}
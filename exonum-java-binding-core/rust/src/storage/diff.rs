@@ -0,0 +1,164 @@
+// Copyright 2018 The Exonum Team
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+//! Computing the differences between two states of an index, e.g., at two blockchain heights.
+//!
+//! The differences are passed to Java in a single byte array, decoded by `IndexDiffs`;
+//! all sizes are little-endian `u32`:
+//!
+//! ```text
+//! | u32 n | n × (type: u8 | u32 key size | key | values) |
+//! ```
+//!
+//! where the values are the new value of an added entry, the old value of a removed entry,
+//! or the old and the new value of a changed entry, each preceded by its size.
+//!
+//! The indices are merge-joined entry by entry, unless their root hashes are equal.
+//! The unchanged sub-trees cannot be skipped, as the internal Merkle nodes
+//! of the proof indices are private to Exonum 0.9.
+
+use storage::db::Value;
+
+use std::cmp::Ordering;
+use std::iter::Peekable;
+
+const ADDED: u8 = 0;
+const REMOVED: u8 = 1;
+const CHANGED: u8 = 2;
+
+/// Encodes the differences between two sequences of entries, sorted by their keys:
+/// the entries that are only in the `new` sequence, the ones that are only in the `old`
+/// sequence, and the ones with the same key and different values.
+///
+/// The sequences are merged in a single pass; equal entries are skipped.
+pub(crate) fn encode_diff<K, I, J, F>(old: I, new: J, write_key: F) -> Vec<u8>
+where
+    K: Ord,
+    I: Iterator<Item = (K, Value)>,
+    J: Iterator<Item = (K, Value)>,
+    F: Fn(&mut Vec<u8>, &K),
+{
+    let mut buf = Vec::new();
+    put_size(&mut buf, 0);
+    let mut num_entries = 0;
+    let mut old = old.peekable();
+    let mut new = new.peekable();
+    loop {
+        let ordering = match (old.peek(), new.peek()) {
+            (Some(&(ref old_key, _)), Some(&(ref new_key, _))) => old_key.cmp(new_key),
+            (Some(_), None) => Ordering::Less,
+            (None, Some(_)) => Ordering::Greater,
+            (None, None) => break,
+        };
+        match ordering {
+            Ordering::Less => {
+                let (key, old_value) = next(&mut old);
+                put_entry(&mut buf, REMOVED, &key, &write_key);
+                put_value(&mut buf, &old_value);
+            }
+            Ordering::Greater => {
+                let (key, new_value) = next(&mut new);
+                put_entry(&mut buf, ADDED, &key, &write_key);
+                put_value(&mut buf, &new_value);
+            }
+            Ordering::Equal => {
+                let (key, old_value) = next(&mut old);
+                let (_, new_value) = next(&mut new);
+                if old_value == new_value {
+                    continue;
+                }
+                put_entry(&mut buf, CHANGED, &key, &write_key);
+                put_value(&mut buf, &old_value);
+                put_value(&mut buf, &new_value);
+            }
+        }
+        num_entries += 1;
+    }
+    set_size(&mut buf, 0, num_entries);
+    buf
+}
+
+/// Encodes no differences.
+pub(crate) fn encode_no_diff() -> Vec<u8> {
+    vec![0; 4]
+}
+
+fn next<T, I: Iterator<Item = T>>(iter: &mut Peekable<I>) -> T {
+    iter.next().expect("Peeked entry is missing")
+}
+
+fn put_entry<K, F: Fn(&mut Vec<u8>, &K)>(buf: &mut Vec<u8>, diff_type: u8, key: &K, write_key: &F) {
+    buf.push(diff_type);
+    let size_position = buf.len();
+    put_size(buf, 0);
+    write_key(buf, key);
+    let key_size = buf.len() - size_position - 4;
+    set_size(buf, size_position, key_size);
+}
+
+#[cfg_attr(feature = "cargo-clippy", allow(ptr_arg))]
+fn put_value(buf: &mut Vec<u8>, value: &Value) {
+    put_size(buf, value.len());
+    buf.extend_from_slice(value);
+}
+
+fn put_size(buf: &mut Vec<u8>, size: usize) {
+    buf.extend_from_slice(&[0; 4]);
+    let position = buf.len() - 4;
+    set_size(buf, position, size);
+}
+
+fn set_size(buf: &mut Vec<u8>, position: usize, size: usize) {
+    assert!(size <= u32::max_value() as usize, "Size is too big: {}", size);
+    let size = size as u32;
+    buf[position] = size as u8;
+    buf[position + 1] = (size >> 8) as u8;
+    buf[position + 2] = (size >> 16) as u8;
+    buf[position + 3] = (size >> 24) as u8;
+}
+
+#[cfg(test)]
+mod tests {
+    use super::*;
+
+    fn write_key(buf: &mut Vec<u8>, key: &u8) {
+        buf.push(*key);
+    }
+
+    #[test]
+    fn diff_of_equal_sequences_is_empty() {
+        let entries = vec![(1, vec![1]), (2, vec![2])];
+
+        let diff = encode_diff(entries.clone().into_iter(), entries.into_iter(), write_key);
+
+        assert_eq!(diff, encode_no_diff());
+    }
+
+    #[test]
+    fn diff_of_different_sequences() {
+        let old = vec![(1, vec![1]), (2, vec![2]), (3, vec![3])];
+        let new = vec![(2, vec![2]), (3, vec![4]), (5, vec![5])];
+
+        let diff = encode_diff(old.into_iter(), new.into_iter(), write_key);
+
+        #[cfg_attr(rustfmt, rustfmt_skip)]
+        let expected = vec![
+            3, 0, 0, 0,
+            REMOVED, 1, 0, 0, 0, 1, 1, 0, 0, 0, 1,
+            CHANGED, 1, 0, 0, 0, 3, 1, 0, 0, 0, 3, 1, 0, 0, 0, 4,
+            ADDED, 1, 0, 0, 0, 5, 1, 0, 0, 0, 5,
+        ];
+        assert_eq!(diff, expected);
+    }
+}
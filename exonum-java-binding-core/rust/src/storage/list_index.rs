@@ -15,12 +15,13 @@
 use exonum::storage::list_index::ListIndexIter;
 use exonum::storage::{Fork, ListIndex, Snapshot};
 use jni::objects::{JClass, JObject, JString};
-use jni::sys::{jboolean, jbyteArray, jlong};
+use jni::sys::{jboolean, jbyteArray, jint, jlong, jobject};
 use jni::JNIEnv;
 
 use std::panic;
 use std::ptr;
 
+use storage::aggregation;
 use storage::db::{Value, View, ViewRef};
 use utils::{self, Handle};
 
@@ -198,6 +199,39 @@ pub extern "system" fn Java_com_exonum_binding_storage_indices_ListIndexProxy_na
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Aggregates the list elements at the positions in the range `[from_index, to_index)`
+/// with the operator.
+///
+/// Returns a `java.lang.Long`, or null pointer if the range is empty and the operator
+/// is min or max.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_storage_indices_ListIndexProxy_nativeAggregate(
+    env: JNIEnv,
+    _: JObject,
+    list_handle: Handle,
+    operator: jint,
+    from_index: jlong,
+    to_index: jlong,
+    value_offset: jint,
+) -> jobject {
+    let res = panic::catch_unwind(|| {
+        let operator = aggregation::Operator::from_code(operator);
+        let from = from_index as u64;
+        let count = (to_index - from_index) as usize;
+        let offset = value_offset as usize;
+        let result = match *utils::cast_handle::<IndexType>(list_handle) {
+            IndexType::SnapshotIndex(ref list) => {
+                aggregation::aggregate(list.iter_from(from).take(count), operator, offset)
+            }
+            IndexType::ForkIndex(ref list) => {
+                aggregation::aggregate(list.iter_from(from).take(count), operator, offset)
+            }
+        };
+        aggregation::to_java_long(&env, result)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
 /// Adds value to the list.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_storage_indices_ListIndexProxy_nativeAdd(
@@ -219,6 +253,14 @@ pub extern "system" fn Java_com_exonum_binding_storage_indices_ListIndexProxy_na
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Adds the `value` to the list; used to apply the buffered writes.
+pub(crate) fn apply_add(list_handle: Handle, value: Value) {
+    match *utils::cast_handle::<IndexType>(list_handle) {
+        IndexType::SnapshotIndex(_) => panic!("Unable to modify snapshot."),
+        IndexType::ForkIndex(ref mut list) => list.push(value),
+    }
+}
+
 /// Removes the last element from a list and returns it, or null pointer if it is empty.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_storage_indices_ListIndexProxy_nativeRemoveLast(
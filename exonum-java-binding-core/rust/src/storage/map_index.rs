@@ -15,12 +15,13 @@
 use exonum::storage::map_index::{MapIndexIter, MapIndexKeys, MapIndexValues};
 use exonum::storage::{Fork, MapIndex, Snapshot};
 use jni::objects::{JClass, JObject, JString};
-use jni::sys::{jboolean, jbyteArray, jobject};
+use jni::sys::{jboolean, jbyteArray, jint, jobject};
 use jni::JNIEnv;
 
 use std::panic;
 use std::ptr;
 
+use storage::aggregation;
 use storage::db::{Key, Value, View, ViewRef};
 use utils::{self, Handle, PairIter};
 
@@ -290,6 +291,58 @@ pub extern "system" fn Java_com_exonum_binding_storage_indices_MapIndexProxy_nat
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Puts the `value` identified by the `key` into the index; used to apply the buffered writes.
+pub(crate) fn apply_put(map_handle: Handle, key: &[u8], value: Value) {
+    match *utils::cast_handle::<IndexType>(map_handle) {
+        IndexType::SnapshotIndex(_) => panic!("Unable to modify snapshot."),
+        IndexType::ForkIndex(ref mut map) => map.put(&key.to_vec(), value),
+    }
+}
+
+/// Removes the value identified by the `key` from the index; used to apply the buffered writes.
+pub(crate) fn apply_remove(map_handle: Handle, key: &[u8]) {
+    match *utils::cast_handle::<IndexType>(map_handle) {
+        IndexType::SnapshotIndex(_) => panic!("Unable to modify snapshot."),
+        IndexType::ForkIndex(ref mut map) => map.remove(&key.to_vec()),
+    }
+}
+
+/// Aggregates the values of the map entries which keys are in the range `[from, to)`
+/// with the operator; a null bound leaves that side of the range open.
+///
+/// Returns a `java.lang.Long`, or null pointer if the range is empty and the operator
+/// is min or max.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_storage_indices_MapIndexProxy_nativeAggregate(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    operator: jint,
+    from: jbyteArray,
+    to: jbyteArray,
+    value_offset: jint,
+) -> jobject {
+    let res = panic::catch_unwind(|| {
+        let operator = aggregation::Operator::from_code(operator);
+        let from = aggregation::convert_optional_bytes(&env, from)?.unwrap_or_default();
+        let to = aggregation::convert_optional_bytes(&env, to)?;
+        let to = to.as_ref().map(|key| key.as_slice());
+        let offset = value_offset as usize;
+        let result = match *utils::cast_handle::<IndexType>(map_handle) {
+            IndexType::SnapshotIndex(ref map) => {
+                let values = aggregation::values_before(map.iter_from(&from), to);
+                aggregation::aggregate(values, operator, offset)
+            }
+            IndexType::ForkIndex(ref map) => {
+                let values = aggregation::values_before(map.iter_from(&from), to);
+                aggregation::aggregate(values, operator, offset)
+            }
+        };
+        aggregation::to_java_long(&env, result)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
 /// Clears the index, removing all values.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_storage_indices_MapIndexProxy_nativeClear(
@@ -12,16 +12,20 @@
 // See the License for the specific language governing permissions and
 // limitations under the License.
 
+mod aggregation;
 mod core_schema;
 mod db;
+mod diff;
 mod entry;
 mod key_set_index;
 mod list_index;
 mod map_index;
 mod memorydb;
+mod proof_encoding;
 mod proof_list_index;
 mod proof_map_index;
 mod value_set_index;
+mod write_buffer;
 
 pub use self::core_schema::*;
 pub use self::db::Java_com_exonum_binding_storage_database_Views_nativeFree;
@@ -34,3 +38,4 @@ pub use self::memorydb::*;
 pub use self::proof_list_index::*;
 pub use self::proof_map_index::*;
 pub use self::value_set_index::*;
+pub use self::write_buffer::*;
@@ -0,0 +1,208 @@
+// Copyright 2018 The Exonum Team
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+//! The compact binary encoding of the proofs of `ProofMapIndex` and `ProofListIndex`.
+//!
+//! A proof is passed to Java as a single byte array, decoded by `EncodedFlatMapProof`
+//! and `EncodedListProof`, instead of a graph of Java objects, which takes a JNI call
+//! per node to create. The format is described in `ProofEncoding` in Java;
+//! all numbers are little-endian:
+//!
+//! ```text
+//! header:     | version: u8 | proof kind: u8 |
+//! flat map:   | header | u32 n | n × (34-byte proof path, 32-byte hash)
+//!             | u32 m | m × (32-byte key, u32 value size, value)
+//!             | u32 k | k × 32-byte missing key |
+//! list:       | header | root node |
+//! list node:  | 0 | left node | right node |   (a branch with both children)
+//!             | 1 | left node |                (a branch with the left child only)
+//!             | 2 | 32-byte hash |             (a hash of a sub-tree)
+//!             | 3 | u32 value size | value |   (an element)
+//! ```
+
+use exonum::crypto::Hash;
+use exonum::storage::proof_list_index::ListProof;
+use exonum::storage::proof_map_index::{MapProof, PROOF_MAP_KEY_SIZE};
+
+use storage::db::Value;
+
+type Key = [u8; PROOF_MAP_KEY_SIZE];
+
+/// The version of the encoding format.
+const FORMAT_VERSION: u8 = 1;
+
+/// The kinds of the encoded proofs.
+const FLAT_MAP_PROOF: u8 = 1;
+const LIST_PROOF: u8 = 2;
+
+/// The tags of the list proof nodes.
+const LIST_BRANCH: u8 = 0;
+const LIST_BRANCH_LEFT_ONLY: u8 = 1;
+const LIST_HASH: u8 = 2;
+const LIST_ELEMENT: u8 = 3;
+
+/// Encodes a map proof with the given entries of the requested keys that are present
+/// in the map.
+///
+/// The entries are not extracted from the proof, because `MapProof` gives them out only
+/// after a check, which re-computes the root hash of the proof. As the proof is created
+/// from the same view as the entries, they are encoded as is, and the proof is checked
+/// in Java.
+pub(crate) fn encode_map_proof(
+    proof: &MapProof<Key, Value>,
+    entries: &[(Key, Value)],
+) -> Vec<u8> {
+    let mut buf = Vec::new();
+    put_header(&mut buf, FLAT_MAP_PROOF);
+
+    let proof_entries = proof.proof_unchecked();
+    put_size(&mut buf, proof_entries.len());
+    for (proof_path, hash) in &proof_entries {
+        buf.extend_from_slice(proof_path.as_bytes());
+        buf.extend_from_slice(hash.as_ref());
+    }
+
+    put_size(&mut buf, entries.len());
+    for (key, value) in entries {
+        buf.extend_from_slice(key);
+        put_size(&mut buf, value.len());
+        buf.extend_from_slice(value);
+    }
+
+    let missing_keys = proof.missing_keys_unchecked();
+    put_size(&mut buf, missing_keys.len());
+    for key in &missing_keys {
+        buf.extend_from_slice(key.as_ref());
+    }
+    buf
+}
+
+/// Encodes a list proof.
+pub(crate) fn encode_list_proof(proof: &ListProof<Value>) -> Vec<u8> {
+    let mut buf = Vec::new();
+    put_header(&mut buf, LIST_PROOF);
+    put_list_node(&mut buf, proof);
+    buf
+}
+
+fn put_list_node(buf: &mut Vec<u8>, proof: &ListProof<Value>) {
+    match *proof {
+        ListProof::Full(ref left, ref right) => {
+            buf.push(LIST_BRANCH);
+            put_list_node(buf, left);
+            put_list_node(buf, right);
+        }
+        ListProof::Left(ref left, ref hash) => match *hash {
+            Some(ref hash) => {
+                buf.push(LIST_BRANCH);
+                put_list_node(buf, left);
+                put_list_hash(buf, hash);
+            }
+            None => {
+                buf.push(LIST_BRANCH_LEFT_ONLY);
+                put_list_node(buf, left);
+            }
+        },
+        ListProof::Right(ref hash, ref right) => {
+            buf.push(LIST_BRANCH);
+            put_list_hash(buf, hash);
+            put_list_node(buf, right);
+        }
+        ListProof::Leaf(ref value) => {
+            buf.push(LIST_ELEMENT);
+            put_size(buf, value.len());
+            buf.extend_from_slice(value);
+        }
+    }
+}
+
+fn put_list_hash(buf: &mut Vec<u8>, hash: &Hash) {
+    buf.push(LIST_HASH);
+    buf.extend_from_slice(hash.as_ref());
+}
+
+fn put_header(buf: &mut Vec<u8>, proof_kind: u8) {
+    buf.push(FORMAT_VERSION);
+    buf.push(proof_kind);
+}
+
+fn put_size(buf: &mut Vec<u8>, size: usize) {
+    assert!(size <= u32::max_value() as usize, "Size is too big: {}", size);
+    let size = size as u32;
+    buf.extend_from_slice(&[
+        size as u8,
+        (size >> 8) as u8,
+        (size >> 16) as u8,
+        (size >> 24) as u8,
+    ]);
+}
+
+#[cfg(test)]
+mod tests {
+    use super::*;
+    use exonum::crypto::{hash, HASH_SIZE};
+    use exonum::storage::{Database, MemoryDB, ProofMapIndex};
+
+    #[test]
+    fn encode_map_proof_with_entries_and_missing_keys() {
+        let db = MemoryDB::new();
+        let mut fork = db.fork();
+        let mut map: ProofMapIndex<_, Key, Value> = ProofMapIndex::new("map", &mut fork);
+        map.put(&[1; PROOF_MAP_KEY_SIZE], vec![2]);
+        map.put(&[3; PROOF_MAP_KEY_SIZE], vec![4]);
+        let proof = map.get_multiproof(vec![[1; PROOF_MAP_KEY_SIZE], [5; PROOF_MAP_KEY_SIZE]]);
+
+        let encoded = encode_map_proof(&proof, &[([1; PROOF_MAP_KEY_SIZE], vec![2])]);
+
+        assert_eq!(&encoded[..2], &[FORMAT_VERSION, FLAT_MAP_PROOF]);
+        let mut expected_tail = vec![1, 0, 0, 0];
+        expected_tail.extend_from_slice(&[1; PROOF_MAP_KEY_SIZE]);
+        expected_tail.extend_from_slice(&[1, 0, 0, 0, 2]);
+        expected_tail.extend_from_slice(&[1, 0, 0, 0]);
+        expected_tail.extend_from_slice(&[5; PROOF_MAP_KEY_SIZE]);
+        assert!(encoded.ends_with(&expected_tail));
+    }
+
+    #[test]
+    fn encode_list_proof_of_leaf() {
+        let proof = ListProof::Leaf(vec![1, 2]);
+
+        let encoded = encode_list_proof(&proof);
+
+        assert_eq!(encoded, vec![FORMAT_VERSION, LIST_PROOF, LIST_ELEMENT, 2, 0, 0, 0, 1, 2]);
+    }
+
+    #[test]
+    fn encode_list_proof_of_branch() {
+        let h = hash(&[1]);
+        let proof = ListProof::Right(h, Box::new(ListProof::Leaf(vec![3])));
+
+        let encoded = encode_list_proof(&proof);
+
+        let mut expected = vec![FORMAT_VERSION, LIST_PROOF, LIST_BRANCH, LIST_HASH];
+        expected.extend_from_slice(h.as_ref());
+        expected.extend_from_slice(&[LIST_ELEMENT, 1, 0, 0, 0, 3]);
+        assert_eq!(encoded, expected);
+        assert_eq!(encoded.len(), 2 + 2 + HASH_SIZE + 6);
+    }
+
+    #[test]
+    fn put_size_little_endian() {
+        let mut buf = Vec::new();
+
+        put_size(&mut buf, 0x0102_0304);
+
+        assert_eq!(buf, vec![4, 3, 2, 1]);
+    }
+}
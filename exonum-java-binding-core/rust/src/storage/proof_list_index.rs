@@ -12,19 +12,21 @@
 // See the License for the specific language governing permissions and
 // limitations under the License.
 
-use exonum::crypto::Hash;
 use exonum::storage::proof_list_index::{ListProof, ProofListIndexIter};
 use exonum::storage::{Fork, ProofListIndex, Snapshot};
-use jni::errors::Result;
 use jni::objects::{JClass, JObject, JString};
-use jni::sys::{jboolean, jbyteArray, jint, jlong, jobject};
+use jni::sys::{jboolean, jbyteArray, jint, jlong, jlongArray, jobject};
 use jni::JNIEnv;
 
 use std::panic;
 use std::ptr;
 
+use storage::aggregation;
 use storage::db::{Value, View, ViewRef};
+use storage::diff;
+use storage::proof_encoding;
 use utils::{self, Handle};
+use JniResult;
 
 type Index<T> = ProofListIndex<T, Value>;
 
@@ -198,25 +200,27 @@ pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofListIndexPro
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
-/// Returns Java representation of the proof that an element exists at the specified index.
+/// Returns the proof that an element exists at the specified index, encoded in the compact
+/// binary format.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofListIndexProxy_nativeGetProof(
     env: JNIEnv,
     _: JObject,
     list_handle: Handle,
     index: jlong,
-) -> jobject {
+) -> jbyteArray {
     let res = panic::catch_unwind(|| {
         let proof = match *utils::cast_handle::<IndexType>(list_handle) {
             IndexType::SnapshotIndex(ref list) => list.get_proof(index as u64),
             IndexType::ForkIndex(ref list) => list.get_proof(index as u64),
         };
-        make_java_proof(&env, &proof).map(|x| x.into_inner())
+        env.byte_array_from_slice(&proof_encoding::encode_list_proof(&proof))
     });
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
-/// Returns Java representation of the proof that some elements exists in the specified range.
+/// Returns the proof that some elements exist in the specified range, encoded in the compact
+/// binary format.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofListIndexProxy_nativeGetRangeProof(
     env: JNIEnv,
@@ -224,13 +228,64 @@ pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofListIndexPro
     list_handle: Handle,
     from: jlong,
     to: jlong,
-) -> jobject {
+) -> jbyteArray {
     let res = panic::catch_unwind(|| {
         let proof = match *utils::cast_handle::<IndexType>(list_handle) {
             IndexType::SnapshotIndex(ref list) => list.get_range_proof(from as u64, to as u64),
             IndexType::ForkIndex(ref list) => list.get_range_proof(from as u64, to as u64),
         };
-        make_java_proof(&env, &proof).map(|x| x.into_inner())
+        env.byte_array_from_slice(&proof_encoding::encode_list_proof(&proof))
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
+/// Returns the proof that the elements exist at the specified indices, encoded in the compact
+/// binary format. The indices may be in any order and contain duplicates.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofListIndexProxy_nativeGetMultiProof(
+    env: JNIEnv,
+    _: JObject,
+    list_handle: Handle,
+    indices: jlongArray,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let mut indices = convert_to_indices(&env, indices)?;
+        let proof = match *utils::cast_handle::<IndexType>(list_handle) {
+            IndexType::SnapshotIndex(ref list) => get_multiproof(list, &mut indices),
+            IndexType::ForkIndex(ref list) => get_multiproof(list, &mut indices),
+        };
+        env.byte_array_from_slice(&proof_encoding::encode_list_proof(&proof))
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
+/// Returns the differences between this list and the `other` list, encoded as described
+/// in the `diff` module, with the element indices as the keys.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofListIndexProxy_nativeDiff(
+    env: JNIEnv,
+    _: JObject,
+    list_handle: Handle,
+    other_list_handle: Handle,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let old = utils::cast_handle::<IndexType>(list_handle);
+        let new = utils::cast_handle::<IndexType>(other_list_handle);
+        let diff = match (&*old, &*new) {
+            (&IndexType::SnapshotIndex(ref old), &IndexType::SnapshotIndex(ref new)) => {
+                diff_lists(old, new)
+            }
+            (&IndexType::SnapshotIndex(ref old), &IndexType::ForkIndex(ref new)) => {
+                diff_lists(old, new)
+            }
+            (&IndexType::ForkIndex(ref old), &IndexType::SnapshotIndex(ref new)) => {
+                diff_lists(old, new)
+            }
+            (&IndexType::ForkIndex(ref old), &IndexType::ForkIndex(ref new)) => {
+                diff_lists(old, new)
+            }
+        };
+        env.byte_array_from_slice(&diff)
     });
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
@@ -272,6 +327,39 @@ pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofListIndexPro
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Aggregates the list elements at the positions in the range `[from_index, to_index)`
+/// with the operator.
+///
+/// Returns a `java.lang.Long`, or null pointer if the range is empty and the operator
+/// is min or max.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofListIndexProxy_nativeAggregate(
+    env: JNIEnv,
+    _: JObject,
+    list_handle: Handle,
+    operator: jint,
+    from_index: jlong,
+    to_index: jlong,
+    value_offset: jint,
+) -> jobject {
+    let res = panic::catch_unwind(|| {
+        let operator = aggregation::Operator::from_code(operator);
+        let from = from_index as u64;
+        let count = (to_index - from_index) as usize;
+        let offset = value_offset as usize;
+        let result = match *utils::cast_handle::<IndexType>(list_handle) {
+            IndexType::SnapshotIndex(ref list) => {
+                aggregation::aggregate(list.iter_from(from).take(count), operator, offset)
+            }
+            IndexType::ForkIndex(ref list) => {
+                aggregation::aggregate(list.iter_from(from).take(count), operator, offset)
+            }
+        };
+        aggregation::to_java_long(&env, result)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
 /// Adds value to the list.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofListIndexProxy_nativeAdd(
@@ -293,6 +381,14 @@ pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofListIndexPro
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Adds the `value` to the list; used to apply the buffered writes.
+pub(crate) fn apply_add(list_handle: Handle, value: Value) {
+    match *utils::cast_handle::<IndexType>(list_handle) {
+        IndexType::SnapshotIndex(_) => panic!("Unable to modify snapshot."),
+        IndexType::ForkIndex(ref mut list) => list.push(value),
+    }
+}
+
 /// Sets value into specified index. Panics if `i` is out of bounds.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofListIndexProxy_nativeSet(
@@ -361,60 +457,176 @@ pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofListIndexPro
     utils::drop_handle::<ProofListIndexIter<Value>>(&env, iter_handle);
 }
 
-fn make_java_proof<'a>(env: &JNIEnv<'a>, proof: &ListProof<Value>) -> Result<JObject<'a>> {
-    match *proof {
-        ListProof::Full(ref left, ref right) => {
-            let left = make_java_proof(env, left.as_ref())?;
-            let right = make_java_proof(env, right.as_ref())?;
-            make_java_proof_branch(env, left, right)
+fn convert_to_indices(env: &JNIEnv, array: jlongArray) -> JniResult<Vec<u64>> {
+    let num_indices = env.get_array_length(array)?;
+    let mut indices = vec![0 as jlong; num_indices as usize];
+    env.get_long_array_region(array, 0, &mut indices)?;
+    Ok(indices.into_iter().map(|index| index as u64).collect())
+}
+
+/// Returns a proof of the elements at the given indices. A range proof is built for each run
+/// of consecutive indices, and the range proofs are merged, so that their common branches
+/// are included once.
+fn get_multiproof<T: AsRef<Snapshot>>(
+    list: &Index<T>,
+    indices: &mut Vec<u64>,
+) -> ListProof<Value> {
+    assert!(!indices.is_empty(), "No indices");
+    indices.sort_unstable();
+    indices.dedup();
+
+    let mut proof: Option<ListProof<Value>> = None;
+    let mut i = 0;
+    while i < indices.len() {
+        let from = indices[i];
+        let mut to = from + 1;
+        i += 1;
+        while i < indices.len() && indices[i] == to {
+            to += 1;
+            i += 1;
+        }
+        let range_proof = list.get_range_proof(from, to);
+        proof = Some(match proof {
+            Some(proof) => merge_proofs(proof, range_proof),
+            None => range_proof,
+        });
+    }
+    proof.unwrap()
+}
+
+/// Merges two proofs of the same list into a proof of the elements of both.
+///
+/// The hash of a sub-tree is replaced with the sub-tree from the other proof, if the latter
+/// includes any elements of that sub-tree.
+fn merge_proofs(first: ListProof<Value>, second: ListProof<Value>) -> ListProof<Value> {
+    match (first, second) {
+        (ListProof::Full(l1, r1), ListProof::Full(l2, r2)) => {
+            ListProof::Full(merge_boxed(l1, l2), merge_boxed(r1, r2))
+        }
+        (ListProof::Full(l1, r1), ListProof::Left(l2, _))
+        | (ListProof::Left(l2, _), ListProof::Full(l1, r1)) => {
+            ListProof::Full(merge_boxed(l1, l2), r1)
         }
-        ListProof::Left(ref left, ref hash) => {
-            let left = make_java_proof(env, left.as_ref())?;
-            let right = hash.map_or(Ok((ptr::null_mut() as jobject).into()), |hash| {
-                make_java_hash_node(env, &hash)
-            })?;
-            make_java_proof_branch(env, left, right)
+        (ListProof::Full(l1, r1), ListProof::Right(_, r2))
+        | (ListProof::Right(_, r2), ListProof::Full(l1, r1)) => {
+            ListProof::Full(l1, merge_boxed(r1, r2))
         }
-        ListProof::Right(ref hash, ref right) => {
-            let left = make_java_hash_node(env, hash)?;
-            let right = make_java_proof(env, right.as_ref())?;
-            make_java_proof_branch(env, left, right)
+        (ListProof::Left(l1, hash), ListProof::Left(l2, _)) => {
+            ListProof::Left(merge_boxed(l1, l2), hash)
         }
-        ListProof::Leaf(ref value) => make_java_proof_element(env, value),
+        (ListProof::Left(l, _), ListProof::Right(_, r))
+        | (ListProof::Right(_, r), ListProof::Left(l, _)) => ListProof::Full(l, r),
+        (ListProof::Right(hash, r1), ListProof::Right(_, r2)) => {
+            ListProof::Right(hash, merge_boxed(r1, r2))
+        }
+        (ListProof::Leaf(value), ListProof::Leaf(_)) => ListProof::Leaf(value),
+        _ => panic!("Unable to merge the proofs of different trees"),
     }
 }
 
-// TODO: Remove attribute (https://github.com/rust-lang-nursery/rust-clippy/issues/1981).
-#[cfg_attr(feature = "cargo-clippy", allow(ptr_arg))]
-fn make_java_proof_element<'a>(env: &JNIEnv<'a>, value: &Value) -> Result<JObject<'a>> {
-    let value = env.auto_local(env.byte_array_from_slice(value)?.into());
-    env.new_object(
-        "com/exonum/binding/common/proofs/list/ListProofElement",
-        "([B)V",
-        &[value.as_obj().into()],
-    )
+fn merge_boxed(
+    first: Box<ListProof<Value>>,
+    second: Box<ListProof<Value>>,
+) -> Box<ListProof<Value>> {
+    Box::new(merge_proofs(*first, *second))
 }
 
-fn make_java_proof_branch<'a>(
-    env: &JNIEnv<'a>,
-    left: JObject,
-    right: JObject,
-) -> Result<JObject<'a>> {
-    let left = env.auto_local(left);
-    let right = env.auto_local(right);
-    env.new_object(
-        "com/exonum/binding/common/proofs/list/ListProofBranch",
-        "(Lcom/exonum/binding/common/proofs/list/ListProofNode;\
-         Lcom/exonum/binding/common/proofs/list/ListProofNode;)V",
-        &[left.as_obj().into(), right.as_obj().into()],
-    )
+/// Returns the encoded differences between two lists. The lists with equal root hashes
+/// are equal, and their elements are not compared.
+fn diff_lists<T: AsRef<Snapshot>, U: AsRef<Snapshot>>(old: &Index<T>, new: &Index<U>) -> Vec<u8> {
+    if old.merkle_root() == new.merkle_root() {
+        return diff::encode_no_diff();
+    }
+    let old_entries = old.iter().enumerate().map(|(i, value)| (i as u64, value));
+    let new_entries = new.iter().enumerate().map(|(i, value)| (i as u64, value));
+    diff::encode_diff(old_entries, new_entries, |buf, index: &u64| {
+        for i in 0..8 {
+            buf.push((*index >> (8 * i)) as u8);
+        }
+    })
 }
 
-fn make_java_hash_node<'a>(env: &JNIEnv<'a>, hash: &Hash) -> Result<JObject<'a>> {
-    let hash = env.auto_local(utils::convert_hash(env, hash)?.into());
-    env.new_object(
-        "com/exonum/binding/common/proofs/list/ListProofHashNode",
-        "([B)V",
-        &[hash.as_obj().into()],
-    )
+#[cfg(test)]
+mod tests {
+    use super::*;
+    use exonum::crypto::hash;
+    use exonum::storage::{Database, MemoryDB};
+
+    fn leaf(value: u8) -> Box<ListProof<Value>> {
+        Box::new(ListProof::Leaf(vec![value]))
+    }
+
+    #[test]
+    fn merge_left_and_right_proofs() {
+        let left = ListProof::Left(leaf(1), Some(hash(&[2])));
+        let right = ListProof::Right(hash(&[1]), leaf(2));
+
+        let merged = merge_proofs(left, right);
+
+        assert_eq!(merged, ListProof::Full(leaf(1), leaf(2)));
+    }
+
+    #[test]
+    fn merge_proofs_sharing_branch() {
+        let h = hash(&[3]);
+        let first = ListProof::Left(
+            Box::new(ListProof::Left(leaf(1), Some(hash(&[2])))),
+            Some(h),
+        );
+        let second = ListProof::Left(
+            Box::new(ListProof::Right(hash(&[1]), leaf(2))),
+            Some(h),
+        );
+
+        let merged = merge_proofs(first, second);
+
+        assert_eq!(
+            merged,
+            ListProof::Left(Box::new(ListProof::Full(leaf(1), leaf(2))), Some(h))
+        );
+    }
+
+    #[test]
+    fn merge_full_and_right_proofs() {
+        let full = ListProof::Full(
+            Box::new(ListProof::Full(leaf(1), leaf(2))),
+            Box::new(ListProof::Left(leaf(3), Some(hash(&[4])))),
+        );
+        let right = ListProof::Right(
+            hash(&[12]),
+            Box::new(ListProof::Right(hash(&[3]), leaf(4))),
+        );
+
+        let merged = merge_proofs(full, right);
+
+        assert_eq!(
+            merged,
+            ListProof::Full(
+                Box::new(ListProof::Full(leaf(1), leaf(2))),
+                Box::new(ListProof::Full(leaf(3), leaf(4))),
+            )
+        );
+    }
+
+    #[test]
+    fn multiproof_of_non_adjacent_elements() {
+        let db = MemoryDB::new();
+        let mut fork = db.fork();
+        let mut list: Index<_> = ProofListIndex::new("list", &mut fork);
+        for i in 0..7 {
+            list.push(vec![i]);
+        }
+
+        let proof = get_multiproof(&list, &mut vec![5, 1, 3, 1]);
+
+        let elements = proof.validate(list.merkle_root(), list.len()).unwrap();
+        let expected: Vec<(u64, &Value)> = vec![(1, &vec![1]), (3, &vec![3]), (5, &vec![5])];
+        assert_eq!(elements, expected);
+    }
+
+    #[test]
+    #[should_panic(expected = "Unable to merge the proofs of different trees")]
+    fn merge_proofs_of_different_trees() {
+        merge_proofs(*leaf(1), ListProof::Right(hash(&[1]), leaf(2)));
+    }
 }
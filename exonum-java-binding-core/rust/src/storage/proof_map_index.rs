@@ -13,20 +13,21 @@
 // limitations under the License.
 
 use jni::objects::{JClass, JObject, JString};
-use jni::sys::{jboolean, jbyteArray, jobject, jsize};
+use jni::sys::{jboolean, jbyteArray, jint, jobject, jobjectArray, jsize};
 use jni::JNIEnv;
 
 use std::panic;
 use std::ptr;
 
-use exonum::crypto::Hash;
 use exonum::storage::proof_map_index::{
-    CheckedMapProof, MapProof, ProofMapIndexIter, ProofMapIndexKeys, ProofMapIndexValues,
-    ProofPath, PROOF_MAP_KEY_SIZE,
+    ProofMapIndexIter, ProofMapIndexKeys, ProofMapIndexValues, PROOF_MAP_KEY_SIZE,
 };
 use exonum::storage::{Fork, ProofMapIndex, Snapshot};
 
+use storage::aggregation;
 use storage::db::{Value, View, ViewRef};
+use storage::diff;
+use storage::proof_encoding;
 use utils::{self, Handle, PairIter};
 use JniResult;
 
@@ -34,12 +35,6 @@ type Key = [u8; PROOF_MAP_KEY_SIZE];
 type Index<T> = ProofMapIndex<T, Key, Value>;
 
 const JAVA_ENTRY_FQN: &str = "com/exonum/binding/storage/indices/MapEntryInternal";
-const MAP_PROOF_ENTRY: &str = "com/exonum/binding/common/proofs/map/MapProofEntry";
-const MAP_ENTRY: &str = "com/exonum/binding/common/collect/MapEntry";
-const UNCHECKED_FLAT_MAP_PROOF: &str = "com/exonum/binding/common/proofs/map/UncheckedFlatMapProof";
-const UNCHECKED_FLAT_MAP_PROOF_SIG: &str =
-    "([Lcom/exonum/binding/common/proofs/map/MapProofEntry;[Lcom/exonum/binding/common/collect/MapEntry;[[B)Lcom/exonum/binding/common/proofs/map/UncheckedFlatMapProof;";
-const BYTE_ARRAY: &str = "[B";
 
 enum IndexType {
     SnapshotIndex(Index<&'static Snapshot>),
@@ -144,6 +139,35 @@ pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofMapIndexProx
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
+/// Returns the values mapped to the `keys`, concatenated in a single array, as an array
+/// of byte arrays, which has `null` elements for the keys that are not in the map.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofMapIndexProxy_nativeGetAll(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    keys: jbyteArray,
+) -> jobjectArray {
+    let res = panic::catch_unwind(|| {
+        let keys = convert_to_keys(&env, keys)?;
+        let values: Vec<Option<Value>> = match *utils::cast_handle::<IndexType>(map_handle) {
+            IndexType::SnapshotIndex(ref map) => keys.iter().map(|key| map.get(key)).collect(),
+            IndexType::ForkIndex(ref map) => keys.iter().map(|key| map.get(key)).collect(),
+        };
+        let java_values = env.new_object_array(values.len() as jsize, "[B", JObject::null())?;
+        for (i, value) in values.into_iter().enumerate() {
+            if let Some(value) = value {
+                let java_value = JObject::from(env.byte_array_from_slice(&value)?);
+                env.set_object_array_element(java_values, i as jsize, java_value)?;
+                // Release the local reference, so that large batches do not overflow the table
+                env.delete_local_ref(java_value)?;
+            }
+        }
+        Ok(java_values)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
 /// Returns `true` if the map contains a value for the specified key.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofMapIndexProxy_nativeContainsKey(
@@ -162,156 +186,74 @@ pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofMapIndexProx
     utils::unwrap_exc_or_default(&env, res)
 }
 
-/// Returns Java-proof object.
+/// Returns the proof of the `key`, encoded in the compact binary format.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofMapIndexProxy_nativeGetProof(
     env: JNIEnv,
     _: JObject,
     map_handle: Handle,
     key: jbyteArray,
-) -> jobject {
+) -> jbyteArray {
     let res = panic::catch_unwind(|| {
         let key = convert_to_key(&env, key)?;
-        let proof = match *utils::cast_handle::<IndexType>(map_handle) {
-            IndexType::SnapshotIndex(ref map) => map.get_proof(key),
-            IndexType::ForkIndex(ref map) => map.get_proof(key),
+        let encoded_proof = match *utils::cast_handle::<IndexType>(map_handle) {
+            IndexType::SnapshotIndex(ref map) => encode_proof(map, vec![key]),
+            IndexType::ForkIndex(ref map) => encode_proof(map, vec![key]),
         };
-
-        Ok(convert_to_java_proof(&env, proof)?.into_inner())
+        env.byte_array_from_slice(&encoded_proof)
     });
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
-/// Returns Java-proof object.
+/// Returns the proof of the `keys`, encoded in the compact binary format.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofMapIndexProxy_nativeGetMultiProof(
     env: JNIEnv,
     _: JObject,
     map_handle: Handle,
     keys: jbyteArray,
-) -> jobject {
+) -> jbyteArray {
     let res = panic::catch_unwind(|| {
         let keys = convert_to_keys(&env, keys)?;
-        let proof = match *utils::cast_handle::<IndexType>(map_handle) {
-            IndexType::SnapshotIndex(ref map) => map.get_multiproof(keys),
-            IndexType::ForkIndex(ref map) => map.get_multiproof(keys),
+        let encoded_proof = match *utils::cast_handle::<IndexType>(map_handle) {
+            IndexType::SnapshotIndex(ref map) => encode_proof(map, keys),
+            IndexType::ForkIndex(ref map) => encode_proof(map, keys),
         };
-
-        Ok(convert_to_java_proof(&env, proof)?.into_inner())
+        env.byte_array_from_slice(&encoded_proof)
     });
     utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
-fn convert_to_java_proof<'a>(
-    env: &'a JNIEnv,
-    proof: MapProof<Key, Value>,
-) -> JniResult<JObject<'a>> {
-    let proof_nodes: JObject = create_java_proof_nodes(&env, &proof)?;
-    let missing_keys: JObject = create_java_missing_keys(&env, &proof)?;
-
-    // TODO: avoid checking proofs (ECR-1802) and reorder the surrounding operations
-    let checked_proof = proof.check().unwrap();
-    let map_entries: JObject = create_java_map_entries(&env, &checked_proof)?;
-
-    create_java_unchecked_flat_map_proof(&env, proof_nodes, map_entries, missing_keys)
-}
-
-fn create_java_proof_nodes<'a>(
-    env: &'a JNIEnv,
-    map_proof: &MapProof<Key, Value>,
-) -> JniResult<JObject<'a>> {
-    let proof_entries = map_proof.proof_unchecked();
-    let java_entries = env.new_object_array(
-        proof_entries.len() as jsize,
-        MAP_PROOF_ENTRY,
-        JObject::null(),
-    )?;
-    for (i, (proof_path, value_hash)) in proof_entries.iter().enumerate() {
-        // todo: [ECR-2360] Estimate precisely the upper bound on the number of references ^ and
-        //   consider using a single frame
-        env.with_local_frame(8, || {
-            let je = create_java_proof_node(env, &proof_path, &value_hash)?;
-            env.set_object_array_element(java_entries, i as jsize, je)?;
-            Ok(JObject::null())
-        })?;
-    }
-    Ok(java_entries.into())
-}
-
-/// Creates a proof node — a node in a proof contour that corresponds to a tree node
-/// that does not contain any of the requested keys.
-fn create_java_proof_node<'a>(
-    env: &'a JNIEnv,
-    proof_path: &ProofPath,
-    hash: &Hash,
-) -> JniResult<JObject<'a>> {
-    let proof_path: JObject = env.byte_array_from_slice(proof_path.as_bytes())?.into();
-    let hash: JObject = utils::convert_hash(env, hash)?.into();
-    env.new_object(
-        MAP_PROOF_ENTRY,
-        "([B[B)V",
-        &[proof_path.into(), hash.into()],
-    )
-}
-
-fn create_java_map_entries<'a>(
-    env: &'a JNIEnv,
-    checked_proof: &CheckedMapProof<Key, Value>,
-) -> JniResult<JObject<'a>> {
-    let entries: Vec<(&Key, &Value)> = checked_proof.entries();
-    let java_entries = env.new_object_array(entries.len() as jsize, MAP_ENTRY, JObject::null())?;
-    for (i, (key, value)) in entries.iter().enumerate() {
-        // todo: [ECR-2360] Estimate precisely the upper bound on the number of references ^ and
-        //   consider using a single frame
-        env.with_local_frame(8, || {
-            let je = create_java_map_entry(env, key, value)?;
-            env.set_object_array_element(java_entries, i as jsize, je)?;
-            Ok(JObject::null())
-        })?;
-    }
-    Ok(java_entries.into())
-}
-
-#[cfg_attr(feature = "cargo-clippy", allow(ptr_arg))]
-fn create_java_map_entry<'a>(env: &'a JNIEnv, key: &Key, value: &Value) -> JniResult<JObject<'a>> {
-    let key: JObject = env.byte_array_from_slice(key)?.into();
-    let value: JObject = env.byte_array_from_slice(value.as_slice())?.into();
-    env.call_static_method(
-        MAP_ENTRY,
-        "valueOf",
-        format!("(Ljava/lang/Object;Ljava/lang/Object;)L{};", MAP_ENTRY),
-        &[key.into(), value.into()],
-    )?.l()
-}
-
-fn create_java_missing_keys<'a>(
-    env: &'a JNIEnv,
-    map_proof: &MapProof<Key, Value>,
-) -> JniResult<JObject<'a>> {
-    let missing_keys = map_proof.missing_keys_unchecked();
-    let java_missing_keys =
-        env.new_object_array(missing_keys.len() as jsize, BYTE_ARRAY, JObject::null())?;
-    for (i, key) in missing_keys.iter().enumerate() {
-        let java_key = env.byte_array_from_slice(key.as_ref())?.into();
-        env.set_object_array_element(java_missing_keys, i as jsize, java_key)?;
-        env.delete_local_ref(java_key)?;
-    }
-    Ok(java_missing_keys.into())
-}
-
-fn create_java_unchecked_flat_map_proof<'a>(
-    env: &'a JNIEnv,
-    proof_nodes: JObject,
-    map_entries: JObject,
-    missing_keys: JObject,
-) -> JniResult<JObject<'a>> {
-    let java_proof = env.call_static_method(
-        UNCHECKED_FLAT_MAP_PROOF,
-        "fromNative",
-        UNCHECKED_FLAT_MAP_PROOF_SIG,
-        &[proof_nodes.into(), map_entries.into(), missing_keys.into()],
-    )?;
-    java_proof.l()
+/// Returns the differences between this map and the `other` map, encoded as described
+/// in the `diff` module: the entries of the `other` map that are absent in this one are
+/// the added entries, and vice versa.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofMapIndexProxy_nativeDiff(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    other_map_handle: Handle,
+) -> jbyteArray {
+    let res = panic::catch_unwind(|| {
+        let old = utils::cast_handle::<IndexType>(map_handle);
+        let new = utils::cast_handle::<IndexType>(other_map_handle);
+        let diff = match (&*old, &*new) {
+            (&IndexType::SnapshotIndex(ref old), &IndexType::SnapshotIndex(ref new)) => {
+                diff_maps(old, new)
+            }
+            (&IndexType::SnapshotIndex(ref old), &IndexType::ForkIndex(ref new)) => {
+                diff_maps(old, new)
+            }
+            (&IndexType::ForkIndex(ref old), &IndexType::SnapshotIndex(ref new)) => {
+                diff_maps(old, new)
+            }
+            (&IndexType::ForkIndex(ref old), &IndexType::ForkIndex(ref new)) => {
+                diff_maps(old, new)
+            }
+        };
+        env.byte_array_from_slice(&diff)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
 }
 
 /// Returns the pointer to the iterator over a map keys and values.
@@ -392,7 +334,7 @@ pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofMapIndexProx
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofMapIndexProxy_nativeKeysFrom(
     env: JNIEnv,
-    _: JClass,
+    _: JObject,
     map_handle: Handle,
     key: jbyteArray,
 ) -> Handle {
@@ -472,6 +414,60 @@ pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofMapIndexProx
     utils::unwrap_exc_or_default(&env, res)
 }
 
+/// Puts the `value` identified by the `key` into the index; used to apply the buffered writes.
+pub(crate) fn apply_put(map_handle: Handle, key: &[u8], value: Value) {
+    match *utils::cast_handle::<IndexType>(map_handle) {
+        IndexType::SnapshotIndex(_) => panic!("Unable to modify snapshot."),
+        IndexType::ForkIndex(ref mut map) => map.put(&to_key(key), value),
+    }
+}
+
+/// Removes the value identified by the `key` from the index; used to apply the buffered writes.
+pub(crate) fn apply_remove(map_handle: Handle, key: &[u8]) {
+    match *utils::cast_handle::<IndexType>(map_handle) {
+        IndexType::SnapshotIndex(_) => panic!("Unable to modify snapshot."),
+        IndexType::ForkIndex(ref mut map) => map.remove(&to_key(key)),
+    }
+}
+
+/// Aggregates the values of the map entries which keys are in the range `[from, to)`
+/// with the operator; a null bound leaves that side of the range open.
+///
+/// Returns a `java.lang.Long`, or null pointer if the range is empty and the operator
+/// is min or max.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofMapIndexProxy_nativeAggregate(
+    env: JNIEnv,
+    _: JObject,
+    map_handle: Handle,
+    operator: jint,
+    from: jbyteArray,
+    to: jbyteArray,
+    value_offset: jint,
+) -> jobject {
+    let res = panic::catch_unwind(|| {
+        let operator = aggregation::Operator::from_code(operator);
+        let from = aggregation::convert_optional_bytes(&env, from)?
+            .map(|key| to_key(&key))
+            .unwrap_or_default();
+        let to = aggregation::convert_optional_bytes(&env, to)?;
+        let to = to.as_ref().map(|key| key.as_slice());
+        let offset = value_offset as usize;
+        let result = match *utils::cast_handle::<IndexType>(map_handle) {
+            IndexType::SnapshotIndex(ref map) => {
+                let values = aggregation::values_before(map.iter_from(&from), to);
+                aggregation::aggregate(values, operator, offset)
+            }
+            IndexType::ForkIndex(ref map) => {
+                let values = aggregation::values_before(map.iter_from(&from), to);
+                aggregation::aggregate(values, operator, offset)
+            }
+        };
+        aggregation::to_java_long(&env, result)
+    });
+    utils::unwrap_exc_or(&env, res, ptr::null_mut())
+}
+
 /// Removes all entries of the map.
 #[no_mangle]
 pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofMapIndexProxy_nativeClear(
@@ -583,11 +579,15 @@ pub extern "system" fn Java_com_exonum_binding_storage_indices_ProofMapIndexProx
 
 fn convert_to_key(env: &JNIEnv, array: jbyteArray) -> JniResult<Key> {
     let bytes = env.convert_byte_array(array)?;
+    Ok(to_key(&bytes))
+}
+
+fn to_key(bytes: &[u8]) -> Key {
     assert_eq!(PROOF_MAP_KEY_SIZE, bytes.len());
 
     let mut key = Key::default();
-    key.copy_from_slice(&bytes);
-    Ok(key)
+    key.copy_from_slice(bytes);
+    key
 }
 
 fn convert_to_keys(env: &JNIEnv, array: jbyteArray) -> JniResult<Vec<Key>> {
@@ -603,3 +603,28 @@ fn convert_to_keys(env: &JNIEnv, array: jbyteArray) -> JniResult<Vec<Key>> {
         }).collect();
     Ok(keys)
 }
+
+/// Returns the proof of the `keys` in the compact binary format. The entries of the keys
+/// that are present in the map are read from the map instead of the proof, so that
+/// the proof is not checked in the native code.
+fn encode_proof<T: AsRef<Snapshot>>(map: &Index<T>, mut keys: Vec<Key>) -> Vec<u8> {
+    let proof = map.get_multiproof(keys.clone());
+    keys.sort_unstable();
+    keys.dedup();
+    let entries: Vec<(Key, Value)> = keys
+        .into_iter()
+        .filter_map(|key| map.get(&key).map(|value| (key, value)))
+        .collect();
+    proof_encoding::encode_map_proof(&proof, &entries)
+}
+
+/// Returns the encoded differences between two maps. The maps with equal root hashes
+/// are equal, and their entries are not compared.
+fn diff_maps<T: AsRef<Snapshot>, U: AsRef<Snapshot>>(old: &Index<T>, new: &Index<U>) -> Vec<u8> {
+    if old.merkle_root() == new.merkle_root() {
+        return diff::encode_no_diff();
+    }
+    diff::encode_diff(old.iter(), new.iter(), |buf, key: &Key| {
+        buf.extend_from_slice(key)
+    })
+}
@@ -0,0 +1,126 @@
+// Copyright 2018 The Exonum Team
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+//! Applying the index writes, buffered by the Java `WriteBuffer` of a fork, in a single call.
+
+use jni::objects::{JByteBuffer, JClass};
+use jni::sys::jint;
+use jni::JNIEnv;
+
+use std::panic;
+
+use super::{list_index, map_index, proof_list_index, proof_map_index};
+use utils::{self, Handle};
+
+// Operation codes, must match the ordinals of the Java `WriteBuffer.Operation`.
+const MAP_PUT: u8 = 0;
+const MAP_REMOVE: u8 = 1;
+const PROOF_MAP_PUT: u8 = 2;
+const PROOF_MAP_REMOVE: u8 = 3;
+const LIST_ADD: u8 = 4;
+const PROOF_LIST_ADD: u8 = 5;
+
+/// Applies the first `size` bytes of the operation log to the indices, in order.
+///
+/// Each operation record has the following format (all numbers are little-endian):
+/// operation code (u8), index handle (i64), key size (u32), key, value size (u32), value.
+#[no_mangle]
+pub extern "system" fn Java_com_exonum_binding_storage_indices_WriteBuffer_nativeApply(
+    env: JNIEnv,
+    _: JClass,
+    log: JByteBuffer,
+    size: jint,
+) {
+    let res = panic::catch_unwind(|| {
+        let log = env.get_direct_buffer_address(log)?;
+        let size = size as usize;
+        assert!(
+            size <= log.len(),
+            "Log is too small: capacity={}, size={}",
+            log.len(),
+            size
+        );
+        let mut reader = LogReader::new(&log[..size]);
+        while !reader.is_empty() {
+            let operation = reader.read_u8();
+            let handle = reader.read_i64() as Handle;
+            let key = reader.read_bytes();
+            let value = reader.read_bytes();
+            match operation {
+                MAP_PUT => map_index::apply_put(handle, key, value.to_vec()),
+                MAP_REMOVE => map_index::apply_remove(handle, key),
+                PROOF_MAP_PUT => proof_map_index::apply_put(handle, key, value.to_vec()),
+                PROOF_MAP_REMOVE => proof_map_index::apply_remove(handle, key),
+                LIST_ADD => list_index::apply_add(handle, value.to_vec()),
+                PROOF_LIST_ADD => proof_list_index::apply_add(handle, value.to_vec()),
+                _ => panic!("Unknown write operation: {}", operation),
+            }
+        }
+        Ok(())
+    });
+    utils::unwrap_exc_or_default(&env, res)
+}
+
+/// A reader of the operation log.
+struct LogReader<'a> {
+    bytes: &'a [u8],
+    position: usize,
+}
+
+impl<'a> LogReader<'a> {
+    fn new(bytes: &'a [u8]) -> Self {
+        LogReader { bytes, position: 0 }
+    }
+
+    fn is_empty(&self) -> bool {
+        self.position == self.bytes.len()
+    }
+
+    fn read_u8(&mut self) -> u8 {
+        self.read_slice(1)[0]
+    }
+
+    fn read_u32(&mut self) -> u32 {
+        self.read_slice(4)
+            .iter()
+            .rev()
+            .fold(0, |value, &byte| (value << 8) | u32::from(byte))
+    }
+
+    fn read_i64(&mut self) -> i64 {
+        self.read_slice(8)
+            .iter()
+            .rev()
+            .fold(0, |value, &byte| (value << 8) | u64::from(byte)) as i64
+    }
+
+    fn read_bytes(&mut self) -> &'a [u8] {
+        let size = self.read_u32() as usize;
+        self.read_slice(size)
+    }
+
+    fn read_slice(&mut self, size: usize) -> &'a [u8] {
+        assert!(
+            self.position + size <= self.bytes.len(),
+            "Malformed log: position={}, size={}, length={}",
+            self.position,
+            size,
+            self.bytes.len()
+        );
+        let slice = &self.bytes[self.position..self.position + size];
+        self.position += size;
+        slice
+    }
+}
@@ -17,12 +17,17 @@
 
 package com.exonum.binding.blockchain;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.exonum.binding.common.configuration.StoredConfiguration;
 import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.storage.database.View;
 import com.exonum.binding.storage.indices.ListIndex;
 import com.exonum.binding.storage.indices.ProofListIndexProxy;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import java.util.List;
 
 /**
  * Provides read-only access to the subset of
@@ -70,6 +75,20 @@ public final class Blockchain {
     return schema.getAllBlockHashes();
   }
 
+  /**
+   * Returns the hashes of at most {@code limit} blocks, starting with the block
+   * at the given height, in the order of their heights. Only the requested range is read
+   * from the database.
+   *
+   * @param fromHeight the height of the first block
+   * @param limit the maximum number of block hashes to return
+   * @return a list of block hashes; or an empty list if there is no block at the given height
+   * @throws IllegalArgumentException if the height or the limit is negative
+   */
+  public List<HashCode> getBlockHashes(long fromHeight, int limit) {
+    return readRange(schema.getAllBlockHashes(), fromHeight, limit);
+  }
+
   /**
    * Returns a proof list of transaction hashes committed in the block at the given height.
    *
@@ -82,6 +101,22 @@ public final class Blockchain {
     return schema.getBlockTransactions(height);
   }
 
+  /**
+   * Returns the hashes of at most {@code limit} transactions committed in the block
+   * at the given height, starting with the transaction at the given index in the block.
+   * Only the requested range is read from the database.
+   *
+   * @param height block height starting from 0
+   * @param fromIndex the index of the first transaction in the block
+   * @param limit the maximum number of transaction hashes to return
+   * @return a list of transaction hashes; or an empty list if the block at the given height
+   *     doesn't exist or has no transactions at the given index
+   * @throws IllegalArgumentException if the height, the index or the limit is negative
+   */
+  public List<HashCode> getBlockTransactions(long height, long fromIndex, int limit) {
+    return readRange(schema.getBlockTransactions(height), fromIndex, limit);
+  }
+
   /**
    * Returns the configuration for the latest height of the blockchain, including services and their
    * parameters.
@@ -92,4 +127,9 @@ public final class Blockchain {
     return schema.getActualConfiguration();
   }
 
+  private static <T> List<T> readRange(ListIndex<T> list, long fromIndex, int limit) {
+    checkArgument(limit >= 0, "limit (%s) must be non-negative", limit);
+    return ImmutableList.copyOf(Iterators.limit(list.iterator(fromIndex), limit));
+  }
+
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.service.adapters;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.HashFunction;
+import com.exonum.binding.common.hash.Hashing;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of transactions converted from transaction messages, keyed by the hash
+ * of the message. It allows to avoid converting the same message each time the native code
+ * requests a transaction (e.g., on submission, on mempool admission and on block execution).
+ *
+ * <p>When the cache reaches its maximum size, it evicts the least recently used entries.
+ *
+ * <p>It is safe to re-use the converted transactions, as they are immutable.
+ *
+ * <p>This class is thread-safe.
+ */
+final class TransactionCache {
+
+  /**
+   * The default maximum number of transactions in the cache.
+   */
+  static final long DEFAULT_MAX_SIZE = 8192;
+
+  private static final HashFunction MESSAGE_HASH_FUNCTION = Hashing.defaultHashFunction();
+
+  private final Cache<HashCode, UserTransactionAdapter> cache;
+
+  /**
+   * Creates a new cache.
+   *
+   * @param maxSize the maximum number of transactions in the cache, must be non-negative
+   */
+  TransactionCache(long maxSize) {
+    checkArgument(maxSize >= 0, "maxSize must not be negative, but is %s", maxSize);
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Returns a transaction corresponding to the given message. If the cache does not contain
+   * such transaction, converts the message using the given function and puts the result
+   * in the cache. Concurrent callers requesting the same message wait for a single conversion.
+   *
+   * <p>Any exceptions thrown by the converter are propagated as is and nothing is cached.
+   *
+   * @param transactionMessage a transaction message
+   * @param converter a function converting the message into a transaction
+   */
+  UserTransactionAdapter get(byte[] transactionMessage,
+      Function<byte[], UserTransactionAdapter> converter) {
+    HashCode messageHash = MESSAGE_HASH_FUNCTION.hashBytes(transactionMessage);
+    try {
+      return cache.get(messageHash, () -> converter.apply(transactionMessage));
+    } catch (UncheckedExecutionException | ExecutionError e) {
+      throwIfUnchecked(e.getCause());
+      throw e;
+    } catch (ExecutionException e) {
+      // Cannot happen: the converter does not throw checked exceptions
+      throw new AssertionError("Unexpected checked exception", e);
+    }
+  }
+
+  /**
+   * Returns the number of transactions in the cache.
+   */
+  long size() {
+    return cache.size();
+  }
+
+  /**
+   * Returns the statistics of this cache: the number of hits, misses and evictions.
+   */
+  CacheStats stats() {
+    return cache.stats();
+  }
+}
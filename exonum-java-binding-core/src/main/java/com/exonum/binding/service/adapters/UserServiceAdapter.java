@@ -31,6 +31,7 @@ import com.exonum.binding.storage.database.Fork;
 import com.exonum.binding.storage.database.Snapshot;
 import com.exonum.binding.transaction.Transaction;
 import com.exonum.binding.transport.Server;
+import com.google.common.cache.CacheStats;
 import com.google.inject.Inject;
 import io.vertx.ext.web.Router;
 import java.util.List;
@@ -52,6 +53,7 @@ public class UserServiceAdapter {
   private final Service service;
   private final Server server;
   private final ViewFactory viewFactory;
+  private final TransactionCache transactionCache;
 
   @Nullable
   private NodeProxy node;
@@ -61,6 +63,7 @@ public class UserServiceAdapter {
     this.service = checkNotNull(service, "service");
     this.server = checkNotNull(server, "server");
     this.viewFactory = checkNotNull(viewFactory, "viewFactory");
+    this.transactionCache = new TransactionCache(TransactionCache.DEFAULT_MAX_SIZE);
   }
 
   public short getId() {
@@ -74,6 +77,9 @@ public class UserServiceAdapter {
   /**
    * Converts a transaction messages into an executable transaction of this service.
    *
+   * <p>The converted transactions are cached, so that the same message is converted
+   * only once.
+   *
    * <p>The callee must handle the declared exceptions.
    *
    * @param transactionMessage a transaction message to be converted
@@ -83,6 +89,11 @@ public class UserServiceAdapter {
    * @throws IllegalArgumentException if message is not a valid transaction message of this service
    */
   public UserTransactionAdapter convertTransaction(byte[] transactionMessage) {
+    checkNotNull(transactionMessage, "transactionMessage");
+    return transactionCache.get(transactionMessage, this::doConvertTransaction);
+  }
+
+  private UserTransactionAdapter doConvertTransaction(byte[] transactionMessage) {
     BinaryMessage message = BinaryMessage.fromBytes(transactionMessage);
     assert message.getServiceId() == getId() :
         "Message id is distinct from the service id";
@@ -95,6 +106,15 @@ public class UserServiceAdapter {
     return new UserTransactionAdapter(transaction, viewFactory);
   }
 
+  /**
+   * Returns the statistics of the cache of converted transactions.
+   *
+   * @see #convertTransaction(byte[])
+   */
+  public CacheStats getTransactionCacheStats() {
+    return transactionCache.stats();
+  }
+
   /**
    * Returns the state hashes of the service.
    *
@@ -188,6 +208,8 @@ public class UserServiceAdapter {
    * <p>Releases any resources.
    */
   public void close() {
+    logger.info("Transaction cache stats of service {}: {}", getName(),
+        getTransactionCacheStats());
     if (node != null) {
       node.close();
     }
@@ -24,6 +24,7 @@ import com.exonum.binding.storage.database.Fork;
 import com.exonum.binding.transaction.Transaction;
 import com.exonum.binding.transaction.TransactionExecutionException;
 import com.google.common.annotations.VisibleForTesting;
+import javax.annotation.Nullable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -54,18 +55,37 @@ public final class UserTransactionAdapter {
     }
   }
 
-  public void execute(long forkNativeHandle) throws TransactionExecutionException {
+  /**
+   * Executes the transaction.
+   *
+   * <p>A transaction failure, reported by the user transaction with
+   * a {@link TransactionExecutionException}, is <em>returned</em> to the native code,
+   * which reads its error code and description, instead of being propagated as an exception.
+   * Any other exceptions are propagated.
+   *
+   * <p>If the transaction has enabled the buffered-write mode of the fork,
+   * the buffered writes are applied to the fork if the transaction succeeds, and discarded
+   * if it fails.
+   *
+   * @param forkNativeHandle a handle to a native fork object
+   * @return {@code null} if the transaction is executed successfully;
+   *     or the execution exception if it failed
+   */
+  public @Nullable TransactionExecutionException execute(long forkNativeHandle) {
     try {
       assert forkNativeHandle != 0L : "Fork handle must not be 0";
 
       try (Cleaner cleaner = new Cleaner("Transaction#execute")) {
         Fork view = viewFactory.createFork(forkNativeHandle, cleaner);
         transaction.execute(view);
+        // Apply the buffered writes, if any, while the indices are still valid.
+        // If the transaction fails, they are discarded when the cleaner is closed.
+        view.flushWrites();
       }
-
+      return null;
     } catch (TransactionExecutionException e) {
-      logger.info("Transaction {} failed:", transaction, e);
-      throw e;
+      logExecutionFailure(e);
+      return e;
     } catch (CloseFailuresException e) {
       logger.error("Failed to close some resources during transaction {} execution:",
           transaction, e);
@@ -85,6 +105,15 @@ public final class UserTransactionAdapter {
     }
   }
 
+  private void logExecutionFailure(TransactionExecutionException e) {
+    // Failed transactions are expected, hence the stack trace is logged at debug level only.
+    if (logger.isDebugEnabled()) {
+      logger.debug("Transaction {} failed:", transaction, e);
+    } else {
+      logger.info("Transaction {} failed: {}", transaction, e);
+    }
+  }
+
   private void logUnexpectedException(Throwable e) {
     logger.error("Unexpected exception:", e);
   }
@@ -22,15 +22,30 @@ import com.exonum.binding.proxy.CleanAction;
 import com.exonum.binding.proxy.Cleaner;
 import com.exonum.binding.proxy.NativeHandle;
 import com.exonum.binding.proxy.ProxyDestructor;
+import com.exonum.binding.storage.indices.WriteBuffer;
+import javax.annotation.Nullable;
 
 /**
  * A fork is a database view, allowing both read and write operations.
  *
  * <p>A fork allows to perform a transaction: a number of independent writes to a database,
  * which then may be <em>atomically</em> applied to the database state.
+ *
+ * <p>A fork may <em>buffer</em> the writes to the indices in a Java write buffer,
+ * and apply them to the native fork with a single native call when they are
+ * {@linkplain #flushWrites() flushed}. The buffered writes are flushed automatically
+ * before any index operation that cannot be served by the write buffer. A transaction
+ * executed by the framework has its writes flushed after it completes successfully.
+ *
+ * <p>This class is not thread-safe and its instances shall not be shared between threads.
+ *
+ * @see #enableWriteBuffering()
  */
 public final class Fork extends View {
 
+  @Nullable
+  private WriteBuffer writeBuffer;
+
   /**
    * Creates a new owning Fork proxy.
    *
@@ -79,4 +94,55 @@ public final class Fork extends View {
   private Fork(NativeHandle nativeHandle, Cleaner cleaner) {
     super(nativeHandle, cleaner);
   }
+
+  /**
+   * Enables the buffered-write mode: any subsequent puts and removals of map entries,
+   * and additions of list elements are recorded in the write buffer of this fork instead
+   * of being applied to the native fork immediately. The buffered writes, left when the fork
+   * is destroyed, are discarded. Has no effect if the mode is already enabled.
+   *
+   * <p>The buffered-write mode does not change the behaviour of indices, but reduces
+   * the number of native calls if the fork is modified with a series of small writes.
+   *
+   * @throws IllegalStateException if this fork is not valid
+   */
+  public void enableWriteBuffering() {
+    // Check that the fork is still valid, so that its cleaner discards the buffer
+    getViewNativeHandle();
+    if (writeBuffer == null) {
+      writeBuffer = new WriteBuffer();
+      // Discard any writes left in the buffer, as the indices that made them are destroyed.
+      getCleaner().add(CleanAction.from(this::discardWrites, "Fork write buffer"));
+    }
+  }
+
+  /**
+   * Applies the buffered writes, if any, to the native fork.
+   *
+   * @throws IllegalStateException if there are buffered writes and this fork or any index
+   *     that made them is not valid
+   */
+  public void flushWrites() {
+    if (writeBuffer != null && !writeBuffer.isEmpty()) {
+      // Check that the fork and, therefore, the indices are still valid
+      getViewNativeHandle();
+      writeBuffer.flush();
+    }
+  }
+
+  /**
+   * Returns the write buffer of this fork if it is in the buffered-write mode;
+   * or null otherwise. The buffer is used by the indices to record their writes.
+   */
+  @Nullable
+  public WriteBuffer getWriteBuffer() {
+    return writeBuffer;
+  }
+
+  private void discardWrites() {
+    if (writeBuffer != null) {
+      writeBuffer.discard();
+      writeBuffer = null;
+    }
+  }
 }
@@ -65,11 +65,13 @@ public final class MemoryDb extends AbstractCloseableNativeProxy implements Data
   }
 
   /**
-   * Applies the changes from the given fork to the database state.
+   * Applies the changes from the given fork, including any buffered writes,
+   * to the database state.
    *
    * @param fork a fork to get changes from
    */
   public void merge(Fork fork) {
+    fork.flushWrites();
     nativeMerge(getNativeHandle(), fork.getViewNativeHandle());
   }
 
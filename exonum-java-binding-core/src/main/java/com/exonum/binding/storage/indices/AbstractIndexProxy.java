@@ -24,12 +24,18 @@ import com.exonum.binding.proxy.NativeHandle;
 import com.exonum.binding.storage.database.Fork;
 import com.exonum.binding.storage.database.View;
 import com.exonum.binding.storage.database.ViewModificationCounter;
+import com.google.common.io.BaseEncoding;
+import javax.annotation.Nullable;
 
 /**
  * An abstract super class for proxies of all indices.
  *
  * <p>Each index is created with a database view, either an immutable Snapshot or a read-write Fork.
  * An index has a modification counter to detect when it or the corresponding view is modified.
+ *
+ * <p>If the fork {@linkplain Fork#enableWriteBuffering() buffers writes}, the buffered writes
+ * are flushed each time a native handle of the index is accessed with {@link #getNativeHandle()}.
+ * The operations that may be buffered shall use {@link #getNativeHandleNoFlush()} instead.
  */
 abstract class AbstractIndexProxy extends AbstractNativeProxy implements StorageIndex {
 
@@ -59,12 +65,54 @@ abstract class AbstractIndexProxy extends AbstractNativeProxy implements Storage
     this.modCounter = ViewModificationCounter.getInstance();
   }
 
+  /**
+   * Returns the address of an index in a group, unique in the database.
+   *
+   * @param groupName the name of the group
+   * @param idInGroup the identifier of the index in the group
+   */
+  static String addressInGroup(String groupName, byte[] idInGroup) {
+    // Index names may contain only [a-zA-Z0-9_], hence the separator is unambiguous
+    return groupName + "/" + BaseEncoding.base16().encode(idInGroup);
+  }
+
   /** Returns the name of this index. */
   @Override
   public final String getName() {
     return name;
   }
 
+  /**
+   * Returns a handle to the native object after flushing the buffered writes, if any.
+   *
+   * @throws IllegalStateException if the native handle is invalid (closed or nullptr)
+   */
+  @Override
+  protected long getNativeHandle() {
+    if (dbView instanceof Fork) {
+      ((Fork) dbView).flushWrites();
+    }
+    return super.getNativeHandle();
+  }
+
+  /**
+   * Returns a handle to the native object without flushing the buffered writes.
+   * Shall be used to record the operations in the write buffer only.
+   *
+   * @throws IllegalStateException if the native handle is invalid (closed or nullptr)
+   */
+  final long getNativeHandleNoFlush() {
+    return super.getNativeHandle();
+  }
+
+  /**
+   * Returns the write buffer of the database view if it buffers writes; or null otherwise.
+   */
+  @Nullable
+  final WriteBuffer getWriteBuffer() {
+    return (dbView instanceof Fork) ? ((Fork) dbView).getWriteBuffer() : null;
+  }
+
   /**
    * Checks that this index <em>can</em> be modified and changes the modification counter.
    *
@@ -18,13 +18,20 @@ package com.exonum.binding.storage.indices;
 
 import static com.exonum.binding.storage.indices.StoragePreconditions.checkElementIndex;
 import static com.exonum.binding.storage.indices.StoragePreconditions.checkNoNulls;
+import static com.exonum.binding.storage.indices.StoragePreconditions.checkPositionIndex;
+import static com.exonum.binding.storage.indices.StoragePreconditions.checkValueOffset;
+import static com.google.common.base.Preconditions.checkArgument;
 
 import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
 import com.exonum.binding.proxy.NativeHandle;
 import com.exonum.binding.storage.database.View;
+import com.exonum.binding.storage.indices.Aggregation.Operator;
+import com.exonum.binding.storage.indices.WriteBuffer.Operation;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import javax.annotation.Nullable;
 
 /**
  * An abstract class for list indices implementing {@link ListIndex} interface.
@@ -45,7 +52,12 @@ abstract class AbstractListIndexProxy<T> extends AbstractIndexProxy implements L
   public final void add(T e) {
     notifyModified();
     byte[] dbElement = serializer.toBytes(e);
-    nativeAdd(getNativeHandle(), dbElement);
+    WriteBuffer writeBuffer = getWriteBuffer();
+    if (writeBuffer != null) {
+      writeBuffer.add(this, dbElement);
+    } else {
+      nativeAdd(getNativeHandle(), dbElement);
+    }
   }
 
   @Override
@@ -56,12 +68,19 @@ abstract class AbstractListIndexProxy<T> extends AbstractIndexProxy implements L
   }
 
   private void addAllUnchecked(Collection<? extends T> elements) {
-    // Cache the nativeHandle to avoid repeated 'isValid' checks.
-    // It's OK to do that during this call, as this class is not thread-safe.
-    long nativeHandle = getNativeHandle();
-    elements.stream()
-        .map(serializer::toBytes)
-        .forEach((e) -> nativeAdd(nativeHandle, e));
+    WriteBuffer writeBuffer = getWriteBuffer();
+    if (writeBuffer != null) {
+      elements.stream()
+          .map(serializer::toBytes)
+          .forEach((e) -> writeBuffer.add(this, e));
+    } else {
+      // Cache the nativeHandle to avoid repeated 'isValid' checks.
+      // It's OK to do that during this call, as this class is not thread-safe.
+      long nativeHandle = getNativeHandle();
+      elements.stream()
+          .map(serializer::toBytes)
+          .forEach((e) -> nativeAdd(nativeHandle, e));
+    }
   }
 
   @Override
@@ -116,6 +135,154 @@ abstract class AbstractListIndexProxy<T> extends AbstractIndexProxy implements L
         serializer::fromBytes);
   }
 
+  @Override
+  public final Iterator<T> iterator(long fromIndex) {
+    checkArgument(fromIndex >= 0, "fromIndex (%s) must be non-negative", fromIndex);
+    return StorageIterators.createIterator(
+        nativeIterFrom(getNativeHandle(), fromIndex),
+        this::nativeIterNext,
+        this::nativeIterFree,
+        dbView,
+        modCounter,
+        serializer::fromBytes);
+  }
+
+  /**
+   * Returns the sum of the numbers, stored at the start of the list elements.
+   *
+   * @see #sumValues(int)
+   */
+  public final long sumValues() {
+    return sumValues(0);
+  }
+
+  /**
+   * Returns the sum of the numbers, stored in the list elements at the given offset.
+   * Each element must contain a signed 64-bit little-endian integer at the offset.
+   *
+   * <p>The elements are aggregated in the native code, without passing them to Java.
+   *
+   * @param valueOffset the offset of the number in the binary form of the elements
+   * @return the sum of the numbers, or zero if this list is empty
+   * @throws IllegalArgumentException if the offset is negative
+   * @throws IllegalStateException if this list is not valid
+   * @throws RuntimeException if an element is too short to contain the number at the offset;
+   *     or the sum overflows a long
+   */
+  public final long sumValues(int valueOffset) {
+    return Aggregation.toLong(aggregate(Operator.SUM, 0L, size(), valueOffset));
+  }
+
+  /**
+   * Returns the sum of the numbers, stored at the given offset in the list elements
+   * at the positions in the range [fromIndex, toIndex).
+   *
+   * @param fromIndex the first position of the range, inclusive
+   * @param toIndex the last position of the range, exclusive
+   * @param valueOffset the offset of the number in the binary form of the elements
+   * @return the sum of the numbers, or zero if the range is empty
+   * @throws IndexOutOfBoundsException if the range is not within [0, size()]
+   * @see #sumValues(int)
+   */
+  public final long sumValues(long fromIndex, long toIndex, int valueOffset) {
+    checkRange(fromIndex, toIndex);
+    return Aggregation.toLong(aggregate(Operator.SUM, fromIndex, toIndex, valueOffset));
+  }
+
+  /**
+   * Returns the minimum of the numbers, stored at the start of the list elements.
+   *
+   * @see #minValue(int)
+   */
+  public final OptionalLong minValue() {
+    return minValue(0);
+  }
+
+  /**
+   * Returns the minimum of the numbers, stored in the list elements at the given offset;
+   * or an empty optional if this list is empty.
+   *
+   * @param valueOffset the offset of the number in the binary form of the elements
+   * @throws IllegalArgumentException if the offset is negative
+   * @throws IllegalStateException if this list is not valid
+   * @throws RuntimeException if an element is too short to contain the number at the offset
+   * @see #sumValues(int)
+   */
+  public final OptionalLong minValue(int valueOffset) {
+    return Aggregation.toOptional(aggregate(Operator.MIN, 0L, size(), valueOffset));
+  }
+
+  /**
+   * Returns the minimum of the numbers, stored at the given offset in the list elements
+   * at the positions in the range [fromIndex, toIndex); or an empty optional if the range
+   * is empty.
+   *
+   * @param fromIndex the first position of the range, inclusive
+   * @param toIndex the last position of the range, exclusive
+   * @param valueOffset the offset of the number in the binary form of the elements
+   * @throws IndexOutOfBoundsException if the range is not within [0, size()]
+   * @see #minValue(int)
+   */
+  public final OptionalLong minValue(long fromIndex, long toIndex, int valueOffset) {
+    checkRange(fromIndex, toIndex);
+    return Aggregation.toOptional(aggregate(Operator.MIN, fromIndex, toIndex, valueOffset));
+  }
+
+  /**
+   * Returns the maximum of the numbers, stored at the start of the list elements.
+   *
+   * @see #maxValue(int)
+   */
+  public final OptionalLong maxValue() {
+    return maxValue(0);
+  }
+
+  /**
+   * Returns the maximum of the numbers, stored in the list elements at the given offset;
+   * or an empty optional if this list is empty.
+   *
+   * @param valueOffset the offset of the number in the binary form of the elements
+   * @throws IllegalArgumentException if the offset is negative
+   * @throws IllegalStateException if this list is not valid
+   * @throws RuntimeException if an element is too short to contain the number at the offset
+   * @see #sumValues(int)
+   */
+  public final OptionalLong maxValue(int valueOffset) {
+    return Aggregation.toOptional(aggregate(Operator.MAX, 0L, size(), valueOffset));
+  }
+
+  /**
+   * Returns the maximum of the numbers, stored at the given offset in the list elements
+   * at the positions in the range [fromIndex, toIndex); or an empty optional if the range
+   * is empty.
+   *
+   * @param fromIndex the first position of the range, inclusive
+   * @param toIndex the last position of the range, exclusive
+   * @param valueOffset the offset of the number in the binary form of the elements
+   * @throws IndexOutOfBoundsException if the range is not within [0, size()]
+   * @see #maxValue(int)
+   */
+  public final OptionalLong maxValue(long fromIndex, long toIndex, int valueOffset) {
+    checkRange(fromIndex, toIndex);
+    return Aggregation.toOptional(aggregate(Operator.MAX, fromIndex, toIndex, valueOffset));
+  }
+
+  private void checkRange(long fromIndex, long toIndex) {
+    checkPositionIndex(toIndex, size());
+    checkPositionIndex(fromIndex, toIndex);
+  }
+
+  @Nullable
+  private Long aggregate(Operator operator, long fromIndex, long toIndex, int valueOffset) {
+    checkValueOffset(valueOffset);
+    return nativeAggregate(getNativeHandle(), operator.code(), fromIndex, toIndex, valueOffset);
+  }
+
+  /**
+   * Returns the operation adding an element to this list in a write buffer.
+   */
+  abstract Operation getAddOperation();
+
   abstract void nativeAdd(long nativeHandle, byte[] e);
 
   abstract void nativeSet(long nativeHandle, long index, byte[] e);
@@ -132,7 +299,13 @@ abstract class AbstractListIndexProxy<T> extends AbstractIndexProxy implements L
 
   abstract long nativeCreateIter(long nativeHandle);
 
+  abstract long nativeIterFrom(long nativeHandle, long fromIndex);
+
   abstract byte[] nativeIterNext(long iterNativeHandle);
 
   abstract void nativeIterFree(long iterNativeHandle);
+
+  @Nullable
+  abstract Long nativeAggregate(long nativeHandle, int operator, long fromIndex, long toIndex,
+                                int valueOffset);
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.storage.indices;
+
+import static com.exonum.binding.storage.indices.StoragePreconditions.checkValueOffset;
+
+import com.exonum.binding.proxy.NativeHandle;
+import com.exonum.binding.storage.database.View;
+import com.exonum.binding.storage.indices.Aggregation.Operator;
+import java.util.OptionalLong;
+import javax.annotation.Nullable;
+
+/**
+ * An abstract class for map indices implementing the aggregation operators.
+ *
+ * <p>The operators are applied to the entries in a range of keys, compared
+ * lexicographically in the binary form. The range includes {@code fromKey}
+ * and excludes {@code toKey}; it is empty if {@code fromKey} is not less than {@code toKey}.
+ * The entries are aggregated in the native code, without passing them to Java.
+ */
+abstract class AbstractMapIndexProxy<K, V> extends AbstractIndexProxy implements MapIndex<K, V> {
+
+  AbstractMapIndexProxy(NativeHandle nativeHandle, String name, View view) {
+    super(nativeHandle, name, view);
+  }
+
+  /**
+   * Returns the number of entries in this map.
+   *
+   * @throws IllegalStateException if this map is not valid
+   */
+  public final long count() {
+    return Aggregation.toLong(aggregate(Operator.COUNT, null, null, 0));
+  }
+
+  /**
+   * Returns the number of entries in this map with keys in the given range.
+   *
+   * @param fromKey the first key of the range, inclusive
+   * @param toKey the last key of the range, exclusive
+   * @throws IllegalStateException if this map is not valid
+   */
+  public final long count(K fromKey, K toKey) {
+    return Aggregation.toLong(
+        aggregate(Operator.COUNT, serializeKey(fromKey), serializeKey(toKey), 0));
+  }
+
+  /**
+   * Returns the number of keys in this map that start with the given prefix.
+   *
+   * @param keyPrefix the prefix of the keys, in the binary form
+   * @throws IllegalStateException if this map is not valid
+   * @throws IllegalArgumentException if the prefix cannot start a key of this map
+   */
+  public final long countKeysWithPrefix(byte[] keyPrefix) {
+    byte[] upperBound = Aggregation.prefixUpperBound(keyPrefix);
+    byte[] fromKey = prefixToKey(keyPrefix);
+    byte[] toKey = (upperBound == null) ? null : prefixToKey(upperBound);
+    return Aggregation.toLong(aggregate(Operator.COUNT, fromKey, toKey, 0));
+  }
+
+  /**
+   * Returns the sum of the numbers, stored at the start of the map values.
+   *
+   * @see #sumValues(int)
+   */
+  public final long sumValues() {
+    return sumValues(0);
+  }
+
+  /**
+   * Returns the sum of the numbers, stored in the map values at the given offset.
+   * Each value must contain a signed 64-bit little-endian integer at the offset.
+   *
+   * @param valueOffset the offset of the number in the binary form of the values
+   * @return the sum of the numbers, or zero if this map is empty
+   * @throws IllegalArgumentException if the offset is negative
+   * @throws IllegalStateException if this map is not valid
+   * @throws RuntimeException if a value is too short to contain the number at the offset;
+   *     or the sum overflows a long
+   */
+  public final long sumValues(int valueOffset) {
+    return Aggregation.toLong(aggregate(Operator.SUM, null, null, valueOffset));
+  }
+
+  /**
+   * Returns the sum of the numbers, stored in the values at the given offset,
+   * of the entries with keys in the given range.
+   *
+   * @param fromKey the first key of the range, inclusive
+   * @param toKey the last key of the range, exclusive
+   * @param valueOffset the offset of the number in the binary form of the values
+   * @return the sum of the numbers, or zero if the range is empty
+   * @see #sumValues(int)
+   */
+  public final long sumValues(K fromKey, K toKey, int valueOffset) {
+    return Aggregation.toLong(
+        aggregate(Operator.SUM, serializeKey(fromKey), serializeKey(toKey), valueOffset));
+  }
+
+  /**
+   * Returns the minimum of the numbers, stored at the start of the map values.
+   *
+   * @see #minValue(int)
+   */
+  public final OptionalLong minValue() {
+    return minValue(0);
+  }
+
+  /**
+   * Returns the minimum of the numbers, stored in the map values at the given offset;
+   * or an empty optional if this map is empty.
+   *
+   * @param valueOffset the offset of the number in the binary form of the values
+   * @throws IllegalArgumentException if the offset is negative
+   * @throws IllegalStateException if this map is not valid
+   * @throws RuntimeException if a value is too short to contain the number at the offset
+   * @see #sumValues(int)
+   */
+  public final OptionalLong minValue(int valueOffset) {
+    return Aggregation.toOptional(aggregate(Operator.MIN, null, null, valueOffset));
+  }
+
+  /**
+   * Returns the minimum of the numbers, stored in the values at the given offset,
+   * of the entries with keys in the given range; or an empty optional if the range is empty.
+   *
+   * @param fromKey the first key of the range, inclusive
+   * @param toKey the last key of the range, exclusive
+   * @param valueOffset the offset of the number in the binary form of the values
+   * @see #minValue(int)
+   */
+  public final OptionalLong minValue(K fromKey, K toKey, int valueOffset) {
+    return Aggregation.toOptional(
+        aggregate(Operator.MIN, serializeKey(fromKey), serializeKey(toKey), valueOffset));
+  }
+
+  /**
+   * Returns the maximum of the numbers, stored at the start of the map values.
+   *
+   * @see #maxValue(int)
+   */
+  public final OptionalLong maxValue() {
+    return maxValue(0);
+  }
+
+  /**
+   * Returns the maximum of the numbers, stored in the map values at the given offset;
+   * or an empty optional if this map is empty.
+   *
+   * @param valueOffset the offset of the number in the binary form of the values
+   * @throws IllegalArgumentException if the offset is negative
+   * @throws IllegalStateException if this map is not valid
+   * @throws RuntimeException if a value is too short to contain the number at the offset
+   * @see #sumValues(int)
+   */
+  public final OptionalLong maxValue(int valueOffset) {
+    return Aggregation.toOptional(aggregate(Operator.MAX, null, null, valueOffset));
+  }
+
+  /**
+   * Returns the maximum of the numbers, stored in the values at the given offset,
+   * of the entries with keys in the given range; or an empty optional if the range is empty.
+   *
+   * @param fromKey the first key of the range, inclusive
+   * @param toKey the last key of the range, exclusive
+   * @param valueOffset the offset of the number in the binary form of the values
+   * @see #maxValue(int)
+   */
+  public final OptionalLong maxValue(K fromKey, K toKey, int valueOffset) {
+    return Aggregation.toOptional(
+        aggregate(Operator.MAX, serializeKey(fromKey), serializeKey(toKey), valueOffset));
+  }
+
+  @Nullable
+  private Long aggregate(Operator operator, @Nullable byte[] fromKey, @Nullable byte[] toKey,
+                         int valueOffset) {
+    checkValueOffset(valueOffset);
+    return nativeAggregate(getNativeHandle(), operator.code(), fromKey, toKey, valueOffset);
+  }
+
+  /**
+   * Returns the key in the binary form.
+   */
+  abstract byte[] serializeKey(K key);
+
+  /**
+   * Returns the least key in the binary form that starts with the given prefix.
+   *
+   * @throws IllegalArgumentException if no key of this map can start with the prefix
+   */
+  byte[] prefixToKey(byte[] keyPrefix) {
+    return keyPrefix;
+  }
+
+  /**
+   * Aggregates the entries with keys in the range [fromKey, toKey); a null bound leaves
+   * that side of the range open. Returns null if the range is empty and the operator
+   * is not defined for an empty range.
+   */
+  @Nullable
+  abstract Long nativeAggregate(long nativeHandle, int operator, @Nullable byte[] fromKey,
+                                @Nullable byte[] toKey, int valueOffset);
+}
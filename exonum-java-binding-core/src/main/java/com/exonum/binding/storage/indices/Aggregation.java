@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.storage.indices;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+import javax.annotation.Nullable;
+
+/**
+ * Aggregation operators over the values of indices. The operators are applied
+ * in the native code, so that an index is aggregated without passing its entries to Java.
+ *
+ * <p>The numeric operators read a signed 64-bit little-endian integer from each value
+ * at the given offset.
+ */
+final class Aggregation {
+
+  /**
+   * An aggregation operator. The ordinal of an operator is its code in the native code,
+   * hence the constants must not be reordered.
+   */
+  enum Operator {
+    COUNT,
+    SUM,
+    MIN,
+    MAX;
+
+    int code() {
+      return ordinal();
+    }
+  }
+
+  /**
+   * Returns the result of an operator that is defined for an empty range (count and sum).
+   */
+  static long toLong(@Nullable Long result) {
+    checkState(result != null, "No result of an aggregation defined for an empty range");
+    return result;
+  }
+
+  /**
+   * Returns the result of an operator that is not defined for an empty range (min and max);
+   * or an empty optional if the range is empty.
+   */
+  static OptionalLong toOptional(@Nullable Long result) {
+    return (result == null) ? OptionalLong.empty() : OptionalLong.of(result);
+  }
+
+  /**
+   * Returns the least byte sequence that is greater than any sequence starting with
+   * the given prefix; or null if there is no such sequence, i.e., the prefix is empty
+   * or consists of 0xFF bytes only.
+   */
+  @Nullable
+  static byte[] prefixUpperBound(byte[] prefix) {
+    for (int i = prefix.length - 1; i >= 0; i--) {
+      if (prefix[i] != (byte) 0xFF) {
+        byte[] bound = Arrays.copyOf(prefix, i + 1);
+        bound[i]++;
+        return bound;
+      }
+    }
+    return null;
+  }
+
+  private Aggregation() {}
+}
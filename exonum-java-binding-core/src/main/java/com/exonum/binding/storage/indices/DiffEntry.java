@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.storage.indices;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.auto.value.AutoValue;
+import java.util.Optional;
+
+/**
+ * A difference between two states of an index in a single entry: the entry is either added
+ * to, removed from, or changed in the newer state.
+ *
+ * @param <K> the type of keys (or element indices)
+ * @param <V> the type of values (or elements)
+ * @see ProofMapIndexProxy#diff(ProofMapIndexProxy)
+ * @see ProofListIndexProxy#diff(ProofListIndexProxy)
+ */
+@AutoValue
+public abstract class DiffEntry<K, V> {
+
+  /**
+   * A type of difference.
+   */
+  public enum Type {
+    /** The entry is absent in the older state, and present in the newer one. */
+    ADDED,
+    /** The entry is present in the older state, and absent in the newer one. */
+    REMOVED,
+    /** The entry is present in both states, with different values. */
+    CHANGED
+  }
+
+  /**
+   * Creates a difference of an added entry.
+   */
+  public static <K, V> DiffEntry<K, V> added(K key, V newValue) {
+    return new AutoValue_DiffEntry<>(Type.ADDED, key, Optional.empty(), Optional.of(newValue));
+  }
+
+  /**
+   * Creates a difference of a removed entry.
+   */
+  public static <K, V> DiffEntry<K, V> removed(K key, V oldValue) {
+    return new AutoValue_DiffEntry<>(Type.REMOVED, key, Optional.of(oldValue), Optional.empty());
+  }
+
+  /**
+   * Creates a difference of a changed entry.
+   *
+   * @throws IllegalArgumentException if the old and the new value are equal
+   */
+  public static <K, V> DiffEntry<K, V> changed(K key, V oldValue, V newValue) {
+    checkArgument(!oldValue.equals(newValue), "Values are equal: %s", oldValue);
+    return new AutoValue_DiffEntry<>(Type.CHANGED, key, Optional.of(oldValue),
+        Optional.of(newValue));
+  }
+
+  /**
+   * Returns the type of this difference.
+   */
+  public abstract Type getType();
+
+  /**
+   * Returns the key of the entry (or the index of the list element).
+   */
+  public abstract K getKey();
+
+  /**
+   * Returns the value in the older state; or {@code Optional.empty()} if the entry is
+   * {@linkplain Type#ADDED added}.
+   */
+  public abstract Optional<V> getOldValue();
+
+  /**
+   * Returns the value in the newer state; or {@code Optional.empty()} if the entry is
+   * {@linkplain Type#REMOVED removed}.
+   */
+  public abstract Optional<V> getNewValue();
+}
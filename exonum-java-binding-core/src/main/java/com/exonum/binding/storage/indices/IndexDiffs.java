@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.storage.indices;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Decodes the differences between two states of an index, computed by the native code.
+ *
+ * <p>The differences are encoded as a sequence of entries, preceded by their number.
+ * Each entry is encoded as its type, the key, and the new value of an added entry,
+ * the old value of a removed entry, or the old and the new value of a changed entry.
+ * The keys and values are preceded by their sizes. All sizes are little-endian unsigned
+ * 32-bit integers.
+ */
+final class IndexDiffs {
+
+  private static final byte ADDED = 0;
+  private static final byte REMOVED = 1;
+  private static final byte CHANGED = 2;
+
+  /**
+   * Decodes the differences.
+   *
+   * @param encodedDiff the encoded differences
+   * @param keyDecoder a function converting the keys from bytes
+   * @param valueDecoder a function converting the values from bytes
+   * @throws IllegalArgumentException if the differences are malformed
+   */
+  static <K, V> List<DiffEntry<K, V>> decode(byte[] encodedDiff,
+      Function<byte[], ? extends K> keyDecoder, Function<byte[], ? extends V> valueDecoder) {
+    ByteBuffer buffer = ByteBuffer.wrap(encodedDiff)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    int numEntries = readSize(buffer);
+    ImmutableList.Builder<DiffEntry<K, V>> entries = ImmutableList.builder();
+    for (int i = 0; i < numEntries; i++) {
+      checkAvailable(buffer, Byte.BYTES);
+      byte type = buffer.get();
+      K key = keyDecoder.apply(readBytes(buffer));
+      switch (type) {
+        case ADDED:
+          entries.add(DiffEntry.added(key, valueDecoder.apply(readBytes(buffer))));
+          break;
+        case REMOVED:
+          entries.add(DiffEntry.removed(key, valueDecoder.apply(readBytes(buffer))));
+          break;
+        case CHANGED: {
+          V oldValue = valueDecoder.apply(readBytes(buffer));
+          V newValue = valueDecoder.apply(readBytes(buffer));
+          entries.add(DiffEntry.changed(key, oldValue, newValue));
+          break;
+        }
+        default:
+          throw new IllegalArgumentException("Unknown type of difference: " + type);
+      }
+    }
+    checkArgument(!buffer.hasRemaining(), "Differences have %s trailing bytes",
+        buffer.remaining());
+    return entries.build();
+  }
+
+  /**
+   * Decodes a list element index, encoded as a little-endian 64-bit integer.
+   */
+  static long decodeIndex(byte[] index) {
+    checkArgument(index.length == Long.BYTES, "Invalid index size: %s", index.length);
+    return ByteBuffer.wrap(index)
+        .order(ByteOrder.LITTLE_ENDIAN)
+        .getLong();
+  }
+
+  private static byte[] readBytes(ByteBuffer buffer) {
+    int size = readSize(buffer);
+    checkAvailable(buffer, size);
+    byte[] bytes = new byte[size];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private static int readSize(ByteBuffer buffer) {
+    checkAvailable(buffer, Integer.BYTES);
+    int size = buffer.getInt();
+    checkArgument(size >= 0, "Size is too big: %s", Integer.toUnsignedString(size));
+    return size;
+  }
+
+  private static void checkAvailable(ByteBuffer buffer, int size) {
+    checkArgument(size <= buffer.remaining(),
+        "Differences are truncated: %s bytes required, %s available", size, buffer.remaining());
+  }
+
+  private IndexDiffs() {}
+}
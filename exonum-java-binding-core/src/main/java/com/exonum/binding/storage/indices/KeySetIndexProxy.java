@@ -156,7 +156,7 @@ public final class KeySetIndexProxy<E> extends AbstractIndexProxy implements Ite
    */
   public void add(E e) {
     notifyModified();
-    byte[] dbElement = serializer.toBytes(e);
+    byte[] dbElement = serializer.toBytesNoCopy(e);
     nativeAdd(getNativeHandle(), dbElement);
   }
 
@@ -178,7 +178,7 @@ public final class KeySetIndexProxy<E> extends AbstractIndexProxy implements Ite
    * @throws IllegalStateException if this set is not valid
    */
   public boolean contains(E e) {
-    byte[] dbElement = serializer.toBytes(e);
+    byte[] dbElement = serializer.toBytesNoCopy(e);
     return nativeContains(getNativeHandle(), dbElement);
   }
 
@@ -211,7 +211,7 @@ public final class KeySetIndexProxy<E> extends AbstractIndexProxy implements Ite
    */
   public void remove(E e) {
     notifyModified();
-    byte[] dbElement = serializer.toBytes(e);
+    byte[] dbElement = serializer.toBytesNoCopy(e);
     nativeRemove(getNativeHandle(), dbElement);
   }
 
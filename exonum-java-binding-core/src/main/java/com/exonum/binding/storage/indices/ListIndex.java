@@ -121,4 +121,20 @@ public interface ListIndex<T> extends StorageIndex, Iterable<T> {
    */
   @Override
   Iterator<T> iterator();
+
+  /**
+   * Returns an iterator over the elements of the list, starting at the given index.
+   * If the index is greater than or equal to the size of the list, the iterator is empty.
+   *
+   * <p>The iterator is positioned at the given index in the native code, therefore,
+   * the preceding elements are not read.
+   *
+   * <p>Any destructive operation on the same {@link Fork} this list uses
+   * (but not necessarily on <em>this list</em>) will invalidate the iterator.
+   *
+   * @param fromIndex an index of the first element to return
+   * @throws IllegalArgumentException if the index is negative
+   * @throws IllegalStateException if this list is not valid
+   */
+  Iterator<T> iterator(long fromIndex);
 }
@@ -27,6 +27,7 @@ import com.exonum.binding.proxy.Cleaner;
 import com.exonum.binding.proxy.NativeHandle;
 import com.exonum.binding.proxy.ProxyDestructor;
 import com.exonum.binding.storage.database.View;
+import com.exonum.binding.storage.indices.WriteBuffer.Operation;
 import com.google.protobuf.MessageLite;
 import java.util.NoSuchElementException;
 import java.util.function.LongSupplier;
@@ -180,6 +181,11 @@ public final class ListIndexProxy<E> extends AbstractListIndexProxy<E> implement
 
   private static native void nativeFree(long nativeHandle);
 
+  @Override
+  Operation getAddOperation() {
+    return Operation.LIST_ADD;
+  }
+
   @Override
   native void nativeAdd(long nativeHandle, byte[] e);
 
@@ -208,9 +214,16 @@ public final class ListIndexProxy<E> extends AbstractListIndexProxy<E> implement
   @Override
   native long nativeCreateIter(long nativeHandle);
 
+  @Override
+  native long nativeIterFrom(long nativeHandle, long fromIndex);
+
   @Override
   native byte[] nativeIterNext(long iterNativeHandle);
 
   @Override
   native void nativeIterFree(long iterNativeHandle);
+
+  @Override
+  native Long nativeAggregate(long nativeHandle, int operator, long fromIndex, long toIndex,
+                              int valueOffset);
 }
@@ -31,6 +31,7 @@ import com.google.protobuf.MessageLite;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.function.LongSupplier;
+import javax.annotation.Nullable;
 
 /**
  * A MapIndex is an index that maps keys to values. A map cannot contain duplicate keys;
@@ -53,8 +54,9 @@ import java.util.function.LongSupplier;
  * @param <V> the type of values in this map
  * @see View
  */
-public final class MapIndexProxy<K, V> extends AbstractIndexProxy implements MapIndex<K, V> {
+public final class MapIndexProxy<K, V> extends AbstractMapIndexProxy<K, V> {
 
+  private final String address;
   private final CheckingSerializerDecorator<K> keySerializer;
   private final CheckingSerializerDecorator<V> valueSerializer;
 
@@ -109,7 +111,7 @@ public final class MapIndexProxy<K, V> extends AbstractIndexProxy implements Map
     NativeHandle mapNativeHandle = createNativeMap(view,
         () -> nativeCreate(name, viewNativeHandle));
 
-    return new MapIndexProxy<>(mapNativeHandle, name, view, ks, vs);
+    return new MapIndexProxy<>(mapNativeHandle, name, name, view, ks, vs);
   }
 
   /**
@@ -144,7 +146,8 @@ public final class MapIndexProxy<K, V> extends AbstractIndexProxy implements Map
     NativeHandle mapNativeHandle = createNativeMap(view,
         () -> nativeCreateInGroup(groupName, mapId, viewNativeHandle));
 
-    return new MapIndexProxy<>(mapNativeHandle, groupName, view, ks, vs);
+    String address = addressInGroup(groupName, mapId);
+    return new MapIndexProxy<>(mapNativeHandle, groupName, address, view, ks, vs);
   }
 
   private static NativeHandle createNativeMap(View view, LongSupplier nativeMapConstructor) {
@@ -156,53 +159,71 @@ public final class MapIndexProxy<K, V> extends AbstractIndexProxy implements Map
     return mapNativeHandle;
   }
 
-  private MapIndexProxy(NativeHandle nativeHandle, String name, View view,
+  private MapIndexProxy(NativeHandle nativeHandle, String name, String address,
+                        View view,
                         CheckingSerializerDecorator<K> keySerializer,
                         CheckingSerializerDecorator<V> valueSerializer) {
     super(nativeHandle, name, view);
+    this.address = address;
     this.keySerializer = keySerializer;
     this.valueSerializer = valueSerializer;
   }
 
   @Override
   public boolean containsKey(K key) {
-    byte[] dbKey = keySerializer.toBytes(key);
+    byte[] dbKey = keySerializer.toBytesNoCopy(key);
+    WriteBuffer writeBuffer = getWriteBuffer();
+    if (writeBuffer != null && writeBuffer.hasWrite(address, dbKey)) {
+      return writeBuffer.getWrite(address, dbKey) != null;
+    }
     return nativeContainsKey(getNativeHandle(), dbKey);
   }
 
   @Override
   public void put(K key, V value) {
     notifyModified();
-    putInternal(getNativeHandle(), key, value);
+    putInternal(key, value);
   }
 
   @Override
   public void putAll(Map<? extends K, ? extends V> sourceMap) {
     notifyModified();
-    long nativeHandle = getNativeHandle();
     for (Map.Entry<? extends K, ? extends V> entry : sourceMap.entrySet()) {
-      putInternal(nativeHandle, entry.getKey(), entry.getValue());
+      putInternal(entry.getKey(), entry.getValue());
     }
   }
 
-  private void putInternal(long thisNativeHandle, K key, V value) {
-    byte[] dbKey = keySerializer.toBytes(key);
+  private void putInternal(K key, V value) {
+    byte[] dbKey = keySerializer.toBytesNoCopy(key);
     byte[] dbValue = valueSerializer.toBytes(value);
-    nativePut(thisNativeHandle, dbKey, dbValue);
+    WriteBuffer writeBuffer = getWriteBuffer();
+    if (writeBuffer != null) {
+      writeBuffer.put(this, address, dbKey, dbValue);
+    } else {
+      nativePut(getNativeHandle(), dbKey, dbValue);
+    }
   }
 
   @Override
   public V get(K key) {
-    byte[] dbKey = keySerializer.toBytes(key);
-    byte[] dbValue = nativeGet(getNativeHandle(), dbKey);
+    byte[] dbKey = keySerializer.toBytesNoCopy(key);
+    WriteBuffer writeBuffer = getWriteBuffer();
+    byte[] dbValue = (writeBuffer != null && writeBuffer.hasWrite(address, dbKey))
+        ? writeBuffer.getWrite(address, dbKey)
+        : nativeGet(getNativeHandle(), dbKey);
     return (dbValue == null) ? null : valueSerializer.fromBytes(dbValue);
   }
 
   @Override
   public void remove(K key) {
     notifyModified();
-    byte[] dbKey = keySerializer.toBytes(key);
-    nativeRemove(getNativeHandle(), dbKey);
+    byte[] dbKey = keySerializer.toBytesNoCopy(key);
+    WriteBuffer writeBuffer = getWriteBuffer();
+    if (writeBuffer != null) {
+      writeBuffer.remove(this, address, dbKey);
+    } else {
+      nativeRemove(getNativeHandle(), dbKey);
+    }
   }
 
   @Override
@@ -280,6 +301,15 @@ public final class MapIndexProxy<K, V> extends AbstractIndexProxy implements Map
 
   private native void nativeClear(long nativeHandle);
 
+  @Override
+  byte[] serializeKey(K key) {
+    return keySerializer.toBytesNoCopy(key);
+  }
+
+  @Override
+  native Long nativeAggregate(long nativeHandle, int operator, @Nullable byte[] fromKey,
+                              @Nullable byte[] toKey, int valueOffset);
+
   private static native void nativeFree(long nativeHandle);
 
 }
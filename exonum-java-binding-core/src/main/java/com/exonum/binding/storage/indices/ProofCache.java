@@ -0,0 +1,274 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.storage.indices;
+
+import static com.exonum.binding.storage.indices.StoragePreconditions.PROOF_MAP_KEY_SIZE;
+import static com.exonum.binding.storage.indices.StoragePreconditions.checkElementIndex;
+import static com.exonum.binding.storage.indices.StoragePreconditions.checkPositionIndex;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.proofs.list.EncodedListProof;
+import com.exonum.binding.common.proofs.list.UncheckedListProof;
+import com.exonum.binding.common.proofs.map.EncodedFlatMapProof;
+import com.exonum.binding.common.proofs.map.UncheckedMapProof;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.protobuf.ByteString;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of the proofs of {@link ProofMapIndexProxy} and {@link ProofListIndexProxy},
+ * which allows to avoid generating the same proofs, e.g., of popular keys, on each request.
+ *
+ * <p>A proof is keyed by the root hash of the index and the requested keys, indices or range.
+ * As the root hash changes when the index is modified, the cached proofs never become stale:
+ * the proofs of the previous states of the index are no longer requested and are eventually
+ * evicted. The keys and indices are requested in any order, and the duplicates are ignored.
+ *
+ * <p>The cache keeps the proofs in the compact binary encoding. It is bounded
+ * by the total size of the cached proofs and evicts the least recently used ones.
+ *
+ * <p>The proofs may be requested on demand, or be pre-computed for the known hot keys
+ * with {@link #warmUp(ProofMapIndexProxy, Collection)}, e.g., in
+ * {@link com.exonum.binding.service.Service#afterCommit}.
+ *
+ * <p>This class is thread-safe. The indices passed to its methods, however,
+ * must not be shared between threads.
+ */
+public final class ProofCache {
+
+  /**
+   * The default maximum total size of the cached proofs in bytes.
+   */
+  public static final long DEFAULT_MAX_SIZE_BYTES = 16 * 1024 * 1024;
+
+  private static final byte MAP_PROOF = 0;
+  private static final byte LIST_PROOF = 1;
+  private static final byte LIST_RANGE_PROOF = 2;
+
+  private final Cache<ByteString, byte[]> cache;
+
+  /**
+   * Creates a new cache with the {@linkplain #DEFAULT_MAX_SIZE_BYTES default} maximum size.
+   */
+  public ProofCache() {
+    this(DEFAULT_MAX_SIZE_BYTES);
+  }
+
+  /**
+   * Creates a new cache.
+   *
+   * @param maxSizeBytes the maximum total size of the cached proofs in bytes,
+   *     must be non-negative
+   */
+  public ProofCache(long maxSizeBytes) {
+    checkArgument(maxSizeBytes >= 0, "maxSizeBytes must not be negative, but is %s",
+        maxSizeBytes);
+    this.cache = CacheBuilder.newBuilder()
+        .maximumWeight(maxSizeBytes)
+        .weigher((ByteString key, byte[] proof) -> key.size() + proof.length)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Returns a proof that there are values mapped to the specified keys or that there are no such
+   * mappings. If the cache contains no such proof for the current state of the map,
+   * it is requested from the map and put in the cache.
+   *
+   * @param map a proof map
+   * @param keys proof map keys, each must be 32-byte long
+   * @throws IllegalStateException if the map is not valid
+   * @throws IllegalArgumentException if the size of any of the keys is not 32 bytes
+   *     or keys collection is empty
+   * @see ProofMapIndexProxy#getProof(Collection)
+   */
+  public <K> UncheckedMapProof getProof(ProofMapIndexProxy<K, ?> map,
+      Collection<? extends K> keys) {
+    checkArgument(!keys.isEmpty(), "Keys collection should not be empty");
+    byte[] dbKeys = sortKeys(map.serializeKeys(keys));
+    ByteString cacheKey = cacheKey(MAP_PROOF, map.getRootHash(), dbKeys);
+    byte[] encodedProof = get(cacheKey, () -> map.getEncodedProof(dbKeys));
+    return EncodedFlatMapProof.fromBytes(encodedProof);
+  }
+
+  /**
+   * Returns a proof that elements exist at the specified indices in the list. If the cache
+   * contains no such proof for the current state of the list, it is requested from the list
+   * and put in the cache.
+   *
+   * @param list a proof list
+   * @param indices the element indices, in any order
+   * @throws IllegalArgumentException if no indices are specified
+   * @throws IndexOutOfBoundsException if any index is invalid
+   * @throws IllegalStateException if the list is not valid
+   * @see ProofListIndexProxy#getProof(long...)
+   */
+  public <E> UncheckedListProof getProof(ProofListIndexProxy<E> list, long... indices) {
+    checkArgument(indices.length > 0, "No indices specified");
+    long size = list.size();
+    for (long index : indices) {
+      checkElementIndex(index, size);
+    }
+    long[] sortedIndices = Arrays.stream(indices)
+        .sorted()
+        .distinct()
+        .toArray();
+    ByteBuffer indicesBytes = ByteBuffer.allocate(sortedIndices.length * Long.BYTES);
+    indicesBytes.asLongBuffer()
+        .put(sortedIndices);
+    ByteString cacheKey = cacheKey(LIST_PROOF, list.getRootHash(), indicesBytes.array());
+    byte[] encodedProof = get(cacheKey, () -> list.getEncodedProof(sortedIndices));
+    return EncodedListProof.fromBytes(encodedProof, list.serializer);
+  }
+
+  /**
+   * Returns a proof that some elements exist in the specified range in the list. If the cache
+   * contains no such proof for the current state of the list, it is requested from the list
+   * and put in the cache.
+   *
+   * @param list a proof list
+   * @param from the index of the first element
+   * @param to the index after the last element
+   * @throws IndexOutOfBoundsException if the range is not valid
+   * @throws IllegalStateException if the list is not valid
+   * @see ProofListIndexProxy#getRangeProof(long, long)
+   */
+  public <E> UncheckedListProof getRangeProof(ProofListIndexProxy<E> list, long from, long to) {
+    long size = list.size();
+    checkElementIndex(from, size);
+    checkPositionIndex(to, size);
+    byte[] range = ByteBuffer.allocate(2 * Long.BYTES)
+        .putLong(from)
+        .putLong(to)
+        .array();
+    ByteString cacheKey = cacheKey(LIST_RANGE_PROOF, list.getRootHash(), range);
+    byte[] encodedProof = get(cacheKey, () -> list.getEncodedRangeProof(from, to));
+    return EncodedListProof.fromBytes(encodedProof, list.serializer);
+  }
+
+  /**
+   * Puts the proofs of each of the given keys for the current state of the map in the cache,
+   * unless they are already cached.
+   *
+   * <p>This method is intended to be invoked after the map is modified, e.g., in
+   * {@link com.exonum.binding.service.Service#afterCommit}, so that the proofs
+   * of the hot keys are ready when requested.
+   *
+   * @param map a proof map
+   * @param hotKeys the keys, which proofs are likely to be requested, each must be 32-byte long
+   * @throws IllegalStateException if the map is not valid
+   * @throws IllegalArgumentException if the size of any of the keys is not 32 bytes
+   */
+  public <K> void warmUp(ProofMapIndexProxy<K, ?> map, Collection<? extends K> hotKeys) {
+    HashCode rootHash = map.getRootHash();
+    for (K key : hotKeys) {
+      byte[] dbKey = map.serializeKeys(Collections.singleton(key));
+      ByteString cacheKey = cacheKey(MAP_PROOF, rootHash, dbKey);
+      get(cacheKey, () -> map.getEncodedProof(dbKey));
+    }
+  }
+
+  /**
+   * Removes all proofs from the cache.
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * Returns the number of proofs in the cache.
+   */
+  public long size() {
+    return cache.size();
+  }
+
+  /**
+   * Returns the statistics of this cache: the number of hits, misses and evictions.
+   */
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  /**
+   * Returns the cached proof. If the cache does not contain it, requests the proof using
+   * the given supplier and puts it in the cache. Concurrent callers requesting the same proof
+   * wait for a single request.
+   *
+   * <p>Any exceptions thrown by the supplier are propagated as is and nothing is cached.
+   */
+  @VisibleForTesting
+  byte[] get(ByteString cacheKey, Supplier<byte[]> proofSupplier) {
+    try {
+      return cache.get(cacheKey, proofSupplier::get);
+    } catch (UncheckedExecutionException | ExecutionError e) {
+      throwIfUnchecked(e.getCause());
+      throw e;
+    } catch (ExecutionException e) {
+      // Cannot happen: the supplier does not throw checked exceptions
+      throw new AssertionError("Unexpected checked exception", e);
+    }
+  }
+
+  private static ByteString cacheKey(byte proofKind, HashCode rootHash, byte[] requestedItems) {
+    byte[] hash = rootHash.asBytes();
+    return ByteString.copyFrom(ByteBuffer.allocate(1 + hash.length + requestedItems.length)
+        .put(proofKind)
+        .put(hash)
+        .put(requestedItems)
+        .array());
+  }
+
+  /**
+   * Sorts the concatenated keys and removes the duplicates.
+   */
+  private static byte[] sortKeys(byte[] dbKeys) {
+    int numKeys = dbKeys.length / PROOF_MAP_KEY_SIZE;
+    if (numKeys == 1) {
+      return dbKeys;
+    }
+    byte[][] keys = new byte[numKeys][];
+    for (int i = 0; i < numKeys; i++) {
+      int from = i * PROOF_MAP_KEY_SIZE;
+      keys[i] = Arrays.copyOfRange(dbKeys, from, from + PROOF_MAP_KEY_SIZE);
+    }
+    Arrays.sort(keys, UnsignedBytes.lexicographicalComparator());
+
+    ByteBuffer sortedKeys = ByteBuffer.allocate(dbKeys.length);
+    byte[] previous = null;
+    for (byte[] key : keys) {
+      if (!Arrays.equals(key, previous)) {
+        sortedKeys.put(key);
+        previous = key;
+      }
+    }
+    return Arrays.copyOf(sortedKeys.array(), sortedKeys.position());
+  }
+}
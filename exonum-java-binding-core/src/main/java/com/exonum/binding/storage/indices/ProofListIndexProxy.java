@@ -20,11 +20,11 @@ import static com.exonum.binding.storage.indices.StoragePreconditions.checkEleme
 import static com.exonum.binding.storage.indices.StoragePreconditions.checkIdInGroup;
 import static com.exonum.binding.storage.indices.StoragePreconditions.checkIndexName;
 import static com.exonum.binding.storage.indices.StoragePreconditions.checkPositionIndex;
+import static com.google.common.base.Preconditions.checkArgument;
 
 import com.exonum.binding.common.hash.HashCode;
-import com.exonum.binding.common.proofs.list.ListProofNode;
+import com.exonum.binding.common.proofs.list.EncodedListProof;
 import com.exonum.binding.common.proofs.list.UncheckedListProof;
-import com.exonum.binding.common.proofs.list.UncheckedListProofAdapter;
 import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
 import com.exonum.binding.common.serialization.Serializer;
 import com.exonum.binding.common.serialization.StandardSerializers;
@@ -32,7 +32,10 @@ import com.exonum.binding.proxy.Cleaner;
 import com.exonum.binding.proxy.NativeHandle;
 import com.exonum.binding.proxy.ProxyDestructor;
 import com.exonum.binding.storage.database.View;
+import com.exonum.binding.storage.indices.WriteBuffer.Operation;
+import com.google.common.collect.ImmutableList;
 import com.google.protobuf.MessageLite;
+import java.util.List;
 import java.util.function.LongSupplier;
 
 /**
@@ -160,11 +163,41 @@ public final class ProofListIndexProxy<E> extends AbstractListIndexProxy<E>
   public UncheckedListProof getProof(long index) {
     checkElementIndex(index, size());
 
-    ListProofNode listProofNode = nativeGetProof(getNativeHandle(), index);
-    return new UncheckedListProofAdapter<>(listProofNode, this.serializer);
+    byte[] encodedProof = nativeGetProof(getNativeHandle(), index);
+    return EncodedListProof.fromBytes(encodedProof, this.serializer);
   }
 
-  private native ListProofNode nativeGetProof(long nativeHandle, long index);
+  /**
+   * Returns a proof that elements exist at the specified indices in this list.
+   * Unlike separate proofs of each element, the returned proof includes the branches
+   * common to several elements once.
+   *
+   * @param indices the element indices, in any order; duplicates are allowed
+   * @throws IllegalArgumentException if no indices are specified
+   * @throws IndexOutOfBoundsException if any index is invalid
+   * @throws IllegalStateException if this list is not valid
+   */
+  public UncheckedListProof getProof(long... indices) {
+    checkArgument(indices.length > 0, "No indices specified");
+    long size = size();
+    for (long index : indices) {
+      checkElementIndex(index, size);
+    }
+
+    byte[] encodedProof = getEncodedProof(indices);
+    return EncodedListProof.fromBytes(encodedProof, this.serializer);
+  }
+
+  /**
+   * Returns the encoded proof of the elements at the given valid indices.
+   */
+  byte[] getEncodedProof(long[] indices) {
+    return nativeGetMultiProof(getNativeHandle(), indices);
+  }
+
+  private native byte[] nativeGetProof(long nativeHandle, long index);
+
+  private native byte[] nativeGetMultiProof(long nativeHandle, long[] indices);
 
   /**
    * Returns a proof that some elements exist in the specified range in this list.
@@ -176,14 +209,20 @@ public final class ProofListIndexProxy<E> extends AbstractListIndexProxy<E>
    */
   public UncheckedListProof getRangeProof(long from, long to) {
     long size = size();
-    ListProofNode listProofNode = nativeGetRangeProof(getNativeHandle(),
-        checkElementIndex(from, size),
+    byte[] encodedProof = getEncodedRangeProof(checkElementIndex(from, size),
         checkPositionIndex(to, size));
 
-    return new UncheckedListProofAdapter<>(listProofNode, this.serializer);
+    return EncodedListProof.fromBytes(encodedProof, this.serializer);
   }
 
-  private native ListProofNode nativeGetRangeProof(long nativeHandle, long from, long to);
+  /**
+   * Returns the encoded proof of the elements in the given valid range.
+   */
+  byte[] getEncodedRangeProof(long from, long to) {
+    return nativeGetRangeProof(getNativeHandle(), from, to);
+  }
+
+  private native byte[] nativeGetRangeProof(long nativeHandle, long from, long to);
 
   /**
    * Returns the root hash of the proof list.
@@ -196,8 +235,38 @@ public final class ProofListIndexProxy<E> extends AbstractListIndexProxy<E>
 
   private native byte[] nativeGetRootHash(long nativeHandle);
 
+  /**
+   * Returns the differences between this list (the older state) and the other list
+   * (the newer state), ordered by the element indices.
+   *
+   * <p>If the root hashes of the lists are equal, an empty list is returned without
+   * comparing the elements. Otherwise, the sorted elements of both lists are merge-joined
+   * in the native code in a single pass, which takes time linear in the total size of the lists,
+   * not in the number of the differences: unchanged sub-trees are not skipped, because
+   * the internal Merkle nodes of the proof indices are not accessible in Exonum 0.9.
+   * The differences are returned at once, therefore, this method is intended for
+   * the states with relatively few differences.
+   *
+   * @param other the newer state of the list, usually, the same list in another view
+   * @throws IllegalStateException if this list or the other list is not valid
+   */
+  public List<DiffEntry<Long, E>> diff(ProofListIndexProxy<E> other) {
+    if (other == this) {
+      return ImmutableList.of();
+    }
+    byte[] encodedDiff = nativeDiff(getNativeHandle(), other.getNativeHandle());
+    return IndexDiffs.decode(encodedDiff, IndexDiffs::decodeIndex, serializer::fromBytes);
+  }
+
+  private native byte[] nativeDiff(long nativeHandle, long otherNativeHandle);
+
   private static native void nativeFree(long nativeHandle);
 
+  @Override
+  Operation getAddOperation() {
+    return Operation.PROOF_LIST_ADD;
+  }
+
   @Override
   native void nativeAdd(long nativeHandle, byte[] e);
 
@@ -222,9 +291,16 @@ public final class ProofListIndexProxy<E> extends AbstractListIndexProxy<E>
   @Override
   native long nativeCreateIter(long nativeHandle);
 
+  @Override
+  native long nativeIterFrom(long nativeHandle, long fromIndex);
+
   @Override
   native byte[] nativeIterNext(long iterNativeHandle);
 
   @Override
   native void nativeIterFree(long iterNativeHandle);
+
+  @Override
+  native Long nativeAggregate(long nativeHandle, int operator, long fromIndex, long toIndex,
+                              int valueOffset);
 }
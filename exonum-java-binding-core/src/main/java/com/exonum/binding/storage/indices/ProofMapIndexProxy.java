@@ -23,6 +23,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import com.exonum.binding.common.collect.MapEntry;
 import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.proofs.map.EncodedFlatMapProof;
 import com.exonum.binding.common.proofs.map.UncheckedMapProof;
 import com.exonum.binding.common.serialization.CheckingSerializerDecorator;
 import com.exonum.binding.common.serialization.Serializer;
@@ -31,13 +32,19 @@ import com.exonum.binding.proxy.Cleaner;
 import com.exonum.binding.proxy.NativeHandle;
 import com.exonum.binding.proxy.ProxyDestructor;
 import com.exonum.binding.storage.database.View;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.function.LongSupplier;
+import javax.annotation.Nullable;
 
 /**
  * A ProofMapIndexProxy is an index that maps keys to values. A map cannot contain duplicate keys;
@@ -63,8 +70,9 @@ import java.util.function.LongSupplier;
  * @param <V> the type of values in this map
  * @see View
  */
-public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implements MapIndex<K, V> {
+public final class ProofMapIndexProxy<K, V> extends AbstractMapIndexProxy<K, V> {
 
+  private final String address;
   private final ProofMapKeyCheckingSerializerDecorator<K> keySerializer;
   private final CheckingSerializerDecorator<V> valueSerializer;
 
@@ -94,7 +102,7 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
     NativeHandle mapNativeHandle = createNativeMap(view,
         () -> nativeCreate(name, viewNativeHandle));
 
-    return new ProofMapIndexProxy<>(mapNativeHandle, name, view, ks, vs);
+    return new ProofMapIndexProxy<>(mapNativeHandle, name, name, view, ks, vs);
   }
 
   /**
@@ -130,7 +138,8 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
     NativeHandle mapNativeHandle = createNativeMap(view,
         () -> nativeCreateInGroup(groupName, mapId, viewNativeHandle));
 
-    return new ProofMapIndexProxy<>(mapNativeHandle, groupName, view, ks, vs);
+    String address = addressInGroup(groupName, mapId);
+    return new ProofMapIndexProxy<>(mapNativeHandle, groupName, address, view, ks, vs);
   }
 
   private static NativeHandle createNativeMap(View view, LongSupplier nativeMapConstructor) {
@@ -147,17 +156,23 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
   private static native long nativeCreateInGroup(String groupName, byte[] mapId,
                                                  long viewNativeHandle);
 
-  private ProofMapIndexProxy(NativeHandle nativeHandle, String name, View view,
+  private ProofMapIndexProxy(NativeHandle nativeHandle, String name, String address,
+                             View view,
                              ProofMapKeyCheckingSerializerDecorator<K> keySerializer,
                              CheckingSerializerDecorator<V> valueSerializer) {
     super(nativeHandle, name, view);
+    this.address = address;
     this.keySerializer = keySerializer;
     this.valueSerializer = valueSerializer;
   }
 
   @Override
   public boolean containsKey(K key) {
-    byte[] dbKey = keySerializer.toBytes(key);
+    byte[] dbKey = keySerializer.toBytesNoCopy(key);
+    WriteBuffer writeBuffer = getWriteBuffer();
+    if (writeBuffer != null && writeBuffer.hasWrite(address, dbKey)) {
+      return writeBuffer.getWrite(address, dbKey) != null;
+    }
     return nativeContainsKey(getNativeHandle(), dbKey);
   }
 
@@ -175,36 +190,70 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
   @Override
   public void put(K key, V value) {
     notifyModified();
-    long nativeHandle = getNativeHandle();
-    putInternal(nativeHandle, key, value);
+    putInternal(key, value);
   }
 
   @Override
   public void putAll(Map<? extends K, ? extends V> sourceMap) {
     notifyModified();
-    long nativeHandle = getNativeHandle();
     for (Map.Entry<? extends K, ? extends V> entry : sourceMap.entrySet()) {
-      putInternal(nativeHandle, entry.getKey(), entry.getValue());
+      putInternal(entry.getKey(), entry.getValue());
     }
   }
 
-  private void putInternal(long nativeHandle, K key, V value) {
-    byte[] dbKey = keySerializer.toBytes(key);
+  private void putInternal(K key, V value) {
+    byte[] dbKey = keySerializer.toBytesNoCopy(key);
     byte[] dbValue = valueSerializer.toBytes(value);
-    nativePut(nativeHandle, dbKey, dbValue);
+    WriteBuffer writeBuffer = getWriteBuffer();
+    if (writeBuffer != null) {
+      writeBuffer.put(this, address, dbKey, dbValue);
+    } else {
+      nativePut(getNativeHandle(), dbKey, dbValue);
+    }
   }
 
   private native void nativePut(long nativeHandle, byte[] key, byte[] value);
 
   @Override
   public V get(K key) {
-    byte[] dbKey = keySerializer.toBytes(key);
-    byte[] dbValue = nativeGet(getNativeHandle(), dbKey);
+    byte[] dbKey = keySerializer.toBytesNoCopy(key);
+    WriteBuffer writeBuffer = getWriteBuffer();
+    byte[] dbValue = (writeBuffer != null && writeBuffer.hasWrite(address, dbKey))
+        ? writeBuffer.getWrite(address, dbKey)
+        : nativeGet(getNativeHandle(), dbKey);
     return (dbValue == null) ? null : valueSerializer.fromBytes(dbValue);
   }
 
   private native byte[] nativeGet(long nativeHandle, byte[] key);
 
+  /**
+   * Returns the values mapped to the given keys. The values are read in a single native call,
+   * which is more efficient than getting them one by one.
+   *
+   * @param keys proof map keys, each must be 32-byte long
+   * @return a map of the keys that are present in this map to their values,
+   *     in the order of the given keys
+   * @throws IllegalStateException if this map is not valid
+   * @throws IllegalArgumentException if the size of any of the keys is not 32 bytes
+   */
+  public Map<K, V> getAll(Collection<? extends K> keys) {
+    if (keys.isEmpty()) {
+      return new LinkedHashMap<>();
+    }
+    byte[][] dbValues = nativeGetAll(getNativeHandle(), serializeKeys(keys));
+    Map<K, V> values = Maps.newLinkedHashMapWithExpectedSize(keys.size());
+    Iterator<? extends K> keysIterator = keys.iterator();
+    for (byte[] dbValue : dbValues) {
+      K key = keysIterator.next();
+      if (dbValue != null) {
+        values.put(key, valueSerializer.fromBytes(dbValue));
+      }
+    }
+    return values;
+  }
+
+  private native byte[][] nativeGetAll(long nativeHandle, byte[] keys);
+
   /**
    * Returns a proof that there are values mapped to the specified keys or that there are no such
    * mappings.
@@ -216,12 +265,7 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
    * @throws IllegalArgumentException if the size of any of the keys is not 32 bytes
    */
   public UncheckedMapProof getProof(K key, K... otherKeys) {
-    if (otherKeys.length == 0) {
-      return getSingleKeyProof(key);
-    } else {
-      List<K> keys = Lists.asList(key, otherKeys);
-      return getMultiKeyProof(keys);
-    }
+    return getProof(Lists.asList(key, otherKeys));
   }
 
   /**
@@ -234,37 +278,53 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
    *                                  or keys collection is empty
    */
   public UncheckedMapProof getProof(Collection<? extends K> keys) {
-    checkArgument(!keys.isEmpty(), "Keys collection should not be empty");
-    if (keys.size() == 1) {
-      K key = keys.iterator()
-          .next();
-      return getSingleKeyProof(key);
-    } else {
-      return getMultiKeyProof(keys);
-    }
+    return getEncodedProof(keys);
   }
 
-  private UncheckedMapProof getSingleKeyProof(K key) {
-    byte[] dbKey = keySerializer.toBytes(key);
-    return nativeGetProof(getNativeHandle(), dbKey);
+  /**
+   * Returns a proof that there are values mapped to the specified keys or that there are no such
+   * mappings, in the compact binary encoding. The encoded proof may be passed to the clients
+   * as is, see {@link EncodedFlatMapProof#toByteArray()}.
+   *
+   * @param keys proof map keys which might be mapped to some values, each must be 32-byte long
+   * @throws IllegalStateException if this map is not valid
+   * @throws IllegalArgumentException if the size of any of the keys is not 32 bytes
+   *                                  or keys collection is empty
+   */
+  public EncodedFlatMapProof getEncodedProof(Collection<? extends K> keys) {
+    checkArgument(!keys.isEmpty(), "Keys collection should not be empty");
+    byte[] encodedProof = getEncodedProof(serializeKeys(keys));
+    return EncodedFlatMapProof.fromBytes(encodedProof);
   }
 
-  private native UncheckedMapProof nativeGetProof(long nativeHandle, byte[] key);
-
-  private UncheckedMapProof getMultiKeyProof(Collection<? extends K> keys) {
-    return nativeGetMultiProof(getNativeHandle(), mergeKeysIntoByteArray(keys));
+  /**
+   * Returns the encoded proof of the given keys.
+   *
+   * @param dbKeys the serialized keys, concatenated in a single array
+   */
+  byte[] getEncodedProof(byte[] dbKeys) {
+    if (dbKeys.length == PROOF_MAP_KEY_SIZE) {
+      return nativeGetProof(getNativeHandle(), dbKeys);
+    } else {
+      return nativeGetMultiProof(getNativeHandle(), dbKeys);
+    }
   }
 
-  private byte[] mergeKeysIntoByteArray(Collection<? extends K> keys) {
+  private native byte[] nativeGetProof(long nativeHandle, byte[] key);
+
+  /**
+   * Serializes the keys and concatenates them in a single array.
+   */
+  byte[] serializeKeys(Collection<? extends K> keys) {
     int arraySize = keys.size() * PROOF_MAP_KEY_SIZE;
     ByteBuffer flattenedKeys = ByteBuffer.allocate(arraySize);
     keys.stream()
-        .map(keySerializer::toBytes)
+        .map(keySerializer::toBytesNoCopy)
         .forEach(flattenedKeys::put);
     return flattenedKeys.array();
   }
 
-  private native UncheckedMapProof nativeGetMultiProof(long nativeHandle, byte[] keys);
+  private native byte[] nativeGetMultiProof(long nativeHandle, byte[] keys);
 
   /**
    * Returns the root hash of the underlying Merkle-Patricia tree.
@@ -277,11 +337,41 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
 
   private native byte[] nativeGetRootHash(long nativeHandle);
 
+  /**
+   * Returns the differences between this map (the older state) and the other map
+   * (the newer state), ordered by the keys in their binary form.
+   *
+   * <p>If the root hashes of the maps are equal, an empty list is returned without
+   * comparing the entries. Otherwise, the sorted entries of both maps are merge-joined
+   * in the native code in a single pass, which takes time linear in the total size of the maps,
+   * not in the number of the differences: unchanged sub-trees are not skipped, because
+   * the internal Merkle nodes of the proof indices are not accessible in Exonum 0.9.
+   * The differences are returned at once, therefore, this method is intended for
+   * the states with relatively few differences.
+   *
+   * @param other the newer state of the map, usually, the same map in another view
+   * @throws IllegalStateException if this map or the other map is not valid
+   */
+  public List<DiffEntry<K, V>> diff(ProofMapIndexProxy<K, V> other) {
+    if (other == this) {
+      return ImmutableList.of();
+    }
+    byte[] encodedDiff = nativeDiff(getNativeHandle(), other.getNativeHandle());
+    return IndexDiffs.decode(encodedDiff, keySerializer::fromBytes, valueSerializer::fromBytes);
+  }
+
+  private native byte[] nativeDiff(long nativeHandle, long otherNativeHandle);
+
   @Override
   public void remove(K key) {
     notifyModified();
-    byte[] dbKey = keySerializer.toBytes(key);
-    nativeRemove(getNativeHandle(), dbKey);
+    byte[] dbKey = keySerializer.toBytesNoCopy(key);
+    WriteBuffer writeBuffer = getWriteBuffer();
+    if (writeBuffer != null) {
+      writeBuffer.remove(this, address, dbKey);
+    } else {
+      nativeRemove(getNativeHandle(), dbKey);
+    }
   }
 
   private native void nativeRemove(long nativeHandle, byte[] key);
@@ -304,6 +394,24 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
 
   private native void nativeKeysIterFree(long iterNativeHandle);
 
+  /**
+   * Returns an iterator over the keys of this map in the binary form, starting at the given key.
+   *
+   * @param fromDbKey the first key in the binary form, must be 32-byte long
+   */
+  Iterator<byte[]> dbKeysFrom(byte[] fromDbKey) {
+    return StorageIterators.createIterator(
+        nativeKeysFrom(getNativeHandle(), fromDbKey),
+        this::nativeKeysIterNext,
+        this::nativeKeysIterFree,
+        dbView,
+        modCounter,
+        Function.identity()
+    );
+  }
+
+  private native long nativeKeysFrom(long nativeHandle, byte[] fromKey);
+
   @Override
   public Iterator<V> values() {
     return StorageIterators.createIterator(
@@ -348,5 +456,23 @@ public final class ProofMapIndexProxy<K, V> extends AbstractIndexProxy implement
 
   private native void nativeClear(long nativeHandle);
 
+  @Override
+  byte[] serializeKey(K key) {
+    return keySerializer.toBytesNoCopy(key);
+  }
+
+  @Override
+  byte[] prefixToKey(byte[] keyPrefix) {
+    checkArgument(keyPrefix.length <= PROOF_MAP_KEY_SIZE,
+        "Key prefix is too long (%s), must be up to %s bytes", keyPrefix.length,
+        PROOF_MAP_KEY_SIZE);
+    // The least key with the prefix is the prefix padded with zeroes
+    return Arrays.copyOf(keyPrefix, PROOF_MAP_KEY_SIZE);
+  }
+
+  @Override
+  native Long nativeAggregate(long nativeHandle, int operator, @Nullable byte[] fromKey,
+                              @Nullable byte[] toKey, int valueOffset);
+
   private static native void nativeFree(long nativeHandle);
 }
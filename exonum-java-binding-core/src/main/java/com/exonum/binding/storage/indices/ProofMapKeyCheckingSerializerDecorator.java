@@ -52,6 +52,12 @@ final class ProofMapKeyCheckingSerializerDecorator<T> implements Serializer<T> {
     return checkProofKey(dbValue);
   }
 
+  @Override
+  public byte[] toBytesNoCopy(T proofKey) {
+    byte[] dbValue = delegate.toBytesNoCopy(proofKey);
+    return checkProofKey(dbValue);
+  }
+
   @Override
   public T fromBytes(byte[] serializedProofKey) {
     checkProofKey(serializedProofKey);
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.storage.indices;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.protobuf.ByteString;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Optional;
+
+/**
+ * A chunk of the state of a proof index: a proof of the consecutive entries of the index,
+ * and a cursor pointing to the next chunk.
+ *
+ * <p>The chunks are produced by {@link StateSync#exportChunk(ProofMapIndexProxy, ByteString, int)}
+ * and {@link StateSync#exportChunk(ProofListIndexProxy, ByteString, int)}.
+ * They may be passed to another node in the {@linkplain #toByteArray() binary form}.
+ *
+ * <p>This class is immutable.
+ */
+public final class StateChunk {
+
+  private final ByteString nextCursor;
+  private final byte[] encodedProof;
+
+  StateChunk(ByteString nextCursor, byte[] encodedProof) {
+    this.nextCursor = nextCursor;
+    this.encodedProof = encodedProof;
+  }
+
+  /**
+   * Creates a chunk from its binary form.
+   *
+   * @param chunk the chunk in the binary form, as produced by {@link #toByteArray()}
+   * @throws IllegalArgumentException if the chunk is malformed
+   */
+  public static StateChunk fromBytes(byte[] chunk) {
+    ByteBuffer buffer = ByteBuffer.wrap(chunk)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    checkArgument(buffer.remaining() >= Integer.BYTES, "Chunk is truncated");
+    int cursorSize = buffer.getInt();
+    checkArgument(0 <= cursorSize && cursorSize <= buffer.remaining(),
+        "Invalid cursor size: %s", cursorSize);
+    ByteString nextCursor = ByteString.copyFrom(buffer, cursorSize);
+    byte[] encodedProof = new byte[buffer.remaining()];
+    buffer.get(encodedProof);
+    return new StateChunk(nextCursor, encodedProof);
+  }
+
+  /**
+   * Returns the cursor pointing to the next chunk; or {@code Optional.empty()}
+   * if this chunk is the last one.
+   */
+  public Optional<ByteString> getNextCursor() {
+    return nextCursor.isEmpty() ? Optional.empty() : Optional.of(nextCursor);
+  }
+
+  /**
+   * Returns true if this chunk is the last one.
+   */
+  public boolean isLast() {
+    return nextCursor.isEmpty();
+  }
+
+  /**
+   * Returns the proof of the entries of this chunk, as produced by the native code.
+   * An empty array if the index is empty and has no entries to prove.
+   */
+  byte[] getEncodedProof() {
+    return encodedProof;
+  }
+
+  /**
+   * Returns this chunk in the binary form: the cursor size as a little-endian 32-bit integer,
+   * the cursor, and the encoded proof.
+   */
+  public byte[] toByteArray() {
+    return ByteBuffer.allocate(Integer.BYTES + nextCursor.size() + encodedProof.length)
+        .order(ByteOrder.LITTLE_ENDIAN)
+        .putInt(nextCursor.size())
+        .put(nextCursor.asReadOnlyByteBuffer())
+        .put(encodedProof)
+        .array();
+  }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.storage.indices;
+
+import static com.exonum.binding.common.hash.Hashing.DEFAULT_HASH_SIZE_BYTES;
+import static com.exonum.binding.storage.indices.StoragePreconditions.PROOF_MAP_KEY_SIZE;
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.exonum.binding.common.collect.MapEntry;
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.proofs.list.CheckedListProof;
+import com.exonum.binding.common.proofs.list.EncodedListProof;
+import com.exonum.binding.common.proofs.map.CheckedMapProof;
+import com.exonum.binding.common.proofs.map.EncodedFlatMapProof;
+import com.exonum.binding.common.serialization.Serializer;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.protobuf.ByteString;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * Exports the state of proof indices in chunks, and imports it, verifying each chunk
+ * against the root hash of the index.
+ *
+ * <p>A chunk includes up to a given number of consecutive entries of an index and a proof
+ * of these entries. The export of an index starts at the {@link #START} cursor, and each chunk
+ * includes the cursor of the next one, so that the export can be resumed from any chunk:
+ * <pre><code>
+ * ByteString cursor = StateSync.START;
+ * do {
+ *   StateChunk chunk = StateSync.exportChunk(map, cursor, chunkSize);
+ *   send(chunk.toByteArray());
+ *   cursor = chunk.getNextCursor().orElse(null);
+ * } while (cursor != null);
+ * </code></pre>
+ *
+ * <p>The importing node checks each chunk against the root hash of the index, obtained
+ * from a trusted source (e.g., a block proof). The checks do not access the database,
+ * therefore, the chunks may be checked in parallel, e.g., as they arrive over the network.
+ * Then the checked entries are written to a {@link com.exonum.binding.storage.database.Fork}
+ * with {@link #importChunk(ProofMapIndexProxy, Map)} or
+ * {@link #importChunk(ProofListIndexProxy, NavigableMap)}, which use bulk writes
+ * (see {@link com.exonum.binding.storage.database.Fork#enableWriteBuffering()}).
+ * The chunks of a map may be imported in any order; the chunks of a list — only in the order
+ * of export.
+ *
+ * <p>A chunk proves that its entries are in the index, but not that there are no other entries
+ * between them. Once all the chunks are imported, the root hash of the imported index must be
+ * compared with the expected one to verify that the state is complete.
+ */
+public final class StateSync {
+
+  /**
+   * The cursor of the first chunk of an index.
+   */
+  public static final ByteString START = ByteString.EMPTY;
+
+  private static final HashCode EMPTY_LIST_ROOT_HASH =
+      HashCode.fromBytes(new byte[DEFAULT_HASH_SIZE_BYTES]);
+
+  /**
+   * Exports a chunk of the map entries, starting at the given cursor.
+   *
+   * @param map the map to export; usually, in a snapshot
+   * @param cursor the cursor of the chunk: {@link #START} or the cursor
+   *     of the next chunk returned by a previous call
+   * @param maxEntries the maximum number of entries in the chunk, must be positive
+   * @throws IllegalStateException if the map is not valid
+   * @throws IllegalArgumentException if the cursor is not valid or the number of entries
+   *     is not positive
+   */
+  public static StateChunk exportChunk(ProofMapIndexProxy<?, ?> map, ByteString cursor,
+      int maxEntries) {
+    checkArgument(maxEntries > 0, "maxEntries must be positive: %s", maxEntries);
+    byte[] fromKey = cursor.isEmpty() ? new byte[PROOF_MAP_KEY_SIZE] : cursor.toByteArray();
+    checkArgument(fromKey.length == PROOF_MAP_KEY_SIZE, "Invalid map cursor: %s", cursor);
+
+    Iterator<byte[]> keys = map.dbKeysFrom(fromKey);
+    List<byte[]> chunkKeys = new ArrayList<>();
+    while (chunkKeys.size() < maxEntries && keys.hasNext()) {
+      chunkKeys.add(keys.next());
+    }
+    ByteString nextCursor = keys.hasNext() ? ByteString.copyFrom(keys.next()) : ByteString.EMPTY;
+    if (chunkKeys.isEmpty()) {
+      // Prove that there are no entries in an empty map
+      chunkKeys.add(fromKey);
+    }
+
+    ByteBuffer dbKeys = ByteBuffer.allocate(chunkKeys.size() * PROOF_MAP_KEY_SIZE);
+    chunkKeys.forEach(dbKeys::put);
+    byte[] encodedProof = map.getEncodedProof(dbKeys.array());
+    return new StateChunk(nextCursor, encodedProof);
+  }
+
+  /**
+   * Exports a chunk of the list elements, starting at the given cursor.
+   *
+   * @param list the list to export; usually, in a snapshot
+   * @param cursor the cursor of the chunk: {@link #START} or the cursor
+   *     of the next chunk returned by a previous call
+   * @param maxEntries the maximum number of elements in the chunk, must be positive
+   * @throws IllegalStateException if the list is not valid
+   * @throws IllegalArgumentException if the cursor is not valid or the number of elements
+   *     is not positive
+   */
+  public static StateChunk exportChunk(ProofListIndexProxy<?> list, ByteString cursor,
+      int maxEntries) {
+    checkArgument(maxEntries > 0, "maxEntries must be positive: %s", maxEntries);
+    long size = list.size();
+    long from = cursor.isEmpty() ? 0L : IndexDiffs.decodeIndex(cursor.toByteArray());
+    if (size == 0 && from == 0) {
+      return new StateChunk(ByteString.EMPTY, new byte[0]);
+    }
+    checkArgument(0 <= from && from < size, "Invalid list cursor: %s (size=%s)", from, size);
+
+    long to = Math.min(size, from + maxEntries);
+    ByteString nextCursor = (to < size) ? encodeIndex(to) : ByteString.EMPTY;
+    byte[] encodedProof = list.getEncodedRangeProof(from, to);
+    return new StateChunk(nextCursor, encodedProof);
+  }
+
+  /**
+   * Checks the chunk of a map against the expected root hash of the map, and returns
+   * its entries.
+   *
+   * <p>This method is thread-safe.
+   *
+   * @param chunk the chunk to check
+   * @param expectedRootHash the root hash of the exported map
+   * @param keySerializer the serializer of the map keys
+   * @param valueSerializer the serializer of the map values
+   * @throws IllegalArgumentException if the chunk is malformed, or its proof is not valid,
+   *     or the proof does not correspond to the expected root hash
+   */
+  public static <K, V> Map<K, V> checkMapChunk(StateChunk chunk, HashCode expectedRootHash,
+      Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+    CheckedMapProof proof = EncodedFlatMapProof.fromBytes(chunk.getEncodedProof())
+        .check();
+    checkArgument(proof.isValid(), "Invalid chunk proof: %s", proof.getProofStatus());
+    checkRootHash(proof.getRootHash(), expectedRootHash);
+
+    ImmutableMap.Builder<K, V> entries = ImmutableMap.builder();
+    for (MapEntry<ByteString, ByteString> e : proof.getEntries()) {
+      entries.put(keySerializer.fromBytes(e.getKey().toByteArray()),
+          valueSerializer.fromBytes(e.getValue().toByteArray()));
+    }
+    return entries.build();
+  }
+
+  /**
+   * Checks the chunk of a list against the expected root hash of the list, and returns
+   * its elements, keyed by their indices.
+   *
+   * <p>This method is thread-safe.
+   *
+   * @param chunk the chunk to check
+   * @param expectedRootHash the root hash of the exported list
+   * @param serializer the serializer of the list elements
+   * @throws IllegalArgumentException if the chunk is malformed, or its proof is not valid,
+   *     or the proof does not correspond to the expected root hash
+   */
+  public static <E> NavigableMap<Long, E> checkListChunk(StateChunk chunk,
+      HashCode expectedRootHash, Serializer<E> serializer) {
+    byte[] encodedProof = chunk.getEncodedProof();
+    if (encodedProof.length == 0) {
+      checkRootHash(EMPTY_LIST_ROOT_HASH, expectedRootHash);
+      return ImmutableSortedMap.of();
+    }
+
+    @SuppressWarnings("unchecked")
+    CheckedListProof<E> proof = EncodedListProof.fromBytes(encodedProof, serializer)
+        .check();
+    checkArgument(proof.isValid(), "Invalid chunk proof: %s", proof.getProofStatus());
+    checkRootHash(proof.getRootHash(), expectedRootHash);
+
+    NavigableMap<Long, E> elements = proof.getElements();
+    checkArgument(elements.lastKey() - elements.firstKey() + 1 == elements.size(),
+        "Chunk elements are not consecutive: %s", elements.keySet());
+    return elements;
+  }
+
+  private static void checkRootHash(HashCode actualRootHash, HashCode expectedRootHash) {
+    checkArgument(actualRootHash.equals(expectedRootHash),
+        "Chunk root hash (%s) does not match the expected (%s)", actualRootHash,
+        expectedRootHash);
+  }
+
+  /**
+   * Writes the checked entries of a chunk to the map.
+   *
+   * @param map the map to import the chunk into
+   * @param checkedEntries the entries of a chunk,
+   *     as returned by {@link #checkMapChunk(StateChunk, HashCode, Serializer, Serializer)}
+   * @throws IllegalStateException if the map is not valid
+   * @throws UnsupportedOperationException if the map is read-only
+   */
+  public static <K, V> void importChunk(ProofMapIndexProxy<K, V> map,
+      Map<? extends K, ? extends V> checkedEntries) {
+    map.putAll(checkedEntries);
+  }
+
+  /**
+   * Appends the checked elements of a chunk to the list.
+   *
+   * @param list the list to import the chunk into
+   * @param checkedElements the elements of a chunk,
+   *     as returned by {@link #checkListChunk(StateChunk, HashCode, Serializer)}
+   * @throws IllegalStateException if the list is not valid
+   * @throws IllegalArgumentException if the chunk does not start at the end of the list,
+   *     i.e., the chunks are imported out of order
+   * @throws UnsupportedOperationException if the list is read-only
+   */
+  public static <E> void importChunk(ProofListIndexProxy<E> list,
+      NavigableMap<Long, E> checkedElements) {
+    if (checkedElements.isEmpty()) {
+      return;
+    }
+    long size = list.size();
+    checkArgument(checkedElements.firstKey() == size,
+        "Chunk starts at index %s, but the list size is %s", checkedElements.firstKey(), size);
+    list.addAll(checkedElements.values());
+  }
+
+  private static ByteString encodeIndex(long index) {
+    byte[] cursor = ByteBuffer.allocate(Long.BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN)
+        .putLong(index)
+        .array();
+    return ByteString.copyFrom(cursor);
+  }
+
+  private StateSync() {}
+}
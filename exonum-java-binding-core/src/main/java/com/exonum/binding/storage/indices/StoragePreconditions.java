@@ -138,6 +138,18 @@ final class StoragePreconditions {
     return index;
   }
 
+  /**
+   * Checks that the offset of a number in a value is valid, i.e., non-negative.
+   *
+   * @return a valid offset
+   * @throws IllegalArgumentException if the offset is negative
+   */
+  @CanIgnoreReturnValue
+  static int checkValueOffset(int offset) {
+    checkArgument(offset >= 0, "Value offset (%s) is negative", offset);
+    return offset;
+  }
+
   private static String badPositionIndex(long index, long size) {
     if (index < 0) {
       return "index (" + index + ") is negative";
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.storage.indices;
+
+import com.exonum.binding.storage.database.Fork;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * A write buffer of a fork, recording the modifications of indices in an ordered log
+ * and applying them to the fork with a single native call.
+ *
+ * <p>The buffer keeps the last written value of each buffered map entry, so that the index
+ * that has written it can read it back without accessing the fork. The indices use
+ * the buffer in the following way:
+ * <ul>
+ *   <li>Map puts and removals, and list additions are {@linkplain #put(MapIndexProxy, String,
+ *       byte[], byte[]) recorded} in the buffer.</li>
+ *   <li>Map lookups of the keys, written through the buffer, are served by the buffer.</li>
+ *   <li>Any other operation of any index {@linkplain Fork#flushWrites() flushes} the buffer first,
+ *       so that it is performed on the up-to-date fork.</li>
+ * </ul>
+ *
+ * <p>Only the index proxies record the operations, with their own native handles;
+ * the operation code is determined by the type of the index. The handles are checked
+ * again when the buffer is flushed.
+ *
+ * <p>The buffer is owned by a {@link Fork} and is only created, flushed and discarded by it;
+ * the operations are recorded by the indices of the fork only.
+ *
+ * <p>This class is not thread-safe and its instances shall not be shared between threads.
+ *
+ * @see Fork#enableWriteBuffering()
+ */
+public final class WriteBuffer {
+
+  /**
+   * An index modification operation, that can be buffered.
+   *
+   * <p>The ordinal of the operation is its code in the log; it must match the native one.
+   */
+  enum Operation {
+    MAP_PUT,
+    MAP_REMOVE,
+    PROOF_MAP_PUT,
+    PROOF_MAP_REMOVE,
+    LIST_ADD,
+    PROOF_LIST_ADD
+  }
+
+  private static final int INITIAL_LOG_SIZE = 4096;
+
+  /** The size of an operation code, an index handle, and the sizes of the key and value. */
+  private static final int RECORD_HEADER_SIZE = Byte.BYTES + Long.BYTES + 2 * Integer.BYTES;
+
+  private static final byte[] NO_BYTES = new byte[0];
+
+  /**
+   * The ordered log of operations, read by the native code. Each record has the following
+   * format (all numbers are little-endian):
+   * <pre>
+   *   operation code: u8
+   *   index native handle: i64
+   *   key size: u32, key: [u8]     (empty for list additions)
+   *   value size: u32, value: [u8] (empty for map removals)
+   * </pre>
+   */
+  private ByteBuffer log;
+
+  /**
+   * The last written values of the buffered map entries, by index address and key.
+   * A null value corresponds to a removed entry.
+   */
+  private final Map<String, Map<ByteBuffer, byte[]>> mapWrites;
+
+  /**
+   * The indices, the operations of which are recorded in the log.
+   */
+  private final Set<AbstractIndexProxy> indices;
+
+  @Nullable
+  private AbstractIndexProxy lastIndex;
+
+  /**
+   * Creates an empty write buffer. Shall be invoked by the fork only.
+   */
+  public WriteBuffer() {
+    log = newLog(INITIAL_LOG_SIZE);
+    mapWrites = new HashMap<>();
+    indices = Collections.newSetFromMap(new IdentityHashMap<>());
+  }
+
+  /**
+   * Records a put of a map entry.
+   *
+   * @param map the map
+   * @param indexAddress the address of the map, unique in the database: its name,
+   *     and an identifier in a group if it belongs to one
+   * @param key the key of the entry
+   * @param value the value of the entry
+   * @throws IllegalStateException if the map is not valid
+   */
+  void put(MapIndexProxy<?, ?> map, String indexAddress, byte[] key, byte[] value) {
+    putEntry(Operation.MAP_PUT, map, indexAddress, key, value);
+  }
+
+  /**
+   * Records a put of a proof map entry.
+   *
+   * @see #put(MapIndexProxy, String, byte[], byte[])
+   */
+  void put(ProofMapIndexProxy<?, ?> map, String indexAddress, byte[] key, byte[] value) {
+    putEntry(Operation.PROOF_MAP_PUT, map, indexAddress, key, value);
+  }
+
+  /**
+   * Records a removal of a map entry.
+   *
+   * @param map the map
+   * @param indexAddress the address of the map
+   * @param key the key of the entry
+   * @throws IllegalStateException if the map is not valid
+   * @see #put(MapIndexProxy, String, byte[], byte[])
+   */
+  void remove(MapIndexProxy<?, ?> map, String indexAddress, byte[] key) {
+    removeEntry(Operation.MAP_REMOVE, map, indexAddress, key);
+  }
+
+  /**
+   * Records a removal of a proof map entry.
+   *
+   * @see #remove(MapIndexProxy, String, byte[])
+   */
+  void remove(ProofMapIndexProxy<?, ?> map, String indexAddress, byte[] key) {
+    removeEntry(Operation.PROOF_MAP_REMOVE, map, indexAddress, key);
+  }
+
+  /**
+   * Records an addition of an element to the end of a list.
+   *
+   * @param list the list
+   * @param element the element to add
+   * @throws IllegalStateException if the list is not valid
+   */
+  void add(AbstractListIndexProxy<?> list, byte[] element) {
+    append(list.getAddOperation(), list, NO_BYTES, element);
+  }
+
+  /**
+   * Returns true if the map entry with the given key has been written through this buffer.
+   *
+   * @param indexAddress the address of the map
+   * @param key the key of the entry
+   */
+  boolean hasWrite(String indexAddress, byte[] key) {
+    Map<ByteBuffer, byte[]> writes = mapWrites.get(indexAddress);
+    return writes != null && writes.containsKey(ByteBuffer.wrap(key));
+  }
+
+  /**
+   * Returns the last value of the map entry written through this buffer; or null if
+   * the entry has been removed or has not been written through this buffer.
+   *
+   * @param indexAddress the address of the map
+   * @param key the key of the entry
+   * @see #hasWrite(String, byte[])
+   */
+  @Nullable
+  byte[] getWrite(String indexAddress, byte[] key) {
+    Map<ByteBuffer, byte[]> writes = mapWrites.get(indexAddress);
+    if (writes == null) {
+      return null;
+    }
+    byte[] value = writes.get(ByteBuffer.wrap(key));
+    return (value == null) ? null : value.clone();
+  }
+
+  /**
+   * Returns true if there are no buffered operations.
+   */
+  public boolean isEmpty() {
+    return log.position() == 0;
+  }
+
+  /**
+   * Applies the buffered operations to the fork and clears this buffer.
+   *
+   * @throws IllegalStateException if any index, the operations on which are buffered,
+   *     is no longer valid
+   */
+  public void flush() {
+    if (isEmpty()) {
+      return;
+    }
+    for (AbstractIndexProxy index : indices) {
+      // Check that the handle recorded in the log is still valid
+      index.getNativeHandleNoFlush();
+    }
+    nativeApply(log, log.position());
+    discard();
+  }
+
+  /**
+   * Discards the buffered operations.
+   */
+  public void discard() {
+    log.clear();
+    mapWrites.clear();
+    indices.clear();
+    lastIndex = null;
+  }
+
+  private void putEntry(Operation operation, AbstractIndexProxy map, String indexAddress,
+      byte[] key, byte[] value) {
+    append(operation, map, key, value);
+    writesOf(indexAddress).put(ByteBuffer.wrap(key.clone()), value.clone());
+  }
+
+  private void removeEntry(Operation operation, AbstractIndexProxy map, String indexAddress,
+      byte[] key) {
+    append(operation, map, key, NO_BYTES);
+    writesOf(indexAddress).put(ByteBuffer.wrap(key.clone()), null);
+  }
+
+  private void append(Operation operation, AbstractIndexProxy index, byte[] key, byte[] value) {
+    long indexHandle = index.getNativeHandleNoFlush();
+    if (index != lastIndex) {
+      indices.add(index);
+      lastIndex = index;
+    }
+    ensureCapacity(RECORD_HEADER_SIZE + key.length + value.length);
+    log.put((byte) operation.ordinal())
+        .putLong(indexHandle)
+        .putInt(key.length)
+        .put(key)
+        .putInt(value.length)
+        .put(value);
+  }
+
+  private void ensureCapacity(int recordSize) {
+    if (log.remaining() >= recordSize) {
+      return;
+    }
+    int newSize = Math.max(2 * log.capacity(), log.position() + recordSize);
+    ByteBuffer newLog = newLog(newSize);
+    log.flip();
+    newLog.put(log);
+    log = newLog;
+  }
+
+  private Map<ByteBuffer, byte[]> writesOf(String indexAddress) {
+    return mapWrites.computeIfAbsent(indexAddress, a -> new HashMap<>());
+  }
+
+  private static ByteBuffer newLog(int size) {
+    return ByteBuffer.allocateDirect(size)
+        .order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private static native void nativeApply(ByteBuffer log, int size);
+}
@@ -35,6 +35,7 @@ import javax.annotation.Nullable;
 public class TransactionExecutionException extends Exception {
 
   // TODO: Consider using enums and taking their ordinal as the error code: ECR-2006?
+  // Read by the native code.
   private final byte errorCode;
 
   /**
@@ -76,8 +77,36 @@ public class TransactionExecutionException extends Exception {
     this.errorCode = errorCode;
   }
 
+  /**
+   * Constructs a new transaction exception with the specified description, cause,
+   * and writable stack trace enabled or disabled.
+   *
+   * <p>An exception with no writable stack trace is cheap to create, and, as it has
+   * the suppression disabled too, might be pre-allocated and re-used by transactions
+   * that fail often:
+   * <pre>{@code
+   * private static final TransactionExecutionException INSUFFICIENT_FUNDS =
+   *     new TransactionExecutionException(INSUFFICIENT_FUNDS_CODE, "Insufficient funds",
+   *         null, false);
+   * }</pre>
+   *
+   * @param errorCode the transaction error code
+   * @param description the error description. The detail description is saved for
+   *     later retrieval by the {@link #getMessage()} method.
+   * @param cause the cause (which is saved for later retrieval by the {@link #getCause()} method).
+   *     A <tt>null</tt> value is permitted, and indicates that the cause is nonexistent or unknown.
+   * @param writableStackTrace whether or not the stack trace and the suppression
+   *     shall be enabled
+   */
+  public TransactionExecutionException(byte errorCode,
+      @Nullable String description,
+      @Nullable Throwable cause,
+      boolean writableStackTrace) {
+    super(description, cause, writableStackTrace, writableStackTrace);
+    this.errorCode = errorCode;
+  }
+
   /** Returns the transaction error code. */
-  @SuppressWarnings("unused")  // Native API
   public final byte getErrorCode() {
     return errorCode;
   }
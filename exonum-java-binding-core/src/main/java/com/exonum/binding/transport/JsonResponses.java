@@ -0,0 +1,300 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.transport;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.gson.Gson;
+import com.google.gson.JsonNull;
+import com.google.gson.stream.JsonWriter;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * Utilities for writing JSON responses to HTTP requests.
+ *
+ * <p>The values are serialized with Gson straight into Vert.x buffers, encoded in UTF-8,
+ * without building an intermediate {@code String}. Collections may be sent using chunked
+ * transfer encoding, so that a long collection is never buffered as a whole.
+ */
+public final class JsonResponses {
+
+  /**
+   * The value of the Content-Type header of JSON responses.
+   */
+  public static final String JSON_CONTENT_TYPE = "application/json";
+
+  /**
+   * The size of a chunk after which it is sent in {@link #endArray} responses.
+   */
+  static final int CHUNK_SIZE = 8 * 1024;
+
+  private static final int INITIAL_BUFFER_SIZE = 256;
+
+  /**
+   * Serializes the value into a JSON buffer and ends the response with it.
+   *
+   * @param response the response to end
+   * @param gson the Gson instance to serialize the value
+   * @param value the value to send
+   */
+  public static void end(HttpServerResponse response, Gson gson, Object value) {
+    Buffer json = toJsonBuffer(gson, value);
+    response.putHeader("Content-Type", JSON_CONTENT_TYPE)
+        .end(json);
+  }
+
+  /**
+   * Sends the elements as a JSON array, using chunked transfer encoding, and ends the response.
+   * The elements are serialized one by one into chunks of about {@value #CHUNK_SIZE} bytes,
+   * each chunk is written to the response as soon as it is full.
+   *
+   * <p>If the write queue of the response is full, the serialization is suspended until
+   * the queue is drained, therefore, the response might end after this method returns.
+   * The elements must remain accessible until then: they must not be backed by a view
+   * that is destroyed when the request handler returns. If the connection is closed or fails
+   * while the serialization is suspended, the remaining elements are not serialized.
+   *
+   * @param response the response to end
+   * @param gson the Gson instance to serialize the elements
+   * @param elements the elements to send
+   */
+  public static void endArray(HttpServerResponse response, Gson gson,
+      Iterable<?> elements) {
+    checkNotNull(elements, "elements");
+    response.setChunked(true)
+        .putHeader("Content-Type", JSON_CONTENT_TYPE);
+
+    ArrayWriter arrayWriter = new ArrayWriter(response, gson, elements.iterator());
+    arrayWriter.writeChunks();
+  }
+
+  /**
+   * Serializes the value into a buffer with its JSON representation in UTF-8.
+   *
+   * @param gson the Gson instance to serialize the value
+   * @param value the value to serialize
+   */
+  public static Buffer toJsonBuffer(Gson gson, Object value) {
+    BufferWriter output = new BufferWriter();
+    JsonWriter jsonWriter = newJsonWriter(gson, output);
+    writeValue(gson, value, jsonWriter);
+    output.close();
+    return output.buffer;
+  }
+
+  private static JsonWriter newJsonWriter(Gson gson, Writer writer) {
+    try {
+      return gson.newJsonWriter(writer);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void writeValue(Gson gson, Object value, JsonWriter jsonWriter) {
+    if (value == null) {
+      gson.toJson(JsonNull.INSTANCE, jsonWriter);
+    } else {
+      gson.toJson(value, value.getClass(), jsonWriter);
+    }
+  }
+
+  /**
+   * Writes the elements of a JSON array to a response in chunks, suspending when
+   * the write queue of the response is full.
+   */
+  private static final class ArrayWriter {
+
+    final HttpServerResponse response;
+    final Gson gson;
+    final BufferWriter output;
+    final JsonWriter jsonWriter;
+    Iterator<?> elements;
+
+    /** Whether the connection is closed or failed while the writer is suspended. */
+    boolean abandoned;
+
+    ArrayWriter(HttpServerResponse response, Gson gson, Iterator<?> elements) {
+      this.response = response;
+      this.gson = gson;
+      this.elements = elements;
+      output = new BufferWriter();
+      jsonWriter = newJsonWriter(gson, output);
+      try {
+        jsonWriter.beginArray();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    /**
+     * Writes the chunks of the array until the write queue of the response is full,
+     * or the array is ended.
+     */
+    void writeChunks() {
+      while (elements.hasNext()) {
+        writeValue(gson, elements.next(), jsonWriter);
+        if (output.size() >= CHUNK_SIZE) {
+          response.write(output.takeBuffer());
+          if (response.writeQueueFull()) {
+            suspend();
+            return;
+          }
+        }
+      }
+      try {
+        jsonWriter.endArray();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      output.close();
+      response.end(output.takeBuffer());
+    }
+
+    private void suspend() {
+      response.drainHandler(v -> resume())
+          .closeHandler(v -> abandon())
+          .exceptionHandler(e -> abandon());
+    }
+
+    private void resume() {
+      response.drainHandler(null);
+      if (abandoned) {
+        return;
+      }
+      try {
+        writeChunks();
+      } catch (RuntimeException e) {
+        // The headers are already sent, so the failure can only be signalled
+        // by closing the connection
+        response.close();
+        throw e;
+      }
+    }
+
+    /**
+     * Abandons the remaining elements, as they can no longer be sent, and releases them.
+     */
+    private void abandon() {
+      abandoned = true;
+      elements = Collections.emptyIterator();
+      response.drainHandler(null);
+    }
+  }
+
+  /**
+   * A writer encoding the characters in UTF-8 and appending them to a Vert.x buffer.
+   * Unlike {@link java.io.OutputStreamWriter}, it does not keep the characters in its own
+   * buffer, therefore, the size of the written bytes is known without flushing it.
+   */
+  @VisibleForTesting
+  static final class BufferWriter extends Writer {
+
+    private static final byte REPLACEMENT = '?';
+
+    Buffer buffer = Buffer.buffer(INITIAL_BUFFER_SIZE);
+
+    /** The high surrogate written last, which code point is not yet encoded; or zero. */
+    private char highSurrogate;
+
+    @Override
+    public void write(int c) {
+      writeChar((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+      for (int i = off; i < off + len; i++) {
+        writeChar(cbuf[i]);
+      }
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+      for (int i = off; i < off + len; i++) {
+        writeChar(str.charAt(i));
+      }
+    }
+
+    private void writeChar(char c) {
+      if (highSurrogate != 0) {
+        char high = highSurrogate;
+        highSurrogate = 0;
+        if (Character.isLowSurrogate(c)) {
+          int codePoint = Character.toCodePoint(high, c);
+          buffer.appendByte((byte) (0xF0 | (codePoint >> 18)))
+              .appendByte((byte) (0x80 | ((codePoint >> 12) & 0x3F)))
+              .appendByte((byte) (0x80 | ((codePoint >> 6) & 0x3F)))
+              .appendByte((byte) (0x80 | (codePoint & 0x3F)));
+          return;
+        }
+        // An unpaired surrogate is replaced, as String#getBytes does
+        buffer.appendByte(REPLACEMENT);
+      }
+      if (c < 0x80) {
+        buffer.appendByte((byte) c);
+      } else if (c < 0x800) {
+        buffer.appendByte((byte) (0xC0 | (c >> 6)))
+            .appendByte((byte) (0x80 | (c & 0x3F)));
+      } else if (Character.isHighSurrogate(c)) {
+        highSurrogate = c;
+      } else if (Character.isLowSurrogate(c)) {
+        buffer.appendByte(REPLACEMENT);
+      } else {
+        buffer.appendByte((byte) (0xE0 | (c >> 12)))
+            .appendByte((byte) (0x80 | ((c >> 6) & 0x3F)))
+            .appendByte((byte) (0x80 | (c & 0x3F)));
+      }
+    }
+
+    @Override
+    public void flush() {}
+
+    /**
+     * Ends the output: the high surrogate written last, if any, is unpaired and is replaced.
+     */
+    @Override
+    public void close() {
+      if (highSurrogate != 0) {
+        highSurrogate = 0;
+        buffer.appendByte(REPLACEMENT);
+      }
+    }
+
+    int size() {
+      return buffer.length();
+    }
+
+    /**
+     * Returns the buffer with the bytes written so far, and starts a new one.
+     */
+    Buffer takeBuffer() {
+      Buffer written = buffer;
+      buffer = Buffer.buffer(Math.max(INITIAL_BUFFER_SIZE, written.length()));
+      return written;
+    }
+  }
+
+  private JsonResponses() {}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.transport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.primitives.Longs;
+import java.util.Base64;
+
+/**
+ * Encodes positions in paginated collections as opaque cursors, passed to the clients.
+ *
+ * <p>A cursor is the position of the first element of the next page, encoded
+ * in URL-safe Base64. The clients must not make any assumptions about its format.
+ */
+public final class PageCursors {
+
+  /**
+   * Returns a cursor pointing at the given position.
+   *
+   * @param position a non-negative position of an element in a collection
+   */
+  public static String encode(long position) {
+    checkArgument(position >= 0, "position (%s) must be non-negative", position);
+    byte[] bytes = Longs.toByteArray(position);
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(bytes);
+  }
+
+  /**
+   * Returns the position the given cursor points at.
+   *
+   * @throws IllegalArgumentException if the cursor is not valid
+   */
+  public static long decode(String cursor) {
+    byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+    checkArgument(bytes.length == Long.BYTES, "Invalid cursor: %s", cursor);
+    long position = Longs.fromByteArray(bytes);
+    checkArgument(position >= 0, "Invalid cursor: %s", cursor);
+    return position;
+  }
+
+  private PageCursors() {}
+}
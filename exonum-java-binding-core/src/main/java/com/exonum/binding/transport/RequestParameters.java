@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.transport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import io.vertx.core.MultiMap;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Utilities for extracting the parameters of HTTP requests.
+ *
+ * <p>All methods throw {@link IllegalArgumentException} if a parameter is missing
+ * or invalid, so that the failure handlers of the services may reply with
+ * the Bad Request status.
+ */
+public final class RequestParameters {
+
+  /**
+   * Returns the value of the required parameter.
+   *
+   * @param parameters the parameters of the request
+   * @param key the name of the parameter
+   * @param converter a function converting the value of the parameter from a string
+   * @throws IllegalArgumentException if the parameter is missing, or the converter fails
+   */
+  public static <T> T getRequiredParameter(MultiMap parameters, String key,
+      Function<String, T> converter) {
+    checkArgument(parameters.contains(key), "No required key (%s) in request parameters: %s",
+        key, parameters);
+    return convertParameter(parameters, key, converter);
+  }
+
+  /**
+   * Returns the value of the optional parameter, or {@code Optional.empty()}
+   * if the request has no such parameter.
+   *
+   * @param parameters the parameters of the request
+   * @param key the name of the parameter
+   * @param converter a function converting the value of the parameter from a string
+   * @throws IllegalArgumentException if the converter fails
+   */
+  public static <T> Optional<T> getOptionalParameter(MultiMap parameters, String key,
+      Function<String, T> converter) {
+    if (!parameters.contains(key)) {
+      return Optional.empty();
+    }
+    return Optional.of(convertParameter(parameters, key, converter));
+  }
+
+  /**
+   * Returns the requested page size, or the default one if the request has no
+   * such parameter.
+   *
+   * @param parameters the parameters of the request
+   * @param key the name of the parameter
+   * @param defaultSize the page size if the parameter is missing
+   * @param maxSize the maximum page size
+   * @throws IllegalArgumentException if the parameter is not an integer
+   *     in range [1, maxSize]
+   */
+  public static int getPageSize(MultiMap parameters, String key, int defaultSize, int maxSize) {
+    int limit = getOptionalParameter(parameters, key, Integer::parseInt)
+        .orElse(defaultSize);
+    checkArgument(0 < limit && limit <= maxSize,
+        "Invalid limit (%s), must be in range [1, %s]", limit, maxSize);
+    return limit;
+  }
+
+  private static <T> T convertParameter(MultiMap parameters, String key,
+      Function<String, T> converter) {
+    String parameter = parameters.get(key);
+    try {
+      return converter.apply(parameter);
+    } catch (Exception e) {
+      String message = String.format("Failed to convert parameter (%s): %s", key, e.getMessage());
+      throw new IllegalArgumentException(message);
+    }
+  }
+
+  private RequestParameters() {}
+}
@@ -18,12 +18,16 @@
 package com.exonum.binding.blockchain;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.exonum.binding.common.configuration.StoredConfiguration;
+import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.storage.indices.ListIndexProxy;
 import com.exonum.binding.storage.indices.ProofListIndexProxy;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -58,6 +62,37 @@ class BlockchainTest {
     assertThat(blockchain.getAllBlockHashes()).isEqualTo(mockListIndex);
   }
 
+  @Test
+  void getBlockHashes() {
+    long fromHeight = 2L;
+    List<HashCode> hashes = ImmutableList.of(HashCode.fromInt(2), HashCode.fromInt(3),
+        HashCode.fromInt(4));
+    ListIndexProxy<HashCode> mockListIndex = mock(ListIndexProxy.class);
+    when(mockListIndex.iterator(fromHeight)).thenReturn(hashes.iterator());
+    when(mockSchema.getAllBlockHashes()).thenReturn(mockListIndex);
+
+    assertThat(blockchain.getBlockHashes(fromHeight, 2)).isEqualTo(hashes.subList(0, 2));
+  }
+
+  @Test
+  void getBlockHashesLimitExceedsSize() {
+    long fromHeight = 0L;
+    List<HashCode> hashes = ImmutableList.of(HashCode.fromInt(0), HashCode.fromInt(1));
+    ListIndexProxy<HashCode> mockListIndex = mock(ListIndexProxy.class);
+    when(mockListIndex.iterator(fromHeight)).thenReturn(hashes.iterator());
+    when(mockSchema.getAllBlockHashes()).thenReturn(mockListIndex);
+
+    assertThat(blockchain.getBlockHashes(fromHeight, 10)).isEqualTo(hashes);
+  }
+
+  @Test
+  void getBlockHashesNegativeLimit() {
+    ListIndexProxy<HashCode> mockListIndex = mock(ListIndexProxy.class);
+    when(mockSchema.getAllBlockHashes()).thenReturn(mockListIndex);
+
+    assertThrows(IllegalArgumentException.class, () -> blockchain.getBlockHashes(0L, -1));
+  }
+
   @Test
   void getBlockTransactions() {
     long height = 1L;
@@ -67,6 +102,19 @@ class BlockchainTest {
     assertThat(blockchain.getBlockTransactions(height)).isEqualTo(mockListIndex);
   }
 
+  @Test
+  void getBlockTransactionsRange() {
+    long height = 1L;
+    long fromIndex = 1L;
+    List<HashCode> hashes = ImmutableList.of(HashCode.fromInt(1), HashCode.fromInt(2));
+    ProofListIndexProxy<HashCode> mockListIndex = mock(ProofListIndexProxy.class);
+    when(mockListIndex.iterator(fromIndex)).thenReturn(hashes.iterator());
+    when(mockSchema.getBlockTransactions(height)).thenReturn(mockListIndex);
+
+    assertThat(blockchain.getBlockTransactions(height, fromIndex, 1))
+        .isEqualTo(hashes.subList(0, 1));
+  }
+
   @Test
   void getActualConfiguration() {
     StoredConfiguration configuration = mock(StoredConfiguration.class);
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.crypto;
+
+import static com.exonum.binding.common.crypto.CryptoFunctions.Ed25519.PRIVATE_KEY_BYTES;
+import static com.exonum.binding.common.crypto.CryptoFunctions.Ed25519.PUBLIC_KEY_BYTES;
+import static com.exonum.binding.common.crypto.CryptoFunctions.Ed25519.SEED_BYTES;
+import static com.exonum.binding.common.crypto.CryptoFunctions.Ed25519.SIGNATURE_BYTES;
+import static com.exonum.binding.test.Bytes.bytes;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.exonum.binding.test.Bytes;
+import com.exonum.binding.util.LibraryLoader;
+import org.junit.jupiter.api.Test;
+
+class NativeEd25519CryptoFunctionIntegrationTest {
+
+  static {
+    LibraryLoader.load();
+  }
+
+  private static final CryptoFunction CRYPTO_FUNCTION = CryptoFunctions.nativeEd25519();
+
+  private static final CryptoFunction JNA_CRYPTO_FUNCTION = CryptoFunctions.ed25519();
+
+  @Test
+  void nativeEd25519IsNativeWhenLibraryLoaded() {
+    assertThat(CRYPTO_FUNCTION, sameInstance(NativeEd25519CryptoFunction.INSTANCE));
+  }
+
+  @Test
+  void generateKeyPairWithSeed() {
+    byte[] seed = Bytes.createPrefixed(bytes(0x01, 0x02), SEED_BYTES);
+
+    KeyPair keyPair = CRYPTO_FUNCTION.generateKeyPair(seed);
+    assertThat(keyPair.getPrivateKey().size(), equalTo(PRIVATE_KEY_BYTES));
+    assertThat(keyPair.getPublicKey().size(), equalTo(PUBLIC_KEY_BYTES));
+
+    // Check the key pair is the same as produced by libsodium
+    KeyPair expected = JNA_CRYPTO_FUNCTION.generateKeyPair(seed);
+    assertThat(keyPair.getPrivateKey(), equalTo(expected.getPrivateKey()));
+    assertThat(keyPair.getPublicKey(), equalTo(expected.getPublicKey()));
+  }
+
+  @Test
+  void generateKeyPairInvalidSeedSize() {
+    byte[] seed = bytes(0x01, 0x02);
+
+    assertThrows(IllegalArgumentException.class, () -> CRYPTO_FUNCTION.generateKeyPair(seed));
+  }
+
+  @Test
+  void generateKeyPairRandomSeed() {
+    KeyPair keyPair1 = CRYPTO_FUNCTION.generateKeyPair();
+    KeyPair keyPair2 = CRYPTO_FUNCTION.generateKeyPair();
+
+    assertThat(keyPair1.getPublicKey().size(), equalTo(PUBLIC_KEY_BYTES));
+    assertFalse(keyPair1.getPublicKey().equals(keyPair2.getPublicKey()));
+  }
+
+  @Test
+  void signMessageSameAsJna() {
+    KeyPair keyPair = CRYPTO_FUNCTION.generateKeyPair();
+    byte[] message = bytes("myMessage");
+
+    byte[] signature = CRYPTO_FUNCTION.signMessage(message, keyPair.getPrivateKey());
+
+    byte[] expected = JNA_CRYPTO_FUNCTION.signMessage(message, keyPair.getPrivateKey());
+    assertThat(signature, equalTo(expected));
+  }
+
+  @Test
+  void signLargeMessage() {
+    KeyPair keyPair = CRYPTO_FUNCTION.generateKeyPair();
+    // A message larger than the initial size of the message buffer
+    byte[] message = Bytes.createPrefixed(bytes("myMessage"), 64 * 1024);
+
+    byte[] signature = CRYPTO_FUNCTION.signMessage(message, keyPair.getPrivateKey());
+
+    assertTrue(JNA_CRYPTO_FUNCTION.verify(message, signature, keyPair.getPublicKey()));
+  }
+
+  @Test
+  void signMessageLargerThanPooledBuffer() {
+    KeyPair keyPair = CRYPTO_FUNCTION.generateKeyPair();
+    byte[] message = Bytes.createPrefixed(bytes("myMessage"), 1024 * 1024);
+
+    byte[] signature = CRYPTO_FUNCTION.signMessage(message, keyPair.getPrivateKey());
+
+    assertTrue(JNA_CRYPTO_FUNCTION.verify(message, signature, keyPair.getPublicKey()));
+    assertTrue(CRYPTO_FUNCTION.verify(message, signature, keyPair.getPublicKey()));
+  }
+
+  @Test
+  void validSignatureVerificationTest() {
+    KeyPair keyPair = CRYPTO_FUNCTION.generateKeyPair();
+    byte[] message = bytes("myMessage");
+    byte[] signature = JNA_CRYPTO_FUNCTION.signMessage(message, keyPair.getPrivateKey());
+
+    assertTrue(CRYPTO_FUNCTION.verify(message, signature, keyPair.getPublicKey()));
+  }
+
+  @Test
+  void validSignatureEmptyMessageVerificationTest() {
+    KeyPair keyPair = CRYPTO_FUNCTION.generateKeyPair();
+    byte[] emptyMessage = new byte[0];
+    byte[] signature = CRYPTO_FUNCTION.signMessage(emptyMessage, keyPair.getPrivateKey());
+
+    assertTrue(CRYPTO_FUNCTION.verify(emptyMessage, signature, keyPair.getPublicKey()));
+  }
+
+  @Test
+  void invalidLengthSignatureVerificationTest() {
+    KeyPair keyPair = CRYPTO_FUNCTION.generateKeyPair();
+    byte[] message = bytes("myMessage");
+    byte[] invalidSignature = bytes("invalidLengthMessage");
+
+    assertFalse(CRYPTO_FUNCTION.verify(message, invalidSignature, keyPair.getPublicKey()));
+  }
+
+  @Test
+  void invalidSignatureVerificationTest() {
+    KeyPair keyPair = CRYPTO_FUNCTION.generateKeyPair();
+    byte[] message = bytes("myMessage");
+    byte[] invalidSignature = Bytes.createPrefixed(message, SIGNATURE_BYTES);
+
+    assertFalse(CRYPTO_FUNCTION.verify(message, invalidSignature, keyPair.getPublicKey()));
+  }
+
+  @Test
+  void invalidMessageVerificationTest() {
+    KeyPair keyPair = CRYPTO_FUNCTION.generateKeyPair();
+    byte[] message = bytes("myMessage");
+    byte[] signature = CRYPTO_FUNCTION.signMessage(message, keyPair.getPrivateKey());
+    byte[] anotherMessage = bytes("anotherMessage");
+
+    assertFalse(CRYPTO_FUNCTION.verify(anotherMessage, signature, keyPair.getPublicKey()));
+  }
+}
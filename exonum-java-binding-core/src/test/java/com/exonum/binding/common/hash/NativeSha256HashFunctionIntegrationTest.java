@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.common.hash;
+
+import static com.exonum.binding.test.Bytes.bytes;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+
+import com.exonum.binding.test.Bytes;
+import com.exonum.binding.util.LibraryLoader;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class NativeSha256HashFunctionIntegrationTest {
+
+  static {
+    LibraryLoader.load();
+  }
+
+  private static final HashFunction HASH_FUNCTION = Hashing.nativeSha256();
+
+  @Test
+  void nativeSha256IsNativeWhenLibraryLoaded() {
+    assertThat(HASH_FUNCTION, instanceOf(NativeSha256HashFunction.class));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 32, 1024, 1025, 64 * 1024, 64 * 1024 + 1, 1024 * 1024})
+  void hashBytesSameAsJava(int size) {
+    byte[] input = Bytes.randomBytes(size);
+
+    HashCode hash = HASH_FUNCTION.hashBytes(input);
+
+    assertThat(hash, equalTo(Hashing.sha256().hashBytes(input)));
+  }
+
+  @Test
+  void hashBytesRange() {
+    byte[] input = bytes(1, 2, 3, 4, 5);
+
+    HashCode hash = HASH_FUNCTION.hashBytes(input, 1, 3);
+
+    assertThat(hash, equalTo(Hashing.sha256().hashBytes(bytes(2, 3, 4))));
+  }
+
+  @Test
+  void hashDirectBuffer() {
+    ByteBuffer input = ByteBuffer.allocateDirect(8);
+    input.put(bytes(1, 2, 3, 4, 5, 6, 7, 8));
+    input.position(2);
+    input.limit(6);
+
+    HashCode hash = HASH_FUNCTION.hashBytes(input);
+
+    assertThat(hash, equalTo(Hashing.sha256().hashBytes(bytes(3, 4, 5, 6))));
+    assertThat(input.position(), equalTo(6));
+  }
+
+  @Test
+  void hashHeapBuffer() {
+    ByteBuffer input = ByteBuffer.wrap(bytes(1, 2, 3, 4));
+
+    HashCode hash = HASH_FUNCTION.hashBytes(input);
+
+    assertThat(hash, equalTo(Hashing.sha256().hashBytes(bytes(1, 2, 3, 4))));
+  }
+
+  @Test
+  void newHasher() {
+    HashCode hash = HASH_FUNCTION.newHasher()
+        .putLong(1L)
+        .putString("abc", UTF_8)
+        .hash();
+
+    HashCode expected = Hashing.sha256().newHasher()
+        .putLong(1L)
+        .putString("abc", UTF_8)
+        .hash();
+    assertThat(hash, equalTo(expected));
+  }
+}
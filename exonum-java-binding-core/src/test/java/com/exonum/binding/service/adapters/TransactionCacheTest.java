@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.service.adapters;
+
+import static com.exonum.binding.test.Bytes.bytes;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import com.exonum.binding.transaction.Transaction;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class TransactionCacheTest {
+
+  private static final byte[] MESSAGE_1 = bytes(1, 2, 3);
+  private static final byte[] MESSAGE_2 = bytes(4, 5, 6);
+
+  private final ViewFactory viewFactory = mock(ViewFactory.class);
+
+  @Test
+  void getConvertsOnMiss() {
+    TransactionCache cache = new TransactionCache(2);
+
+    cache.get(MESSAGE_1, this::newTransaction);
+
+    assertThat(cache.size(), equalTo(1L));
+    CacheStats stats = cache.stats();
+    assertThat(stats.missCount(), equalTo(1L));
+    assertThat(stats.hitCount(), equalTo(0L));
+  }
+
+  @Test
+  void getReturnsCachedOnHit() {
+    TransactionCache cache = new TransactionCache(2);
+
+    UserTransactionAdapter transaction1 = cache.get(MESSAGE_1, this::newTransaction);
+    UserTransactionAdapter transaction2 = cache.get(MESSAGE_1.clone(), failingConverter());
+
+    assertThat(transaction2, sameInstance(transaction1));
+    CacheStats stats = cache.stats();
+    assertThat(stats.hitCount(), equalTo(1L));
+    assertThat(stats.hitRate(), equalTo(0.5));
+  }
+
+  @Test
+  void getDistinguishesMessages() {
+    TransactionCache cache = new TransactionCache(2);
+
+    UserTransactionAdapter transaction1 = cache.get(MESSAGE_1, this::newTransaction);
+    UserTransactionAdapter transaction2 = cache.get(MESSAGE_2, this::newTransaction);
+
+    assertThat(transaction2, not(sameInstance(transaction1)));
+    assertThat(cache.size(), equalTo(2L));
+  }
+
+  @Test
+  void getEvictsLeastRecentlyUsed() {
+    TransactionCache cache = new TransactionCache(1);
+
+    cache.get(MESSAGE_1, this::newTransaction);
+    cache.get(MESSAGE_2, this::newTransaction);
+
+    assertThat(cache.size(), equalTo(1L));
+    assertThat(cache.stats().evictionCount(), equalTo(1L));
+  }
+
+  @Test
+  void getDoesNotCacheIfConverterThrows() {
+    TransactionCache cache = new TransactionCache(2);
+
+    assertThrows(IllegalArgumentException.class, () -> cache.get(MESSAGE_1, failingConverter()));
+
+    assertThat(cache.size(), equalTo(0L));
+  }
+
+  @Test
+  void getConvertsOnceForConcurrentCallers() throws Exception {
+    TransactionCache cache = new TransactionCache(2);
+    CountDownLatch converting = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger conversions = new AtomicInteger();
+    Function<byte[], UserTransactionAdapter> blockingConverter = message -> {
+      conversions.incrementAndGet();
+      converting.countDown();
+      Uninterruptibles.awaitUninterruptibly(release);
+      return newTransaction(message);
+    };
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<UserTransactionAdapter> first =
+          executor.submit(() -> cache.get(MESSAGE_1, blockingConverter));
+      converting.await();
+      Future<UserTransactionAdapter> second =
+          executor.submit(() -> cache.get(MESSAGE_1, blockingConverter));
+      release.countDown();
+
+      assertThat(second.get(), sameInstance(first.get()));
+      assertThat(conversions.get(), equalTo(1));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void cannotCreateWithNegativeSize() {
+    assertThrows(IllegalArgumentException.class, () -> new TransactionCache(-1));
+  }
+
+  private UserTransactionAdapter newTransaction(byte[] message) {
+    return new UserTransactionAdapter(mock(Transaction.class), viewFactory);
+  }
+
+  private static Function<byte[], UserTransactionAdapter> failingConverter() {
+    return message -> {
+      throw new IllegalArgumentException("Invalid message");
+    };
+  }
+}
@@ -22,6 +22,7 @@ import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -41,6 +42,7 @@ import com.exonum.binding.service.Service;
 import com.exonum.binding.storage.database.Snapshot;
 import com.exonum.binding.transaction.Transaction;
 import com.exonum.binding.transport.Server;
+import com.google.common.cache.CacheStats;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.impl.RouterImpl;
 import java.util.Arrays;
@@ -98,6 +100,28 @@ class UserServiceAdapterTest {
     assertThat(transactionAdapter.transaction, equalTo(expectedTransaction));
   }
 
+  @Test
+  void convertTransaction_ConvertsSameMessageOnce() {
+    Transaction expectedTransaction = mock(Transaction.class);
+    when(service.getId()).thenReturn(SERVICE_ID);
+    when(service.convertToTransaction(any(BinaryMessage.class)))
+        .thenReturn(expectedTransaction);
+
+    byte[] message = getServiceMessage(SERVICE_ID)
+        .getSignedMessage()
+        .array();
+
+    UserTransactionAdapter transactionAdapter1 = serviceAdapter.convertTransaction(message);
+    UserTransactionAdapter transactionAdapter2 = serviceAdapter.convertTransaction(message.clone());
+
+    assertThat(transactionAdapter2, sameInstance(transactionAdapter1));
+    verify(service).convertToTransaction(any(BinaryMessage.class));
+
+    CacheStats stats = serviceAdapter.getTransactionCacheStats();
+    assertThat(stats.hitCount(), equalTo(1L));
+    assertThat(stats.missCount(), equalTo(1L));
+  }
+
   @Test
   void convertTransaction_InvalidServiceImplReturningNull() {
     when(service.getId()).thenReturn(SERVICE_ID);
@@ -17,13 +17,16 @@
 package com.exonum.binding.service.adapters;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,6 +37,7 @@ import com.exonum.binding.transaction.TransactionExecutionException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -51,9 +55,12 @@ class UserTransactionAdapterTest {
   private UserTransactionAdapter transactionAdapter;
 
   @Test
-  void execute_closesCleanerAfterExecution() throws TransactionExecutionException {
+  void execute_closesCleanerAfterExecution() {
     long forkHandle = 0x0B;
-    transactionAdapter.execute(forkHandle);
+    setupViewFactory(forkHandle);
+    TransactionExecutionException result = transactionAdapter.execute(forkHandle);
+
+    assertThat(result, nullValue());
 
     ArgumentCaptor<Cleaner> ac = ArgumentCaptor.forClass(Cleaner.class);
     verify(viewFactory).createFork(eq(forkHandle), ac.capture());
@@ -63,7 +70,30 @@ class UserTransactionAdapterTest {
   }
 
   @Test
-  void execute_rethrowsExecutionException() throws TransactionExecutionException {
+  void execute_flushesWritesAfterExecution() throws TransactionExecutionException {
+    long forkHandle = 0x0A;
+    Fork fork = setupViewFactory(forkHandle);
+
+    transactionAdapter.execute(forkHandle);
+
+    InOrder inOrder = inOrder(transaction, fork);
+    inOrder.verify(transaction).execute(fork);
+    inOrder.verify(fork).flushWrites();
+  }
+
+  @Test
+  void execute_doesNotFlushWritesIfFailed() throws TransactionExecutionException {
+    long forkHandle = 0x0A;
+    Fork fork = setupViewFactory(forkHandle);
+    doThrow(new TransactionExecutionException((byte) 1)).when(transaction).execute(eq(fork));
+
+    transactionAdapter.execute(forkHandle);
+
+    verify(fork, never()).flushWrites();
+  }
+
+  @Test
+  void execute_returnsExecutionException() throws TransactionExecutionException {
     long forkHandle = 0x0A;
     byte errorCode = 1;
     TransactionExecutionException txError = new TransactionExecutionException(errorCode);
@@ -71,9 +101,22 @@ class UserTransactionAdapterTest {
     Fork fork = setupViewFactory(forkHandle);
     doThrow(txError).when(transaction).execute(eq(fork));
 
-    TransactionExecutionException thrown = assertThrows(TransactionExecutionException.class,
-        () -> transactionAdapter.execute(forkHandle));
-    assertThat(thrown, equalTo(txError));
+    TransactionExecutionException result = transactionAdapter.execute(forkHandle);
+    assertThat(result, equalTo(txError));
+  }
+
+  @Test
+  void execute_returnsStacklessExecutionException() throws TransactionExecutionException {
+    long forkHandle = 0x0A;
+    byte errorCode = 2;
+    TransactionExecutionException txError = new TransactionExecutionException(errorCode,
+        "Preallocated", null, false);
+
+    Fork fork = setupViewFactory(forkHandle);
+    doThrow(txError).when(transaction).execute(eq(fork));
+
+    TransactionExecutionException result = transactionAdapter.execute(forkHandle);
+    assertThat(result, equalTo(txError));
   }
 
   @Test
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.storage.indices;
+
+import static com.exonum.binding.test.Bytes.bytes;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.OptionalLong;
+import org.junit.jupiter.api.Test;
+
+class AggregationTest {
+
+  @Test
+  void prefixUpperBoundIncrementsLastByte() {
+    assertThat(Aggregation.prefixUpperBound(bytes(0x01, 0x02)), equalTo(bytes(0x01, 0x03)));
+  }
+
+  @Test
+  void prefixUpperBoundDropsTrailingMaxBytes() {
+    assertThat(Aggregation.prefixUpperBound(bytes(0x01, 0xFF, 0xFF)), equalTo(bytes(0x02)));
+  }
+
+  @Test
+  void prefixUpperBoundOfMaxBytesIsUnbounded() {
+    assertThat(Aggregation.prefixUpperBound(bytes(0xFF, 0xFF)), nullValue());
+  }
+
+  @Test
+  void prefixUpperBoundOfEmptyPrefixIsUnbounded() {
+    assertThat(Aggregation.prefixUpperBound(new byte[0]), nullValue());
+  }
+
+  @Test
+  void toOptional() {
+    assertThat(Aggregation.toOptional(null), equalTo(OptionalLong.empty()));
+    assertThat(Aggregation.toOptional(3L), equalTo(OptionalLong.of(3L)));
+  }
+}
@@ -36,6 +36,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.OptionalLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import org.junit.jupiter.api.Test;
@@ -48,6 +49,11 @@ abstract class BaseListIndexIntegrationTestable
 
   private static final String LIST_NAME = "test_list";
 
+  /**
+   * Creates a list of signed 64-bit little-endian numbers.
+   */
+  abstract AbstractListIndexProxy<Long> createNumeric(String name, View view);
+
   @Test
   void addSingleElementToEmptyList() {
     runTestWithView(database::createFork, (l) -> {
@@ -301,6 +307,84 @@ abstract class BaseListIndexIntegrationTestable
     });
   }
 
+  @Test
+  void iteratorFromIndex() {
+    runTestWithView(database::createFork, (l) -> {
+      List<String> elements = TestStorageItems.values;
+
+      l.addAll(elements);
+
+      int fromIndex = 2;
+      Iterator<String> iterator = l.iterator(fromIndex);
+      List<String> iterElements = ImmutableList.copyOf(iterator);
+
+      assertThat(iterElements, equalTo(elements.subList(fromIndex, elements.size())));
+    });
+  }
+
+  @Test
+  void iteratorFromIndexPastTheEnd() {
+    runTestWithView(database::createFork, (l) -> {
+      List<String> elements = TestStorageItems.values;
+
+      l.addAll(elements);
+
+      Iterator<String> iterator = l.iterator(elements.size());
+
+      assertFalse(iterator.hasNext());
+    });
+  }
+
+  @Test
+  void iteratorFromNegativeIndex() {
+    runTestWithView(database::createFork, (l) -> {
+      assertThrows(IllegalArgumentException.class, () -> l.iterator(-1L));
+    });
+  }
+
+  @Test
+  void aggregateValuesOfEmptyList() {
+    runTestWithNumericView(database::createSnapshot, (l) -> {
+      assertThat(l.sumValues(), equalTo(0L));
+      assertThat(l.minValue(), equalTo(OptionalLong.empty()));
+      assertThat(l.maxValue(), equalTo(OptionalLong.empty()));
+    });
+  }
+
+  @Test
+  void aggregateValues() {
+    runTestWithNumericView(database::createFork, (l) -> {
+      l.addAll(asList(10L, -3L, 7L, 2L));
+
+      assertThat(l.sumValues(), equalTo(16L));
+      assertThat(l.minValue(), equalTo(OptionalLong.of(-3L)));
+      assertThat(l.maxValue(), equalTo(OptionalLong.of(10L)));
+    });
+  }
+
+  @Test
+  void aggregateValuesInIndexRange() {
+    runTestWithNumericView(database::createFork, (l) -> {
+      l.addAll(asList(10L, -3L, 7L, 2L));
+
+      assertThat(l.sumValues(1, 3, 0), equalTo(4L));
+      assertThat(l.minValue(2, 4, 0), equalTo(OptionalLong.of(2L)));
+      assertThat(l.maxValue(1, 4, 0), equalTo(OptionalLong.of(7L)));
+      assertThat(l.maxValue(2, 2, 0), equalTo(OptionalLong.empty()));
+    });
+  }
+
+  @Test
+  void aggregateValuesShouldThrowIfRangeOutOfBounds() {
+    runTestWithNumericView(database::createFork, (l) -> {
+      l.addAll(asList(10L, -3L));
+
+      assertThrows(IndexOutOfBoundsException.class, () -> l.sumValues(0, 3, 0));
+      assertThrows(IndexOutOfBoundsException.class, () -> l.sumValues(-1, 1, 0));
+      assertThrows(IndexOutOfBoundsException.class, () -> l.sumValues(2, 1, 0));
+    });
+  }
+
   private void runTestWithView(Function<Cleaner, View> viewFactory,
       Consumer<ListIndex<String>> listTest) {
     try (Cleaner cleaner = new Cleaner()) {
@@ -312,4 +396,16 @@ abstract class BaseListIndexIntegrationTestable
       throw new RuntimeException(e);
     }
   }
+
+  private void runTestWithNumericView(Function<Cleaner, View> viewFactory,
+      Consumer<AbstractListIndexProxy<Long>> listTest) {
+    try (Cleaner cleaner = new Cleaner()) {
+      View view = viewFactory.apply(cleaner);
+      AbstractListIndexProxy<Long> list = this.createNumeric(LIST_NAME, view);
+
+      listTest.accept(list);
+    } catch (CloseFailuresException e) {
+      throw new RuntimeException(e);
+    }
+  }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.storage.indices;
+
+import static com.exonum.binding.test.Bytes.bytes;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class IndexDiffsTest {
+
+  private static final Function<byte[], String> TO_STRING =
+      b -> new String(b, StandardCharsets.UTF_8);
+
+  @Test
+  void decodeNoDifferences() {
+    List<DiffEntry<String, String>> diff = IndexDiffs.decode(new byte[4], TO_STRING, TO_STRING);
+
+    assertThat(diff, empty());
+  }
+
+  @Test
+  void decodeDifferences() {
+    byte[] encodedDiff = new DiffBytes(3)
+        .entry(0, "k1", "v1")
+        .entry(1, "k2", "v2")
+        .entry(2, "k3", "v3", "v4")
+        .toByteArray();
+
+    List<DiffEntry<String, String>> diff = IndexDiffs.decode(encodedDiff, TO_STRING, TO_STRING);
+
+    assertThat(diff, equalTo(ImmutableList.of(
+        DiffEntry.added("k1", "v1"),
+        DiffEntry.removed("k2", "v2"),
+        DiffEntry.changed("k3", "v3", "v4"))));
+  }
+
+  @Test
+  void decodeFailsIfUnknownType() {
+    byte[] encodedDiff = new DiffBytes(1)
+        .entry(3, "k1", "v1")
+        .toByteArray();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> IndexDiffs.decode(encodedDiff, TO_STRING, TO_STRING));
+  }
+
+  @Test
+  void decodeFailsIfTruncated() {
+    byte[] encodedDiff = new DiffBytes(2)
+        .entry(0, "k1", "v1")
+        .toByteArray();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> IndexDiffs.decode(encodedDiff, TO_STRING, TO_STRING));
+  }
+
+  @Test
+  void decodeFailsIfTrailingBytes() {
+    byte[] encodedDiff = new DiffBytes(0)
+        .entry(0, "k1", "v1")
+        .toByteArray();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> IndexDiffs.decode(encodedDiff, TO_STRING, TO_STRING));
+  }
+
+  @Test
+  void decodeIndex() {
+    assertThat(IndexDiffs.decodeIndex(bytes(0x01, 0x02, 0, 0, 0, 0, 0, 0)), equalTo(0x0201L));
+  }
+
+  @Test
+  void decodeIndexFailsIfInvalidSize() {
+    assertThrows(IllegalArgumentException.class, () -> IndexDiffs.decodeIndex(bytes(0x01)));
+  }
+
+  /**
+   * Encodes the differences in the format produced by the native code.
+   */
+  private static class DiffBytes {
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(1024)
+        .order(ByteOrder.LITTLE_ENDIAN);
+
+    DiffBytes(int numEntries) {
+      buffer.putInt(numEntries);
+    }
+
+    DiffBytes entry(int type, String key, String... values) {
+      buffer.put((byte) type);
+      putBytes(key);
+      for (String value : values) {
+        putBytes(value);
+      }
+      return this;
+    }
+
+    private void putBytes(String s) {
+      byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+      buffer.putInt(bytes.length);
+      buffer.put(bytes);
+    }
+
+    byte[] toByteArray() {
+      byte[] result = new byte[buffer.position()];
+      buffer.flip();
+      buffer.get(result);
+      return result;
+    }
+  }
+}
@@ -44,6 +44,11 @@ class ListIndexProxyIntegrationTest extends BaseListIndexIntegrationTestable {
     return ListIndexProxy.newInstance(name, view, StandardSerializers.string());
   }
 
+  @Override
+  ListIndexProxy<Long> createNumeric(String name, View view) {
+    return ListIndexProxy.newInstance(name, view, StandardSerializers.fixed64());
+  }
+
   @Override
   Object getAnyElement(AbstractListIndexProxy<String> index) {
     return index.get(0L);
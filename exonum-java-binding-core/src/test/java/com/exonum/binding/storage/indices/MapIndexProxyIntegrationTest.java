@@ -19,11 +19,14 @@ package com.exonum.binding.storage.indices;
 import static com.exonum.binding.storage.indices.MapEntries.putAll;
 import static com.exonum.binding.storage.indices.TestStorageItems.K1;
 import static com.exonum.binding.storage.indices.TestStorageItems.K2;
+import static com.exonum.binding.storage.indices.TestStorageItems.K3;
 import static com.exonum.binding.storage.indices.TestStorageItems.V1;
 import static com.exonum.binding.storage.indices.TestStorageItems.V2;
 import static com.exonum.binding.storage.indices.TestStorageItems.V3;
 import static com.exonum.binding.storage.indices.TestStorageItems.V4;
+import static com.exonum.binding.test.Bytes.bytes;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.primitives.Bytes.concat;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -32,6 +35,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.exonum.binding.common.collect.MapEntry;
+import com.exonum.binding.common.serialization.Serializer;
 import com.exonum.binding.common.serialization.StandardSerializers;
 import com.exonum.binding.proxy.Cleaner;
 import com.exonum.binding.proxy.CloseFailuresException;
@@ -48,6 +52,7 @@ import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -468,6 +473,117 @@ class MapIndexProxyIntegrationTest
     });
   }
 
+  @Test
+  void countShouldReturnZeroForEmptyMap() {
+    runTestWithView(database::createSnapshot, (map) -> assertThat(map.count(), equalTo(0L)));
+  }
+
+  @Test
+  void countShouldReturnNumberOfEntries() {
+    runTestWithView(database::createFork, (map) -> {
+      putAll(map, createMapEntries(5));
+
+      assertThat(map.count(), equalTo(5L));
+    });
+  }
+
+  @Test
+  void countKeysWithPrefixShouldCountOnlyPrefixedKeys() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put("a", V1);
+      map.put("ba", V2);
+      map.put("bb", V3);
+      map.put("c", V4);
+
+      assertThat(map.countKeysWithPrefix(bytes("b")), equalTo(2L));
+      assertThat(map.countKeysWithPrefix(bytes("bb")), equalTo(1L));
+      assertThat(map.countKeysWithPrefix(bytes("d")), equalTo(0L));
+      assertThat(map.countKeysWithPrefix(new byte[0]), equalTo(4L));
+    });
+  }
+
+  @Test
+  void sumMinMaxValuesOfEmptyMap() {
+    runTestWithNumericView(database::createSnapshot, (map) -> {
+      assertThat(map.sumValues(), equalTo(0L));
+      assertThat(map.minValue(), equalTo(OptionalLong.empty()));
+      assertThat(map.maxValue(), equalTo(OptionalLong.empty()));
+    });
+  }
+
+  @Test
+  void sumMinMaxValues() {
+    runTestWithNumericView(database::createFork, (map) -> {
+      map.put(K1, 10L);
+      map.put(K2, -3L);
+      map.put(K3, 7L);
+
+      assertThat(map.sumValues(), equalTo(14L));
+      assertThat(map.minValue(), equalTo(OptionalLong.of(-3L)));
+      assertThat(map.maxValue(), equalTo(OptionalLong.of(10L)));
+    });
+  }
+
+  @Test
+  void countKeysWithPrefixOfMaxBytes() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork fork = database.createFork(cleaner);
+      MapIndexProxy<byte[], String> map = MapIndexProxy.newInstance(MAP_NAME, fork,
+          StandardSerializers.bytes(), StandardSerializers.string());
+      map.put(bytes(0xFE), V1);
+      map.put(bytes(0xFF), V2);
+      map.put(bytes(0xFF, 0xFF, 0x01), V3);
+
+      assertThat(map.countKeysWithPrefix(bytes(0xFF)), equalTo(2L));
+      assertThat(map.countKeysWithPrefix(bytes(0xFF, 0xFF)), equalTo(1L));
+    }
+  }
+
+  @Test
+  void aggregateValuesInKeyRange() {
+    runTestWithNumericView(database::createFork, (map) -> {
+      map.put("a", 10L);
+      map.put("b", -3L);
+      map.put("c", 7L);
+
+      assertThat(map.count("a", "c"), equalTo(2L));
+      assertThat(map.sumValues("b", "d", 0), equalTo(4L));
+      assertThat(map.minValue("a", "b", 0), equalTo(OptionalLong.of(10L)));
+      assertThat(map.maxValue("b", "c", 0), equalTo(OptionalLong.of(-3L)));
+      assertThat(map.maxValue("c", "a", 0), equalTo(OptionalLong.empty()));
+    });
+  }
+
+  @Test
+  void sumValuesAtOffset() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork fork = database.createFork(cleaner);
+      MapIndexProxy<String, byte[]> map = MapIndexProxy.newInstance(MAP_NAME, fork,
+          StandardSerializers.string(), StandardSerializers.bytes());
+      Serializer<Long> numbers = StandardSerializers.fixed64();
+      map.put(K1, concat(bytes(0x01, 0x02), numbers.toBytes(5L)));
+      map.put(K2, concat(bytes(0x03, 0x04), numbers.toBytes(6L), bytes(0x05)));
+
+      assertThat(map.sumValues(2), equalTo(11L));
+      assertThat(map.maxValue(2), equalTo(OptionalLong.of(6L)));
+    }
+  }
+
+  @Test
+  void sumValuesShouldThrowIfNegativeOffset() {
+    runTestWithNumericView(database::createSnapshot, (map) ->
+        assertThrows(IllegalArgumentException.class, () -> map.sumValues(-1)));
+  }
+
+  @Test
+  void sumValuesShouldThrowIfValueTooShort() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(K1, V1);
+
+      assertThrows(RuntimeException.class, map::sumValues);
+    });
+  }
+
   private static void runTestWithView(Function<Cleaner, View> viewFactory,
       Consumer<MapIndexProxy<String, String>> mapTest) {
     runTestWithView(viewFactory, (ignoredView, map) -> mapTest.accept(map));
@@ -485,6 +601,19 @@ class MapIndexProxyIntegrationTest
     }
   }
 
+  private static void runTestWithNumericView(Function<Cleaner, View> viewFactory,
+      Consumer<MapIndexProxy<String, Long>> mapTest) {
+    try (Cleaner cleaner = new Cleaner()) {
+      View view = viewFactory.apply(cleaner);
+      MapIndexProxy<String, Long> map = MapIndexProxy.newInstance(MAP_NAME, view,
+          StandardSerializers.string(), StandardSerializers.fixed64());
+
+      mapTest.accept(map);
+    } catch (CloseFailuresException e) {
+      throw new AssertionError("Unexpected exception", e);
+    }
+  }
+
   @Override
   MapIndexProxy<String, String> create(String name, View view) {
     return createMap(name, view);
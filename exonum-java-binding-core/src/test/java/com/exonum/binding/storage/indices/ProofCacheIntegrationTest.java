@@ -0,0 +1,203 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.storage.indices;
+
+import static com.exonum.binding.storage.indices.ProofMapIndexProxyIntegrationTest.PK1;
+import static com.exonum.binding.storage.indices.ProofMapIndexProxyIntegrationTest.PK2;
+import static com.exonum.binding.storage.indices.ProofMapIndexProxyIntegrationTest.PK3;
+import static com.exonum.binding.storage.indices.TestStorageItems.V1;
+import static com.exonum.binding.storage.indices.TestStorageItems.V2;
+import static com.exonum.binding.storage.indices.TestStorageItems.values;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singleton;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.proofs.list.CheckedListProof;
+import com.exonum.binding.common.proofs.map.CheckedMapProof;
+import com.exonum.binding.common.serialization.StandardSerializers;
+import com.exonum.binding.proxy.Cleaner;
+import com.exonum.binding.proxy.CloseFailuresException;
+import com.exonum.binding.storage.database.Fork;
+import com.exonum.binding.storage.database.MemoryDb;
+import com.exonum.binding.util.LibraryLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.ByteString;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProofCacheIntegrationTest {
+
+  static {
+    LibraryLoader.load();
+  }
+
+  private MemoryDb database;
+
+  private ProofCache cache;
+
+  @BeforeEach
+  void setUp() {
+    database = MemoryDb.newInstance();
+    cache = new ProofCache();
+  }
+
+  @AfterEach
+  void tearDown() {
+    database.close();
+  }
+
+  @Test
+  void getMapProofCachesOnMiss() throws CloseFailuresException {
+    runWithMap(map -> {
+      map.put(PK1, V1);
+
+      CheckedMapProof proof = cache.getProof(map, singleton(PK1)).check();
+
+      assertTrue(proof.isValid());
+      assertThat(proof.getRootHash(), equalTo(map.getRootHash()));
+      ByteString key = ByteString.copyFrom(PK1.asBytes());
+      assertThat(proof.get(key), equalTo(ByteString.copyFromUtf8(V1)));
+      assertThat(cache.size(), equalTo(1L));
+      assertThat(cache.stats().missCount(), equalTo(1L));
+    });
+  }
+
+  @Test
+  void getMapProofReturnsCachedOnHit() throws CloseFailuresException {
+    runWithMap(map -> {
+      map.put(PK1, V1);
+      map.put(PK2, V2);
+
+      cache.getProof(map, asList(PK1, PK2));
+      CheckedMapProof proof = cache.getProof(map, asList(PK2, PK1, PK2)).check();
+
+      assertTrue(proof.isValid());
+      assertThat(proof.getRootHash(), equalTo(map.getRootHash()));
+      CacheStats stats = cache.stats();
+      assertThat(stats.hitCount(), equalTo(1L));
+      assertThat(stats.missCount(), equalTo(1L));
+    });
+  }
+
+  @Test
+  void getMapProofRecomputesAfterModification() throws CloseFailuresException {
+    runWithMap(map -> {
+      map.put(PK1, V1);
+      cache.getProof(map, singleton(PK1));
+
+      map.put(PK2, V2);
+      CheckedMapProof proof = cache.getProof(map, singleton(PK1)).check();
+
+      assertThat(proof.getRootHash(), equalTo(map.getRootHash()));
+      assertThat(cache.stats().missCount(), equalTo(2L));
+    });
+  }
+
+  @Test
+  void getMapProofRejectsEmptyKeys() throws CloseFailuresException {
+    runWithMap(map ->
+        assertThrows(IllegalArgumentException.class, () -> cache.getProof(map, emptyList())));
+  }
+
+  @Test
+  void warmUpCachesProofsOfHotKeys() throws CloseFailuresException {
+    runWithMap(map -> {
+      map.put(PK1, V1);
+      map.put(PK2, V2);
+
+      cache.warmUp(map, asList(PK1, PK2, PK3));
+      CheckedMapProof proof = cache.getProof(map, singleton(PK3)).check();
+
+      assertTrue(proof.isValid());
+      assertThat(proof.getMissingKeys(), equalTo(singleton(ByteString.copyFrom(PK3.asBytes()))));
+      assertThat(cache.size(), equalTo(3L));
+      assertThat(cache.stats().hitCount(), equalTo(1L));
+    });
+  }
+
+  @Test
+  void getListProofReturnsCachedOnHit() throws CloseFailuresException {
+    runWithList(list -> {
+      list.addAll(values);
+
+      cache.getProof(list, 0, 2);
+      CheckedListProof proof = cache.getProof(list, 2, 0).check();
+
+      assertTrue(proof.isValid());
+      assertThat(proof.getRootHash(), equalTo(list.getRootHash()));
+      assertThat(proof.getElements(), equalTo(ImmutableMap.of(0L, values.get(0),
+          2L, values.get(2))));
+      assertThat(cache.stats().hitCount(), equalTo(1L));
+    });
+  }
+
+  @Test
+  void getListRangeProofReturnsCachedOnHit() throws CloseFailuresException {
+    runWithList(list -> {
+      list.addAll(values);
+
+      cache.getRangeProof(list, 1, 3);
+      CheckedListProof proof = cache.getRangeProof(list, 1, 3).check();
+
+      assertTrue(proof.isValid());
+      assertThat(proof.getElements(), equalTo(ImmutableMap.of(1L, values.get(1),
+          2L, values.get(2))));
+      CacheStats stats = cache.stats();
+      assertThat(stats.hitCount(), equalTo(1L));
+      assertThat(stats.missCount(), equalTo(1L));
+    });
+  }
+
+  @Test
+  void getListProofRejectsInvalidIndex() throws CloseFailuresException {
+    runWithList(list -> {
+      list.add(V1);
+
+      assertThrows(IndexOutOfBoundsException.class, () -> cache.getProof(list, 1));
+      assertThat(cache.size(), equalTo(0L));
+    });
+  }
+
+  private void runWithMap(Consumer<ProofMapIndexProxy<HashCode, String>> test)
+      throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork fork = database.createFork(cleaner);
+      ProofMapIndexProxy<HashCode, String> map = ProofMapIndexProxy.newInstance("map", fork,
+          StandardSerializers.hash(), StandardSerializers.string());
+      test.accept(map);
+    }
+  }
+
+  private void runWithList(Consumer<ProofListIndexProxy<String>> test)
+      throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork fork = database.createFork(cleaner);
+      ProofListIndexProxy<String> list = ProofListIndexProxy.newInstance("list", fork,
+          StandardSerializers.string());
+      test.accept(list);
+    }
+  }
+}
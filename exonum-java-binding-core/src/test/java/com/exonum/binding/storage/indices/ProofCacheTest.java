@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.storage.indices;
+
+import static com.exonum.binding.test.Bytes.bytes;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.protobuf.ByteString;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class ProofCacheTest {
+
+  private static final ByteString CACHE_KEY = ByteString.copyFrom(bytes(1, 2, 3));
+  private static final byte[] PROOF = bytes(4, 5, 6);
+
+  @Test
+  void getRequestsProofOnMiss() {
+    ProofCache cache = new ProofCache();
+
+    byte[] proof = cache.get(CACHE_KEY, () -> PROOF);
+
+    assertThat(proof, sameInstance(PROOF));
+    assertThat(cache.size(), equalTo(1L));
+    assertThat(cache.stats().missCount(), equalTo(1L));
+  }
+
+  @Test
+  void getReturnsCachedOnHit() {
+    ProofCache cache = new ProofCache();
+
+    cache.get(CACHE_KEY, () -> PROOF);
+    byte[] proof = cache.get(CACHE_KEY, failingSupplier());
+
+    assertThat(proof, sameInstance(PROOF));
+    CacheStats stats = cache.stats();
+    assertThat(stats.hitCount(), equalTo(1L));
+    assertThat(stats.missCount(), equalTo(1L));
+  }
+
+  @Test
+  void getDoesNotCacheIfSupplierThrows() {
+    ProofCache cache = new ProofCache();
+
+    assertThrows(IllegalStateException.class, () -> cache.get(CACHE_KEY, failingSupplier()));
+
+    assertThat(cache.size(), equalTo(0L));
+  }
+
+  @Test
+  void getRequestsProofOnceForConcurrentCallers() throws Exception {
+    ProofCache cache = new ProofCache();
+    CountDownLatch requesting = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger requests = new AtomicInteger();
+    Supplier<byte[]> blockingSupplier = () -> {
+      requests.incrementAndGet();
+      requesting.countDown();
+      Uninterruptibles.awaitUninterruptibly(release);
+      return PROOF.clone();
+    };
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<byte[]> first = executor.submit(() -> cache.get(CACHE_KEY, blockingSupplier));
+      requesting.await();
+      Future<byte[]> second = executor.submit(() -> cache.get(CACHE_KEY, blockingSupplier));
+      release.countDown();
+
+      assertThat(second.get(), sameInstance(first.get()));
+      assertThat(requests.get(), equalTo(1));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void cannotCreateWithNegativeSize() {
+    assertThrows(IllegalArgumentException.class, () -> new ProofCache(-1));
+  }
+
+  private static Supplier<byte[]> failingSupplier() {
+    return () -> {
+      throw new IllegalStateException("Index is not valid");
+    };
+  }
+}
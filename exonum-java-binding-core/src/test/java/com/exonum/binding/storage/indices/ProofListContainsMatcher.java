@@ -137,4 +137,25 @@ class ProofListContainsMatcher extends TypeSafeMatcher<ProofListIndexProxy<Strin
     }
     return new ProofListContainsMatcher(proofFunction, expectedProofElements);
   }
+
+  /**
+   * Creates a matcher for a proof list that will match iff the list contains the specified values
+   * at the specified positions and provides a <em>valid</em> cryptographic proof of that.
+   *
+   * <p>The proof is obtained via {@link ProofListIndexProxy#getProof(long...)}.
+   *
+   * @param expectedElements the elements, that are expected to be in the list, by their indices
+   * @throws IllegalArgumentException if the map is empty
+   */
+  public static ProofListContainsMatcher provesThatContains(Map<Long, String> expectedElements) {
+    checkArgument(!expectedElements.isEmpty(), "Empty map of expected elements");
+
+    long[] indices = expectedElements.keySet().stream()
+        .mapToLong(Long::longValue)
+        .toArray();
+    Function<ProofListIndexProxy<String>, UncheckedListProof> proofFunction =
+        (list) -> list.getProof(indices);
+
+    return new ProofListContainsMatcher(proofFunction, new TreeMap<>(expectedElements));
+  }
 }
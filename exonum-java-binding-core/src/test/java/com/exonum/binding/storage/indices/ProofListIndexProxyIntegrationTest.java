@@ -20,17 +20,31 @@ import static com.exonum.binding.common.hash.Hashing.DEFAULT_HASH_SIZE_BITS;
 import static com.exonum.binding.common.hash.Hashing.DEFAULT_HASH_SIZE_BYTES;
 import static com.exonum.binding.storage.indices.ProofListContainsMatcher.provesThatContains;
 import static com.exonum.binding.storage.indices.TestStorageItems.V1;
+import static com.exonum.binding.storage.indices.TestStorageItems.V2;
+import static com.exonum.binding.storage.indices.TestStorageItems.V3;
+import static com.exonum.binding.storage.indices.TestStorageItems.V4;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNot.not;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.proofs.list.CheckedListProof;
+import com.exonum.binding.common.proofs.list.ListMerkleRoot;
+import com.exonum.binding.common.proofs.list.UncheckedListProof;
 import com.exonum.binding.common.serialization.StandardSerializers;
 import com.exonum.binding.proxy.Cleaner;
+import com.exonum.binding.proxy.CloseFailuresException;
+import com.exonum.binding.storage.database.Fork;
 import com.exonum.binding.storage.database.View;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -55,6 +69,11 @@ class ProofListIndexProxyIntegrationTest extends BaseListIndexIntegrationTestabl
     return ProofListIndexProxy.newInstance(name, view, StandardSerializers.string());
   }
 
+  @Override
+  ProofListIndexProxy<Long> createNumeric(String name, View view) {
+    return ProofListIndexProxy.newInstance(name, view, StandardSerializers.fixed64());
+  }
+
   @Override
   Object getAnyElement(AbstractListIndexProxy<String> index) {
     return index.get(0L);
@@ -78,6 +97,24 @@ class ProofListIndexProxyIntegrationTest extends BaseListIndexIntegrationTestabl
     });
   }
 
+  @Test
+  void getRootHashIsEqualToListMerkleRoot() {
+    runTestWithView(database::createFork, (list) -> {
+      List<byte[]> elements = new ArrayList<>();
+      // Check lists of various sizes, including the ones large enough to be hashed in parallel
+      int maxSize = 2051;
+      for (int size = 1; size <= maxSize; size++) {
+        String element = "element #" + size;
+        list.add(element);
+        elements.add(StandardSerializers.string().toBytes(element));
+
+        if (size < 70 || size % 512 == 0 || size % 512 == 3) {
+          assertThat(ListMerkleRoot.of(elements), equalTo(list.getRootHash()));
+        }
+      }
+    });
+  }
+
   @Test
   void getProofFailsIfEmptyList() {
     runTestWithView(database::createSnapshot,
@@ -149,6 +186,114 @@ class ProofListIndexProxyIntegrationTest extends BaseListIndexIntegrationTestabl
     });
   }
 
+  @Test
+  void getMultiProofScatteredElements() {
+    runTestWithView(database::createFork, (list) -> {
+      List<String> values = TestStorageItems.values;
+      list.addAll(values);
+
+      Map<Long, String> expectedElements = new TreeMap<>();
+      for (int i = 0; i < values.size(); i += 3) {
+        expectedElements.put((long) i, values.get(i));
+      }
+      assertThat(list, provesThatContains(expectedElements));
+    });
+  }
+
+  @Test
+  void getMultiProofUnsortedIndicesWithDuplicates() {
+    runTestWithView(database::createFork, (list) -> {
+      List<String> values = TestStorageItems.values;
+      list.addAll(values);
+
+      int last = values.size() - 1;
+      UncheckedListProof proof = list.getProof(last, 0, 1, last, 0);
+      CheckedListProof checkedProof = proof.check();
+
+      assertTrue(checkedProof.isValid());
+      assertThat(checkedProof.getRootHash(), equalTo(list.getRootHash()));
+      assertThat(checkedProof.getElements(), equalTo(ImmutableMap.of(
+          0L, values.get(0),
+          1L, values.get(1),
+          (long) last, values.get(last))));
+    });
+  }
+
+  @Test
+  void getMultiProofNonAdjacentElements() {
+    runTestWithView(database::createFork, (list) -> {
+      List<String> values = TestStorageItems.values;
+      list.addAll(values);
+
+      UncheckedListProof proof = list.getProof(1, 4, 6);
+      CheckedListProof checkedProof = proof.check();
+
+      assertTrue(checkedProof.isValid());
+      assertThat(checkedProof.getRootHash(), equalTo(list.getRootHash()));
+      assertThat(checkedProof.getElements(), equalTo(ImmutableMap.of(
+          1L, values.get(1),
+          4L, values.get(4),
+          6L, values.get(6))));
+    });
+  }
+
+  @Test
+  void getMultiProofFailsIfNoIndices() {
+    runTestWithView(database::createFork, (list) -> {
+      list.add(V1);
+
+      assertThrows(IllegalArgumentException.class, () -> list.getProof(new long[0]));
+    });
+  }
+
+  @Test
+  void getMultiProofFailsIfInvalidIndex() {
+    runTestWithView(database::createFork, (list) -> {
+      list.add(V1);
+
+      assertThrows(IndexOutOfBoundsException.class, () -> list.getProof(0, 1));
+    });
+  }
+
+  @Test
+  void diffOfSameStatesIsEmpty() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork fork = database.createFork(cleaner);
+      ProofListIndexProxy<String> list = create(LIST_NAME, fork);
+      list.add(V1);
+      database.merge(fork);
+
+      ProofListIndexProxy<String> oldList = create(LIST_NAME, database.createSnapshot(cleaner));
+      ProofListIndexProxy<String> newList = create(LIST_NAME, database.createFork(cleaner));
+
+      assertThat(oldList.diff(newList), equalTo(ImmutableList.of()));
+    }
+  }
+
+  @Test
+  void diffOfDifferentStates() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork fork = database.createFork(cleaner);
+      ProofListIndexProxy<String> list = create(LIST_NAME, fork);
+      list.add(V1);
+      list.add(V2);
+      database.merge(fork);
+
+      ProofListIndexProxy<String> oldList = create(LIST_NAME, database.createSnapshot(cleaner));
+      ProofListIndexProxy<String> newList = create(LIST_NAME, database.createFork(cleaner));
+      newList.set(1, V3);
+      newList.add(V4);
+
+      List<DiffEntry<Long, String>> expected = ImmutableList.of(
+          DiffEntry.changed(1L, V2, V3),
+          DiffEntry.added(2L, V4));
+      assertThat(oldList.diff(newList), equalTo(expected));
+      assertThat(newList.diff(oldList), equalTo(ImmutableList.of(
+          DiffEntry.changed(1L, V3, V2),
+          DiffEntry.removed(2L, V4))));
+    }
+  }
+
   private static void runTestWithView(Function<Cleaner, View> viewFactory,
       Consumer<ProofListIndexProxy<String>> listTest) {
     runTestWithView(viewFactory, (ignoredView, list) -> listTest.accept(list));
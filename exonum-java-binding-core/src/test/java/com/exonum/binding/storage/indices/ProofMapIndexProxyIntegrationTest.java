@@ -53,6 +53,8 @@ import com.exonum.binding.common.proofs.map.UncheckedMapProof;
 import com.exonum.binding.common.serialization.StandardSerializers;
 import com.exonum.binding.proxy.Cleaner;
 import com.exonum.binding.proxy.CloseFailuresException;
+import com.exonum.binding.storage.database.Fork;
+import com.exonum.binding.storage.database.Snapshot;
 import com.exonum.binding.storage.database.View;
 import com.exonum.binding.test.Bytes;
 import com.google.common.collect.ImmutableList;
@@ -66,6 +68,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -206,6 +209,58 @@ class ProofMapIndexProxyIntegrationTest
     });
   }
 
+  @Test
+  void getAll() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(PK1, V1);
+      map.put(PK3, V3);
+
+      Map<HashCode, String> values = map.getAll(ImmutableList.of(PK3, PK2, PK1));
+
+      assertThat(values, equalTo(ImmutableMap.of(PK3, V3, PK1, V1)));
+      assertThat(ImmutableList.copyOf(values.keySet()), equalTo(ImmutableList.of(PK3, PK1)));
+    });
+  }
+
+  @Test
+  void getAllAbsentKeys() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(PK1, V1);
+
+      Map<HashCode, String> values = map.getAll(ImmutableList.of(PK2, PK3));
+
+      assertTrue(values.isEmpty());
+    });
+  }
+
+  @Test
+  void getAllDuplicateKeys() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(PK1, V1);
+      map.put(PK2, V2);
+
+      Map<HashCode, String> values = map.getAll(ImmutableList.of(PK2, PK1, PK2, PK3, PK1));
+
+      assertThat(values, equalTo(ImmutableMap.of(PK2, V2, PK1, V1)));
+      assertThat(ImmutableList.copyOf(values.keySet()), equalTo(ImmutableList.of(PK2, PK1)));
+    });
+  }
+
+  @Test
+  void getAllNoKeys() {
+    runTestWithView(database::createSnapshot, (map) -> {
+      Map<HashCode, String> values = map.getAll(Collections.emptyList());
+
+      assertTrue(values.isEmpty());
+    });
+  }
+
+  @Test
+  void getAllThrowsIfInvalidKey() {
+    runTestWithView(database::createSnapshot, (map) -> assertThrows(IllegalArgumentException.class,
+        () -> map.getAll(ImmutableList.of(PK1, INVALID_PROOF_KEY))));
+  }
+
   @Test
   void getRootHash_EmptyMap() {
     runTestWithView(database::createSnapshot,
@@ -741,6 +796,134 @@ class ProofMapIndexProxyIntegrationTest
     });
   }
 
+  @Test
+  void countShouldReturnNumberOfEntries() {
+    runTestWithView(database::createFork, (map) -> {
+      assertThat(map.count(), equalTo(0L));
+
+      map.put(PK1, V1);
+      map.put(PK2, V2);
+
+      assertThat(map.count(), equalTo(2L));
+    });
+  }
+
+  @Test
+  void countKeysWithPrefixShouldCountOnlyPrefixedKeys() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(HashCode.fromBytes(createPrefixed(bytes(0x01, 0x01), PROOF_MAP_KEY_SIZE)), V1);
+      map.put(HashCode.fromBytes(createPrefixed(bytes(0x01, 0x02), PROOF_MAP_KEY_SIZE)), V2);
+      map.put(HashCode.fromBytes(createPrefixed(bytes(0x02), PROOF_MAP_KEY_SIZE)), V3);
+
+      assertThat(map.countKeysWithPrefix(bytes(0x01)), equalTo(2L));
+      assertThat(map.countKeysWithPrefix(bytes(0x01, 0x02)), equalTo(1L));
+      assertThat(map.countKeysWithPrefix(bytes(0x03)), equalTo(0L));
+    });
+  }
+
+  @Test
+  void countKeysWithPrefixShouldThrowIfPrefixTooLong() {
+    runTestWithView(database::createSnapshot, (map) ->
+        assertThrows(IllegalArgumentException.class,
+            () -> map.countKeysWithPrefix(new byte[PROOF_MAP_KEY_SIZE + 1])));
+  }
+
+  @Test
+  void sumMinMaxValues() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork fork = database.createFork(cleaner);
+      ProofMapIndexProxy<HashCode, Long> map = ProofMapIndexProxy.newInstance(MAP_NAME, fork,
+          StandardSerializers.hash(), StandardSerializers.fixed64());
+
+      assertThat(map.sumValues(), equalTo(0L));
+      assertThat(map.minValue(), equalTo(OptionalLong.empty()));
+
+      map.put(PK1, 4L);
+      map.put(PK2, -1L);
+
+      assertThat(map.sumValues(), equalTo(3L));
+      assertThat(map.minValue(), equalTo(OptionalLong.of(-1L)));
+      assertThat(map.maxValue(), equalTo(OptionalLong.of(4L)));
+    }
+  }
+
+  @Test
+  void countKeysWithPrefixOfMaxBytes() {
+    runTestWithView(database::createFork, (map) -> {
+      map.put(HashCode.fromBytes(createPrefixed(bytes(0xFE), PROOF_MAP_KEY_SIZE)), V1);
+      map.put(HashCode.fromBytes(createPrefixed(bytes(0xFF, 0x01), PROOF_MAP_KEY_SIZE)), V2);
+      map.put(HashCode.fromBytes(createPrefixed(bytes(0xFF, 0xFF), PROOF_MAP_KEY_SIZE)), V3);
+
+      assertThat(map.countKeysWithPrefix(bytes(0xFF)), equalTo(2L));
+      assertThat(map.countKeysWithPrefix(bytes(0xFF, 0xFF)), equalTo(1L));
+      assertThat(map.countKeysWithPrefix(new byte[0]), equalTo(3L));
+    });
+  }
+
+  @Test
+  void aggregateValuesInKeyRange() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork fork = database.createFork(cleaner);
+      ProofMapIndexProxy<HashCode, Long> map = ProofMapIndexProxy.newInstance(MAP_NAME, fork,
+          StandardSerializers.hash(), StandardSerializers.fixed64());
+      HashCode k1 = HashCode.fromBytes(createPrefixed(bytes(0x01), PROOF_MAP_KEY_SIZE));
+      HashCode k2 = HashCode.fromBytes(createPrefixed(bytes(0x02), PROOF_MAP_KEY_SIZE));
+      HashCode k3 = HashCode.fromBytes(createPrefixed(bytes(0x03), PROOF_MAP_KEY_SIZE));
+      map.put(k1, 4L);
+      map.put(k2, -1L);
+      map.put(k3, 7L);
+
+      assertThat(map.count(k1, k3), equalTo(2L));
+      assertThat(map.sumValues(k2, k3, 0), equalTo(-1L));
+      assertThat(map.minValue(k1, k3, 0), equalTo(OptionalLong.of(-1L)));
+      assertThat(map.maxValue(k2, k3, 0), equalTo(OptionalLong.of(-1L)));
+      assertThat(map.maxValue(k3, k1, 0), equalTo(OptionalLong.empty()));
+    }
+  }
+
+  @Test
+  void diffOfSameStatesIsEmpty() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork fork = database.createFork(cleaner);
+      ProofMapIndexProxy<HashCode, String> map = createProofMap(MAP_NAME, fork);
+      map.put(PK1, V1);
+      database.merge(fork);
+
+      Snapshot snapshot = database.createSnapshot(cleaner);
+      ProofMapIndexProxy<HashCode, String> oldMap = createProofMap(MAP_NAME, snapshot);
+      ProofMapIndexProxy<HashCode, String> newMap = createProofMap(MAP_NAME,
+          database.createFork(cleaner));
+
+      assertThat(oldMap.diff(newMap), equalTo(ImmutableList.of()));
+      assertThat(oldMap.diff(oldMap), equalTo(ImmutableList.of()));
+    }
+  }
+
+  @Test
+  void diffOfDifferentStates() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork fork = database.createFork(cleaner);
+      ProofMapIndexProxy<HashCode, String> map = createProofMap(MAP_NAME, fork);
+      map.put(PK1, V1);
+      map.put(PK2, V2);
+      database.merge(fork);
+
+      Snapshot snapshot = database.createSnapshot(cleaner);
+      ProofMapIndexProxy<HashCode, String> oldMap = createProofMap(MAP_NAME, snapshot);
+      ProofMapIndexProxy<HashCode, String> newMap = createProofMap(MAP_NAME,
+          database.createFork(cleaner));
+      newMap.remove(PK1);
+      newMap.put(PK2, V3);
+      newMap.put(PK3, V1);
+
+      List<DiffEntry<HashCode, String>> expected = ImmutableList.of(
+          DiffEntry.removed(PK1, V1),
+          DiffEntry.changed(PK2, V2, V3),
+          DiffEntry.added(PK3, V1));
+      assertThat(oldMap.diff(newMap), equalTo(expected));
+    }
+  }
+
   /**
    * Returns a new key with the given prefix.
    *
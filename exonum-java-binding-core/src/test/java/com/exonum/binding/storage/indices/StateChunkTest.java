@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.storage.indices;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.exonum.binding.test.Bytes;
+import com.google.protobuf.ByteString;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class StateChunkTest {
+
+  @Test
+  void roundTrip() {
+    ByteString cursor = ByteString.copyFrom(Bytes.bytes(1, 2, 3));
+    byte[] proof = Bytes.bytes(4, 5);
+    StateChunk chunk = new StateChunk(cursor, proof);
+
+    StateChunk restored = StateChunk.fromBytes(chunk.toByteArray());
+
+    assertThat(restored.getNextCursor(), equalTo(Optional.of(cursor)));
+    assertFalse(restored.isLast());
+    assertThat(restored.getEncodedProof(), equalTo(proof));
+  }
+
+  @Test
+  void roundTripLastChunk() {
+    StateChunk chunk = new StateChunk(ByteString.EMPTY, new byte[0]);
+
+    StateChunk restored = StateChunk.fromBytes(chunk.toByteArray());
+
+    assertThat(restored.getNextCursor(), equalTo(Optional.empty()));
+    assertTrue(restored.isLast());
+    assertThat(restored.getEncodedProof(), equalTo(new byte[0]));
+  }
+
+  @Test
+  void fromBytesFailsIfTruncated() {
+    assertThrows(IllegalArgumentException.class, () -> StateChunk.fromBytes(Bytes.bytes(1)));
+  }
+
+  @Test
+  void fromBytesFailsIfInvalidCursorSize() {
+    byte[] chunk = Bytes.bytes(8, 0, 0, 0, 1, 2);
+
+    assertThrows(IllegalArgumentException.class, () -> StateChunk.fromBytes(chunk));
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.storage.indices;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.Hashing;
+import com.exonum.binding.common.serialization.Serializer;
+import com.exonum.binding.common.serialization.StandardSerializers;
+import com.exonum.binding.proxy.Cleaner;
+import com.exonum.binding.proxy.CloseFailuresException;
+import com.exonum.binding.storage.database.Fork;
+import com.exonum.binding.storage.database.MemoryDb;
+import com.exonum.binding.storage.database.View;
+import com.exonum.binding.util.LibraryLoader;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StateSyncIntegrationTest {
+
+  static {
+    LibraryLoader.load();
+  }
+
+  private static final String NAME = "test_index";
+  private static final Serializer<HashCode> KEY_SERIALIZER = StandardSerializers.hash();
+  private static final Serializer<String> VALUE_SERIALIZER = StandardSerializers.string();
+
+  private MemoryDb source;
+  private MemoryDb target;
+
+  @BeforeEach
+  void setUp() {
+    source = MemoryDb.newInstance();
+    target = MemoryDb.newInstance();
+  }
+
+  @AfterEach
+  void tearDown() {
+    source.close();
+    target.close();
+  }
+
+  @Test
+  void exportImportMap() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      Fork sourceFork = source.createFork(cleaner);
+      ProofMapIndexProxy<HashCode, String> sourceMap = createMap(sourceFork);
+      for (int i = 0; i < 10; i++) {
+        sourceMap.put(Hashing.sha256().hashInt(i), "v" + i);
+      }
+      HashCode rootHash = sourceMap.getRootHash();
+
+      List<StateChunk> chunks = exportMap(sourceMap, 3);
+      assertThat(chunks.size(), equalTo(4));
+
+      Fork targetFork = target.createFork(cleaner);
+      ProofMapIndexProxy<HashCode, String> targetMap = createMap(targetFork);
+      // Import in the reverse order, as the chunks of a map are independent
+      for (int i = chunks.size() - 1; i >= 0; i--) {
+        StateChunk chunk = StateChunk.fromBytes(chunks.get(i).toByteArray());
+        Map<HashCode, String> entries = StateSync.checkMapChunk(chunk, rootHash,
+            KEY_SERIALIZER, VALUE_SERIALIZER);
+        StateSync.importChunk(targetMap, entries);
+      }
+
+      assertThat(targetMap.getRootHash(), equalTo(rootHash));
+    }
+  }
+
+  @Test
+  void exportImportEmptyMap() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      ProofMapIndexProxy<HashCode, String> sourceMap = createMap(source.createSnapshot(cleaner));
+
+      StateChunk chunk = StateSync.exportChunk(sourceMap, StateSync.START, 3);
+
+      assertTrue(chunk.isLast());
+      Map<HashCode, String> entries = StateSync.checkMapChunk(chunk, sourceMap.getRootHash(),
+          KEY_SERIALIZER, VALUE_SERIALIZER);
+      assertTrue(entries.isEmpty());
+    }
+  }
+
+  @Test
+  void checkMapChunkFailsIfOtherRootHash() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      ProofMapIndexProxy<HashCode, String> sourceMap = createMap(source.createFork(cleaner));
+      sourceMap.put(Hashing.sha256().hashInt(1), "v1");
+
+      StateChunk chunk = StateSync.exportChunk(sourceMap, StateSync.START, 3);
+      HashCode otherRootHash = Hashing.sha256().hashInt(2);
+
+      assertThrows(IllegalArgumentException.class, () -> StateSync.checkMapChunk(chunk,
+          otherRootHash, KEY_SERIALIZER, VALUE_SERIALIZER));
+    }
+  }
+
+  @Test
+  void exportImportList() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      ProofListIndexProxy<String> sourceList = createList(source.createFork(cleaner));
+      for (int i = 0; i < 10; i++) {
+        sourceList.add("v" + i);
+      }
+      HashCode rootHash = sourceList.getRootHash();
+
+      List<StateChunk> chunks = exportList(sourceList, 4);
+      assertThat(chunks.size(), equalTo(3));
+
+      ProofListIndexProxy<String> targetList = createList(target.createFork(cleaner));
+      for (StateChunk chunk : chunks) {
+        NavigableMap<Long, String> elements = StateSync.checkListChunk(chunk, rootHash,
+            VALUE_SERIALIZER);
+        StateSync.importChunk(targetList, elements);
+      }
+
+      assertThat(targetList.getRootHash(), equalTo(rootHash));
+    }
+  }
+
+  @Test
+  void exportListResumesFromCursor() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      ProofListIndexProxy<String> sourceList = createList(source.createFork(cleaner));
+      for (int i = 0; i < 5; i++) {
+        sourceList.add("v" + i);
+      }
+      HashCode rootHash = sourceList.getRootHash();
+      StateChunk first = StateSync.exportChunk(sourceList, StateSync.START, 2);
+      ByteString cursor = first.getNextCursor().get();
+
+      StateChunk second = StateSync.exportChunk(sourceList, cursor, 2);
+
+      NavigableMap<Long, String> elements = StateSync.checkListChunk(second, rootHash,
+          VALUE_SERIALIZER);
+      assertThat(elements.firstKey(), equalTo(2L));
+      assertThat(elements.lastKey(), equalTo(3L));
+    }
+  }
+
+  @Test
+  void importListChunkFailsIfOutOfOrder() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      ProofListIndexProxy<String> sourceList = createList(source.createFork(cleaner));
+      for (int i = 0; i < 5; i++) {
+        sourceList.add("v" + i);
+      }
+      HashCode rootHash = sourceList.getRootHash();
+      List<StateChunk> chunks = exportList(sourceList, 2);
+      NavigableMap<Long, String> secondChunk = StateSync.checkListChunk(chunks.get(1), rootHash,
+          VALUE_SERIALIZER);
+
+      ProofListIndexProxy<String> targetList = createList(target.createFork(cleaner));
+
+      assertThrows(IllegalArgumentException.class,
+          () -> StateSync.importChunk(targetList, secondChunk));
+    }
+  }
+
+  @Test
+  void exportImportEmptyList() throws CloseFailuresException {
+    try (Cleaner cleaner = new Cleaner()) {
+      ProofListIndexProxy<String> sourceList = createList(source.createSnapshot(cleaner));
+
+      StateChunk chunk = StateSync.exportChunk(sourceList, StateSync.START, 3);
+
+      assertThat(chunk.getNextCursor(), equalTo(Optional.empty()));
+      NavigableMap<Long, String> elements = StateSync.checkListChunk(chunk,
+          sourceList.getRootHash(), VALUE_SERIALIZER);
+      assertTrue(elements.isEmpty());
+    }
+  }
+
+  private static List<StateChunk> exportMap(ProofMapIndexProxy<?, ?> map, int chunkSize) {
+    List<StateChunk> chunks = new ArrayList<>();
+    ByteString cursor = StateSync.START;
+    do {
+      StateChunk chunk = StateSync.exportChunk(map, cursor, chunkSize);
+      chunks.add(chunk);
+      cursor = chunk.getNextCursor().orElse(null);
+    } while (cursor != null);
+    return chunks;
+  }
+
+  private static List<StateChunk> exportList(ProofListIndexProxy<?> list, int chunkSize) {
+    List<StateChunk> chunks = new ArrayList<>();
+    ByteString cursor = StateSync.START;
+    do {
+      StateChunk chunk = StateSync.exportChunk(list, cursor, chunkSize);
+      chunks.add(chunk);
+      cursor = chunk.getNextCursor().orElse(null);
+    } while (cursor != null);
+    return chunks;
+  }
+
+  private static ProofMapIndexProxy<HashCode, String> createMap(View view) {
+    return ProofMapIndexProxy.newInstance(NAME, view, KEY_SERIALIZER, VALUE_SERIALIZER);
+  }
+
+  private static ProofListIndexProxy<String> createList(View view) {
+    return ProofListIndexProxy.newInstance(NAME, view, VALUE_SERIALIZER);
+  }
+}
@@ -268,4 +268,20 @@ class StoragePreconditionsTest {
         () -> StoragePreconditions.checkPositionIndex(index, size));
     assertThat(thrown.getLocalizedMessage(), containsString("size (-1) is negative"));
   }
+
+  @Test
+  void checkValueOffset_Valid() {
+    int[] validOffsets = {0, 1, Integer.MAX_VALUE};
+
+    for (int offset : validOffsets) {
+      assertThat(StoragePreconditions.checkValueOffset(offset), equalTo(offset));
+    }
+  }
+
+  @Test
+  void checkValueOffset_Negative() {
+    IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+        () -> StoragePreconditions.checkValueOffset(-1));
+    assertThat(thrown.getLocalizedMessage(), containsString("Value offset (-1) is negative"));
+  }
 }
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.storage.indices;
+
+import static com.exonum.binding.storage.indices.TestStorageItems.K1;
+import static com.exonum.binding.storage.indices.TestStorageItems.K2;
+import static com.exonum.binding.storage.indices.TestStorageItems.V1;
+import static com.exonum.binding.storage.indices.TestStorageItems.V2;
+import static com.exonum.binding.storage.indices.TestStorageItems.V3;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.Hashing;
+import com.exonum.binding.common.serialization.StandardSerializers;
+import com.exonum.binding.proxy.Cleaner;
+import com.exonum.binding.proxy.CloseFailuresException;
+import com.exonum.binding.storage.database.Fork;
+import com.exonum.binding.storage.database.MemoryDb;
+import com.exonum.binding.storage.database.Snapshot;
+import com.exonum.binding.storage.database.View;
+import com.exonum.binding.util.LibraryLoader;
+import com.google.common.collect.ImmutableList;
+import java.nio.charset.StandardCharsets;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WriteBufferIntegrationTest {
+
+  static {
+    LibraryLoader.load();
+  }
+
+  private static final String MAP_NAME = "map";
+
+  private static final String PROOF_MAP_NAME = "proof_map";
+
+  private static final String LIST_NAME = "list";
+
+  private MemoryDb db;
+
+  private Cleaner cleaner;
+
+  @BeforeEach
+  void setUp() {
+    db = MemoryDb.newInstance();
+    cleaner = new Cleaner();
+  }
+
+  @AfterEach
+  void tearDown() throws CloseFailuresException {
+    cleaner.close();
+    db.close();
+  }
+
+  @Test
+  void mapWritesAreReadBack() {
+    Fork fork = newBufferedFork();
+    MapIndexProxy<String, String> map = newMap(fork);
+
+    map.put(K1, V1);
+    map.put(K2, V2);
+    map.remove(K2);
+
+    assertFalse(writeBufferOf(fork).isEmpty());
+    assertThat(map.get(K1), equalTo(V1));
+    assertTrue(map.containsKey(K1));
+    assertThat(map.get(K2), nullValue());
+    assertFalse(map.containsKey(K2));
+    // Served by the buffer
+    assertFalse(writeBufferOf(fork).isEmpty());
+  }
+
+  @Test
+  void mapWritesAreReadBackByOtherProxy() {
+    Fork fork = newBufferedFork();
+    MapIndexProxy<String, String> map1 = newMap(fork);
+    MapIndexProxy<String, String> map2 = newMap(fork);
+
+    map1.put(K1, V1);
+    map2.put(K1, V2);
+
+    assertThat(map1.get(K1), equalTo(V2));
+    assertThat(map2.get(K1), equalTo(V2));
+  }
+
+  @Test
+  void mapInGroupWritesAreNotReadByOtherMapInGroup() {
+    Fork fork = newBufferedFork();
+    MapIndexProxy<String, String> map1 = newMapInGroup(fork, new byte[] {1});
+    MapIndexProxy<String, String> map2 = newMapInGroup(fork, new byte[] {2});
+
+    map1.put(K1, V1);
+
+    assertThat(map2.get(K1), nullValue());
+    assertThat(map1.get(K1), equalTo(V1));
+  }
+
+  @Test
+  void otherOperationsFlushWrites() {
+    Fork fork = newBufferedFork();
+    MapIndexProxy<String, String> map = newMap(fork);
+    ListIndexProxy<String> list = newList(fork);
+
+    map.put(K1, V1);
+    list.add(V1);
+    list.addAll(ImmutableList.of(V2, V3));
+
+    assertThat(list.size(), equalTo(3L));
+    assertTrue(writeBufferOf(fork).isEmpty());
+    assertThat(list.get(2), equalTo(V3));
+
+    Iterator<String> keys = map.keys();
+    assertThat(keys.next(), equalTo(K1));
+    assertFalse(keys.hasNext());
+  }
+
+  @Test
+  void bufferedWritesInvalidateIterators() {
+    Fork fork = newBufferedFork();
+    MapIndexProxy<String, String> map = newMap(fork);
+    map.put(K1, V1);
+
+    Iterator<String> keys = map.keys();
+    map.put(K2, V2);
+
+    assertThrows(ConcurrentModificationException.class, keys::next);
+  }
+
+  @Test
+  void bufferedWritesProduceSameProofMapState() throws CloseFailuresException {
+    HashCode k1 = hash(K1);
+    HashCode k2 = hash(K2);
+    HashCode expectedRootHash;
+    HashCode expectedListRootHash;
+    try (Cleaner c = new Cleaner()) {
+      Fork fork = db.createFork(c);
+      ProofMapIndexProxy<HashCode, String> map = newProofMap(fork);
+      ProofListIndexProxy<String> list = newProofList(fork);
+      map.put(k1, V1);
+      map.put(k2, V2);
+      map.remove(k1);
+      list.add(V1);
+      expectedRootHash = map.getRootHash();
+      expectedListRootHash = list.getRootHash();
+    }
+
+    Fork fork = newBufferedFork();
+    ProofMapIndexProxy<HashCode, String> map = newProofMap(fork);
+    ProofListIndexProxy<String> list = newProofList(fork);
+    map.put(k1, V1);
+    map.put(k2, V2);
+    map.remove(k1);
+    list.add(V1);
+
+    assertThat(map.get(k2), equalTo(V2));
+    assertThat(map.getRootHash(), equalTo(expectedRootHash));
+    assertThat(list.getRootHash(), equalTo(expectedListRootHash));
+  }
+
+  @Test
+  void mergeAppliesBufferedWrites() {
+    Fork fork = newBufferedFork();
+    newMap(fork).put(K1, V1);
+    newList(fork).add(V2);
+
+    db.merge(fork);
+
+    Snapshot snapshot = db.createSnapshot(cleaner);
+    assertThat(MapIndexProxy.newInstance(MAP_NAME, snapshot, StandardSerializers.string(),
+        StandardSerializers.string()).get(K1), equalTo(V1));
+    assertThat(ListIndexProxy.newInstance(LIST_NAME, snapshot, StandardSerializers.string())
+        .get(0), equalTo(V2));
+  }
+
+  @Test
+  void closingForkDiscardsBufferedWrites() throws CloseFailuresException {
+    Fork fork;
+    try (Cleaner c = new Cleaner()) {
+      fork = db.createFork(c);
+      fork.enableWriteBuffering();
+      newMap(fork).put(K1, V1);
+    }
+
+    assertThat(writeBufferOf(fork), nullValue());
+  }
+
+  private Fork newBufferedFork() {
+    Fork fork = db.createFork(cleaner);
+    fork.enableWriteBuffering();
+    return fork;
+  }
+
+  private static WriteBuffer writeBufferOf(Fork fork) {
+    return fork.getWriteBuffer();
+  }
+
+  private static MapIndexProxy<String, String> newMap(View view) {
+    return MapIndexProxy.newInstance(MAP_NAME, view, StandardSerializers.string(),
+        StandardSerializers.string());
+  }
+
+  private static MapIndexProxy<String, String> newMapInGroup(View view, byte[] id) {
+    return MapIndexProxy.newInGroupUnsafe(MAP_NAME, id, view, StandardSerializers.string(),
+        StandardSerializers.string());
+  }
+
+  private static ProofMapIndexProxy<HashCode, String> newProofMap(View view) {
+    return ProofMapIndexProxy.newInstance(PROOF_MAP_NAME, view, StandardSerializers.hash(),
+        StandardSerializers.string());
+  }
+
+  private static ListIndexProxy<String> newList(View view) {
+    return ListIndexProxy.newInstance(LIST_NAME, view, StandardSerializers.string());
+  }
+
+  private static ProofListIndexProxy<String> newProofList(View view) {
+    return ProofListIndexProxy.newInstance(LIST_NAME, view, StandardSerializers.string());
+  }
+
+  private static HashCode hash(String key) {
+    return Hashing.defaultHashFunction().hashString(key, StandardCharsets.UTF_8);
+  }
+}
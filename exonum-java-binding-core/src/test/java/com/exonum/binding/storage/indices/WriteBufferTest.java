@@ -0,0 +1,182 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.storage.indices;
+
+import static com.exonum.binding.common.serialization.StandardSerializers.string;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.exonum.binding.storage.indices.WriteBuffer.Operation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WriteBufferTest {
+
+  private static final String MAP = "map";
+
+  private static final long MAP_HANDLE = 0x0A;
+
+  private static final long LIST_HANDLE = 0x0B;
+
+  private static final byte[] K1 = bytes("k1");
+
+  private static final byte[] V1 = bytes("v1");
+
+  private static final byte[] V2 = bytes("v2");
+
+  private final WriteBuffer buffer = new WriteBuffer();
+
+  private MapIndexProxy<?, ?> map;
+
+  private ProofMapIndexProxy<?, ?> proofMap;
+
+  private ListIndexProxy<?> list;
+
+  @BeforeEach
+  void setUp() {
+    map = mock(MapIndexProxy.class);
+    when(map.getNativeHandleNoFlush()).thenReturn(MAP_HANDLE);
+    proofMap = mock(ProofMapIndexProxy.class);
+    when(proofMap.getNativeHandleNoFlush()).thenReturn(MAP_HANDLE);
+    list = mock(ListIndexProxy.class);
+    when(list.getNativeHandleNoFlush()).thenReturn(LIST_HANDLE);
+    when(list.getAddOperation()).thenReturn(Operation.LIST_ADD);
+  }
+
+  @Test
+  void newBufferIsEmpty() {
+    assertTrue(buffer.isEmpty());
+    assertFalse(buffer.hasWrite(MAP, K1));
+    assertThat(buffer.getWrite(MAP, K1), nullValue());
+  }
+
+  @Test
+  void putIsReadBack() {
+    buffer.put(map, MAP, K1, V1);
+
+    assertFalse(buffer.isEmpty());
+    assertTrue(buffer.hasWrite(MAP, K1));
+    assertThat(buffer.getWrite(MAP, K1), equalTo(V1));
+  }
+
+  @Test
+  void putOverwritesPreviousPut() {
+    buffer.put(proofMap, MAP, K1, V1);
+    buffer.put(proofMap, MAP, K1, V2);
+
+    assertThat(buffer.getWrite(MAP, K1), equalTo(V2));
+  }
+
+  @Test
+  void putIsReadBackByAnEqualKey() {
+    buffer.put(map, MAP, K1, V1);
+
+    assertThat(buffer.getWrite(MAP, K1.clone()), equalTo(V1));
+  }
+
+  @Test
+  void putIsNotReadBackFromOtherIndex() {
+    buffer.put(map, MAP, K1, V1);
+
+    assertFalse(buffer.hasWrite("other_map", K1));
+  }
+
+  @Test
+  void removeIsReadBackAsAbsentEntry() {
+    buffer.put(map, MAP, K1, V1);
+    buffer.remove(map, MAP, K1);
+
+    assertTrue(buffer.hasWrite(MAP, K1));
+    assertThat(buffer.getWrite(MAP, K1), nullValue());
+  }
+
+  @Test
+  void putIsNotAffectedByModificationsOfArguments() {
+    byte[] key = K1.clone();
+    byte[] value = V1.clone();
+    buffer.put(map, MAP, key, value);
+
+    key[0]++;
+    value[0]++;
+
+    assertThat(buffer.getWrite(MAP, K1), equalTo(V1));
+  }
+
+  @Test
+  void addIsBuffered() {
+    buffer.add(list, V1);
+
+    assertFalse(buffer.isEmpty());
+  }
+
+  @Test
+  void bufferGrowsAsNeeded() {
+    byte[] largeValue = new byte[10_000];
+    for (int i = 0; i < 10; i++) {
+      buffer.add(list, largeValue);
+    }
+    buffer.put(map, MAP, K1, largeValue);
+
+    assertThat(buffer.getWrite(MAP, K1), equalTo(largeValue));
+  }
+
+  @Test
+  void discardClearsBuffer() {
+    buffer.put(map, MAP, K1, V1);
+    buffer.add(list, V1);
+
+    buffer.discard();
+
+    assertTrue(buffer.isEmpty());
+    assertFalse(buffer.hasWrite(MAP, K1));
+  }
+
+  @Test
+  void flushEmptyBufferIsNoOp() {
+    buffer.flush();  // Does not access the native code
+
+    assertTrue(buffer.isEmpty());
+  }
+
+  @Test
+  void putRejectsInvalidIndex() {
+    when(map.getNativeHandleNoFlush()).thenThrow(IllegalStateException.class);
+
+    assertThrows(IllegalStateException.class, () -> buffer.put(map, MAP, K1, V1));
+    assertTrue(buffer.isEmpty());
+  }
+
+  @Test
+  void flushRejectsIndexInvalidatedAfterWrite() {
+    buffer.add(list, V1);
+    when(list.getNativeHandleNoFlush()).thenThrow(IllegalStateException.class);
+
+    // Fails before accessing the native code
+    assertThrows(IllegalStateException.class, buffer::flush);
+  }
+
+  private static byte[] bytes(String s) {
+    return string().toBytes(s);
+  }
+}
@@ -17,7 +17,9 @@
 package com.exonum.binding.transaction;
 
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.emptyArray;
 
 import org.junit.jupiter.api.Test;
 
@@ -41,4 +43,16 @@ class TransactionExecutionExceptionTest {
     assertThat(e.toString(),
         containsString("TransactionExecutionException: Foo, errorCode=2"));
   }
+
+  @Test
+  void noWritableStackTrace() {
+    byte errorCode = 2;
+    String description = "Foo";
+    TransactionExecutionException e = new TransactionExecutionException(errorCode, description,
+        null, false);
+
+    assertThat(e.getStackTrace(), emptyArray());
+    assertThat(e.getErrorCode(), equalTo(errorCode));
+    assertThat(e.getMessage(), equalTo(description));
+  }
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.transport;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class JsonResponsesTest {
+
+  private final Gson gson = new Gson();
+
+  private HttpServerResponse response;
+
+  @BeforeEach
+  void setUp() {
+    response = mock(HttpServerResponse.class, RETURNS_SELF);
+  }
+
+  @Test
+  void toJsonBuffer() {
+    Object value = ImmutableMap.of("name", "Ψ", "values", ImmutableList.of(1, 2));
+
+    Buffer json = JsonResponses.toJsonBuffer(gson, value);
+
+    assertThat(json.toString("UTF-8"), equalTo(gson.toJson(value)));
+  }
+
+  @Test
+  void toJsonBufferSupplementaryCharacters() {
+    Object value = ImmutableList.of("😀", "aé€");
+
+    Buffer json = JsonResponses.toJsonBuffer(gson, value);
+
+    assertThat(json.toString("UTF-8"), equalTo(gson.toJson(value)));
+  }
+
+  @Test
+  void bufferWriterReplacesUnpairedSurrogates() throws IOException {
+    String text = "a" + Character.highSurrogate(0x1F600) + "b"
+        + Character.lowSurrogate(0x1F600) + "c" + Character.highSurrogate(0x1F600);
+    JsonResponses.BufferWriter writer = new JsonResponses.BufferWriter();
+
+    writer.write(text);
+    writer.close();
+
+    byte[] expected = text.getBytes(StandardCharsets.UTF_8);
+    assertThat(writer.buffer.getBytes(), equalTo(expected));
+  }
+
+  @Test
+  void toJsonBufferNull() {
+    Buffer json = JsonResponses.toJsonBuffer(gson, null);
+
+    assertThat(json.toString("UTF-8"), equalTo("null"));
+  }
+
+  @Test
+  void end() {
+    Object value = ImmutableMap.of("name", "a");
+
+    JsonResponses.end(response, gson, value);
+
+    verify(response).putHeader("Content-Type", JsonResponses.JSON_CONTENT_TYPE);
+    ArgumentCaptor<Buffer> body = ArgumentCaptor.forClass(Buffer.class);
+    verify(response).end(body.capture());
+    assertThat(body.getValue().toString("UTF-8"), equalTo(gson.toJson(value)));
+  }
+
+  @Test
+  void endArrayEmpty() {
+    JsonResponses.endArray(response, gson, ImmutableList.of());
+
+    verify(response).setChunked(true);
+    verify(response).putHeader("Content-Type", JsonResponses.JSON_CONTENT_TYPE);
+    verify(response, never()).write(any(Buffer.class));
+    ArgumentCaptor<Buffer> body = ArgumentCaptor.forClass(Buffer.class);
+    verify(response).end(body.capture());
+    assertThat(body.getValue().toString("UTF-8"), equalTo("[]"));
+  }
+
+  @Test
+  void endArraySmall() {
+    List<String> elements = Arrays.asList("a", null, "c");
+
+    JsonResponses.endArray(response, gson, elements);
+
+    ArgumentCaptor<Buffer> body = ArgumentCaptor.forClass(Buffer.class);
+    verify(response).end(body.capture());
+    assertThat(body.getValue().toString("UTF-8"), equalTo("[\"a\",null,\"c\"]"));
+  }
+
+  @Test
+  void endArrayLargeIsSentInChunks() {
+    List<String> elements = IntStream.range(0, 4 * JsonResponses.CHUNK_SIZE / 10)
+        .mapToObj(i -> "element #" + i)
+        .collect(Collectors.toList());
+
+    JsonResponses.endArray(response, gson, elements);
+
+    ArgumentCaptor<Buffer> chunks = ArgumentCaptor.forClass(Buffer.class);
+    verify(response, atLeastOnce()).write(chunks.capture());
+    ArgumentCaptor<Buffer> lastChunk = ArgumentCaptor.forClass(Buffer.class);
+    verify(response).end(lastChunk.capture());
+
+    List<Buffer> allChunks = chunks.getAllValues();
+    assertThat(allChunks.size(), greaterThan(1));
+    Buffer body = Buffer.buffer();
+    for (Buffer chunk : allChunks) {
+      assertThat(chunk.length() >= JsonResponses.CHUNK_SIZE, equalTo(true));
+      body.appendBuffer(chunk);
+    }
+    body.appendBuffer(lastChunk.getValue());
+    assertThat(body.toString("UTF-8"), equalTo(gson.toJson(elements)));
+  }
+
+  @Test
+  void endArraySuspendsUntilWriteQueueIsDrained() {
+    List<String> elements = largeArray();
+    when(response.writeQueueFull()).thenReturn(true, false);
+
+    JsonResponses.endArray(response, gson, elements);
+
+    ArgumentCaptor<Handler<Void>> drainHandler = ArgumentCaptor.forClass(Handler.class);
+    verify(response).drainHandler(drainHandler.capture());
+    verify(response).write(any(Buffer.class));
+    verify(response, never()).end(any(Buffer.class));
+
+    drainHandler.getValue().handle(null);
+
+    ArgumentCaptor<Buffer> chunks = ArgumentCaptor.forClass(Buffer.class);
+    verify(response, atLeast(2)).write(chunks.capture());
+    ArgumentCaptor<Buffer> lastChunk = ArgumentCaptor.forClass(Buffer.class);
+    verify(response).end(lastChunk.capture());
+    Buffer body = Buffer.buffer();
+    chunks.getAllValues().forEach(body::appendBuffer);
+    body.appendBuffer(lastChunk.getValue());
+    assertThat(body.toString("UTF-8"), equalTo(gson.toJson(elements)));
+  }
+
+  @Test
+  void endArrayIsAbandonedIfConnectionIsClosed() {
+    List<String> elements = largeArray();
+    when(response.writeQueueFull()).thenReturn(true);
+
+    JsonResponses.endArray(response, gson, elements);
+
+    ArgumentCaptor<Handler<Void>> drainHandler = ArgumentCaptor.forClass(Handler.class);
+    verify(response).drainHandler(drainHandler.capture());
+    ArgumentCaptor<Handler<Void>> closeHandler = ArgumentCaptor.forClass(Handler.class);
+    verify(response).closeHandler(closeHandler.capture());
+
+    closeHandler.getValue().handle(null);
+    drainHandler.getValue().handle(null);
+
+    verify(response).write(any(Buffer.class));
+    verify(response, never()).end(any(Buffer.class));
+  }
+
+  @Test
+  void endArrayIsAbandonedIfConnectionFails() {
+    List<String> elements = largeArray();
+    when(response.writeQueueFull()).thenReturn(true);
+
+    JsonResponses.endArray(response, gson, elements);
+
+    ArgumentCaptor<Handler<Void>> drainHandler = ArgumentCaptor.forClass(Handler.class);
+    verify(response).drainHandler(drainHandler.capture());
+    ArgumentCaptor<Handler<Throwable>> exceptionHandler = ArgumentCaptor.forClass(Handler.class);
+    verify(response).exceptionHandler(exceptionHandler.capture());
+
+    exceptionHandler.getValue().handle(new IOException("Connection reset"));
+    drainHandler.getValue().handle(null);
+
+    verify(response).write(any(Buffer.class));
+    verify(response, never()).end(any(Buffer.class));
+  }
+
+  private static List<String> largeArray() {
+    return IntStream.range(0, 4 * JsonResponses.CHUNK_SIZE / 10)
+        .mapToObj(i -> "element #" + i)
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.transport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class PageCursorsTest {
+
+  @ParameterizedTest
+  @ValueSource(longs = {0, 1, 1024, Long.MAX_VALUE})
+  void decodeEncoded(long position) {
+    String cursor = PageCursors.encode(position);
+
+    assertThat(PageCursors.decode(cursor)).isEqualTo(position);
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {-1, Long.MIN_VALUE})
+  void encodeRejectsNegativePositions(long position) {
+    assertThrows(IllegalArgumentException.class, () -> PageCursors.encode(position));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "",
+      "not a cursor",
+      // Too short
+      "AAAA",
+      // A negative position
+      "__________8",
+  })
+  void decodeRejectsInvalidCursors(String cursor) {
+    assertThrows(IllegalArgumentException.class, () -> PageCursors.decode(cursor));
+  }
+}
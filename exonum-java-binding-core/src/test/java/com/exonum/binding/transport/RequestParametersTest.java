@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exonum.binding.transport;
+
+import static com.exonum.binding.transport.RequestParameters.getOptionalParameter;
+import static com.exonum.binding.transport.RequestParameters.getPageSize;
+import static com.exonum.binding.transport.RequestParameters.getRequiredParameter;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.vertx.core.MultiMap;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class RequestParametersTest {
+
+  private static final String KEY = "seed";
+
+  @Test
+  void getRequiredParameterConvertsValue() {
+    MultiMap parameters = MultiMap.caseInsensitiveMultiMap()
+        .add(KEY, "10");
+
+    assertThat(getRequiredParameter(parameters, KEY, Long::parseLong), equalTo(10L));
+  }
+
+  @Test
+  void getRequiredParameterFailsIfMissing() {
+    MultiMap parameters = MultiMap.caseInsensitiveMultiMap();
+
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> getRequiredParameter(parameters, KEY, Long::parseLong));
+    assertThat(e.getMessage(), containsString(KEY));
+  }
+
+  @Test
+  void getRequiredParameterFailsIfInvalid() {
+    MultiMap parameters = MultiMap.caseInsensitiveMultiMap()
+        .add(KEY, "not a number");
+
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> getRequiredParameter(parameters, KEY, Long::parseLong));
+    assertThat(e.getMessage(), containsString("Failed to convert parameter (seed)"));
+  }
+
+  @Test
+  void getOptionalParameterIfMissing() {
+    MultiMap parameters = MultiMap.caseInsensitiveMultiMap();
+
+    assertThat(getOptionalParameter(parameters, KEY, Long::parseLong),
+        equalTo(Optional.empty()));
+  }
+
+  @Test
+  void getOptionalParameterConvertsValue() {
+    MultiMap parameters = MultiMap.caseInsensitiveMultiMap()
+        .add(KEY, "10");
+
+    assertThat(getOptionalParameter(parameters, KEY, Long::parseLong),
+        equalTo(Optional.of(10L)));
+  }
+
+  @Test
+  void pageSizeDefault() {
+    MultiMap parameters = MultiMap.caseInsensitiveMultiMap();
+
+    assertThat(getPageSize(parameters, "limit", 10, 100), equalTo(10));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 50, 100})
+  void pageSize(int limit) {
+    MultiMap parameters = MultiMap.caseInsensitiveMultiMap()
+        .add("limit", Integer.toString(limit));
+
+    assertThat(getPageSize(parameters, "limit", 10, 100), equalTo(limit));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"-1", "0", "101", "not a number"})
+  void pageSizeRejectsInvalidLimits(String limit) {
+    MultiMap parameters = MultiMap.caseInsensitiveMultiMap()
+        .add("limit", limit);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> getPageSize(parameters, "limit", 10, 100));
+  }
+}
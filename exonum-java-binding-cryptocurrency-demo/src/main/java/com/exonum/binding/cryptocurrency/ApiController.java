@@ -16,6 +16,9 @@
 
 package com.exonum.binding.cryptocurrency;
 
+import static com.exonum.binding.transport.RequestParameters.getOptionalParameter;
+import static com.exonum.binding.transport.RequestParameters.getPageSize;
+import static com.exonum.binding.transport.RequestParameters.getRequiredParameter;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
 import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
@@ -27,21 +30,27 @@ import com.exonum.binding.common.message.BinaryMessage;
 import com.exonum.binding.cryptocurrency.transactions.CryptocurrencyTransactionGson;
 import com.exonum.binding.service.InvalidTransactionException;
 import com.exonum.binding.transaction.Transaction;
+import com.exonum.binding.transport.JsonResponses;
+import com.exonum.binding.transport.PageCursors;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
-import com.google.gson.Gson;
+import com.google.common.io.BaseEncoding;
+import com.google.gson.reflect.TypeToken;
 import com.google.inject.Inject;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.buffer.Buffer;
-import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.BodyHandler;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
+import java.util.Set;
+import javax.annotation.Nullable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -57,6 +66,22 @@ final class ApiController {
   private static final String WALLET_ID_PARAM = "walletId";
   private static final String GET_WALLET_PATH = "/wallet/:" + WALLET_ID_PARAM;
   private static final String GET_WALLET_HISTORY_PATH = "/wallet/:" + WALLET_ID_PARAM + "/history";
+  @VisibleForTesting
+  static final String GET_WALLETS_PATH = "/wallets";
+  @VisibleForTesting
+  static final String PROOF_PARAM = "proof";
+  @VisibleForTesting
+  static final int MAX_WALLETS_PER_REQUEST = 1000;
+  @VisibleForTesting
+  static final String CURSOR_PARAM = "cursor";
+  @VisibleForTesting
+  static final String LIMIT_PARAM = "limit";
+  @VisibleForTesting
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  @VisibleForTesting
+  static final int DEFAULT_HISTORY_PAGE_SIZE = 100;
+  @VisibleForTesting
+  static final int MAX_HISTORY_PAGE_SIZE = 1000;
 
   private final CryptocurrencyService service;
 
@@ -75,6 +100,7 @@ final class ApiController {
             .put(SUBMIT_TRANSACTION_PATH, this::submitTransaction)
             .put(GET_WALLET_PATH, this::getWallet)
             .put(GET_WALLET_HISTORY_PATH, this::getWalletHistory)
+            .put(GET_WALLETS_PATH, this::getWallets)
             .build();
 
     handlers.forEach((path, handler) ->
@@ -99,15 +125,12 @@ final class ApiController {
 
   private void getWallet(RoutingContext rc) {
     PublicKey walletId =
-        getRequiredParameter(rc.request(), WALLET_ID_PARAM, PublicKey::fromHexString);
+        getRequiredParameter(rc.request().params(), WALLET_ID_PARAM, PublicKey::fromHexString);
 
     Optional<Wallet> wallet = service.getWallet(walletId);
 
     if (wallet.isPresent()) {
-      Gson gson = CryptocurrencyTransactionGson.instance();
-      rc.response()
-          .putHeader("Content-Type", "application/json")
-          .end(gson.toJson(wallet.get()));
+      JsonResponses.end(rc.response(), CryptocurrencyTransactionGson.instance(), wallet.get());
     } else {
       rc.response()
           .setStatusCode(HTTP_NOT_FOUND)
@@ -115,31 +138,79 @@ final class ApiController {
     }
   }
 
+  /**
+   * Replies with the wallets of the owners, whose keys are passed in the request body
+   * as a JSON array. If the "proof" parameter is true, includes a proof of the wallets,
+   * hex-encoded in the compact binary format.
+   */
+  private void getWallets(RoutingContext rc) {
+    Set<PublicKey> walletIds = parseWalletIds(rc.getBodyAsString());
+    boolean withProof = getOptionalParameter(rc.request().params(), PROOF_PARAM,
+        Boolean::parseBoolean)
+        .orElse(false);
+
+    WalletsResponse response;
+    if (withProof && !walletIds.isEmpty()) {
+      WalletsWithProof wallets = service.getWalletsWithProof(walletIds);
+      // The proofs of proof maps are in the compact binary format, pass it as is
+      byte[] proof = wallets.getProof().toByteArray();
+      response = new WalletsResponse(wallets.getWallets(), BaseEncoding.base16().lowerCase()
+          .encode(proof));
+    } else {
+      response = new WalletsResponse(service.getWallets(walletIds), null);
+    }
+    JsonResponses.end(rc.response(), CryptocurrencyTransactionGson.instance(), response);
+  }
+
+  private static Set<PublicKey> parseWalletIds(@Nullable String body) {
+    checkArgument(!Strings.isNullOrEmpty(body), "No wallet keys in the request body");
+    List<PublicKey> walletIds;
+    try {
+      walletIds = CryptocurrencyTransactionGson.instance()
+          .fromJson(body, new TypeToken<List<PublicKey>>() {}.getType());
+    } catch (RuntimeException e) {
+      String message = String.format("Invalid wallet keys: %s", e.getMessage());
+      throw new IllegalArgumentException(message);
+    }
+    checkArgument(walletIds != null, "No wallet keys in the request body");
+    checkArgument(walletIds.size() <= MAX_WALLETS_PER_REQUEST,
+        "Too many wallet keys (%s), at most %s are allowed", walletIds.size(),
+        MAX_WALLETS_PER_REQUEST);
+    return new LinkedHashSet<>(walletIds);
+  }
+
   private void getWalletHistory(RoutingContext rc) {
+    MultiMap parameters = rc.request().params();
     PublicKey walletId =
-        getRequiredParameter(rc.request(), WALLET_ID_PARAM, PublicKey::fromHexString);
-    List<HistoryEntity> walletHistory = service.getWalletHistory(walletId);
+        getRequiredParameter(parameters, WALLET_ID_PARAM, PublicKey::fromHexString);
+    Optional<Long> fromIndex = getOptionalParameter(parameters, CURSOR_PARAM,
+        PageCursors::decode);
+    int limit = getPageSize(parameters, LIMIT_PARAM, DEFAULT_HISTORY_PAGE_SIZE,
+        MAX_HISTORY_PAGE_SIZE);
 
-    rc.response()
-        .putHeader("Content-Type", "application/json")
-        .end(CryptocurrencyTransactionGson.instance().toJson(walletHistory));
-  }
+    HistoryPage page = fromIndex.isPresent()
+        ? service.getWalletHistory(walletId, fromIndex.get(), limit)
+        : service.getWalletHistory(walletId, limit);
 
-  private static <T> T getRequiredParameter(HttpServerRequest request, String key,
-      Function<String, T> converter) {
-    return getRequiredParameter(request.params(), key, converter);
+    HttpServerResponse response = rc.response();
+    page.getNextIndex().ifPresent(nextIndex ->
+        response.putHeader(NEXT_CURSOR_HEADER, PageCursors.encode(nextIndex)));
+    JsonResponses.endArray(response, CryptocurrencyTransactionGson.instance(),
+        page.getEntries());
   }
 
-  private static <T> T getRequiredParameter(MultiMap parameters, String key,
-      Function<String, T> converter) {
-    checkArgument(parameters.contains(key), "No required key (%s) in request parameters: %s",
-        key, parameters);
-    String parameter = parameters.get(key);
-    try {
-      return converter.apply(parameter);
-    } catch (Exception e) {
-      String message = String.format("Failed to convert parameter (%s): %s", key, e.getMessage());
-      throw new IllegalArgumentException(message);
+  /**
+   * A response of the wallets request.
+   */
+  @VisibleForTesting
+  static final class WalletsResponse {
+    final Map<PublicKey, Wallet> wallets;
+    @Nullable
+    final String proof;
+
+    WalletsResponse(Map<PublicKey, Wallet> wallets, @Nullable String proof) {
+      this.wallets = wallets;
+      this.proof = proof;
     }
   }
 
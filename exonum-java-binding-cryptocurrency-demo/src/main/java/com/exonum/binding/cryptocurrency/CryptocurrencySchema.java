@@ -23,7 +23,7 @@ import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.common.serialization.StandardSerializers;
 import com.exonum.binding.service.Schema;
 import com.exonum.binding.storage.database.View;
-import com.exonum.binding.storage.indices.ListIndexProxy;
+import com.exonum.binding.storage.indices.ProofListIndexProxy;
 import com.exonum.binding.storage.indices.ProofMapIndexProxy;
 import com.google.common.collect.ImmutableList;
 import java.util.List;
@@ -31,7 +31,12 @@ import java.util.List;
 /**
  * A schema of the cryptocurrency service.
  *
- * <p>Has one collection: Wallets (names and values) (Merklized)
+ * <p>Has the following collections:
+ * <ul>
+ *   <li>Wallets (names and values) (Merklized)</li>
+ *   <li>Transfers (transaction hashes and history entries) (Merklized)</li>
+ *   <li>Wallet histories (hashes of the transfers of each wallet)</li>
+ * </ul>
  */
 public final class CryptocurrencySchema implements Schema {
 
@@ -46,7 +51,7 @@ public final class CryptocurrencySchema implements Schema {
 
   @Override
   public List<HashCode> getStateHashes() {
-    return ImmutableList.of(wallets().getRootHash());
+    return ImmutableList.of(wallets().getRootHash(), transfers().getRootHash());
   }
 
   /**
@@ -59,17 +64,28 @@ public final class CryptocurrencySchema implements Schema {
   }
 
   /**
-   * Returns transactions history of the wallet.
+   * Returns a proof map of transfers, keyed by the hashes of the transfer transactions.
+   * Each transfer is stored once and is referenced by its hash from the history of both
+   * wallets.
+   */
+  public ProofMapIndexProxy<HashCode, HistoryEntity> transfers() {
+    String name = fullIndexName("transfers");
+    return ProofMapIndexProxy.newInstance(name, view, StandardSerializers.hash(),
+        HistoryEntitySerializer.INSTANCE);
+  }
+
+  /**
+   * Returns transactions history of the wallet: the hashes of its transfers,
+   * in the order of their execution. The transfers are stored in {@link #transfers()}.
    *
    * @param key wallet address
    * @return transactions history
    */
-  //TODO: replace by HashCode instead of HistoryEntity when blockchain::Schema will be supported
-  public ListIndexProxy<HistoryEntity> walletHistory(PublicKey key) {
+  public ProofListIndexProxy<HashCode> walletHistory(PublicKey key) {
     String name = fullIndexName("wallet_history");
 
-    return ListIndexProxy.newInGroupUnsafe(name, key.toBytes(), view,
-        HistoryEntitySerializer.INSTANCE);
+    return ProofListIndexProxy.newInGroupUnsafe(name, key.toBytes(), view,
+        StandardSerializers.hash());
   }
 
   private static String fullIndexName(String name) {
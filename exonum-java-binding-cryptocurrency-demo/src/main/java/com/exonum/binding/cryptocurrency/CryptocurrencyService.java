@@ -20,7 +20,8 @@ import com.exonum.binding.common.crypto.PublicKey;
 import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.service.Service;
 import com.exonum.binding.transaction.Transaction;
-import java.util.List;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 public interface CryptocurrencyService extends Service {
@@ -31,5 +32,45 @@ public interface CryptocurrencyService extends Service {
 
   Optional<Wallet> getWallet(PublicKey ownerKey);
 
-  List<HistoryEntity> getWalletHistory(PublicKey ownerKey);
+  /**
+   * Returns the wallets of the given owners. The wallets are read from a single database
+   * snapshot in one batch.
+   *
+   * @param ownerKeys the keys of the wallet owners
+   * @return a map of the owners that have a wallet to their wallets
+   */
+  Map<PublicKey, Wallet> getWallets(Collection<PublicKey> ownerKeys);
+
+  /**
+   * Returns the wallets of the given owners with a single proof of all of them,
+   * read from the same database snapshot.
+   *
+   * @param ownerKeys the keys of the wallet owners
+   * @throws IllegalArgumentException if the collection of keys is empty
+   */
+  WalletsWithProof getWalletsWithProof(Collection<PublicKey> ownerKeys);
+
+  /**
+   * Returns the first page of the wallet history, which has the newest entries.
+   *
+   * @param ownerKey the key of the wallet owner
+   * @param limit the maximum number of entries in the page
+   * @throws IllegalArgumentException if the limit is not positive
+   */
+  HistoryPage getWalletHistory(PublicKey ownerKey, int limit);
+
+  /**
+   * Returns a page of the wallet history, starting with the entry at the given index
+   * and going back to older entries. The index is usually taken from
+   * {@link HistoryPage#getNextIndex()} of the previous page.
+   *
+   * <p>As the wallet history is only appended to, the entries at the given index and
+   * below do not change, therefore, the subsequent pages are consistent with the first one.
+   *
+   * @param ownerKey the key of the wallet owner
+   * @param fromIndex the index in the wallet history of the newest entry in the page
+   * @param limit the maximum number of entries in the page
+   * @throws IllegalArgumentException if the index is negative or the limit is not positive
+   */
+  HistoryPage getWalletHistory(PublicKey ownerKey, long fromIndex, int limit);
 }
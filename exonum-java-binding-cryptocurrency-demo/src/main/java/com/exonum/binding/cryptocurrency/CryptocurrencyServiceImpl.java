@@ -16,12 +16,14 @@
 
 package com.exonum.binding.cryptocurrency;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 
 import com.exonum.binding.common.crypto.CryptoFunction;
 import com.exonum.binding.common.crypto.CryptoFunctions;
 import com.exonum.binding.common.crypto.PublicKey;
 import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.proofs.map.EncodedFlatMapProof;
 import com.exonum.binding.service.AbstractService;
 import com.exonum.binding.service.InternalServerError;
 import com.exonum.binding.service.InvalidTransactionException;
@@ -32,12 +34,18 @@ import com.exonum.binding.storage.database.Fork;
 import com.exonum.binding.storage.database.View;
 import com.exonum.binding.storage.indices.ListIndex;
 import com.exonum.binding.storage.indices.MapIndex;
+import com.exonum.binding.storage.indices.ProofMapIndexProxy;
 import com.exonum.binding.transaction.Transaction;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
 import com.google.inject.Inject;
 import io.vertx.ext.web.Router;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
 /** A cryptocurrency demo service. */
@@ -100,22 +108,91 @@ public final class CryptocurrencyServiceImpl extends AbstractService
   }
 
   @Override
-  public List<HistoryEntity> getWalletHistory(PublicKey ownerKey) {
+  @SuppressWarnings("ConstantConditions")
+  public Map<PublicKey, Wallet> getWallets(Collection<PublicKey> ownerKeys) {
     checkBlockchainInitialized();
 
+    return node.withSnapshot((view) -> {
+      CryptocurrencySchema schema = new CryptocurrencySchema(view);
+      ProofMapIndexProxy<PublicKey, Wallet> wallets = schema.wallets();
+
+      return wallets.getAll(ownerKeys);
+    });
+  }
+
+  @Override
+  @SuppressWarnings("ConstantConditions")
+  public WalletsWithProof getWalletsWithProof(Collection<PublicKey> ownerKeys) {
+    checkBlockchainInitialized();
+    checkArgument(!ownerKeys.isEmpty(), "No owner keys");
+
+    return node.withSnapshot((view) -> {
+      CryptocurrencySchema schema = new CryptocurrencySchema(view);
+      ProofMapIndexProxy<PublicKey, Wallet> wallets = schema.wallets();
+
+      EncodedFlatMapProof proof = wallets.getEncodedProof(ownerKeys);
+      // The proof contains the wallets of the owners, so they are not read from the map again
+      Map<PublicKey, Wallet> ownerWallets = proof.getUncheckedEntries().stream()
+          .collect(Collectors.toMap(
+              entry -> PublicKey.fromBytes(entry.getKey().toByteArray()),
+              entry -> WalletSerializer.INSTANCE.fromBytes(entry.getValue().toByteArray())));
+      return new WalletsWithProof(ownerWallets, proof);
+    });
+  }
+
+  @Override
+  @SuppressWarnings("ConstantConditions")
+  public HistoryPage getWalletHistory(PublicKey ownerKey, int limit) {
+    checkBlockchainInitialized();
+    checkLimit(limit);
+
     return node.withSnapshot(view -> {
       CryptocurrencySchema schema = new CryptocurrencySchema(view);
-      ListIndex<HistoryEntity> history = schema.walletHistory(ownerKey);
+      ListIndex<HashCode> history = schema.walletHistory(ownerKey);
+
+      return readHistoryPage(history, schema.transfers(), history.size() - 1, limit);
+    });
+  }
+
+  @Override
+  @SuppressWarnings("ConstantConditions")
+  public HistoryPage getWalletHistory(PublicKey ownerKey, long fromIndex, int limit) {
+    checkBlockchainInitialized();
+    checkArgument(fromIndex >= 0, "fromIndex (%s) must be non-negative", fromIndex);
+    checkLimit(limit);
 
-      List<HistoryEntity> result = new ArrayList<>();
-      for (HistoryEntity tx : history) {
-        result.add(tx);
-      }
+    return node.withSnapshot(view -> {
+      CryptocurrencySchema schema = new CryptocurrencySchema(view);
+      ListIndex<HashCode> history = schema.walletHistory(ownerKey);
 
-      return result;
+      return readHistoryPage(history, schema.transfers(), fromIndex, limit);
     });
   }
 
+  /**
+   * Reads the hashes of the transfers in range {@code (fromIndex - limit, fromIndex]}
+   * with a single iterator, gets the transfers with a single batched read,
+   * and returns them newest first.
+   */
+  @VisibleForTesting
+  static HistoryPage readHistoryPage(ListIndex<HashCode> history,
+      ProofMapIndexProxy<HashCode, HistoryEntity> transfers, long fromIndex, int limit) {
+    long start = Math.max(0L, fromIndex - limit + 1);
+    int size = (int) (fromIndex - start + 1);
+    List<HashCode> transferHashes = ImmutableList.copyOf(
+        Iterators.limit(history.iterator(start), size))
+        .reverse();
+    Map<HashCode, HistoryEntity> transfersByHash = transfers.getAll(transferHashes);
+    List<HistoryEntity> entries = transferHashes.stream()
+        .map(transfersByHash::get)
+        .collect(Collectors.toList());
+    return new HistoryPage(entries, start - 1);
+  }
+
+  private static void checkLimit(int limit) {
+    checkArgument(limit > 0, "limit (%s) must be positive", limit);
+  }
+
   private void checkBlockchainInitialized() {
     checkState(node != null, "Service has not been fully initialized yet");
   }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.cryptocurrency;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * A page of the wallet history, with the newest entries first.
+ */
+public final class HistoryPage {
+
+  private final List<HistoryEntity> entries;
+  private final long nextIndex;
+
+  /**
+   * Creates a page of the wallet history.
+   *
+   * @param entries the entries of the page, newest first
+   * @param nextIndex the index in the wallet history of the newest entry of the next page,
+   *     or -1 if this is the last page
+   */
+  public HistoryPage(List<HistoryEntity> entries, long nextIndex) {
+    checkArgument(nextIndex >= -1, "Invalid next index: %s", nextIndex);
+    this.entries = ImmutableList.copyOf(checkNotNull(entries));
+    this.nextIndex = nextIndex;
+  }
+
+  /**
+   * Returns the entries of this page, newest first.
+   */
+  public List<HistoryEntity> getEntries() {
+    return entries;
+  }
+
+  /**
+   * Returns the index in the wallet history of the newest entry of the next page,
+   * which has older entries than this page; or an empty optional if this is the last page.
+   */
+  public OptionalLong getNextIndex() {
+    return nextIndex == -1 ? OptionalLong.empty() : OptionalLong.of(nextIndex);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    HistoryPage that = (HistoryPage) o;
+    return nextIndex == that.nextIndex
+        && Objects.equal(entries, that.entries);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(entries, nextIndex);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("entries", entries)
+        .add("nextIndex", nextIndex)
+        .toString();
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.cryptocurrency;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.exonum.binding.common.crypto.PublicKey;
+import com.exonum.binding.common.proofs.map.EncodedFlatMapProof;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+
+/**
+ * Wallets of several owners with a proof of their presence or absence in the wallets
+ * proof map. The wallets and the proof are read from the same database snapshot.
+ */
+public final class WalletsWithProof {
+
+  private final Map<PublicKey, Wallet> wallets;
+  private final EncodedFlatMapProof proof;
+
+  public WalletsWithProof(Map<PublicKey, Wallet> wallets, EncodedFlatMapProof proof) {
+    this.wallets = ImmutableMap.copyOf(wallets);
+    this.proof = checkNotNull(proof);
+  }
+
+  /**
+   * Returns the wallets of the requested owners that have one.
+   */
+  public Map<PublicKey, Wallet> getWallets() {
+    return wallets;
+  }
+
+  /**
+   * Returns a proof of the wallets of all the requested owners, including the owners
+   * that do not have a wallet.
+   */
+  public EncodedFlatMapProof getProof() {
+    return proof;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("wallets", wallets)
+        .add("proof", proof)
+        .toString();
+  }
+}
@@ -20,6 +20,7 @@ import static com.exonum.binding.cryptocurrency.CryptocurrencyServiceImpl.CRYPTO
 import static com.exonum.binding.cryptocurrency.transactions.TransactionPreconditions.checkTransaction;
 
 import com.exonum.binding.common.crypto.PublicKey;
+import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.common.message.BinaryMessage;
 import com.exonum.binding.cryptocurrency.CryptocurrencySchema;
 import com.exonum.binding.cryptocurrency.HistoryEntity;
@@ -87,6 +88,8 @@ public final class TransferTx extends AbstractTransaction implements Transaction
 
   @Override
   public void execute(Fork view) {
+    // Apply the wallet updates and the history records in a single native call
+    view.enableWriteBuffering();
     CryptocurrencySchema schema = new CryptocurrencySchema(view);
     ProofMapIndexProxy<PublicKey, Wallet> wallets = schema.wallets();
     if (wallets.containsKey(fromWallet) && wallets.containsKey(toWallet)) {
@@ -98,15 +101,18 @@ public final class TransferTx extends AbstractTransaction implements Transaction
       wallets.put(fromWallet, new Wallet(from.getBalance() - sum));
       wallets.put(toWallet, new Wallet(to.getBalance() + sum));
 
+      HashCode txHash = hash();
       HistoryEntity historyEntity = Builder.newBuilder()
           .setSeed(seed)
           .setWalletFrom(fromWallet)
           .setWalletTo(toWallet)
           .setAmount(sum)
-          .setTransactionHash(hash())
+          .setTransactionHash(txHash)
           .build();
-      schema.walletHistory(fromWallet).add(historyEntity);
-      schema.walletHistory(toWallet).add(historyEntity);
+      // Store the transfer once and reference it from the history of each wallet
+      schema.transfers().put(txHash, historyEntity);
+      schema.walletHistory(fromWallet).add(txHash);
+      schema.walletHistory(toWallet).add(txHash);
     }
   }
 
@@ -16,6 +16,13 @@
 
 package com.exonum.binding.cryptocurrency;
 
+import static com.exonum.binding.cryptocurrency.ApiController.CURSOR_PARAM;
+import static com.exonum.binding.cryptocurrency.ApiController.DEFAULT_HISTORY_PAGE_SIZE;
+import static com.exonum.binding.cryptocurrency.ApiController.GET_WALLETS_PATH;
+import static com.exonum.binding.cryptocurrency.ApiController.LIMIT_PARAM;
+import static com.exonum.binding.cryptocurrency.ApiController.MAX_WALLETS_PER_REQUEST;
+import static com.exonum.binding.cryptocurrency.ApiController.NEXT_CURSOR_HEADER;
+import static com.exonum.binding.cryptocurrency.ApiController.PROOF_PARAM;
 import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
 import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
 import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
@@ -34,10 +41,17 @@ import static org.mockito.Mockito.when;
 import com.exonum.binding.common.crypto.PublicKey;
 import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.common.message.BinaryMessage;
+import com.exonum.binding.common.proofs.map.EncodedFlatMapProof;
 import com.exonum.binding.cryptocurrency.transactions.CryptocurrencyTransactionGson;
 import com.exonum.binding.cryptocurrency.transactions.CryptocurrencyTransactionTemplate;
 import com.exonum.binding.service.InternalServerError;
 import com.exonum.binding.transaction.Transaction;
+import com.exonum.binding.transport.PageCursors;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
@@ -51,7 +65,9 @@ import io.vertx.junit5.VertxTestContext;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Type;
 import java.net.URLEncoder;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -254,13 +270,15 @@ class ApiControllerTest {
             .setTransactionHash(HashCode.fromString("a0a0a0"))
             .build()
     );
-    when(service.getWalletHistory(fromKey)).thenReturn(history);
+    when(service.getWalletHistory(fromKey, DEFAULT_HISTORY_PAGE_SIZE))
+        .thenReturn(new HistoryPage(history, -1));
 
     String uri = getWalletUri(fromKey) + "/history";
 
     get(uri)
         .send(context.succeeding(response -> context.verify(() -> {
           assertThat(response.statusCode()).isEqualTo(HTTP_OK);
+          assertThat(response.getHeader(NEXT_CURSOR_HEADER)).isNull();
 
           List<HistoryEntity> actualHistory = parseWalletHistory(response);
 
@@ -272,7 +290,8 @@ class ApiControllerTest {
 
   @Test
   void getWalletHistoryNonexistentWallet(VertxTestContext context) {
-    when(service.getWalletHistory(fromKey)).thenReturn(emptyList());
+    when(service.getWalletHistory(fromKey, DEFAULT_HISTORY_PAGE_SIZE))
+        .thenReturn(new HistoryPage(emptyList(), -1));
 
     String uri = getWalletUri(fromKey) + "/history";
 
@@ -284,6 +303,133 @@ class ApiControllerTest {
         })));
   }
 
+  @Test
+  void getWalletHistoryFollowsCursor(VertxTestContext context) {
+    List<HistoryEntity> history = singletonList(
+        HistoryEntity.Builder.newBuilder()
+            .setSeed(2L)
+            .setWalletFrom(fromKey)
+            .setWalletTo(fromKey)
+            .setAmount(20L)
+            .setTransactionHash(HashCode.fromString("b0b0b0"))
+            .build()
+    );
+    long fromIndex = 10L;
+    int limit = 1;
+    when(service.getWalletHistory(fromKey, fromIndex, limit))
+        .thenReturn(new HistoryPage(history, fromIndex - limit));
+
+    String uri = getWalletUri(fromKey) + "/history";
+
+    get(uri)
+        .addQueryParam(CURSOR_PARAM, PageCursors.encode(fromIndex))
+        .addQueryParam(LIMIT_PARAM, String.valueOf(limit))
+        .send(context.succeeding(response -> context.verify(() -> {
+          assertThat(response.statusCode()).isEqualTo(HTTP_OK);
+          assertThat(response.getHeader(NEXT_CURSOR_HEADER))
+              .isEqualTo(PageCursors.encode(fromIndex - limit));
+          assertThat(parseWalletHistory(response)).isEqualTo(history);
+          context.completeNow();
+        })));
+  }
+
+  @Test
+  void getWalletHistoryInvalidLimit(VertxTestContext context) {
+    String uri = getWalletUri(fromKey) + "/history";
+
+    get(uri)
+        .addQueryParam(LIMIT_PARAM, "0")
+        .send(context.succeeding(response -> context.verify(() -> {
+          assertThat(response.statusCode()).isEqualTo(HTTP_BAD_REQUEST);
+          assertThat(response.bodyAsString()).startsWith("Invalid limit");
+          context.completeNow();
+        })));
+  }
+
+  @Test
+  void getWallets(VertxTestContext context) {
+    PublicKey toKey = PredefinedOwnerKeys.secondOwnerKey;
+    Map<PublicKey, Wallet> wallets = ImmutableMap.of(fromKey, new Wallet(10L));
+    when(service.getWallets(ImmutableSet.of(fromKey, toKey))).thenReturn(wallets);
+
+    String body = CryptocurrencyTransactionGson.instance()
+        .toJson(ImmutableList.of(fromKey, toKey, fromKey));
+
+    post(GET_WALLETS_PATH)
+        .sendBuffer(Buffer.buffer(body), context.succeeding(response -> context.verify(() -> {
+          assertThat(response.statusCode()).isEqualTo(HTTP_OK);
+
+          JsonObject json = parseJsonObject(response);
+          assertThat(parseWallets(json)).isEqualTo(wallets);
+          assertThat(json.has("proof")).isFalse();
+
+          context.completeNow();
+        })));
+  }
+
+  @Test
+  void getWalletsWithProof(VertxTestContext context) {
+    Map<PublicKey, Wallet> wallets = ImmutableMap.of(fromKey, new Wallet(10L));
+    byte[] proofBytes = {1, 2, 3, (byte) 0xAB};
+    EncodedFlatMapProof proof = mock(EncodedFlatMapProof.class);
+    when(proof.toByteArray()).thenReturn(proofBytes);
+    when(service.getWalletsWithProof(ImmutableSet.of(fromKey)))
+        .thenReturn(new WalletsWithProof(wallets, proof));
+
+    String body = CryptocurrencyTransactionGson.instance()
+        .toJson(ImmutableList.of(fromKey));
+
+    post(GET_WALLETS_PATH)
+        .addQueryParam(PROOF_PARAM, "true")
+        .sendBuffer(Buffer.buffer(body), context.succeeding(response -> context.verify(() -> {
+          assertThat(response.statusCode()).isEqualTo(HTTP_OK);
+
+          JsonObject json = parseJsonObject(response);
+          assertThat(parseWallets(json)).isEqualTo(wallets);
+          assertThat(json.get("proof").getAsString()).isEqualTo("010203ab");
+
+          context.completeNow();
+        })));
+  }
+
+  @Test
+  void getWalletsTooManyKeys(VertxTestContext context) {
+    List<PublicKey> keys = Collections.nCopies(MAX_WALLETS_PER_REQUEST + 1, fromKey);
+    String body = CryptocurrencyTransactionGson.instance().toJson(keys);
+
+    post(GET_WALLETS_PATH)
+        .sendBuffer(Buffer.buffer(body), context.succeeding(response -> context.verify(() -> {
+          assertThat(response.statusCode()).isEqualTo(HTTP_BAD_REQUEST);
+          assertThat(response.bodyAsString()).startsWith("Too many wallet keys");
+          verify(service, never()).getWallets(any());
+
+          context.completeNow();
+        })));
+  }
+
+  @Test
+  void getWalletsInvalidKeys(VertxTestContext context) {
+    post(GET_WALLETS_PATH)
+        .sendBuffer(Buffer.buffer("[\"Not a key\"]"),
+            context.succeeding(response -> context.verify(() -> {
+              assertThat(response.statusCode()).isEqualTo(HTTP_BAD_REQUEST);
+              assertThat(response.bodyAsString()).startsWith("Invalid wallet keys");
+
+              context.completeNow();
+            })));
+  }
+
+  private static JsonObject parseJsonObject(HttpResponse<Buffer> response) {
+    return new JsonParser().parse(response.bodyAsString()).getAsJsonObject();
+  }
+
+  private static Map<PublicKey, Wallet> parseWallets(JsonObject json) {
+    Type mapType = new TypeToken<Map<PublicKey, Wallet>>() {
+    }.getType();
+    return CryptocurrencyTransactionGson.instance()
+        .fromJson(json.get("wallets"), mapType);
+  }
+
   private List<HistoryEntity> parseWalletHistory(HttpResponse<Buffer> response) {
     Type listType = new TypeToken<List<HistoryEntity>>() {
     }.getType();
@@ -44,7 +44,9 @@ class CryptocurrencySchemaIntegrationTest {
       CryptocurrencySchema schema = new CryptocurrencySchema(view);
 
       HashCode walletsMerkleRoot = schema.wallets().getRootHash();
-      ImmutableList<HashCode> expectedHashes = ImmutableList.of(walletsMerkleRoot);
+      HashCode transfersMerkleRoot = schema.transfers().getRootHash();
+      ImmutableList<HashCode> expectedHashes = ImmutableList.of(walletsMerkleRoot,
+          transfersMerkleRoot);
 
       assertThat(schema.getStateHashes(), equalTo(expectedHashes));
     }
@@ -23,12 +23,13 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import com.exonum.binding.common.crypto.CryptoFunctions;
 import com.exonum.binding.common.crypto.KeyPair;
 import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.Hashing;
 import com.exonum.binding.proxy.Cleaner;
 import com.exonum.binding.proxy.CloseFailuresException;
 import com.exonum.binding.storage.database.Fork;
 import com.exonum.binding.storage.database.MemoryDb;
 import com.exonum.binding.storage.database.Snapshot;
-import com.exonum.binding.storage.indices.ListIndexProxy;
+import com.exonum.binding.storage.indices.ProofListIndexProxy;
 import com.exonum.binding.test.RequiresNativeLibrary;
 import com.exonum.binding.util.LibraryLoader;
 import org.junit.jupiter.api.Test;
@@ -47,7 +48,7 @@ class CryptocurrencySchemaWalletHistoryIntegrationTest {
           .setWalletFrom(keyPair.getPublicKey())
           .setWalletTo(keyPair.getPublicKey())
           .setAmount(10L)
-          .setTransactionHash(HashCode.fromString("a0a0a0"))
+          .setTransactionHash(Hashing.sha256().hashInt(1))
           .build();
 
   @Test
@@ -68,12 +69,15 @@ class CryptocurrencySchemaWalletHistoryIntegrationTest {
       Fork fork = db.createFork(cleaner);
       CryptocurrencySchema schema = new CryptocurrencySchema(fork);
 
-      schema.walletHistory(keyPair.getPublicKey()).add(testTransfer);
+      HashCode transferHash = testTransfer.getTransactionHash();
+      schema.transfers().put(transferHash, testTransfer);
+      schema.walletHistory(keyPair.getPublicKey()).add(transferHash);
 
-      ListIndexProxy<HistoryEntity> history = schema.walletHistory(keyPair.getPublicKey());
+      ProofListIndexProxy<HashCode> history = schema.walletHistory(keyPair.getPublicKey());
       assertFalse(history.isEmpty());
 
-      assertThat(history.get(0)).isEqualTo(testTransfer);
+      assertThat(history.get(0)).isEqualTo(transferHash);
+      assertThat(schema.transfers().get(history.get(0))).isEqualTo(testTransfer);
     }
   }
 
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018 The Exonum Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exonum.binding.cryptocurrency;
+
+import static com.exonum.binding.cryptocurrency.CryptocurrencyServiceImpl.readHistoryPage;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.storage.indices.ListIndex;
+import com.exonum.binding.storage.indices.ProofMapIndexProxy;
+import com.google.common.collect.ImmutableList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class CryptocurrencyServiceImplTest {
+
+  @Test
+  void readHistoryPageEmptyHistory() {
+    List<HistoryEntity> entries = createEntries(0);
+    ListIndex<HashCode> history = historyOf(entries);
+    ProofMapIndexProxy<HashCode, HistoryEntity> transfers = transfersOf(entries);
+
+    HistoryPage page = readHistoryPage(history, transfers, -1, 10);
+
+    assertThat(page.getEntries()).isEmpty();
+    assertThat(page.getNextIndex()).isEmpty();
+  }
+
+  @Test
+  void readHistoryPageNewestFirst() {
+    List<HistoryEntity> entries = createEntries(5);
+    ListIndex<HashCode> history = historyOf(entries);
+    ProofMapIndexProxy<HashCode, HistoryEntity> transfers = transfersOf(entries);
+
+    HistoryPage page = readHistoryPage(history, transfers, 4, 2);
+
+    assertThat(page.getEntries()).containsExactly(entries.get(4), entries.get(3));
+    assertThat(page.getNextIndex()).isEqualTo(OptionalLong.of(2));
+  }
+
+  @Test
+  void readHistoryPageLastPage() {
+    List<HistoryEntity> entries = createEntries(5);
+    ListIndex<HashCode> history = historyOf(entries);
+    ProofMapIndexProxy<HashCode, HistoryEntity> transfers = transfersOf(entries);
+
+    HistoryPage page = readHistoryPage(history, transfers, 1, 2);
+
+    assertThat(page.getEntries()).containsExactly(entries.get(1), entries.get(0));
+    assertThat(page.getNextIndex()).isEmpty();
+  }
+
+  @Test
+  void readHistoryPageLimitExceedsRemainingEntries() {
+    List<HistoryEntity> entries = createEntries(3);
+    ListIndex<HashCode> history = historyOf(entries);
+    ProofMapIndexProxy<HashCode, HistoryEntity> transfers = transfersOf(entries);
+
+    HistoryPage page = readHistoryPage(history, transfers, 2, 10);
+
+    assertThat(page.getEntries()).isEqualTo(ImmutableList.copyOf(entries).reverse());
+    assertThat(page.getNextIndex()).isEmpty();
+  }
+
+  @Test
+  void readAllPages() {
+    int size = 7;
+    int limit = 3;
+    List<HistoryEntity> entries = createEntries(size);
+    ListIndex<HashCode> history = historyOf(entries);
+    ProofMapIndexProxy<HashCode, HistoryEntity> transfers = transfersOf(entries);
+
+    ImmutableList.Builder<HistoryEntity> allEntries = ImmutableList.builder();
+    OptionalLong fromIndex = OptionalLong.of(size - 1);
+    while (fromIndex.isPresent()) {
+      HistoryPage page = readHistoryPage(history, transfers, fromIndex.getAsLong(), limit);
+      assertThat(page.getEntries().size()).isLessThanOrEqualTo(limit);
+      allEntries.addAll(page.getEntries());
+      fromIndex = page.getNextIndex();
+    }
+
+    assertThat(allEntries.build()).isEqualTo(ImmutableList.copyOf(entries).reverse());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ListIndex<HashCode> historyOf(List<HistoryEntity> entries) {
+    List<HashCode> hashes = entries.stream()
+        .map(HistoryEntity::getTransactionHash)
+        .collect(Collectors.toList());
+    ListIndex<HashCode> history = mock(ListIndex.class);
+    when(history.iterator(anyLong())).thenAnswer(invocation -> {
+      long fromIndex = invocation.getArgument(0);
+      int from = (int) Math.min(fromIndex, hashes.size());
+      return hashes.subList(from, hashes.size()).iterator();
+    });
+    return history;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ProofMapIndexProxy<HashCode, HistoryEntity> transfersOf(
+      List<HistoryEntity> entries) {
+    Map<HashCode, HistoryEntity> transfersByHash = entries.stream()
+        .collect(Collectors.toMap(HistoryEntity::getTransactionHash, e -> e));
+    ProofMapIndexProxy<HashCode, HistoryEntity> transfers = mock(ProofMapIndexProxy.class);
+    when(transfers.getAll(anyCollection())).thenAnswer(invocation -> {
+      Collection<HashCode> hashes = invocation.getArgument(0);
+      return hashes.stream()
+          .collect(Collectors.toMap(h -> h, transfersByHash::get));
+    });
+    return transfers;
+  }
+
+  private static List<HistoryEntity> createEntries(int size) {
+    return IntStream.range(0, size)
+        .mapToObj(i -> HistoryEntity.Builder.newBuilder()
+            .setSeed(i)
+            .setWalletFrom(PredefinedOwnerKeys.firstOwnerKey)
+            .setWalletTo(PredefinedOwnerKeys.secondOwnerKey)
+            .setAmount(i)
+            .setTransactionHash(HashCode.fromInt(i))
+            .build())
+        .collect(Collectors.toList());
+  }
+}
@@ -27,7 +27,7 @@ import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 
 import com.exonum.binding.common.crypto.PublicKey;
-import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.Hashing;
 import com.exonum.binding.common.message.BinaryMessage;
 import com.exonum.binding.cryptocurrency.CryptocurrencySchema;
 import com.exonum.binding.cryptocurrency.HistoryEntity;
@@ -98,10 +98,12 @@ class TransferTxHistoryTest {
           .setAmount(transferSum2)
           .setTransactionHash(tx2.hash())
           .build();
+      assertThat(schema.transfers().get(tx1.hash()), equalTo(expectedEntity));
+      assertThat(schema.transfers().get(tx2.hash()), equalTo(expectedEntity2));
       assertThat(schema.walletHistory(ACCOUNT_1),
-          allOf(iterableWithSize(2), hasItem(expectedEntity), hasItem(expectedEntity2)));
+          allOf(iterableWithSize(2), hasItem(tx1.hash()), hasItem(tx2.hash())));
       assertThat(schema.walletHistory(ACCOUNT_2),
-          allOf(iterableWithSize(2), hasItem(expectedEntity), hasItem(expectedEntity2)));
+          allOf(iterableWithSize(2), hasItem(tx1.hash()), hasItem(tx2.hash())));
     }
 
   }
@@ -111,7 +113,7 @@ class TransferTxHistoryTest {
     // If a normal binary message object is ever needed, take the code from the 'fromMessage' test
     // and put it here, replacing `mock(BinaryMessage.class)`.
     BinaryMessage message = mock(BinaryMessage.class);
-    lenient().when(message.hash()).thenReturn(HashCode.fromString("a0a0a0a0"));
+    lenient().when(message.hash()).thenReturn(Hashing.sha256().hashLong(seed));
     return new TransferTx(message, seed, senderId, recipientId, amount);
   }
 
@@ -31,6 +31,7 @@ import static org.mockito.Mockito.mock;
 import com.exonum.binding.common.crypto.KeyPair;
 import com.exonum.binding.common.crypto.PublicKey;
 import com.exonum.binding.common.hash.HashCode;
+import com.exonum.binding.common.hash.Hashing;
 import com.exonum.binding.common.message.BinaryMessage;
 import com.exonum.binding.cryptocurrency.CryptocurrencySchema;
 import com.exonum.binding.cryptocurrency.HistoryEntity;
@@ -135,8 +136,9 @@ class TransferTxTest {
           .setAmount(transferSum)
           .setTransactionHash(tx.hash())
           .build();
-      assertThat(schema.walletHistory(fromKey), hasItem(expectedEntity));
-      assertThat(schema.walletHistory(toKey), hasItem(expectedEntity));
+      assertThat(schema.transfers().get(tx.hash()), equalTo(expectedEntity));
+      assertThat(schema.walletHistory(fromKey), hasItem(tx.hash()));
+      assertThat(schema.walletHistory(toKey), hasItem(tx.hash()));
     }
   }
 
@@ -237,7 +239,7 @@ class TransferTxTest {
     // If a normal binary message object is ever needed, take the code from the 'fromMessage' test
     // and put it here, replacing `mock(BinaryMessage.class)`.
     BinaryMessage message = mock(BinaryMessage.class);
-    lenient().when(message.hash()).thenReturn(HashCode.fromString("a0a0a0a0"));
+    lenient().when(message.hash()).thenReturn(Hashing.sha256().hashLong(seed));
     return new TransferTx(message, seed, senderId, recipientId, amount);
   }
 }
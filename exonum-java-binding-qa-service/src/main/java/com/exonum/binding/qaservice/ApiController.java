@@ -16,7 +16,9 @@
 
 package com.exonum.binding.qaservice;
 
-import static com.google.common.base.Preconditions.checkArgument;
+import static com.exonum.binding.transport.RequestParameters.getOptionalParameter;
+import static com.exonum.binding.transport.RequestParameters.getPageSize;
+import static com.exonum.binding.transport.RequestParameters.getRequiredParameter;
 import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
 import static java.net.HttpURLConnection.HTTP_CREATED;
 import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
@@ -27,14 +29,15 @@ import com.exonum.binding.common.hash.HashCode;
 import com.exonum.binding.common.serialization.json.StoredConfigurationGsonSerializer;
 import com.exonum.binding.qaservice.transactions.QaTransactionGson;
 import com.exonum.binding.service.InvalidTransactionException;
+import com.exonum.binding.transport.JsonResponses;
+import com.exonum.binding.transport.PageCursors;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
-import com.google.gson.Gson;
 import com.google.inject.Inject;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
-import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.BodyHandler;
@@ -69,12 +72,23 @@ final class ApiController {
   @VisibleForTesting
   static final String BLOCKCHAIN_HEIGHT_PATH = BLOCKCHAIN_ROOT + "/height";
   @VisibleForTesting
-  static final String BLOCKCHAIN_ALL_BLOCK_HASHES_PATH = BLOCKCHAIN_ROOT + "/block";
+  static final String BLOCKCHAIN_BLOCK_HASHES_PATH = BLOCKCHAIN_ROOT + "/block";
   private static final String BLOCK_HEIGHT_PARAM = "blockHeight";
   @VisibleForTesting
   static final String BLOCKCHAIN_BLOCK_TRANSACTIONS_PATH = BLOCKCHAIN_ROOT + "/block/:"
       + BLOCK_HEIGHT_PARAM + "/transactions";
 
+  @VisibleForTesting
+  static final String CURSOR_PARAM = "cursor";
+  @VisibleForTesting
+  static final String LIMIT_PARAM = "limit";
+  @VisibleForTesting
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  @VisibleForTesting
+  static final int DEFAULT_PAGE_SIZE = 100;
+  @VisibleForTesting
+  static final int MAX_PAGE_SIZE = 1000;
+
   private static final Logger logger = LogManager.getLogger(ApiController.class);
 
   private final QaService service;
@@ -102,7 +116,7 @@ final class ApiController {
             .put(SUBMIT_UNKNOWN_TX_PATH, this::submitUnknownTx)
             .put(GET_COUNTER_PATH, this::getCounter)
             .put(BLOCKCHAIN_HEIGHT_PATH, this::getHeight)
-            .put(BLOCKCHAIN_ALL_BLOCK_HASHES_PATH, this::getAllBlockHashes)
+            .put(BLOCKCHAIN_BLOCK_HASHES_PATH, this::getBlockHashes)
             .put(BLOCKCHAIN_BLOCK_TRANSACTIONS_PATH, this::getBlockTransactions)
             .put(GET_ACTUAL_CONFIGURATION_PATH, this::getActualConfiguration)
             .build();
@@ -114,7 +128,7 @@ final class ApiController {
 
   private void submitCreateCounter(RoutingContext rc) {
     MultiMap parameters = rc.request().params();
-    String name = getRequiredParameter(parameters, "name");
+    String name = getRequiredParameter(parameters, "name", Function.identity());
 
     HashCode txHash = service.submitCreateCounter(name);
     replyTxSubmitted(rc, txHash);
@@ -163,15 +177,13 @@ final class ApiController {
   }
 
   private void getCounter(RoutingContext rc) {
-    HashCode counterId = getRequiredParameter(rc.request(), COUNTER_ID_PARAM, HashCode::fromString);
+    HashCode counterId = getRequiredParameter(rc.request().params(), COUNTER_ID_PARAM,
+        HashCode::fromString);
 
     Optional<Counter> counter = service.getValue(counterId);
 
     if (counter.isPresent()) {
-      Gson gson = QaTransactionGson.instance();
-      rc.response()
-          .putHeader("Content-Type", "application/json")
-          .end(gson.toJson(counter.get()));
+      JsonResponses.end(rc.response(), QaTransactionGson.instance(), counter.get());
     } else {
       rc.response()
           .setStatusCode(HTTP_NOT_FOUND)
@@ -182,10 +194,7 @@ final class ApiController {
   private void getHeight(RoutingContext rc) {
     try {
       Height height = service.getHeight();
-      Gson gson = QaTransactionGson.instance();
-      rc.response()
-          .putHeader("Content-Type", "application/json")
-          .end(gson.toJson(height));
+      JsonResponses.end(rc.response(), QaTransactionGson.instance(), height);
     } catch (RuntimeException ex) {
       rc.response()
           .setStatusCode(HTTP_BAD_REQUEST)
@@ -193,54 +202,57 @@ final class ApiController {
     }
   }
 
-  private void getAllBlockHashes(RoutingContext rc) {
-    List<HashCode> hashes = service.getAllBlockHashes();
-    Gson gson = QaTransactionGson.instance();
-    rc.response()
-        .putHeader("Content-Type", "application/json")
-        .end(gson.toJson(hashes));
-  }
-
-  private void getBlockTransactions(RoutingContext rc) {
-    Long height = getRequiredParameter(rc.request().params(), BLOCK_HEIGHT_PARAM,
-        Long::parseLong);
+  private void getBlockHashes(RoutingContext rc) {
+    MultiMap parameters = rc.request().params();
+    long fromHeight = getPageStart(parameters);
+    int limit = getPageSize(parameters, LIMIT_PARAM, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
 
-    List<HashCode> hashes = service.getBlockTransactions(height);
-    Gson gson = QaTransactionGson.instance();
-    rc.response()
-        .putHeader("Content-Type", "application/json")
-        .end(gson.toJson(hashes));
+    // Request an extra element to find out if there is a next page
+    List<HashCode> hashes = service.getBlockHashes(fromHeight, limit + 1);
+    endPage(rc.response(), hashes, fromHeight, limit);
   }
 
-  private void getActualConfiguration(RoutingContext rc) {
-    StoredConfiguration configuration = service.getActualConfiguration();
-    String json = StoredConfigurationGsonSerializer.toJson(configuration);
+  private void getBlockTransactions(RoutingContext rc) {
+    MultiMap parameters = rc.request().params();
+    long height = getRequiredParameter(parameters, BLOCK_HEIGHT_PARAM, Long::parseLong);
+    long fromIndex = getPageStart(parameters);
+    int limit = getPageSize(parameters, LIMIT_PARAM, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
 
-    rc.response()
-        .putHeader("Content-Type", "application/json")
-        .end(json);
+    List<HashCode> hashes = service.getBlockTransactions(height, fromIndex, limit + 1);
+    endPage(rc.response(), hashes, fromIndex, limit);
   }
 
-  private static String getRequiredParameter(MultiMap parameters, String key) {
-    return getRequiredParameter(parameters, key, String::toString);
+  /**
+   * Returns the position of the first element of the requested page.
+   */
+  private static long getPageStart(MultiMap parameters) {
+    return getOptionalParameter(parameters, CURSOR_PARAM, PageCursors::decode)
+        .orElse(0L);
   }
 
-  private static <T> T getRequiredParameter(HttpServerRequest request, String key,
-      Function<String, T> converter) {
-    return getRequiredParameter(request.params(), key, converter);
+  /**
+   * Streams the first {@code limit} elements as the requested page, and, if there are more
+   * elements, passes the cursor of the next page in the {@link #NEXT_CURSOR_HEADER}.
+   *
+   * @param elements the elements of the page, possibly followed by the first element
+   *     of the next page
+   * @param pageStart the position of the first element of the page
+   * @param limit the page size
+   */
+  private static void endPage(HttpServerResponse response, List<HashCode> elements,
+      long pageStart, int limit) {
+    List<HashCode> page = elements;
+    if (elements.size() > limit) {
+      response.putHeader(NEXT_CURSOR_HEADER, PageCursors.encode(pageStart + limit));
+      page = elements.subList(0, limit);
+    }
+    JsonResponses.endArray(response, QaTransactionGson.instance(), page);
   }
 
-  private static <T> T getRequiredParameter(MultiMap parameters, String key,
-      Function<String, T> converter) {
-    checkArgument(parameters.contains(key), "No required key (%s) in request parameters: %s",
-        key, parameters);
-    String parameter = parameters.get(key);
-    try {
-      return converter.apply(parameter);
-    } catch (Exception e) {
-      String message = String.format("Failed to convert parameter (%s): %s", key, e.getMessage());
-      throw new IllegalArgumentException(message);
-    }
+  private void getActualConfiguration(RoutingContext rc) {
+    StoredConfiguration configuration = service.getActualConfiguration();
+    JsonResponses.end(rc.response(), StoredConfigurationGsonSerializer.instance(),
+        configuration);
   }
 
   private void replyTxSubmitted(RoutingContext rc, HashCode transactionHash) {
@@ -49,9 +49,16 @@ public interface QaService extends Service {
 
   Height getHeight();
 
-  List<HashCode> getAllBlockHashes();
-
-  List<HashCode> getBlockTransactions(long height);
+  /**
+   * Returns the hashes of at most {@code limit} blocks, starting at the given height.
+   */
+  List<HashCode> getBlockHashes(long fromHeight, int limit);
+
+  /**
+   * Returns the hashes of at most {@code limit} transactions committed in the block
+   * at the given height, starting at the given index in the block.
+   */
+  List<HashCode> getBlockTransactions(long height, long fromIndex, int limit);
 
   StoredConfiguration getActualConfiguration();
 }
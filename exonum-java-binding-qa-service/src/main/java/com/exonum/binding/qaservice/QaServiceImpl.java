@@ -39,12 +39,9 @@ import com.exonum.binding.service.TransactionConverter;
 import com.exonum.binding.storage.database.Fork;
 import com.exonum.binding.storage.database.Snapshot;
 import com.exonum.binding.storage.database.View;
-import com.exonum.binding.storage.indices.ListIndex;
 import com.exonum.binding.storage.indices.MapIndex;
-import com.exonum.binding.storage.indices.ProofListIndexProxy;
 import com.exonum.binding.transaction.Transaction;
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.Lists;
 import com.google.inject.Inject;
 import io.vertx.ext.web.Router;
 import java.nio.charset.StandardCharsets;
@@ -205,22 +202,18 @@ final class QaServiceImpl extends AbstractService implements QaService {
   }
 
   @Override
-  public List<HashCode> getAllBlockHashes() {
+  public List<HashCode> getBlockHashes(long fromHeight, int limit) {
     return node.withSnapshot((view) -> {
       Blockchain blockchain = Blockchain.newInstance(view);
-      ListIndex<HashCode> hashes = blockchain.getAllBlockHashes();
-
-      return Lists.newArrayList(hashes);
+      return blockchain.getBlockHashes(fromHeight, limit);
     });
   }
 
   @Override
-  public List<HashCode> getBlockTransactions(long height) {
+  public List<HashCode> getBlockTransactions(long height, long fromIndex, int limit) {
     return node.withSnapshot((view) -> {
       Blockchain blockchain = Blockchain.newInstance(view);
-      ProofListIndexProxy<HashCode> hashes = blockchain.getBlockTransactions(height);
-
-      return Lists.newArrayList(hashes);
+      return blockchain.getBlockTransactions(height, fromIndex, limit);
     });
   }
 
@@ -16,10 +16,15 @@
 
 package com.exonum.binding.qaservice;
 
-import static com.exonum.binding.qaservice.ApiController.BLOCKCHAIN_ALL_BLOCK_HASHES_PATH;
+import static com.exonum.binding.qaservice.ApiController.BLOCKCHAIN_BLOCK_HASHES_PATH;
 import static com.exonum.binding.qaservice.ApiController.BLOCKCHAIN_BLOCK_TRANSACTIONS_PATH;
 import static com.exonum.binding.qaservice.ApiController.BLOCKCHAIN_HEIGHT_PATH;
+import static com.exonum.binding.qaservice.ApiController.CURSOR_PARAM;
+import static com.exonum.binding.qaservice.ApiController.DEFAULT_PAGE_SIZE;
 import static com.exonum.binding.qaservice.ApiController.GET_ACTUAL_CONFIGURATION_PATH;
+import static com.exonum.binding.qaservice.ApiController.LIMIT_PARAM;
+import static com.exonum.binding.qaservice.ApiController.MAX_PAGE_SIZE;
+import static com.exonum.binding.qaservice.ApiController.NEXT_CURSOR_HEADER;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
 import static java.net.HttpURLConnection.HTTP_CREATED;
@@ -29,9 +34,9 @@ import static java.net.HttpURLConnection.HTTP_OK;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
-import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -46,6 +51,7 @@ import com.exonum.binding.common.serialization.json.StoredConfigurationGsonSeria
 import com.exonum.binding.qaservice.transactions.QaTransactionGson;
 import com.exonum.binding.service.InternalServerError;
 import com.exonum.binding.service.InvalidTransactionException;
+import com.exonum.binding.transport.PageCursors;
 import com.google.gson.reflect.TypeToken;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
@@ -388,48 +394,140 @@ class ApiControllerIntegrationTest {
   }
 
   @Test
-  void getAllBlockHashes(VertxTestContext context) {
+  void getBlockHashes(VertxTestContext context) {
     List<HashCode> blockHashes = Arrays.asList(HashCode.fromInt(0x00), HashCode.fromInt(0x01));
 
-    when(qaService.getAllBlockHashes()).thenReturn(blockHashes);
+    when(qaService.getBlockHashes(0L, DEFAULT_PAGE_SIZE + 1)).thenReturn(blockHashes);
 
-    get(BLOCKCHAIN_ALL_BLOCK_HASHES_PATH)
+    get(BLOCKCHAIN_BLOCK_HASHES_PATH)
         .send(context.succeeding(response -> context.verify(() -> {
           assertThat(response.statusCode())
               .isEqualTo(HTTP_OK);
+          assertThat(response.getHeader(NEXT_CURSOR_HEADER)).isNull();
 
-          String body = response.bodyAsString();
-          Object actualHashes = QaTransactionGson.instance()
-              .fromJson(body, new TypeToken<List<HashCode>>() {
-              }.getType());
+          List<HashCode> actualHashes = parseHashes(response.bodyAsString());
           assertThat(actualHashes).isEqualTo(blockHashes);
 
           context.completeNow();
         })));
   }
 
+  @Test
+  void getBlockHashesFollowsCursor(VertxTestContext context) {
+    List<HashCode> blockHashes = Arrays.asList(HashCode.fromInt(0x00), HashCode.fromInt(0x01),
+        HashCode.fromInt(0x02));
+    int limit = 2;
+
+    doReturn(blockHashes).when(qaService).getBlockHashes(0L, limit + 1);
+    doReturn(blockHashes.subList(2, 3)).when(qaService).getBlockHashes(2L, limit + 1);
+
+    get(BLOCKCHAIN_BLOCK_HASHES_PATH)
+        .addQueryParam(LIMIT_PARAM, String.valueOf(limit))
+        .send(context.succeeding(firstPage -> context.verify(() -> {
+          assertThat(firstPage.statusCode())
+              .isEqualTo(HTTP_OK);
+          assertThat(parseHashes(firstPage.bodyAsString()))
+              .isEqualTo(blockHashes.subList(0, 2));
+
+          String cursor = firstPage.getHeader(NEXT_CURSOR_HEADER);
+          assertThat(cursor).isNotNull();
+
+          get(BLOCKCHAIN_BLOCK_HASHES_PATH)
+              .addQueryParam(LIMIT_PARAM, String.valueOf(limit))
+              .addQueryParam(CURSOR_PARAM, cursor)
+              .send(context.succeeding(lastPage -> context.verify(() -> {
+                assertThat(lastPage.statusCode())
+                    .isEqualTo(HTTP_OK);
+                assertThat(lastPage.getHeader(NEXT_CURSOR_HEADER)).isNull();
+                assertThat(parseHashes(lastPage.bodyAsString()))
+                    .isEqualTo(blockHashes.subList(2, 3));
+
+                context.completeNow();
+              })));
+        })));
+  }
+
+  @Test
+  void getBlockHashesInvalidCursor(VertxTestContext context) {
+    get(BLOCKCHAIN_BLOCK_HASHES_PATH)
+        .addQueryParam(CURSOR_PARAM, "not a cursor")
+        .send(context.succeeding(response -> context.verify(() -> {
+          assertAll(
+              () -> assertThat(response.statusCode()).isEqualTo(HTTP_BAD_REQUEST),
+              () -> assertThat(response.bodyAsString())
+                  .startsWith("Failed to convert parameter (cursor):"));
+          context.completeNow();
+        })));
+  }
+
+  @Test
+  void getBlockHashesLimitTooLarge(VertxTestContext context) {
+    get(BLOCKCHAIN_BLOCK_HASHES_PATH)
+        .addQueryParam(LIMIT_PARAM, String.valueOf(MAX_PAGE_SIZE + 1))
+        .send(context.succeeding(response -> context.verify(() -> {
+          assertAll(
+              () -> assertThat(response.statusCode()).isEqualTo(HTTP_BAD_REQUEST),
+              () -> assertThat(response.bodyAsString())
+                  .startsWith("Invalid limit"));
+          context.completeNow();
+        })));
+  }
+
   @Test
   void getBlockTransactions(VertxTestContext context) {
     List<HashCode> transactionHashes = Arrays
         .asList(HashCode.fromInt(0x00), HashCode.fromInt(0x01));
+    long height = 123L;
 
-    when(qaService.getBlockTransactions(anyLong())).thenReturn(transactionHashes);
+    when(qaService.getBlockTransactions(height, 0L, DEFAULT_PAGE_SIZE + 1))
+        .thenReturn(transactionHashes);
 
-    get(BLOCKCHAIN_BLOCK_TRANSACTIONS_PATH.replace(":blockHeight", "123"))
+    get(BLOCKCHAIN_BLOCK_TRANSACTIONS_PATH.replace(":blockHeight", String.valueOf(height)))
         .send(context.succeeding(response -> context.verify(() -> {
           assertThat(response.statusCode())
               .isEqualTo(HTTP_OK);
+          assertThat(response.getHeader(NEXT_CURSOR_HEADER)).isNull();
 
-          String body = response.bodyAsString();
-          Object actualHashes = QaTransactionGson.instance()
-              .fromJson(body, new TypeToken<List<HashCode>>() {
-              }.getType());
+          List<HashCode> actualHashes = parseHashes(response.bodyAsString());
           assertThat(actualHashes).isEqualTo(transactionHashes);
 
           context.completeNow();
         })));
   }
 
+  @Test
+  void getBlockTransactionsWithCursor(VertxTestContext context) {
+    List<HashCode> transactionHashes = Arrays
+        .asList(HashCode.fromInt(0x05), HashCode.fromInt(0x06));
+    long height = 1L;
+    long fromIndex = 5L;
+    int limit = 1;
+
+    when(qaService.getBlockTransactions(height, fromIndex, limit + 1))
+        .thenReturn(transactionHashes);
+
+    get(BLOCKCHAIN_BLOCK_TRANSACTIONS_PATH.replace(":blockHeight", String.valueOf(height)))
+        .addQueryParam(CURSOR_PARAM, PageCursors.encode(fromIndex))
+        .addQueryParam(LIMIT_PARAM, String.valueOf(limit))
+        .send(context.succeeding(response -> context.verify(() -> {
+          assertThat(response.statusCode())
+              .isEqualTo(HTTP_OK);
+          assertThat(response.getHeader(NEXT_CURSOR_HEADER))
+              .isEqualTo(PageCursors.encode(fromIndex + limit));
+
+          List<HashCode> actualHashes = parseHashes(response.bodyAsString());
+          assertThat(actualHashes).isEqualTo(transactionHashes.subList(0, limit));
+
+          context.completeNow();
+        })));
+  }
+
+  private static List<HashCode> parseHashes(String json) {
+    return QaTransactionGson.instance()
+        .fromJson(json, new TypeToken<List<HashCode>>() {
+        }.getType());
+  }
+
   @Test
   void getActualConfiguration(VertxTestContext context) {
     StoredConfiguration configuration = createConfiguration();
@@ -293,12 +293,12 @@ class QaServiceImplIntegrationTest {
 
   @Test
   @RequiresNativeLibrary
-  void getAllBlockHashes() {
+  void getBlockHashes() {
     try (MemoryDb db = MemoryDb.newInstance()) {
       node = new NodeFake(db);
       setServiceNode(node);
 
-      List<HashCode> hashes = service.getAllBlockHashes();
+      List<HashCode> hashes = service.getBlockHashes(0L, 10);
       assertThat(hashes).isEmpty();
     }
   }
@@ -310,7 +310,7 @@ class QaServiceImplIntegrationTest {
       node = new NodeFake(db);
       setServiceNode(node);
 
-      List<HashCode> hashes = service.getBlockTransactions(0L);
+      List<HashCode> hashes = service.getBlockTransactions(0L, 0L, 10);
       assertThat(hashes).isEmpty();
     }
   }